@@ -0,0 +1,431 @@
+package com.example;
+
+import com.example.model.Cinema;
+import com.example.model.QueryPlan;
+import com.example.model.Session;
+import com.example.model.SessionOrder;
+import com.example.model.SessionQuery;
+import com.example.model.Ticket;
+import com.example.service.CinemaService;
+import com.example.service.ExportImportService;
+import com.example.service.StatisticsCache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BatchRunner {
+    private final CinemaService cinemaService;
+    private final ExportImportService exportImportService;
+    private final StatisticsCache statisticsCache;
+    private final PrintWriter out;
+    private final Map<String, Session> sessionsByAlias = new HashMap<>();
+    private final Map<String, Deque<String>> ticketsBySession = new HashMap<>();
+    private final Map<String, CommandTiming> timings = new LinkedHashMap<>();
+    private long executed;
+    private long failed;
+    
+    public BatchRunner(CinemaService cinemaService, ExportImportService exportImportService,
+                       StatisticsCache statisticsCache, PrintWriter out) {
+        this.cinemaService = cinemaService;
+        this.exportImportService = exportImportService;
+        this.statisticsCache = statisticsCache;
+        this.out = out;
+    }
+    
+    public void run(BufferedReader script) throws IOException {
+        long start = System.nanoTime();
+        String line;
+        int lineNumber = 0;
+        
+        while ((line = script.readLine()) != null) {
+            lineNumber++;
+            List<String> tokens;
+            try {
+                tokens = tokenize(line);
+            } catch (IllegalArgumentException e) {
+                executed++;
+                failed++;
+                out.printf("line %d: %s%n", lineNumber, e.getMessage());
+                continue;
+            }
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            
+            String command = tokens.get(0).toLowerCase();
+            long commandStart = System.nanoTime();
+            try {
+                execute(command, tokens);
+            } catch (IllegalArgumentException | IllegalStateException | IOException e) {
+                failed++;
+                out.printf("line %d: %s failed: %s%n", lineNumber, command, e.getMessage());
+            }
+            timings.computeIfAbsent(command, CommandTiming::new).record(System.nanoTime() - commandStart);
+            executed++;
+        }
+        
+        printSummary(System.nanoTime() - start);
+        out.flush();
+    }
+    
+    public long getExecuted() {
+        return executed;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public Map<String, CommandTiming> getTimings() {
+        return timings;
+    }
+    
+    private void execute(String command, List<String> args) throws IOException {
+        switch (command) {
+            case "session":
+                addSession(args);
+                break;
+            case "buy":
+                buy(args);
+                break;
+            case "refund":
+                refund(args);
+                break;
+            case "move":
+                move(args);
+                break;
+            case "remove":
+                removeSession(args);
+                break;
+            case "export":
+                export(args);
+                break;
+            case "import":
+                importCinema(args);
+                break;
+            case "stats":
+                printStats();
+                break;
+            case "find":
+                find(args);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command");
+        }
+    }
+    
+    private void addSession(List<String> args) {
+        expectArgs(args, 6, "session <alias> <title> <yyyy-MM-ddTHH:mm> <seats> <price>");
+        Session session = new Session(args.get(2), parseDateTime(args.get(3)),
+                                      parseInt(args.get(4)), parseDouble(args.get(5)));
+        cinemaService.addSession(session);
+        sessionsByAlias.put(args.get(1), session);
+    }
+    
+    private void buy(List<String> args) {
+        expectArgs(args, 3, "buy <session> <count>");
+        Session session = resolve(args.get(1));
+        List<Ticket> tickets = cinemaService.buyTickets(session, parseInt(args.get(2)));
+        Deque<String> owned = ticketsBySession.computeIfAbsent(session.getId(), id -> new ArrayDeque<>());
+        for (Ticket ticket : tickets) {
+            owned.push(ticket.getId());
+        }
+    }
+    
+    private void refund(List<String> args) {
+        expectArgs(args, 2, "refund <session> [count]");
+        Session session = resolve(args.get(1));
+        int count = args.size() > 2 ? parseInt(args.get(2)) : 1;
+        Deque<String> owned = ownedTickets(session, count);
+        for (int i = 0; i < count; i++) {
+            if (!cinemaService.deleteTicket(owned.pop())) {
+                throw new IllegalStateException("Ticket no longer exists");
+            }
+        }
+    }
+    
+    private void move(List<String> args) {
+        expectArgs(args, 3, "move <from-session> <to-session> [count]");
+        Session from = resolve(args.get(1));
+        Session to = resolve(args.get(2));
+        int count = args.size() > 3 ? parseInt(args.get(3)) : 1;
+        Deque<String> owned = ownedTickets(from, count);
+        Deque<String> target = ticketsBySession.computeIfAbsent(to.getId(), id -> new ArrayDeque<>());
+        for (int i = 0; i < count; i++) {
+            String ticketId = owned.pop();
+            if (!cinemaService.updateTicketSession(ticketId, to.getId())) {
+                throw new IllegalStateException("Ticket could not be moved");
+            }
+            target.push(ticketId);
+        }
+    }
+    
+    private void removeSession(List<String> args) {
+        expectArgs(args, 2, "remove <session>");
+        Session session = resolve(args.get(1));
+        if (!cinemaService.removeSession(session)) {
+            throw new IllegalStateException("Session is not in the cinema");
+        }
+        sessionsByAlias.values().remove(session);
+        ticketsBySession.remove(session.getId());
+    }
+    
+    private void export(List<String> args) throws IOException {
+        expectArgs(args, 2, "export <file> [title|date|seats]");
+        int sortOption = ExportImportService.NO_SORT;
+        if (args.size() > 2) {
+            switch (args.get(2).toLowerCase()) {
+                case "title":
+                    sortOption = ExportImportService.SORT_BY_TITLE;
+                    break;
+                case "date":
+                    sortOption = ExportImportService.SORT_BY_DATE;
+                    break;
+                case "seats":
+                    sortOption = ExportImportService.SORT_BY_SEATS;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown sort option: " + args.get(2));
+            }
+        }
+        
+        Cinema snapshot = cinemaService.withConsistentView(Cinema::snapshot);
+        exportImportService.exportData(snapshot, args.get(1), sortOption);
+    }
+    
+    private void importCinema(List<String> args) throws IOException {
+        expectArgs(args, 2, "import <file> [lazy]");
+        boolean lazyTickets = args.size() > 2 && "lazy".equalsIgnoreCase(args.get(2));
+        cinemaService.setCinema(exportImportService.importData(args.get(1), lazyTickets));
+        
+        Map<String, Session> rebound = new HashMap<>();
+        for (Map.Entry<String, Session> alias : sessionsByAlias.entrySet()) {
+            cinemaService.findSessionById(alias.getValue().getId())
+                    .ifPresent(session -> rebound.put(alias.getKey(), session));
+        }
+        sessionsByAlias.clear();
+        sessionsByAlias.putAll(rebound);
+    }
+    
+    // find [title=<title>] [from=<date>] [to=<date>] [minprice=<n>] [maxprice=<n>] [seats=<n>]
+    //      [order=time|title] [offset=<n>] [limit=<n>]
+    private void find(List<String> args) {
+        SessionQuery query = SessionQuery.all();
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        double minPrice = 0;
+        double maxPrice = Double.POSITIVE_INFINITY;
+        
+        for (String arg : args.subList(1, args.size())) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value: " + arg);
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(0, separator).toLowerCase()) {
+                case "title":
+                    query = query.withTitle(value);
+                    break;
+                case "from":
+                    from = parseDateTime(value);
+                    break;
+                case "to":
+                    to = parseDateTime(value);
+                    break;
+                case "minprice":
+                    minPrice = parseDouble(value);
+                    break;
+                case "maxprice":
+                    maxPrice = parseDouble(value);
+                    break;
+                case "seats":
+                    query = query.withMinAvailableSeats(parseInt(value));
+                    break;
+                case "order":
+                    query = query.withOrder(parseOrder(value));
+                    break;
+                case "offset":
+                    query = query.withOffset(parseInt(value));
+                    break;
+                case "limit":
+                    query = query.withLimit(parseInt(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown filter: " + arg);
+            }
+        }
+        query = query.withStartBetween(from, to).withPriceBetween(minPrice, maxPrice);
+        
+        QueryPlan plan = cinemaService.explainQuery(query);
+        List<Session> sessions = cinemaService.findSessions(query);
+        out.printf("find: %d sessions via %s (%d candidates)%n", sessions.size(), plan.getAccessPath(),
+                   plan.getCandidates());
+        for (Session session : sessions) {
+            out.printf("  %s %s seats=%d price=%.2f%n", session.getMovieTitle(), session.getDateTime(),
+                       session.getAvailableSeats(), session.getTicketPrice());
+        }
+    }
+    
+    private static SessionOrder parseOrder(String value) {
+        switch (value.toLowerCase()) {
+            case "time":
+                return SessionOrder.BY_TIME;
+            case "title":
+                return SessionOrder.BY_TITLE;
+            default:
+                throw new IllegalArgumentException("Expected order=time or order=title: " + value);
+        }
+    }
+    
+    private void printStats() {
+        out.printf("stats: sessions=%d, sold=%d, revenue=%.2f UAH%n",
+                   statisticsCache.getSessionStatistics().size(),
+                   statisticsCache.getSoldTickets(),
+                   statisticsCache.getTotalRevenue());
+    }
+    
+    private void printSummary(long elapsedNanos) {
+        out.printf("Executed %d commands (%d failed) in %.1f ms%n", executed, failed, elapsedNanos / 1_000_000.0);
+        for (CommandTiming timing : timings.values()) {
+            out.printf("  %-8s count=%d, total=%.1f ms, avg=%.1f us, max=%.1f us%n",
+                       timing.getCommand(), timing.getCount(), timing.getTotalNanos() / 1_000_000.0,
+                       timing.getAverageNanos() / 1_000.0, timing.getMaxNanos() / 1_000.0);
+        }
+    }
+    
+    private Session resolve(String reference) {
+        Session session = sessionsByAlias.get(reference);
+        if (session != null) {
+            return session;
+        }
+        return cinemaService.findSessionById(reference)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown session: " + reference));
+    }
+    
+    private Deque<String> ownedTickets(Session session, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count must be positive");
+        }
+        Deque<String> owned = ticketsBySession.get(session.getId());
+        if (owned == null || owned.size() < count) {
+            throw new IllegalStateException("Script bought fewer than " + count + " tickets for this session");
+        }
+        return owned;
+    }
+    
+    private static void expectArgs(List<String> args, int minimum, String usage) {
+        if (args.size() < minimum) {
+            throw new IllegalArgumentException("Usage: " + usage);
+        }
+    }
+    
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + value);
+        }
+    }
+    
+    private static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + value);
+        }
+    }
+    
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Expected date as yyyy-MM-ddTHH:mm: " + value);
+        }
+    }
+    
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        boolean inToken = false;
+        
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    quoted = false;
+                } else {
+                    token.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                inToken = true;
+            } else if (c == '#' && !inToken) {
+                break;
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(c);
+                inToken = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+    
+    public static class CommandTiming {
+        private final String command;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        
+        private CommandTiming(String command) {
+            this.command = command;
+        }
+        
+        private void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+        
+        public String getCommand() {
+            return command;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+        
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+        
+        public double getAverageNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+    }
+}
@@ -1,26 +1,102 @@
 package com.example;
 
 import com.example.model.Cinema;
+import com.example.model.Page;
 import com.example.model.Session;
+import com.example.model.SessionOrder;
 import com.example.model.Ticket;
+import com.example.model.TicketBuffer;
+import com.example.service.AutosaveService;
+import com.example.service.CancellationJob;
 import com.example.service.CinemaService;
+import com.example.service.CinemaStore;
 import com.example.service.ExportImportService;
+import com.example.service.InMemoryCinemaStore;
+import com.example.service.JdbcCinemaStore;
+import com.example.service.JournalCinemaStore;
+import com.example.service.PricingEngine;
+import com.example.service.PricingRules;
+import com.example.service.RebookingDecider;
+import com.example.service.RecoveryManager;
+import com.example.service.RecoveryResult;
+import com.example.service.SalesAnalytics;
+import com.example.service.SalesFigures;
+import com.example.service.SalesMetric;
+import com.example.service.SalesRate;
+import com.example.service.SalesRateTracker;
+import com.example.service.SalesReport;
+import com.example.service.SalesWindow;
+import com.example.service.SessionCancellationService;
+import com.example.service.SessionStatistics;
+import com.example.service.StorageException;
+import com.example.service.StatisticsCache;
+import com.example.service.WaitlistCallback;
+import com.example.service.WaitlistRequest;
+import com.example.service.WaitlistService;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
     private static final Scanner scanner = new Scanner(System.in);
     private static final CinemaService cinemaService = new CinemaService();
-    private static final ExportImportService exportImportService = new ExportImportService();
+    private static final SalesRateTracker salesRateTracker = new SalesRateTracker();
     private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+    private static final String DATA_DIR_PROPERTY = "cinema.dataDir";
+    private static final String AUTOSAVE_FILE_PROPERTY = "cinema.autosaveFile";
+    private static final String DYNAMIC_PRICING_PROPERTY = "cinema.dynamicPricing";
+    private static final String STORE_PROPERTY = "cinema.store";
+    private static final String BATCH_FLAG = "--batch";
+    private static final int PAGE_SIZE = 10;
+    private static final int TOP_N = 3;
+    private static RecoveryManager recoveryManager;
+    private static AutosaveService autosaveService;
+    private static CinemaStore store;
+    private static WaitlistService waitlistService;
+    private static SessionCancellationService cancellationService;
 
     public static void main(String[] args) {
-        populateInitialData();
+        String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+        String storeSpec = System.getProperty(STORE_PROPERTY);
+        boolean loaded = storeSpec != null && openStore(storeSpec);
+        if (!loaded && (dataDir == null || !recoverState(dataDir))) {
+            populateInitialData();
+        }
+        if (store != null) {
+            cinemaService.setStore(store);
+        }
+        // Registered after recovery so replayed purchases do not count as live sales.
+        cinemaService.addChangeListener(salesRateTracker);
+        
+        if (Boolean.getBoolean(DYNAMIC_PRICING_PROPERTY)) {
+            PricingEngine pricingEngine = new PricingEngine(PricingRules.defaults());
+            cinemaService.addChangeListener(pricingEngine);
+            pricingEngine.repriceUpcoming(cinemaService);
+        }
+        
+        String autosaveFile = System.getProperty(AUTOSAVE_FILE_PROPERTY);
+        if (autosaveFile != null) {
+            autosaveService = new AutosaveService(cinemaService, exportImportService(), autosaveFile);
+            autosaveService.start(30, TimeUnit.SECONDS, 1_000);
+        }
+        
+        if (args.length > 0 && BATCH_FLAG.equals(args[0])) {
+            runBatch(args.length > 1 ? args[1] : "-");
+            shutdown();
+            return;
+        }
         
         boolean exit = false;
         while (!exit) {
@@ -63,9 +139,126 @@ public class Main {
             }
         }
         
+        shutdown();
         System.out.println("Thank you for using Cinema Management System!");
     }
     
+    private static void shutdown() {
+        if (waitlistService != null) {
+            waitlistService.close();
+        }
+        if (cancellationService != null) {
+            cancellationService.close();
+        }
+        if (autosaveService != null) {
+            autosaveService.close();
+        }
+        shutdownRecovery();
+        if (store != null) {
+            cinemaService.setStore(null);
+            store.close();
+        }
+    }
+    
+    // Services are created on first use so that starting the menu only pays for what the
+    // user actually opens: Jackson, worker threads and the statistics listener stay unloaded
+    // until an export, waitlist, cancellation or statistics screen needs them.
+    private static final class Json {
+        private static final ExportImportService SERVICE = new ExportImportService();
+    }
+    
+    private static final class Statistics {
+        private static final StatisticsCache CACHE = new StatisticsCache(cinemaService);
+        private static final SalesAnalytics ANALYTICS = new SalesAnalytics(cinemaService);
+    }
+    
+    private static ExportImportService exportImportService() {
+        return Json.SERVICE;
+    }
+    
+    private static WaitlistService waitlistService() {
+        if (waitlistService == null) {
+            waitlistService = new WaitlistService(cinemaService);
+        }
+        return waitlistService;
+    }
+    
+    private static SessionCancellationService cancellationService() {
+        if (cancellationService == null) {
+            cancellationService = new SessionCancellationService(cinemaService,
+                    Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        }
+        return cancellationService;
+    }
+    
+    private static void runBatch(String script) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+        BatchRunner runner = new BatchRunner(cinemaService, exportImportService(), Statistics.CACHE, out);
+        
+        try (BufferedReader reader = "-".equals(script)
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : Files.newBufferedReader(Paths.get(script))) {
+            runner.run(reader);
+        } catch (IOException e) {
+            out.println("Error reading batch script: " + e.getMessage());
+        }
+        out.flush();
+    }
+    
+    // "memory", "journal:<directory>" or a JDBC URL such as "jdbc:h2:./data/cinema".
+    private static boolean openStore(String spec) {
+        try {
+            if (spec.equals("memory")) {
+                store = new InMemoryCinemaStore();
+            } else if (spec.startsWith("journal:")) {
+                store = new JournalCinemaStore(Paths.get(spec.substring("journal:".length())), exportImportService());
+            } else {
+                store = new JdbcCinemaStore(spec);
+            }
+        } catch (IOException | StorageException e) {
+            System.out.println("Error opening store: " + e.getMessage());
+            return false;
+        }
+        
+        Cinema cinema = store.load();
+        if (cinema == null) {
+            return false;
+        }
+        cinemaService.setCinema(cinema);
+        System.out.printf("Loaded %d sessions from %s\n", cinema.getSessions().size(), spec);
+        return true;
+    }
+    
+    private static boolean recoverState(String dataDir) {
+        try {
+            recoveryManager = new RecoveryManager(cinemaService, exportImportService(), Paths.get(dataDir));
+            RecoveryResult result = recoveryManager.recover();
+            recoveryManager.startPeriodicSnapshots(1, TimeUnit.MINUTES, 10_000);
+            
+            if (result.isRecovered()) {
+                System.out.printf("Recovered state in %.1f ms (snapshot #%d, %d journal entries replayed)\n",
+                        result.getDurationMillis(), result.getSnapshotSequence(), result.getReplayedOperations());
+            }
+            return result.isRecovered();
+        } catch (IOException e) {
+            System.out.println("Error recovering data: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    private static void shutdownRecovery() {
+        if (recoveryManager == null) {
+            return;
+        }
+        
+        try {
+            recoveryManager.snapshot();
+            recoveryManager.close();
+        } catch (IOException e) {
+            System.out.println("Error saving snapshot: " + e.getMessage());
+        }
+    }
+    
     private static void printMenu() {
         System.out.println("\n===== CINEMA MANAGEMENT SYSTEM =====");
         System.out.println("1. Display All Sessions");
@@ -94,20 +287,24 @@ public class Main {
     
     private static void displayAllSessions() {
         System.out.println("\n===== Available Sessions =====");
-        List<Session> sessions = cinemaService.getAllSessions();
+        String cursor = null;
+        int number = 1;
         
-        if (sessions.isEmpty()) {
-            System.out.println("No sessions available.");
-            return;
-        }
-        
-        for (int i = 0; i < sessions.size(); i++) {
-            Session session = sessions.get(i);
-            String status = session.isExpired() ? " [EXPIRED]" : "";
-            System.out.printf("%d. %s - %s%s, Available seats: %d, Price: %.2f UAH\n", 
-                    i + 1, session.getMovieTitle(), session.getDateTime().format(dateFormatter), 
-                    status, session.getAvailableSeats(), session.getTicketPrice());
-        }
+        do {
+            Page<Session> page = cinemaService.getSessionsPage(SessionOrder.BY_TIME, cursor, PAGE_SIZE);
+            if (number == 1 && page.getItems().isEmpty()) {
+                System.out.println("No sessions available.");
+                return;
+            }
+            
+            for (Session session : page.getItems()) {
+                String status = session.isExpired() ? " [EXPIRED]" : "";
+                System.out.printf("%d. %s - %s%s, Available seats: %d, Price: %.2f UAH\n", 
+                        number++, session.getMovieTitle(), session.getDateTime().format(dateFormatter), 
+                        status, session.getAvailableSeats(), session.getCurrentPrice());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null && wantsNextPage());
     }
     
     private static void buyTicket() {
@@ -123,7 +320,7 @@ public class Main {
             Session session = validSessions.get(i);
             System.out.printf("%d. %s - %s, Available seats: %d, Price: %.2f UAH\n", 
                     i + 1, session.getMovieTitle(), session.getDateTime().format(dateFormatter), 
-                    session.getAvailableSeats(), session.getTicketPrice());
+                    session.getAvailableSeats(), session.getCurrentPrice());
         }
         
         int sessionIndex = getIntInput("Select session (enter number): ") - 1;
@@ -136,15 +333,40 @@ public class Main {
         int numberOfTickets = getIntInput("Enter number of tickets to buy: ");
         
         try {
-            List<Ticket> tickets = cinemaService.buyTickets(selectedSession, numberOfTickets);
-            double totalAmount = tickets.stream().mapToDouble(Ticket::getPrice).sum();
+            TicketBuffer tickets = new TicketBuffer(Math.max(1, Math.min(numberOfTickets, selectedSession.getTotalSeats())));
+            cinemaService.buyTickets(selectedSession, numberOfTickets, tickets);
             
             System.out.printf("\nPurchased %d tickets for %s\n", tickets.size(), selectedSession.getMovieTitle());
-            System.out.printf("Total amount: %.2f UAH\n", totalAmount);
+            System.out.printf("Total amount: %.2f UAH\n", tickets.getTotalPrice());
             System.out.printf("Remaining seats: %d\n", selectedSession.getAvailableSeats());
         } catch (IllegalStateException | IllegalArgumentException e) {
             System.out.println("Error: " + e.getMessage());
+            if (numberOfTickets > 0 && numberOfTickets <= selectedSession.getTotalSeats()
+                    && numberOfTickets > selectedSession.getAvailableSeats()) {
+                offerWaitlist(selectedSession, numberOfTickets);
+            }
+        }
+    }
+    
+    private static void offerWaitlist(Session session, int numberOfTickets) {
+        String answer = getStringInputAllowEmpty("Join the waitlist for this session? (y/N): ");
+        if (!answer.trim().equalsIgnoreCase("y")) {
+            return;
         }
+        
+        WaitlistRequest request = waitlistService().join(session, numberOfTickets, new WaitlistCallback() {
+            @Override
+            public void fulfilled(WaitlistRequest request, List<Ticket> tickets) {
+                System.out.printf("\nWaitlist request #%d fulfilled: %d tickets for %s\n",
+                        request.getId(), tickets.size(), session.getMovieTitle());
+            }
+            
+            @Override
+            public void cancelled(WaitlistRequest request, String reason) {
+                System.out.printf("\nWaitlist request #%d cancelled: %s\n", request.getId(), reason);
+            }
+        });
+        System.out.printf("Added to the waitlist as request #%d\n", request.getId());
     }
     
     private static void addNewSession() {
@@ -193,10 +415,21 @@ public class Main {
     }
     
     private static void removeSession() {
-        displayAllSessions();
+        System.out.println("\n===== Remove Session =====");
         List<Session> sessions = cinemaService.getAllSessions();
         
-        if (sessions.isEmpty()) return;
+        if (sessions.isEmpty()) {
+            System.out.println("No sessions available to remove.");
+            return;
+        }
+        
+        for (int i = 0; i < sessions.size(); i++) {
+            Session session = sessions.get(i);
+            String status = session.isExpired() ? " [EXPIRED]" : "";
+            System.out.printf("%d. %s - %s%s, Sold: %d/%d\n",
+                    i + 1, session.getMovieTitle(), session.getDateTime().format(dateFormatter),
+                    status, session.getTotalSeats() - session.getAvailableSeats(), session.getTotalSeats());
+        }
         
         int sessionIndex = getIntInput("Select session to remove (enter number): ") - 1;
         if (sessionIndex < 0 || sessionIndex >= sessions.size()) {
@@ -205,9 +438,27 @@ public class Main {
         }
         
         Session sessionToRemove = sessions.get(sessionIndex);
-        cinemaService.removeSession(sessionToRemove);
+        if (sessionToRemove.getTotalSeats() == sessionToRemove.getAvailableSeats()) {
+            cinemaService.removeSession(sessionToRemove);
+            System.out.println("Session removed successfully!");
+            return;
+        }
         
-        System.out.println("Session removed successfully!");
+        String answer = getStringInputAllowEmpty("Offer ticket holders seats in other sessions of this movie? (Y/n): ");
+        RebookingDecider decider = answer.trim().equalsIgnoreCase("n") ? RebookingDecider.refundAll()
+                                                                        : RebookingDecider.nearestShowtime();
+        try {
+            CancellationJob job = cancellationService().cancel(sessionToRemove.getId(), decider);
+            job.getCompletion().get(1, TimeUnit.MINUTES);
+            System.out.printf("Session cancelled: %d tickets rebooked, %d refunded (%.2f UAH).\n",
+                    job.getRebooked(), job.getRefunded(), job.getRefundedAmount());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.out.println("Cancellation is still running in the background: " + e.getMessage());
+        }
     }
     
     private static void updateSession() {
@@ -290,26 +541,42 @@ public class Main {
     
     private static void displayTicketStatistics() {
         System.out.println("\n===== Ticket Statistics =====");
-        List<Session> sessions = cinemaService.getAllSessions();
+        List<SessionStatistics> statistics = Statistics.CACHE.getSessionStatistics();
         
-        if (sessions.isEmpty()) {
+        if (statistics.isEmpty()) {
             System.out.println("No sessions available.");
             return;
         }
         
-        for (Session session : sessions) {
-            int soldTickets = session.getTotalSeats() - session.getAvailableSeats();
-            double totalRevenue = soldTickets * session.getTicketPrice();
-            
+        for (SessionStatistics session : statistics) {
             System.out.printf("Movie: %s\n", session.getMovieTitle());
             System.out.printf("Date/Time: %s\n", session.getDateTime().format(dateFormatter));
-            System.out.printf("Sold tickets: %d/%d\n", soldTickets, session.getTotalSeats());
-            System.out.printf("Revenue: %.2f UAH\n", totalRevenue);
+            System.out.printf("Sold tickets: %d/%d\n", session.getSoldTickets(), session.getTotalSeats());
+            System.out.printf("Revenue: %.2f UAH\n", session.getRevenue());
             System.out.println("-----------------------------");
         }
         
-        double totalRevenue = cinemaService.calculateTotalRevenue();
-        System.out.printf("TOTAL REVENUE: %.2f UAH\n", totalRevenue);
+        System.out.printf("TOTAL REVENUE: %.2f UAH\n", Statistics.CACHE.getTotalRevenue());
+        System.out.printf("OVERALL OCCUPANCY: %.1f%%\n", cinemaService.calculateOccupancy() * 100);
+        
+        SalesReport report = Statistics.ANALYTICS.analyze();
+        System.out.println("\nTop movies by revenue:");
+        for (SalesFigures<String> movie : report.topMovies(TOP_N, SalesMetric.REVENUE)) {
+            System.out.printf("  %s - %.2f UAH, %d tickets, %.0f%% occupancy\n", movie.getKey(),
+                    movie.getRevenue(), movie.getSoldTickets(), movie.getOccupancy() * 100);
+        }
+        System.out.println("Busiest hours of the day:");
+        for (SalesFigures<Integer> hour : report.topHoursOfDay(TOP_N, SalesMetric.TICKETS_SOLD)) {
+            System.out.printf("  %02d:00 - %d tickets, %.2f UAH\n", hour.getKey(),
+                    hour.getSoldTickets(), hour.getRevenue());
+        }
+        
+        System.out.println("Live sales:");
+        for (SalesWindow window : SalesWindow.values()) {
+            SalesRate rate = salesRateTracker.getCinemaRate(window);
+            System.out.printf("  %-16s %d sold, %d refunded, %.2f UAH (%.1f tickets/min)\n", window + ":",
+                    rate.getTicketsSold(), rate.getTicketsRefunded(), rate.getRevenue(), rate.getTicketsPerMinute());
+        }
     }
     
     private static void exportData() {
@@ -326,7 +593,8 @@ public class Main {
         }
         
         try {
-            exportImportService.exportData(cinemaService.getCinema(), filename, sortOption);
+            Cinema snapshot = cinemaService.withConsistentView(Cinema::snapshot);
+            exportImportService().exportData(snapshot, filename, sortOption);
             System.out.println("Data exported successfully to " + filename);
         } catch (Exception e) {
             System.out.println("Error exporting data: " + e.getMessage());
@@ -340,8 +608,11 @@ public class Main {
             filename += ".json";
         }
         
+        String lazyInput = getStringInputAllowEmpty("Load tickets on demand? (y/N): ");
+        boolean lazyTickets = lazyInput.trim().equalsIgnoreCase("y");
+        
         try {
-            Cinema importedCinema = exportImportService.importData(filename);
+            Cinema importedCinema = exportImportService().importData(filename, lazyTickets);
             cinemaService.setCinema(importedCinema);
             System.out.println("Data imported successfully from " + filename);
         } catch (Exception e) {
@@ -377,74 +648,30 @@ public class Main {
     
     private static void displayAllTickets() {
         System.out.println("\n===== All Tickets =====");
-        List<Session> sessions = cinemaService.getAllSessions();
-        boolean hasTickets = false;
-        
-        for (Session session : sessions) {
-            List<Ticket> tickets = session.getTickets();
-            if (!tickets.isEmpty()) {
-                hasTickets = true;
-                System.out.printf("Session: %s - %s\n", 
-                        session.getMovieTitle(), 
-                        session.getDateTime().format(dateFormatter));
-                
-                for (int i = 0; i < tickets.size(); i++) {
-                    Ticket ticket = tickets.get(i);
-                    System.out.printf("  %d. Ticket ID: %s, Price: %.2f UAH, Purchased: %s\n", 
-                            i + 1, 
-                            ticket.getId(), 
-                            ticket.getPrice(),
-                            ticket.getPurchaseTime().format(dateFormatter));
-                }
-                System.out.println();
-            }
-        }
+        String cursor = null;
+        int number = 1;
         
-        if (!hasTickets) {
-            System.out.println("No tickets have been purchased yet.");
-        }
+        do {
+            Page<Ticket> page = cinemaService.getTicketsPage(cursor, PAGE_SIZE);
+            if (number == 1 && page.getItems().isEmpty()) {
+                System.out.println("No tickets have been purchased yet.");
+                return;
+            }
+            
+            for (Ticket ticket : page.getItems()) {
+                printTicket(number++, ticket);
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null && wantsNextPage());
     }
     
     private static void deleteTicket() {
         System.out.println("\n===== Delete Ticket =====");
-        List<Session> sessions = cinemaService.getAllSessions();
-        boolean hasTickets = false;
-        
-        List<Ticket> allTickets = new ArrayList<>();
-        
-        for (Session session : sessions) {
-            List<Ticket> tickets = session.getTickets();
-            if (!tickets.isEmpty()) {
-                hasTickets = true;
-                allTickets.addAll(tickets);
-                
-                System.out.printf("Session: %s - %s\n", 
-                        session.getMovieTitle(), 
-                        session.getDateTime().format(dateFormatter));
-                
-                for (int i = 0; i < tickets.size(); i++) {
-                    Ticket ticket = tickets.get(i);
-                    System.out.printf("  %d. Ticket ID: %s, Price: %.2f UAH, Purchased: %s\n", 
-                            allTickets.size() - tickets.size() + i + 1, 
-                            ticket.getId(), 
-                            ticket.getPrice(),
-                            ticket.getPurchaseTime().format(dateFormatter));
-                }
-            }
-        }
-        
-        if (!hasTickets) {
-            System.out.println("No tickets available to delete.");
+        Ticket selectedTicket = selectTicket("Select ticket to delete (enter number): ", "No tickets available to delete.");
+        if (selectedTicket == null) {
             return;
         }
         
-        int ticketIndex = getIntInput("Select ticket to delete (enter number): ") - 1;
-        if (ticketIndex < 0 || ticketIndex >= allTickets.size()) {
-            System.out.println("Invalid ticket selection.");
-            return;
-        }
-        
-        Ticket selectedTicket = allTickets.get(ticketIndex);
         boolean deleted = cinemaService.deleteTicket(selectedTicket.getId());
         
         if (deleted) {
@@ -456,46 +683,11 @@ public class Main {
     
     private static void changeTicketSession() {
         System.out.println("\n===== Change Ticket Session =====");
-        
-        List<Session> sessions = cinemaService.getAllSessions();
-        boolean hasTickets = false;
-        
-        List<Ticket> allTickets = new ArrayList<>();
-        
-        for (Session session : sessions) {
-            List<Ticket> tickets = session.getTickets();
-            if (!tickets.isEmpty()) {
-                hasTickets = true;
-                allTickets.addAll(tickets);
-                
-                System.out.printf("Session: %s - %s\n", 
-                        session.getMovieTitle(), 
-                        session.getDateTime().format(dateFormatter));
-                
-                for (int i = 0; i < tickets.size(); i++) {
-                    Ticket ticket = tickets.get(i);
-                    System.out.printf("  %d. Ticket ID: %s, Price: %.2f UAH, Purchased: %s\n", 
-                            allTickets.size() - tickets.size() + i + 1, 
-                            ticket.getId(), 
-                            ticket.getPrice(),
-                            ticket.getPurchaseTime().format(dateFormatter));
-                }
-            }
-        }
-        
-        if (!hasTickets) {
-            System.out.println("No tickets available to change.");
-            return;
-        }
-        
-        int ticketIndex = getIntInput("Select ticket to change (enter number): ") - 1;
-        if (ticketIndex < 0 || ticketIndex >= allTickets.size()) {
-            System.out.println("Invalid ticket selection.");
+        Ticket selectedTicket = selectTicket("Select ticket to change (enter number): ", "No tickets available to change.");
+        if (selectedTicket == null) {
             return;
         }
         
-        Ticket selectedTicket = allTickets.get(ticketIndex);
-        
         List<Session> validSessions = cinemaService.getValidSessions();
         System.out.println("\nSelect new session for the ticket:");
         
@@ -503,7 +695,7 @@ public class Main {
             Session session = validSessions.get(i);
             System.out.printf("%d. %s - %s, Available seats: %d, Price: %.2f UAH\n", 
                     i + 1, session.getMovieTitle(), session.getDateTime().format(dateFormatter), 
-                    session.getAvailableSeats(), session.getTicketPrice());
+                    session.getAvailableSeats(), session.getCurrentPrice());
         }
         
         int sessionIndex = getIntInput("Select new session (enter number): ") - 1;
@@ -527,6 +719,54 @@ public class Main {
         }
     }
     
+    private static Ticket selectTicket(String prompt, String emptyMessage) {
+        String cursor = null;
+        
+        while (true) {
+            Page<Ticket> page = cinemaService.getTicketsPage(cursor, PAGE_SIZE);
+            if (cursor == null && page.getItems().isEmpty()) {
+                System.out.println(emptyMessage);
+                return null;
+            }
+            
+            List<Ticket> tickets = page.getItems();
+            for (int i = 0; i < tickets.size(); i++) {
+                printTicket(i + 1, tickets.get(i));
+            }
+            if (page.hasNext()) {
+                System.out.println("Enter 0 to see more tickets.");
+            }
+            
+            int ticketIndex = getIntInput(prompt) - 1;
+            if (ticketIndex == -1 && page.hasNext()) {
+                cursor = page.getNextCursor();
+                continue;
+            }
+            if (ticketIndex < 0 || ticketIndex >= tickets.size()) {
+                System.out.println("Invalid ticket selection.");
+                return null;
+            }
+            return tickets.get(ticketIndex);
+        }
+    }
+    
+    private static void printTicket(int number, Ticket ticket) {
+        Session session = ticket.getSession();
+        String sessionLabel = session == null ? ticket.getSessionId()
+                                              : session.getMovieTitle() + " - " + session.getDateTime().format(dateFormatter);
+        System.out.printf("  %d. Ticket ID: %s, Session: %s, Price: %.2f UAH, Purchased: %s\n", 
+                number, 
+                ticket.getId(), 
+                sessionLabel,
+                ticket.getPrice(),
+                ticket.getPurchaseTime().format(dateFormatter));
+    }
+    
+    private static boolean wantsNextPage() {
+        String input = getStringInputAllowEmpty("Press Enter for more, or q to stop: ");
+        return !input.trim().equalsIgnoreCase("q");
+    }
+    
     private static int getIntInput(String prompt) {
         while (true) {
             try {
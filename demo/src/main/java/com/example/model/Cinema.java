@@ -3,15 +3,40 @@ package com.example.model;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 
 public class Cinema {
     private String name;
     private String address;
     private int hallCount;
     private List<Session> sessions;
+    private final SessionTitleIndex titleIndex = new SessionTitleIndex();
+    private final SessionColumns columns = new SessionColumns(this);
+    private final Map<SessionOrder, NavigableMap<SortKey, Session>> sortedSessions = new EnumMap<>(SessionOrder.class);
+    private final SessionQueryEngine queryEngine = new SessionQueryEngine(titleIndex, sortedSessions, columns);
+    private final NavigableMap<SortKey, Ticket> ticketsByPurchaseTime = new TreeMap<>(SortKey.BY_PURCHASE_TIME);
+    // Sessions whose tickets may be missing from ticketsByPurchaseTime: attached with tickets,
+    // lazily imported, or holding tickets issued into a TicketSink. Only getTicketsPage, which
+    // runs under the service lock, loads them and adds their tickets.
+    private final Set<Session> unindexedSessions = Collections.newSetFromMap(new IdentityHashMap<>());
+    
+    {
+        for (SessionOrder order : SessionOrder.values()) {
+            sortedSessions.put(order, new TreeMap<>(order.comparator()));
+        }
+    }
     
     @JsonCreator
     public Cinema(
@@ -57,27 +82,227 @@ public class Cinema {
     }
     
     public void setSessions(List<Session> sessions) {
-        this.sessions = new ArrayList<>(sessions);
+        columns.clear();
+        for (Session session : this.sessions) {
+            session.detachFrom(this);
+        }
+        titleIndex.clear();
+        for (NavigableMap<SortKey, Session> index : sortedSessions.values()) {
+            index.clear();
+        }
+        ticketsByPurchaseTime.clear();
+        unindexedSessions.clear();
+        
+        this.sessions = new ArrayList<>(sessions.size());
+        for (Session session : sessions) {
+            attach(session);
+        }
     }
     
     public boolean addSession(Session session) {
         if (session == null) {
             return false;
         }
-        return sessions.add(session);
+        attach(session);
+        return true;
     }
     
     public boolean removeSession(Session session) {
-        return sessions.remove(session);
+        int index = sessions.indexOf(session);
+        if (index < 0) {
+            return false;
+        }
+        
+        Session removed = sessions.remove(index);
+        columns.remove(index);
+        titleIndex.remove(removed, removed.getMovieTitle());
+        if (!sessions.contains(removed)) {
+            SortKey key = SortKey.of(removed);
+            for (NavigableMap<SortKey, Session> sorted : sortedSessions.values()) {
+                sorted.remove(key);
+            }
+            for (Ticket ticket : removed.loadedTickets()) {
+                ticketsByPurchaseTime.remove(SortKey.of(ticket));
+            }
+            unindexedSessions.remove(removed);
+            removed.detachFrom(this);
+        }
+        return true;
+    }
+    
+    public boolean containsSession(Session session) {
+        return session != null && (session.isOwnedBy(this) || sessions.contains(session));
+    }
+    
+    public Page<Session> getSessionsPage(SessionOrder order, String cursor, int pageSize) {
+        if (order == null) {
+            throw new IllegalArgumentException("Session order cannot be null");
+        }
+        
+        NavigableMap<SortKey, Session> sorted = sortedSessions.get(order);
+        NavigableMap<SortKey, Session> remaining = cursor == null ? sorted
+                                                                  : sorted.tailMap(SortKey.fromCursor(cursor, order), false);
+        Map.Entry<SortKey, List<Session>> page = firstPage(remaining, pageSize);
+        return new Page<>(page.getValue(), page.getKey() == null ? null : page.getKey().toCursor(order));
+    }
+    
+    // The first ticket listing after an import or a copy pays for indexing (and, for lazily
+    // imported sessions, loading) their tickets; loads elsewhere never touch the index.
+    public Page<Ticket> getTicketsPage(String cursor, int pageSize) {
+        if (!unindexedSessions.isEmpty()) {
+            List<Session> pending = new ArrayList<>(unindexedSessions);
+            unindexedSessions.clear();
+            for (Session session : pending) {
+                session.loadTickets();
+                for (Ticket ticket : session.loadedTickets()) {
+                    ticketsByPurchaseTime.put(SortKey.of(ticket), ticket);
+                }
+            }
+        }
+        
+        NavigableMap<SortKey, Ticket> remaining = cursor == null ? ticketsByPurchaseTime
+                                                                 : ticketsByPurchaseTime.tailMap(SortKey.fromTicketCursor(cursor), false);
+        Map.Entry<SortKey, List<Ticket>> page = firstPage(remaining, pageSize);
+        return new Page<>(page.getValue(), page.getKey() == null ? null : page.getKey().toTicketCursor());
+    }
+    
+    private static <T> Map.Entry<SortKey, List<T>> firstPage(NavigableMap<SortKey, T> remaining, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        
+        List<T> items = new ArrayList<>(Math.min(pageSize, remaining.size()));
+        SortKey lastKey = null;
+        Iterator<Map.Entry<SortKey, T>> entries = remaining.entrySet().iterator();
+        while (entries.hasNext() && items.size() < pageSize) {
+            Map.Entry<SortKey, T> entry = entries.next();
+            items.add(entry.getValue());
+            lastKey = entry.getKey();
+        }
+        return new AbstractMap.SimpleImmutableEntry<>(entries.hasNext() ? lastKey : null, items);
+    }
+    
+    public List<Session> findSessionsByTitle(String title) {
+        return titleIndex.findExact(title);
+    }
+    
+    public List<Session> findSessionsByTitlePrefix(String prefix) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Title prefix cannot be null");
+        }
+        return titleIndex.findByPrefix(prefix);
+    }
+    
+    public List<Session> searchSessionsByTitle(String fragment) {
+        if (fragment == null) {
+            throw new IllegalArgumentException("Title fragment cannot be null");
+        }
+        return titleIndex.findBySubstring(fragment);
+    }
+    
+    public List<Session> findSessions(SessionQuery query) {
+        return queryEngine.execute(query, explain(query));
+    }
+    
+    public QueryPlan explain(SessionQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        return queryEngine.plan(query);
+    }
+    
+    void sessionKeyChanged(Session session, String oldId, String oldTitle, LocalDateTime oldDateTime) {
+        if (!Objects.equals(oldTitle, session.getMovieTitle())) {
+            titleIndex.remove(session, oldTitle);
+            titleIndex.add(session);
+        }
+        
+        SortKey oldKey = SortKey.of(oldId, oldTitle, oldDateTime);
+        SortKey newKey = SortKey.of(session);
+        for (NavigableMap<SortKey, Session> sorted : sortedSessions.values()) {
+            sorted.remove(oldKey);
+            sorted.put(newKey, session);
+        }
+        columns.keyChanged(session);
+    }
+    
+    void sessionFiguresChanged(Session session) {
+        columns.figuresChanged(session);
+    }
+    
+    void ticketAdded(Ticket ticket) {
+        ticketsByPurchaseTime.put(SortKey.of(ticket), ticket);
+    }
+    
+    void ticketRemoved(Ticket ticket) {
+        ticketsByPurchaseTime.remove(SortKey.of(ticket));
+    }
+    
+    void ticketLoaderInstalled(Session session) {
+        unindexedSessions.add(session);
+    }
+    
+    void issuedTicketsPending(Session session) {
+        unindexedSessions.add(session);
+    }
+    
+    private void attach(Session session) {
+        sessions.add(session);
+        titleIndex.add(session);
+        
+        SortKey key = SortKey.of(session);
+        for (NavigableMap<SortKey, Session> sorted : sortedSessions.values()) {
+            sorted.put(key, session);
+        }
+        if (!session.isTicketsLoaded() || !session.loadedTickets().isEmpty()) {
+            unindexedSessions.add(session);
+        }
+        session.attachTo(this);
+        columns.add(session);
     }
     
     public double calculateTotalRevenue() {
-        double totalRevenue = 0;
+        return columns.totalRevenue();
+    }
+    
+    public long countSoldTickets() {
+        return columns.soldTickets();
+    }
+    
+    public double calculateOccupancy() {
+        long totalSeats = columns.totalSeats();
+        return totalSeats == 0 ? 0 : (double) columns.soldTickets() / totalSeats;
+    }
+    
+    public List<Session> getValidSessions() {
+        return columns.startingFrom(System.currentTimeMillis());
+    }
+    
+    // Sessions starting in [from, to), in the order they were added.
+    public List<Session> getSessionsBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range cannot be null");
+        }
+        return columns.startingBetween(Session.toEpochMillis(from), Session.toEpochMillis(to));
+    }
+    
+    public Cinema copy() {
+        Cinema copy = new Cinema(name, address, hallCount);
+        for (Session session : sessions) {
+            copy.attach(session.copy());
+        }
+        return copy;
+    }
+    
+    // A point-in-time view for saving and exporting. Sessions share their ticket lists
+    // copy-on-write with the live ones, so it costs O(sessions) rather than O(tickets);
+    // only lazily imported sessions that were never read pay for loading their tickets.
+    public Cinema snapshot() {
+        Cinema snapshot = new Cinema(name, address, hallCount);
         for (Session session : sessions) {
-            int soldTickets = session.getTotalSeats() - session.getAvailableSeats();
-            totalRevenue += soldTickets * session.getTicketPrice();
+            snapshot.attach(session.snapshot());
         }
-        return totalRevenue;
+        return snapshot;
     }
     
     @Override
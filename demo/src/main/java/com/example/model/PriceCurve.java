@@ -0,0 +1,76 @@
+package com.example.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+public final class PriceCurve {
+    private final double basePrice;
+    private final LocalDateTime showTime;
+    private final long showTimeEpochMillis;
+    private final long[] leadTimeMinutes;
+    private final double[][] prices;
+    
+    // prices[bucket][band]: bucket i applies while fewer than leadTimeMinutes[i] minutes
+    // remain before the show (the last bucket has no limit), band is the occupancy band.
+    public PriceCurve(double basePrice, LocalDateTime showTime, long[] leadTimeMinutes, double[][] prices) {
+        if (prices.length != leadTimeMinutes.length + 1) {
+            throw new IllegalArgumentException("Expected one price row per lead time bucket");
+        }
+        for (double[] row : prices) {
+            if (row.length == 0 || row.length != prices[0].length) {
+                throw new IllegalArgumentException("Every lead time bucket needs the same occupancy bands");
+            }
+        }
+        
+        this.basePrice = basePrice;
+        this.showTime = showTime;
+        this.showTimeEpochMillis = showTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        this.leadTimeMinutes = leadTimeMinutes.clone();
+        this.prices = new double[prices.length][];
+        for (int i = 0; i < prices.length; i++) {
+            this.prices[i] = prices[i].clone();
+        }
+    }
+    
+    public boolean appliesTo(double basePrice, LocalDateTime showTime) {
+        return this.basePrice == basePrice && this.showTime.equals(showTime);
+    }
+    
+    public double priceAt(int soldSeats, int totalSeats, LocalDateTime purchaseTime) {
+        return priceForMinutesLeft(soldSeats, totalSeats, ChronoUnit.MINUTES.between(purchaseTime, showTime));
+    }
+    
+    public double priceAt(int soldSeats, int totalSeats, long purchaseEpochMillis) {
+        return priceForMinutesLeft(soldSeats, totalSeats, (showTimeEpochMillis - purchaseEpochMillis) / 60_000);
+    }
+    
+    private double priceForMinutesLeft(int soldSeats, int totalSeats, long minutesLeft) {
+        int bucket = 0;
+        while (bucket < leadTimeMinutes.length && minutesLeft >= leadTimeMinutes[bucket]) {
+            bucket++;
+        }
+        
+        double[] bands = prices[bucket];
+        int band = totalSeats <= 0 ? bands.length - 1 : (int) ((long) soldSeats * bands.length / totalSeats);
+        return bands[Math.max(0, Math.min(band, bands.length - 1))];
+    }
+    
+    public int getBucketCount() {
+        return prices.length;
+    }
+    
+    public int getBandCount() {
+        return prices[0].length;
+    }
+    
+    @Override
+    public String toString() {
+        return "PriceCurve{" +
+               "basePrice=" + basePrice +
+               ", showTime=" + showTime +
+               ", buckets=" + prices.length +
+               ", bands=" + prices[0].length +
+               '}';
+    }
+}
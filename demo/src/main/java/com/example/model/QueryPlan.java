@@ -0,0 +1,44 @@
+package com.example.model;
+
+public class QueryPlan {
+    public enum AccessPath {
+        TITLE_INDEX,
+        TIME_INDEX,
+        COLUMN_SCAN
+    }
+    
+    private final AccessPath accessPath;
+    private final long candidates;
+    private final boolean limitPushedDown;
+    
+    QueryPlan(AccessPath accessPath, long candidates, boolean limitPushedDown) {
+        this.accessPath = accessPath;
+        this.candidates = candidates;
+        this.limitPushedDown = limitPushedDown;
+    }
+    
+    public AccessPath getAccessPath() {
+        return accessPath;
+    }
+    
+    // Sessions the access path is expected to visit; exact unless a pushed-down limit
+    // lets the scan stop early, in which case it is the planner's estimate.
+    public long getCandidates() {
+        return candidates;
+    }
+    
+    // True when results already arrive in the requested order, so offset and limit stop
+    // the scan early instead of being applied after a sort.
+    public boolean isLimitPushedDown() {
+        return limitPushedDown;
+    }
+    
+    @Override
+    public String toString() {
+        return "QueryPlan{" +
+               "accessPath=" + accessPath +
+               ", candidates=" + candidates +
+               ", limitPushedDown=" + limitPushedDown +
+               '}';
+    }
+}
@@ -3,11 +3,18 @@ package com.example.model;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Session {
@@ -19,6 +26,48 @@ public class Session {
     private double ticketPrice;
     private List<Ticket> tickets;
     
+    @JsonIgnore
+    private Supplier<List<Ticket>> ticketLoader;
+    
+    // What the session's tickets were actually sold for, including tickets still behind
+    // the loader or issued into a sink; seats and the base price do not enter into it.
+    @JsonIgnore
+    private double revenue;
+    @JsonIgnore
+    private double loaderRevenue;
+    
+    // Set while a snapshot shares the tickets list; whichever side changes it next copies it first.
+    @JsonIgnore
+    private boolean ticketsShared;
+    
+    @JsonIgnore
+    private Cinema cinema;
+    
+    @JsonIgnore
+    private volatile PriceCurve priceCurve;
+    
+    @JsonIgnore
+    private long dateTimeEpochMillis = Long.MAX_VALUE;
+    
+    // Position of this session in its owning cinema's SessionColumns, or -1.
+    @JsonIgnore
+    private int catalogRow = -1;
+    
+    // Tickets sold through a TicketSink are kept as primitives and only become
+    // Ticket objects when somebody reads the session's tickets.
+    @JsonIgnore
+    private final long ticketIdBase = ThreadLocalRandom.current().nextLong();
+    @JsonIgnore
+    private long nextTicketNumber;
+    @JsonIgnore
+    private long[] issuedNumbers;
+    @JsonIgnore
+    private long[] issuedTimes;
+    @JsonIgnore
+    private double[] issuedPrices;
+    @JsonIgnore
+    private int issuedCount;
+    
     public Session(String movieTitle, LocalDateTime dateTime, int totalSeats, double ticketPrice) {
         if (totalSeats <= 0) {
             throw new IllegalArgumentException("Total seats must be greater than zero");
@@ -31,8 +80,9 @@ public class Session {
         }
         
         this.id = UUID.randomUUID().toString();
-        this.movieTitle = movieTitle;
+        this.movieTitle = StringPool.shared().intern(movieTitle);
         this.dateTime = dateTime;
+        this.dateTimeEpochMillis = toEpochMillis(dateTime);
         this.totalSeats = totalSeats;
         this.availableSeats = totalSeats;
         this.ticketPrice = ticketPrice;
@@ -49,7 +99,11 @@ public class Session {
     }
     
     public void setId(String id) {
+        String oldId = this.id;
         this.id = id;
+        if (cinema != null && !Objects.equals(oldId, this.id)) {
+            cinema.sessionKeyChanged(this, oldId, movieTitle, dateTime);
+        }
     }
     
     public String getMovieTitle() {
@@ -57,7 +111,11 @@ public class Session {
     }
     
     public void setMovieTitle(String movieTitle) {
-        this.movieTitle = movieTitle;
+        String oldTitle = this.movieTitle;
+        this.movieTitle = StringPool.shared().intern(movieTitle);
+        if (cinema != null && !Objects.equals(oldTitle, this.movieTitle)) {
+            cinema.sessionKeyChanged(this, id, oldTitle, dateTime);
+        }
     }
     
     public LocalDateTime getDateTime() {
@@ -65,7 +123,12 @@ public class Session {
     }
     
     public void setDateTime(LocalDateTime dateTime) {
+        LocalDateTime oldDateTime = this.dateTime;
         this.dateTime = dateTime;
+        this.dateTimeEpochMillis = toEpochMillis(dateTime);
+        if (cinema != null && !Objects.equals(oldDateTime, dateTime)) {
+            cinema.sessionKeyChanged(this, id, movieTitle, oldDateTime);
+        }
     }
     
     public int getTotalSeats() {
@@ -78,6 +141,7 @@ public class Session {
         }
         this.availableSeats += (totalSeats - this.totalSeats);
         this.totalSeats = totalSeats;
+        figuresChanged();
     }
     
     public int getAvailableSeats() {
@@ -86,6 +150,7 @@ public class Session {
     
     public void setAvailableSeats(int availableSeats) {
         this.availableSeats = availableSeats;
+        figuresChanged();
     }
     
     public double getTicketPrice() {
@@ -97,19 +162,165 @@ public class Session {
             throw new IllegalArgumentException("Ticket price cannot be negative");
         }
         this.ticketPrice = ticketPrice;
+        figuresChanged();
+    }
+    
+    @JsonIgnore
+    public PriceCurve getPriceCurve() {
+        return priceCurve;
+    }
+    
+    @JsonIgnore
+    public void setPriceCurve(PriceCurve priceCurve) {
+        this.priceCurve = priceCurve;
+    }
+    
+    @JsonIgnore
+    public double getCurrentPrice() {
+        return priceAt(LocalDateTime.now());
+    }
+    
+    // A curve built for an older base price or showtime is ignored until it is rebuilt.
+    private double priceAt(LocalDateTime purchaseTime) {
+        PriceCurve curve = priceCurve;
+        if (curve == null || !curve.appliesTo(ticketPrice, dateTime)) {
+            return ticketPrice;
+        }
+        return curve.priceAt(totalSeats - availableSeats, totalSeats, purchaseTime);
+    }
+    
+    private double priceAt(long purchaseEpochMillis) {
+        PriceCurve curve = priceCurve;
+        if (curve == null || !curve.appliesTo(ticketPrice, dateTime)) {
+            return ticketPrice;
+        }
+        return curve.priceAt(totalSeats - availableSeats, totalSeats, purchaseEpochMillis);
     }
     
     public List<Ticket> getTickets() {
+        loadTickets();
         return new ArrayList<>(tickets);
     }
     
     public void setTickets(List<Ticket> tickets) {
+        if (cinema != null) {
+            for (Ticket ticket : this.tickets) {
+                cinema.ticketRemoved(ticket);
+            }
+        }
         this.tickets = new ArrayList<>(tickets);
+        this.ticketsShared = false;
+        this.ticketLoader = null;
+        this.loaderRevenue = 0;
+        this.issuedCount = 0;
+        this.revenue = 0;
+        for (Ticket ticket : this.tickets) {
+            revenue += ticket.getPrice();
+        }
+        if (cinema != null) {
+            for (Ticket ticket : this.tickets) {
+                cinema.ticketAdded(ticket);
+            }
+        }
+        figuresChanged();
+    }
+    
+    // The loader's tickets must add up to ticketRevenue: revenue is settled here rather
+    // than on load, because a load may run outside the owning cinema's lock.
+    @JsonIgnore
+    public void setTicketLoader(Supplier<List<Ticket>> ticketLoader, double ticketRevenue) {
+        revenue -= loaderRevenue;
+        this.ticketLoader = ticketLoader;
+        this.loaderRevenue = ticketLoader == null ? 0 : ticketRevenue;
+        revenue += loaderRevenue;
+        if (cinema != null && ticketLoader != null) {
+            cinema.ticketLoaderInstalled(this);
+        }
+        figuresChanged();
+    }
+    
+    @JsonIgnore
+    public double getRevenue() {
+        return revenue;
+    }
+    
+    @JsonIgnore
+    public boolean isTicketsLoaded() {
+        return ticketLoader == null && issuedCount == 0;
+    }
+    
+    // True when the session holds no tickets at all, counting any still behind a loader
+    // or issued but not yet materialized; never triggers a load.
+    @JsonIgnore
+    public boolean isTicketless() {
+        return ticketLoader == null && issuedCount == 0 && tickets.isEmpty();
+    }
+    
+    public void loadTickets() {
+        if (ticketLoader == null) {
+            materializeIssued();
+            return;
+        }
+        
+        // Tickets bought before the first load were appended to the empty list,
+        // so they go after the historical ones to keep purchase order. The owning
+        // cinema already counts this session as unindexed, so a load (which may run
+        // on an export worker) leaves the cinema alone.
+        List<Ticket> loaded = new ArrayList<>(ticketLoader.get());
+        loaded.addAll(tickets);
+        this.tickets = loaded;
+        this.ticketsShared = false;
+        this.ticketLoader = null;
+        this.loaderRevenue = 0;
+        materializeIssued();
+    }
+    
+    public List<Ticket> flushIssuedTickets() {
+        return materializeIssued();
+    }
+    
+    private List<Ticket> materializeIssued() {
+        if (issuedCount == 0) {
+            return Collections.emptyList();
+        }
+        
+        List<Ticket> materialized = new ArrayList<>(issuedCount);
+        List<Ticket> target = writableTickets();
+        ZoneId zone = ZoneId.systemDefault();
+        for (int i = 0; i < issuedCount; i++) {
+            LocalDateTime purchaseTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(issuedTimes[i]), zone);
+            Ticket ticket = new Ticket(this, issuedPrices[i], purchaseTime);
+            ticket.setId(ticketId(issuedNumbers[i]));
+            target.add(ticket);
+            materialized.add(ticket);
+        }
+        issuedCount = 0;
+        return materialized;
+    }
+    
+    public String ticketId(long ticketNumber) {
+        return new UUID(ticketIdBase, ticketNumber).toString();
+    }
+    
+    List<Ticket> loadedTickets() {
+        return tickets;
+    }
+    
+    private List<Ticket> writableTickets() {
+        if (ticketsShared) {
+            tickets = new ArrayList<>(tickets);
+            ticketsShared = false;
+        }
+        return tickets;
     }
     
     @JsonIgnore
     public boolean isExpired() {
-        return LocalDateTime.now().isAfter(dateTime);
+        return isExpiredAt(System.currentTimeMillis());
+    }
+    
+    private boolean isExpiredAt(long epochMillis) {
+        return epochMillis > dateTimeEpochMillis;
     }
     
     @JsonIgnore
@@ -126,9 +337,16 @@ public class Session {
             throw new IllegalStateException("No available seats for this session");
         }
         
-        Ticket ticket = new Ticket(this, ticketPrice);
-        tickets.add(ticket);
+        materializeIssued();
+        LocalDateTime purchaseTime = LocalDateTime.now();
+        Ticket ticket = new Ticket(this, priceAt(purchaseTime), purchaseTime);
+        writableTickets().add(ticket);
         availableSeats--;
+        revenue += ticket.getPrice();
+        if (cinema != null) {
+            cinema.ticketAdded(ticket);
+        }
+        figuresChanged();
         
         return ticket;
     }
@@ -146,23 +364,110 @@ public class Session {
             throw new IllegalArgumentException("Not enough available seats. Only " + availableSeats + " left.");
         }
         
-        List<Ticket> purchasedTickets = new ArrayList<>();
+        materializeIssued();
+        List<Ticket> purchasedTickets = new ArrayList<>(numberOfTickets);
+        List<Ticket> target = writableTickets();
+        LocalDateTime purchaseTime = LocalDateTime.now();
         for (int i = 0; i < numberOfTickets; i++) {
-            Ticket ticket = new Ticket(this, ticketPrice);
-            tickets.add(ticket);
+            Ticket ticket = new Ticket(this, priceAt(purchaseTime), purchaseTime);
+            target.add(ticket);
             availableSeats--;
+            revenue += ticket.getPrice();
             purchasedTickets.add(ticket);
+            if (cinema != null) {
+                cinema.ticketAdded(ticket);
+            }
         }
+        figuresChanged();
         
         return purchasedTickets;
     }
     
+    public void buyTickets(int numberOfTickets, TicketSink sink) {
+        long now = System.currentTimeMillis();
+        if (isExpiredAt(now)) {
+            throw new IllegalStateException("Cannot buy tickets for expired session");
+        }
+        
+        if (numberOfTickets <= 0) {
+            throw new IllegalArgumentException("Number of tickets must be positive");
+        }
+        
+        if (numberOfTickets > availableSeats) {
+            throw new IllegalArgumentException("Not enough available seats. Only " + availableSeats + " left.");
+        }
+        
+        if (sink == null) {
+            throw new IllegalArgumentException("Ticket sink cannot be null");
+        }
+        
+        // Sized for the whole hall once, so steady-state purchases do not allocate.
+        if (issuedNumbers == null || issuedNumbers.length < issuedCount + numberOfTickets) {
+            int capacity = Math.max(issuedCount + numberOfTickets, totalSeats);
+            issuedNumbers = Arrays.copyOf(issuedNumbers == null ? new long[0] : issuedNumbers, capacity);
+            issuedTimes = Arrays.copyOf(issuedTimes == null ? new long[0] : issuedTimes, capacity);
+            issuedPrices = Arrays.copyOf(issuedPrices == null ? new double[0] : issuedPrices, capacity);
+        }
+        if (issuedCount == 0 && cinema != null) {
+            cinema.issuedTicketsPending(this);
+        }
+        
+        for (int i = 0; i < numberOfTickets; i++) {
+            double price = priceAt(now);
+            long ticketNumber = nextTicketNumber++;
+            issuedNumbers[issuedCount] = ticketNumber;
+            issuedTimes[issuedCount] = now;
+            issuedPrices[issuedCount] = price;
+            issuedCount++;
+            availableSeats--;
+            revenue += price;
+            sink.ticketIssued(ticketNumber, now, price);
+        }
+        figuresChanged();
+    }
+    
+    public void addTicket(Ticket ticket) {
+        if (ticket == null) {
+            throw new IllegalArgumentException("Ticket cannot be null");
+        }
+        
+        if (availableSeats <= 0) {
+            throw new IllegalStateException("No available seats for this session");
+        }
+        
+        materializeIssued();
+        ticket.setSession(this);
+        writableTickets().add(ticket);
+        availableSeats--;
+        revenue += ticket.getPrice();
+        if (cinema != null) {
+            cinema.ticketAdded(ticket);
+        }
+        figuresChanged();
+    }
+    
     public boolean removeTicket(Ticket ticket) {
         if (ticket == null) {
             return false;
         }
         
-        return tickets.removeIf(t -> t.getId().equals(ticket.getId()));
+        loadTickets();
+        boolean removed = false;
+        for (Iterator<Ticket> iterator = writableTickets().iterator(); iterator.hasNext(); ) {
+            Ticket candidate = iterator.next();
+            if (candidate.getId().equals(ticket.getId())) {
+                iterator.remove();
+                removed = true;
+                revenue -= candidate.getPrice();
+                if (cinema != null) {
+                    cinema.ticketRemoved(candidate);
+                }
+            }
+        }
+        if (removed) {
+            figuresChanged();
+        }
+        return removed;
     }
     
     public void increaseAvailableSeats(int amount) {
@@ -171,6 +476,90 @@ public class Session {
         }
         
         this.availableSeats = Math.min(this.availableSeats + amount, this.totalSeats);
+        figuresChanged();
+    }
+    
+    // A session shared with a derived view (e.g. an export) keeps reporting to
+    // the cinema that owned it first.
+    void attachTo(Cinema cinema) {
+        if (this.cinema == null) {
+            this.cinema = cinema;
+        }
+    }
+    
+    boolean isOwnedBy(Cinema cinema) {
+        return this.cinema == cinema;
+    }
+    
+    int catalogRow() {
+        return catalogRow;
+    }
+    
+    void assignCatalogRow(int row) {
+        this.catalogRow = row;
+    }
+    
+    long dateTimeEpochMillis() {
+        return dateTimeEpochMillis;
+    }
+    
+    private void figuresChanged() {
+        if (cinema != null) {
+            cinema.sessionFiguresChanged(this);
+        }
+    }
+    
+    void detachFrom(Cinema cinema) {
+        if (this.cinema == cinema) {
+            this.cinema = null;
+        }
+    }
+    
+    public Session copy() {
+        Session copy = new Session();
+        copy.id = id;
+        copy.movieTitle = movieTitle;
+        copy.dateTime = dateTime;
+        copy.dateTimeEpochMillis = dateTimeEpochMillis;
+        copy.totalSeats = totalSeats;
+        copy.availableSeats = availableSeats;
+        copy.ticketPrice = ticketPrice;
+        copy.priceCurve = priceCurve;
+        copy.revenue = revenue;
+        
+        loadTickets();
+        for (Ticket ticket : tickets) {
+            Ticket ticketCopy = new Ticket(copy, ticket.getPrice(), ticket.getPurchaseTime());
+            ticketCopy.setId(ticket.getId());
+            copy.tickets.add(ticketCopy);
+        }
+        
+        return copy;
+    }
+    
+    // Unlike copy(), the snapshot shares the ticket list, so taking it costs nothing per
+    // loaded ticket. A pending loader is run on the live session first: the snapshot may
+    // be written over the file the loader reads from, which would strand both sessions.
+    Session snapshot() {
+        loadTickets();
+        Session snapshot = new Session();
+        snapshot.id = id;
+        snapshot.movieTitle = movieTitle;
+        snapshot.dateTime = dateTime;
+        snapshot.dateTimeEpochMillis = dateTimeEpochMillis;
+        snapshot.totalSeats = totalSeats;
+        snapshot.availableSeats = availableSeats;
+        snapshot.ticketPrice = ticketPrice;
+        snapshot.priceCurve = priceCurve;
+        snapshot.revenue = revenue;
+        snapshot.tickets = tickets;
+        snapshot.ticketsShared = true;
+        ticketsShared = true;
+        return snapshot;
+    }
+    
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? Long.MAX_VALUE : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
     
     @Override
@@ -0,0 +1,251 @@
+package com.example.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Column-per-field copy of a cinema's session list: row i always mirrors sessions.get(i),
+// so scans over seats, prices and showtimes touch primitive arrays instead of Session objects.
+// Rows whose session reports to this cinema are kept current by Session's change hooks;
+// the others (duplicates, sessions shared with a derived view) are re-read before a scan.
+class SessionColumns {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_ROW = -1;
+    private static final int NO_TITLE = -1;
+    
+    private final Cinema owner;
+    private final Map<String, Integer> titleCodes = new HashMap<>();
+    private final List<String> titles = new ArrayList<>();
+    private Session[] rows = new Session[INITIAL_CAPACITY];
+    private long[] startMillis = new long[INITIAL_CAPACITY];
+    private int[] totalSeats = new int[INITIAL_CAPACITY];
+    private int[] availableSeats = new int[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private double[] revenue = new double[INITIAL_CAPACITY];
+    private int[] titleCode = new int[INITIAL_CAPACITY];
+    private int size;
+    private int untrackedRows;
+    
+    SessionColumns(Cinema owner) {
+        this.owner = owner;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    void add(Session session) {
+        if (size == rows.length) {
+            grow(size * 2);
+        }
+        int row = size++;
+        rows[row] = session;
+        writeKey(row);
+        writeFigures(row);
+        if (session.isOwnedBy(owner) && session.catalogRow() == NO_ROW) {
+            session.assignCatalogRow(row);
+        } else {
+            untrackedRows++;
+        }
+    }
+    
+    void remove(int row) {
+        if (isTracked(row)) {
+            rows[row].assignCatalogRow(NO_ROW);
+        } else {
+            untrackedRows--;
+        }
+        
+        int moved = size - row - 1;
+        System.arraycopy(rows, row + 1, rows, row, moved);
+        System.arraycopy(startMillis, row + 1, startMillis, row, moved);
+        System.arraycopy(totalSeats, row + 1, totalSeats, row, moved);
+        System.arraycopy(availableSeats, row + 1, availableSeats, row, moved);
+        System.arraycopy(prices, row + 1, prices, row, moved);
+        System.arraycopy(revenue, row + 1, revenue, row, moved);
+        System.arraycopy(titleCode, row + 1, titleCode, row, moved);
+        rows[--size] = null;
+        
+        for (int r = row; r < size; r++) {
+            Session session = rows[r];
+            if (session.catalogRow() == r + 1 && session.isOwnedBy(owner)) {
+                session.assignCatalogRow(r);
+            }
+        }
+    }
+    
+    void clear() {
+        for (int r = 0; r < size; r++) {
+            if (isTracked(r)) {
+                rows[r].assignCatalogRow(NO_ROW);
+            }
+        }
+        Arrays.fill(rows, 0, size, null);
+        size = 0;
+        untrackedRows = 0;
+        titleCodes.clear();
+        titles.clear();
+    }
+    
+    // Seat, price and revenue changes happen on every purchase, so they skip the title dictionary.
+    void figuresChanged(Session session) {
+        int row = trackedRow(session);
+        if (row != NO_ROW) {
+            writeFigures(row);
+        }
+    }
+    
+    void keyChanged(Session session) {
+        int row = trackedRow(session);
+        if (row != NO_ROW) {
+            writeKey(row);
+        }
+    }
+    
+    double totalRevenue() {
+        refreshUntracked();
+        double total = 0;
+        for (int r = 0; r < size; r++) {
+            total += revenue[r];
+        }
+        return total;
+    }
+    
+    long soldTickets() {
+        refreshUntracked();
+        long sold = 0;
+        for (int r = 0; r < size; r++) {
+            sold += totalSeats[r] - availableSeats[r];
+        }
+        return sold;
+    }
+    
+    long totalSeats() {
+        refreshUntracked();
+        long seats = 0;
+        for (int r = 0; r < size; r++) {
+            seats += totalSeats[r];
+        }
+        return seats;
+    }
+    
+    // Showtimes in [fromMillis, toMillis), in list order.
+    List<Session> startingBetween(long fromMillis, long toMillis) {
+        refreshUntracked();
+        List<Session> result = new ArrayList<>();
+        for (int r = 0; r < size; r++) {
+            long start = startMillis[r];
+            if (start >= fromMillis && start < toMillis) {
+                result.add(rows[r]);
+            }
+        }
+        return result;
+    }
+    
+    // A session without a showtime never expires, so it starts "after" every instant.
+    List<Session> startingFrom(long fromMillis) {
+        refreshUntracked();
+        List<Session> result = new ArrayList<>();
+        for (int r = 0; r < size; r++) {
+            if (startMillis[r] >= fromMillis) {
+                result.add(rows[r]);
+            }
+        }
+        return result;
+    }
+    
+    // Every predicate of the query in one pass over the columns; titles compare as
+    // dictionary codes, so a title nobody has used cannot match any row.
+    List<Session> scan(SessionQuery query, int skip, int limit) {
+        refreshUntracked();
+        List<Session> result = new ArrayList<>();
+        boolean anyTitle = query.getTitle() == null;
+        Integer code = anyTitle ? null : titleCodes.get(query.getTitle());
+        if (!anyTitle && code == null) {
+            return result;
+        }
+        
+        int wantedTitle = anyTitle ? NO_TITLE : code;
+        long firstStart = query.firstStartMillis();
+        long lastStart = query.lastStartMillis();
+        double minPrice = query.getMinPrice();
+        double maxPrice = query.getMaxPrice();
+        int minSeats = query.getMinAvailableSeats();
+        for (int r = 0; r < size && result.size() < limit; r++) {
+            long start = startMillis[r];
+            double price = prices[r];
+            if (start >= firstStart && start <= lastStart && price >= minPrice && price <= maxPrice
+                    && availableSeats[r] >= minSeats && (anyTitle || titleCode[r] == wantedTitle)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    result.add(rows[r]);
+                }
+            }
+        }
+        return result;
+    }
+    
+    private boolean isTracked(int row) {
+        Session session = rows[row];
+        return session.catalogRow() == row && session.isOwnedBy(owner);
+    }
+    
+    private int trackedRow(Session session) {
+        int row = session.catalogRow();
+        return row >= 0 && row < size && rows[row] == session ? row : NO_ROW;
+    }
+    
+    private void refreshUntracked() {
+        if (untrackedRows == 0) {
+            return;
+        }
+        for (int r = 0; r < size; r++) {
+            if (!isTracked(r)) {
+                writeKey(r);
+                writeFigures(r);
+            }
+        }
+    }
+    
+    private void writeKey(int row) {
+        Session session = rows[row];
+        startMillis[row] = session.dateTimeEpochMillis();
+        titleCode[row] = codeOf(session.getMovieTitle());
+    }
+    
+    private void writeFigures(int row) {
+        Session session = rows[row];
+        totalSeats[row] = session.getTotalSeats();
+        availableSeats[row] = session.getAvailableSeats();
+        prices[row] = session.getTicketPrice();
+        revenue[row] = session.getRevenue();
+    }
+    
+    // Codes are never reused within one generation of the catalog, so the dictionary
+    // only grows with the number of distinct titles seen until the next clear().
+    private int codeOf(String title) {
+        if (title == null) {
+            return NO_TITLE;
+        }
+        Integer code = titleCodes.get(title);
+        if (code == null) {
+            code = titles.size();
+            titles.add(title);
+            titleCodes.put(title, code);
+        }
+        return code;
+    }
+    
+    private void grow(int capacity) {
+        rows = Arrays.copyOf(rows, capacity);
+        startMillis = Arrays.copyOf(startMillis, capacity);
+        totalSeats = Arrays.copyOf(totalSeats, capacity);
+        availableSeats = Arrays.copyOf(availableSeats, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        revenue = Arrays.copyOf(revenue, capacity);
+        titleCode = Arrays.copyOf(titleCode, capacity);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.model;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+public enum SessionOrder {
+    BY_TIME(Comparator.comparing(SortKey::getDateTime, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                      .thenComparing(SortKey::getId)),
+    BY_TITLE(Comparator.comparing(SortKey::getTitle, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                       .thenComparing(SortKey::getId));
+    
+    private final Comparator<SortKey> comparator;
+    
+    SessionOrder(Comparator<SortKey> comparator) {
+        this.comparator = comparator;
+    }
+    
+    Comparator<SortKey> comparator() {
+        return comparator;
+    }
+}
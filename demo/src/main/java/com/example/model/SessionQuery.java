@@ -0,0 +1,183 @@
+package com.example.model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Immutable session filter; every with* call returns a new query, so a base query can be
+// shared and refined. Prices compare against the base ticket price, not the dynamic one.
+public final class SessionQuery {
+    private static final SessionQuery ALL = new SessionQuery(null, null, null, 0, Double.POSITIVE_INFINITY, 0, null, 0,
+                                                             Integer.MAX_VALUE);
+    
+    private final String title;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final double minPrice;
+    private final double maxPrice;
+    private final int minAvailableSeats;
+    private final SessionOrder order;
+    private final int offset;
+    private final int limit;
+    private final long firstStartMillis;
+    private final long lastStartMillis;
+    
+    private SessionQuery(String title, LocalDateTime from, LocalDateTime to, double minPrice, double maxPrice,
+                         int minAvailableSeats, SessionOrder order, int offset, int limit) {
+        this.title = title;
+        this.from = from;
+        this.to = to;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.minAvailableSeats = minAvailableSeats;
+        this.order = order;
+        this.offset = offset;
+        this.limit = limit;
+        this.firstStartMillis = from == null ? Long.MIN_VALUE : Session.toEpochMillis(from);
+        this.lastStartMillis = to != null ? Session.toEpochMillis(to) - 1
+                                          : from == null ? Long.MAX_VALUE : Long.MAX_VALUE - 1;
+    }
+    
+    public static SessionQuery all() {
+        return ALL;
+    }
+    
+    public SessionQuery withTitle(String title) {
+        return new SessionQuery(title, from, to, minPrice, maxPrice, minAvailableSeats, order, offset, limit);
+    }
+    
+    // Showtimes in [from, to); either end may be null for an open range.
+    public SessionQuery withStartBetween(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end cannot be before its start");
+        }
+        return new SessionQuery(title, from, to, minPrice, maxPrice, minAvailableSeats, order, offset, limit);
+    }
+    
+    public SessionQuery withPriceBetween(double minPrice, double maxPrice) {
+        if (minPrice < 0 || maxPrice < minPrice) {
+            throw new IllegalArgumentException("Price range must be non-negative and ordered");
+        }
+        return new SessionQuery(title, from, to, minPrice, maxPrice, minAvailableSeats, order, offset, limit);
+    }
+    
+    public SessionQuery withMinAvailableSeats(int minAvailableSeats) {
+        if (minAvailableSeats < 0) {
+            throw new IllegalArgumentException("Minimum available seats cannot be negative");
+        }
+        return new SessionQuery(title, from, to, minPrice, maxPrice, minAvailableSeats, order, offset, limit);
+    }
+    
+    // Without an order, results come in whatever order the chosen access path yields.
+    public SessionQuery withOrder(SessionOrder order) {
+        return new SessionQuery(title, from, to, minPrice, maxPrice, minAvailableSeats, order, offset, limit);
+    }
+    
+    public SessionQuery withOffset(int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        return new SessionQuery(title, from, to, minPrice, maxPrice, minAvailableSeats, order, offset, limit);
+    }
+    
+    public SessionQuery withLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return new SessionQuery(title, from, to, minPrice, maxPrice, minAvailableSeats, order, offset, limit);
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public double getMinPrice() {
+        return minPrice;
+    }
+    
+    public double getMaxPrice() {
+        return maxPrice;
+    }
+    
+    public int getMinAvailableSeats() {
+        return minAvailableSeats;
+    }
+    
+    public SessionOrder getOrder() {
+        return order;
+    }
+    
+    public int getOffset() {
+        return offset;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public boolean hasTimeRange() {
+        return from != null || to != null;
+    }
+    
+    long firstStartMillis() {
+        return firstStartMillis;
+    }
+    
+    // Sessions without a showtime carry Long.MAX_VALUE in the catalog; any time range
+    // stops one millisecond short of it so they never match a date filter.
+    long lastStartMillis() {
+        return lastStartMillis;
+    }
+    
+    boolean matches(Session session) {
+        long start = session.dateTimeEpochMillis();
+        double price = session.getTicketPrice();
+        return (title == null || title.equals(session.getMovieTitle()))
+               && start >= firstStartMillis && start <= lastStartMillis
+               && price >= minPrice && price <= maxPrice
+               && session.getAvailableSeats() >= minAvailableSeats;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SessionQuery query = (SessionQuery) o;
+        return Double.compare(query.minPrice, minPrice) == 0 &&
+               Double.compare(query.maxPrice, maxPrice) == 0 &&
+               minAvailableSeats == query.minAvailableSeats &&
+               offset == query.offset &&
+               limit == query.limit &&
+               Objects.equals(title, query.title) &&
+               Objects.equals(from, query.from) &&
+               Objects.equals(to, query.to) &&
+               order == query.order;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(title, from, to, minPrice, maxPrice, minAvailableSeats, order, offset, limit);
+    }
+    
+    @Override
+    public String toString() {
+        return "SessionQuery{" +
+               "title='" + title + '\'' +
+               ", from=" + from +
+               ", to=" + to +
+               ", minPrice=" + minPrice +
+               ", maxPrice=" + maxPrice +
+               ", minAvailableSeats=" + minAvailableSeats +
+               ", order=" + order +
+               ", offset=" + offset +
+               ", limit=" + limit +
+               '}';
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+// Plans a SessionQuery against the cinema's indexes: the exact-title index, the by-time
+// tree and the columnar catalog. The path with the fewest candidates wins, the remaining
+// predicates run as residual filters, and offset/limit stop the scan early whenever the
+// path already yields the requested order.
+class SessionQueryEngine {
+    // A catalog row is a handful of primitive reads while an index candidate is a Session
+    // reached through list or tree nodes, so a full column scan counts as n / 8 candidates.
+    private static final int COLUMN_ROWS_PER_CANDIDATE = 8;
+    // A time-ordered scan with a limit stops after offset + limit matches; the planner
+    // assumes the non-title residual filters keep at least one candidate in this many.
+    private static final int CANDIDATES_PER_LIMITED_MATCH = 4;
+    
+    private final SessionTitleIndex titleIndex;
+    private final Map<SessionOrder, NavigableMap<SortKey, Session>> sortedSessions;
+    private final SessionColumns columns;
+    
+    SessionQueryEngine(SessionTitleIndex titleIndex, Map<SessionOrder, NavigableMap<SortKey, Session>> sortedSessions,
+                       SessionColumns columns) {
+        this.titleIndex = titleIndex;
+        this.sortedSessions = sortedSessions;
+        this.columns = columns;
+    }
+    
+    QueryPlan plan(SessionQuery query) {
+        QueryPlan.AccessPath path = QueryPlan.AccessPath.COLUMN_SCAN;
+        long candidates = columns.size();
+        long cost = (candidates + COLUMN_ROWS_PER_CANDIDATE - 1) / COLUMN_ROWS_PER_CANDIDATE;
+        
+        // Titles are the one filter with exact counts, so they also scale the estimate of how
+        // far a limited time-ordered scan has to walk before it finds enough matches.
+        long perMatch = CANDIDATES_PER_LIMITED_MATCH;
+        if (query.getTitle() != null) {
+            int titled = titleIndex.countExact(query.getTitle());
+            perMatch *= Math.max(1, candidates / Math.max(1, titled));
+            if (titled <= cost) {
+                path = QueryPlan.AccessPath.TITLE_INDEX;
+                candidates = titled;
+                cost = titled;
+            }
+        }
+        
+        // Counting a tree range is linear, so it stops as soon as it cannot beat the best path;
+        // a tie goes to the time index when it also provides the requested order.
+        boolean timeOrdered = query.getOrder() == SessionOrder.BY_TIME;
+        if (query.hasTimeRange() || timeOrdered) {
+            long visited = timeOrdered && query.getLimit() < Integer.MAX_VALUE
+                    ? ((long) query.getOffset() + query.getLimit()) * perMatch
+                    : Long.MAX_VALUE;
+            long inRange = countUpTo(timeRange(query), Math.min(visited, timeOrdered ? cost : cost - 1));
+            long timeCost = Math.min(inRange, visited);
+            if (timeCost < cost || (timeOrdered && timeCost == cost)) {
+                path = QueryPlan.AccessPath.TIME_INDEX;
+                candidates = timeCost;
+            }
+        }
+        
+        return new QueryPlan(path, candidates, yieldsOrder(path, query.getOrder()));
+    }
+    
+    List<Session> execute(SessionQuery query, QueryPlan plan) {
+        boolean pushedDown = plan.isLimitPushedDown();
+        int skip = pushedDown ? query.getOffset() : 0;
+        int limit = pushedDown ? query.getLimit() : Integer.MAX_VALUE;
+        
+        List<Session> matches;
+        switch (plan.getAccessPath()) {
+            case TITLE_INDEX:
+                matches = filter(titleIndex.findExact(query.getTitle()), query, skip, limit);
+                break;
+            case TIME_INDEX:
+                matches = filter(timeRange(query).values(), query, skip, limit);
+                break;
+            default:
+                matches = columns.scan(query, skip, limit);
+        }
+        if (pushedDown) {
+            return matches;
+        }
+        
+        if (query.getOrder() != null) {
+            Comparator<SortKey> order = query.getOrder().comparator();
+            matches.sort(Comparator.comparing(SortKey::of, order));
+        }
+        int from = Math.min(query.getOffset(), matches.size());
+        int to = (int) Math.min((long) from + query.getLimit(), matches.size());
+        return new ArrayList<>(matches.subList(from, to));
+    }
+    
+    private static boolean yieldsOrder(QueryPlan.AccessPath path, SessionOrder order) {
+        return order == null || (order == SessionOrder.BY_TIME && path == QueryPlan.AccessPath.TIME_INDEX);
+    }
+    
+    private static List<Session> filter(Iterable<Session> candidates, SessionQuery query, int skip, int limit) {
+        List<Session> result = new ArrayList<>();
+        for (Session session : candidates) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (query.matches(session)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    result.add(session);
+                }
+            }
+        }
+        return result;
+    }
+    
+    // The empty id sorts before every real one, so these bounds take in all sessions at
+    // "from" and none at "to"; sessions without a showtime sort first and stay outside
+    // any range, but an open query walks the whole index including them.
+    private NavigableMap<SortKey, Session> timeRange(SessionQuery query) {
+        NavigableMap<SortKey, Session> byTime = sortedSessions.get(SessionOrder.BY_TIME);
+        if (!query.hasTimeRange()) {
+            return byTime;
+        }
+        LocalDateTime from = query.getFrom() == null ? LocalDateTime.MIN : query.getFrom();
+        NavigableMap<SortKey, Session> range = byTime.tailMap(SortKey.of("", null, from), true);
+        return query.getTo() == null ? range : range.headMap(SortKey.of("", null, query.getTo()), false);
+    }
+    
+    private static long countUpTo(NavigableMap<SortKey, Session> range, long bound) {
+        long count = 0;
+        for (Session ignored : range.values()) {
+            if (++count > bound) {
+                break;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+class SessionTitleIndex {
+    private static final int GRAM = 3;
+    
+    private final Map<String, List<Session>> byTitle = new HashMap<>();
+    private final NavigableMap<String, List<Session>> byNormalizedTitle = new TreeMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    
+    void add(Session session) {
+        String title = session.getMovieTitle();
+        if (title == null) {
+            return;
+        }
+        
+        byTitle.computeIfAbsent(title, key -> new ArrayList<>()).add(session);
+        
+        String normalized = normalize(title);
+        List<Session> sessions = byNormalizedTitle.get(normalized);
+        if (sessions == null) {
+            sessions = new ArrayList<>();
+            byNormalizedTitle.put(normalized, sessions);
+            for (String gram : grams(normalized)) {
+                trigrams.computeIfAbsent(gram, key -> new HashSet<>()).add(normalized);
+            }
+        }
+        sessions.add(session);
+    }
+    
+    void remove(Session session, String title) {
+        if (title == null) {
+            return;
+        }
+        
+        removeFrom(byTitle, title, session);
+        
+        String normalized = normalize(title);
+        if (removeFrom(byNormalizedTitle, normalized, session)) {
+            for (String gram : grams(normalized)) {
+                Set<String> titles = trigrams.get(gram);
+                if (titles != null) {
+                    titles.remove(normalized);
+                    if (titles.isEmpty()) {
+                        trigrams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+    
+    void clear() {
+        byTitle.clear();
+        byNormalizedTitle.clear();
+        trigrams.clear();
+    }
+    
+    List<Session> findExact(String title) {
+        List<Session> sessions = byTitle.get(title);
+        return sessions == null ? Collections.emptyList() : new ArrayList<>(sessions);
+    }
+    
+    int countExact(String title) {
+        List<Session> sessions = byTitle.get(title);
+        return sessions == null ? 0 : sessions.size();
+    }
+    
+    List<Session> findByPrefix(String prefix) {
+        String normalized = normalize(prefix);
+        List<Session> result = new ArrayList<>();
+        for (List<Session> sessions : byNormalizedTitle.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+            result.addAll(sessions);
+        }
+        return result;
+    }
+    
+    // Fragments shorter than a trigram fall back to scanning the distinct titles,
+    // which is far smaller than the session count.
+    List<Session> findBySubstring(String fragment) {
+        String normalized = normalize(fragment);
+        List<Session> result = new ArrayList<>();
+        
+        if (normalized.length() < GRAM) {
+            for (Map.Entry<String, List<Session>> entry : byNormalizedTitle.entrySet()) {
+                if (entry.getKey().contains(normalized)) {
+                    result.addAll(entry.getValue());
+                }
+            }
+            return result;
+        }
+        
+        Set<String> candidates = null;
+        for (String gram : grams(normalized)) {
+            Set<String> titles = trigrams.get(gram);
+            if (titles == null) {
+                return result;
+            }
+            if (candidates == null || titles.size() < candidates.size()) {
+                candidates = titles;
+            }
+        }
+        
+        List<String> matches = new ArrayList<>();
+        for (String title : candidates) {
+            if (title.contains(normalized)) {
+                matches.add(title);
+            }
+        }
+        Collections.sort(matches);
+        for (String title : matches) {
+            result.addAll(byNormalizedTitle.get(title));
+        }
+        return result;
+    }
+    
+    private static boolean removeFrom(Map<String, List<Session>> index, String key, Session session) {
+        List<Session> sessions = index.get(key);
+        if (sessions == null) {
+            return false;
+        }
+        
+        for (int i = 0; i < sessions.size(); i++) {
+            if (sessions.get(i) == session) {
+                sessions.remove(i);
+                break;
+            }
+        }
+        if (sessions.isEmpty()) {
+            index.remove(key);
+            return true;
+        }
+        return false;
+    }
+    
+    private static Set<String> grams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+    
+    private static String normalize(String title) {
+        return title.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+
+final class SortKey {
+    static final Comparator<SortKey> BY_PURCHASE_TIME =
+            Comparator.comparing(SortKey::getDateTime, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                      .thenComparing(SortKey::getId);
+    
+    private static final String TICKET_CURSOR = "TICKET";
+    private static final String NULL_PART = "~";
+    
+    private final String id;
+    private final String title;
+    private final LocalDateTime dateTime;
+    
+    private SortKey(String id, String title, LocalDateTime dateTime) {
+        this.id = id;
+        this.title = title;
+        this.dateTime = dateTime;
+    }
+    
+    static SortKey of(Session session) {
+        return new SortKey(session.getId(), session.getMovieTitle(), session.getDateTime());
+    }
+    
+    static SortKey of(String id, String title, LocalDateTime dateTime) {
+        return new SortKey(id, title, dateTime);
+    }
+    
+    static SortKey of(Ticket ticket) {
+        return new SortKey(ticket.getId(), null, ticket.getPurchaseTime());
+    }
+    
+    String getId() {
+        return id;
+    }
+    
+    String getTitle() {
+        return title;
+    }
+    
+    LocalDateTime getDateTime() {
+        return dateTime;
+    }
+    
+    String toCursor(SessionOrder order) {
+        return encode(order.name(), id, order == SessionOrder.BY_TITLE ? title : toString(dateTime));
+    }
+    
+    String toTicketCursor() {
+        return encode(TICKET_CURSOR, id, toString(dateTime));
+    }
+    
+    static SortKey fromCursor(String cursor, SessionOrder order) {
+        String[] parts = decode(cursor, order.name());
+        if (order == SessionOrder.BY_TITLE) {
+            return new SortKey(parts[1], parts[2], null);
+        }
+        return new SortKey(parts[1], null, parseDateTime(parts[2]));
+    }
+    
+    static SortKey fromTicketCursor(String cursor) {
+        String[] parts = decode(cursor, TICKET_CURSOR);
+        return new SortKey(parts[1], null, parseDateTime(parts[2]));
+    }
+    
+    private static String encode(String... parts) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        StringBuilder cursor = new StringBuilder();
+        for (String part : parts) {
+            if (cursor.length() > 0) {
+                cursor.append('.');
+            }
+            cursor.append(part == null ? NULL_PART
+                                       : encoder.encodeToString(part.getBytes(StandardCharsets.UTF_8)));
+        }
+        return cursor.toString();
+    }
+    
+    private static String[] decode(String cursor, String expectedKind) {
+        String[] parts = cursor.split("\\.", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = NULL_PART.equals(parts[i]) ? null
+                                                      : new String(decoder.decode(parts[i]), StandardCharsets.UTF_8);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        
+        if (!expectedKind.equals(parts[0]) || parts[1] == null) {
+            throw new IllegalArgumentException("Cursor does not belong to this listing: " + cursor);
+        }
+        return parts;
+    }
+    
+    private static String toString(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toString();
+    }
+    
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return value == null ? null : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor time: " + value, e);
+        }
+    }
+}
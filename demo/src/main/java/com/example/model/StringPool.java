@@ -0,0 +1,56 @@
+package com.example.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class StringPool {
+    public static final int DEFAULT_MAX_SIZE = 65536;
+    
+    private static final StringPool SHARED = new StringPool(DEFAULT_MAX_SIZE);
+    
+    private final ConcurrentHashMap<String, String> pool;
+    private final int maxSize;
+    
+    public StringPool(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be greater than zero");
+        }
+        this.maxSize = maxSize;
+        this.pool = new ConcurrentHashMap<>();
+    }
+    
+    public static StringPool shared() {
+        return SHARED;
+    }
+    
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        
+        String canonical = pool.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        
+        // Once the pool is full new values are returned as-is instead of evicting,
+        // so a burst of unique strings can never grow the pool without bound.
+        if (pool.size() >= maxSize) {
+            return value;
+        }
+        
+        canonical = pool.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+    
+    public int size() {
+        return pool.size();
+    }
+    
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    public void clear() {
+        pool.clear();
+    }
+}
@@ -20,11 +20,15 @@ public class Ticket {
     private double price;
     
     public Ticket(Session session, double price) {
+        this(session, price, LocalDateTime.now());
+    }
+    
+    public Ticket(Session session, double price, LocalDateTime purchaseTime) {
         this.id = UUID.randomUUID().toString();
         this.session = session;
         this.sessionId = session != null ? session.getId() : null;
         this.price = price;
-        this.purchaseTime = LocalDateTime.now();
+        this.purchaseTime = purchaseTime;
     }
     
     public Ticket() {
@@ -55,6 +59,8 @@ public class Ticket {
         return sessionId;
     }
     
+    // Session ids are unique, so pooling them would only pin them; setSession makes
+    // the ticket share its owning session's id instead.
     public void setSessionId(String sessionId) {
         this.sessionId = sessionId;
     }
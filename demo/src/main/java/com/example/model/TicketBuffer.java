@@ -0,0 +1,77 @@
+package com.example.model;
+
+public class TicketBuffer implements TicketSink {
+    private final long[] ticketNumbers;
+    private final long[] purchaseTimes;
+    private final double[] prices;
+    private int size;
+    
+    public TicketBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive");
+        }
+        this.ticketNumbers = new long[capacity];
+        this.purchaseTimes = new long[capacity];
+        this.prices = new double[capacity];
+    }
+    
+    @Override
+    public void ticketIssued(long ticketNumber, long purchaseEpochMillis, double price) {
+        if (size == ticketNumbers.length) {
+            throw new IllegalStateException("Ticket buffer is full");
+        }
+        ticketNumbers[size] = ticketNumber;
+        purchaseTimes[size] = purchaseEpochMillis;
+        prices[size] = price;
+        size++;
+    }
+    
+    public void clear() {
+        size = 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int capacity() {
+        return ticketNumbers.length;
+    }
+    
+    public long getTicketNumber(int index) {
+        checkIndex(index);
+        return ticketNumbers[index];
+    }
+    
+    public long getPurchaseTime(int index) {
+        checkIndex(index);
+        return purchaseTimes[index];
+    }
+    
+    public double getPrice(int index) {
+        checkIndex(index);
+        return prices[index];
+    }
+    
+    public double getTotalPrice() {
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += prices[i];
+        }
+        return total;
+    }
+    
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "TicketBuffer{" +
+               "size=" + size +
+               ", capacity=" + ticketNumbers.length +
+               '}';
+    }
+}
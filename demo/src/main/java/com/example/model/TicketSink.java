@@ -0,0 +1,8 @@
+package com.example.model;
+
+@FunctionalInterface
+public interface TicketSink {
+    // ticketNumber is unique within the session; Session.ticketId turns it into the
+    // id the ticket gets once it is materialized.
+    void ticketIssued(long ticketNumber, long purchaseEpochMillis, double price);
+}
@@ -0,0 +1,79 @@
+package com.example.service;
+
+public class AutosaveMetrics {
+    private final long saveCount;
+    private final long failureCount;
+    private final long lastCaptureNanos;
+    private final long lastSaveNanos;
+    private final long maxSaveNanos;
+    private final long lastSaveEpochMillis;
+    private final long pendingChanges;
+    private final long lagMillis;
+    private final Exception lastFailure;
+    
+    public AutosaveMetrics(long saveCount, long failureCount, long lastCaptureNanos, long lastSaveNanos,
+                           long maxSaveNanos, long lastSaveEpochMillis, long pendingChanges, long lagMillis,
+                           Exception lastFailure) {
+        this.saveCount = saveCount;
+        this.failureCount = failureCount;
+        this.lastCaptureNanos = lastCaptureNanos;
+        this.lastSaveNanos = lastSaveNanos;
+        this.maxSaveNanos = maxSaveNanos;
+        this.lastSaveEpochMillis = lastSaveEpochMillis;
+        this.pendingChanges = pendingChanges;
+        this.lagMillis = lagMillis;
+        this.lastFailure = lastFailure;
+    }
+    
+    public long getSaveCount() {
+        return saveCount;
+    }
+    
+    public long getFailureCount() {
+        return failureCount;
+    }
+    
+    public long getLastCaptureNanos() {
+        return lastCaptureNanos;
+    }
+    
+    public long getLastSaveNanos() {
+        return lastSaveNanos;
+    }
+    
+    public long getMaxSaveNanos() {
+        return maxSaveNanos;
+    }
+    
+    public long getLastSaveEpochMillis() {
+        return lastSaveEpochMillis;
+    }
+    
+    public long getPendingChanges() {
+        return pendingChanges;
+    }
+    
+    public long getLagMillis() {
+        return lagMillis;
+    }
+    
+    // The most recent failed save, or null if none has failed yet.
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+    
+    @Override
+    public String toString() {
+        return "AutosaveMetrics{" +
+               "saveCount=" + saveCount +
+               ", failureCount=" + failureCount +
+               ", lastCaptureNanos=" + lastCaptureNanos +
+               ", lastSaveNanos=" + lastSaveNanos +
+               ", maxSaveNanos=" + maxSaveNanos +
+               ", lastSaveEpochMillis=" + lastSaveEpochMillis +
+               ", pendingChanges=" + pendingChanges +
+               ", lagMillis=" + lagMillis +
+               ", lastFailure=" + lastFailure +
+               '}';
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AutosaveService implements CinemaChangeListener, Closeable {
+    private final CinemaService cinemaService;
+    private final ExportImportService exportImportService;
+    private final String filename;
+    private final ScheduledExecutorService executor;
+    private final AtomicLong pendingChanges = new AtomicLong();
+    private final AtomicLong oldestPendingNanos = new AtomicLong();
+    private final AtomicBoolean saveQueued = new AtomicBoolean();
+    private final AtomicLong saveCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private volatile long lastCaptureNanos;
+    private volatile long lastSaveNanos;
+    private volatile long maxSaveNanos;
+    private volatile long lastSaveEpochMillis;
+    private volatile long dirtyThreshold;
+    private volatile Exception lastFailure;
+    
+    public AutosaveService(CinemaService cinemaService, ExportImportService exportImportService, String filename) {
+        this.cinemaService = cinemaService;
+        this.exportImportService = exportImportService;
+        this.filename = filename;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cinema-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public void start(long interval, TimeUnit unit, long dirtyThreshold) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Autosave interval must be positive");
+        }
+        this.dirtyThreshold = dirtyThreshold;
+        cinemaService.addChangeListener(this);
+        executor.scheduleWithFixedDelay(() -> {
+            if (pendingChanges.get() > 0) {
+                requestSave();
+            }
+        }, interval, interval, unit);
+    }
+    
+    public CompletableFuture<Void> requestSave() {
+        if (!saveQueued.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return CompletableFuture.runAsync(this::saveQuietly, executor);
+        } catch (RejectedExecutionException e) {
+            saveQueued.set(false);
+            throw e;
+        }
+    }
+    
+    public AutosaveMetrics getMetrics() {
+        long oldest = oldestPendingNanos.get();
+        long lagMillis = oldest == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest);
+        return new AutosaveMetrics(saveCount.get(), failureCount.get(), lastCaptureNanos, lastSaveNanos,
+                                   maxSaveNanos, lastSaveEpochMillis, pendingChanges.get(), lagMillis, lastFailure);
+    }
+    
+    // Only the snapshot runs under the service lock; serialization and the file
+    // write happen on the autosave thread against that private snapshot.
+    void save() throws IOException {
+        long captureStart = System.nanoTime();
+        Capture capture = cinemaService.withConsistentView(cinema -> new Capture(cinema.snapshot(), pendingChanges.get()));
+        long captured = System.nanoTime();
+        
+        exportImportService.exportDataAtomically(capture.cinema, filename, ExportImportService.NO_SORT);
+        
+        long finished = System.nanoTime();
+        if (pendingChanges.addAndGet(-capture.changes) == 0) {
+            oldestPendingNanos.set(0);
+        } else {
+            oldestPendingNanos.set(captured);
+        }
+        lastCaptureNanos = captured - captureStart;
+        lastSaveNanos = finished - captureStart;
+        maxSaveNanos = Math.max(maxSaveNanos, lastSaveNanos);
+        lastSaveEpochMillis = System.currentTimeMillis();
+        saveCount.incrementAndGet();
+    }
+    
+    private void saveQuietly() {
+        saveQueued.set(false);
+        try {
+            if (cinemaService.getCinema() != null) {
+                save();
+            }
+        } catch (IOException | RuntimeException e) {
+            failureCount.incrementAndGet();
+            lastFailure = e;
+        }
+    }
+    
+    @Override
+    public void close() {
+        cinemaService.removeChangeListener(this);
+        if (pendingChanges.get() > 0 && !executor.isShutdown()) {
+            requestSave();
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @Override
+    public void cinemaChanged(Cinema cinema) {
+        changed();
+    }
+    
+    @Override
+    public void sessionAdded(Session session) {
+        changed();
+    }
+    
+    @Override
+    public void sessionRemoved(Session session) {
+        changed();
+    }
+    
+    @Override
+    public void sessionUpdated(Session session) {
+        changed();
+    }
+    
+    @Override
+    public void ticketsSold(Session session, List<Ticket> tickets) {
+        changed();
+    }
+    
+    @Override
+    public void ticketRemoved(Session session, Ticket ticket) {
+        changed();
+    }
+    
+    @Override
+    public void ticketMoved(Session fromSession, Ticket oldTicket, Session toSession, Ticket newTicket) {
+        changed();
+    }
+    
+    private void changed() {
+        oldestPendingNanos.compareAndSet(0, System.nanoTime());
+        long pending = pendingChanges.incrementAndGet();
+        if (dirtyThreshold > 0 && pending >= dirtyThreshold && !executor.isShutdown()) {
+            requestSave();
+        }
+    }
+    
+    private static class Capture {
+        private final Cinema cinema;
+        private final long changes;
+        
+        private Capture(Cinema cinema, long changes) {
+            this.cinema = cinema;
+            this.changes = changes;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+
+public class CancellationJob {
+    private final String sessionId;
+    private final String movieTitle;
+    private final int totalTickets;
+    private final AtomicInteger rebooked = new AtomicInteger();
+    private final AtomicInteger refunded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final DoubleAdder refundedAmount = new DoubleAdder();
+    private final CompletableFuture<CancellationJob> completion = new CompletableFuture<>();
+    private final long startNanos = System.nanoTime();
+    private volatile long finishNanos;
+    
+    CancellationJob(String sessionId, String movieTitle, int totalTickets) {
+        this.sessionId = sessionId;
+        this.movieTitle = movieTitle;
+        this.totalTickets = totalTickets;
+    }
+    
+    public String getSessionId() {
+        return sessionId;
+    }
+    
+    public String getMovieTitle() {
+        return movieTitle;
+    }
+    
+    public int getTotalTickets() {
+        return totalTickets;
+    }
+    
+    public int getRebooked() {
+        return rebooked.get();
+    }
+    
+    public int getRefunded() {
+        return refunded.get();
+    }
+    
+    public int getFailed() {
+        return failed.get();
+    }
+    
+    public double getRefundedAmount() {
+        return refundedAmount.sum();
+    }
+    
+    public int getProcessed() {
+        return rebooked.get() + refunded.get() + failed.get();
+    }
+    
+    public double getProgress() {
+        return totalTickets == 0 ? 1.0 : (double) getProcessed() / totalTickets;
+    }
+    
+    public boolean isDone() {
+        return completion.isDone();
+    }
+    
+    public CompletableFuture<CancellationJob> getCompletion() {
+        return completion;
+    }
+    
+    public long getElapsedNanos() {
+        return (isDone() ? finishNanos : System.nanoTime()) - startNanos;
+    }
+    
+    void recordRebooked(int count) {
+        rebooked.addAndGet(count);
+    }
+    
+    void recordRefunded(int count, double amount) {
+        refunded.addAndGet(count);
+        refundedAmount.add(amount);
+    }
+    
+    void recordFailed(int count) {
+        failed.addAndGet(count);
+    }
+    
+    void finish() {
+        finishNanos = System.nanoTime();
+        completion.complete(this);
+    }
+    
+    @Override
+    public String toString() {
+        return "CancellationJob{" +
+               "sessionId='" + sessionId + '\'' +
+               ", movieTitle='" + movieTitle + '\'' +
+               ", totalTickets=" + totalTickets +
+               ", rebooked=" + rebooked.get() +
+               ", refunded=" + refunded.get() +
+               ", failed=" + failed.get() +
+               '}';
+    }
+}
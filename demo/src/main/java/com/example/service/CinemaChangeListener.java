@@ -0,0 +1,31 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.util.List;
+
+public interface CinemaChangeListener {
+    
+    default void cinemaChanged(Cinema cinema) {
+    }
+    
+    default void sessionAdded(Session session) {
+    }
+    
+    default void sessionRemoved(Session session) {
+    }
+    
+    default void sessionUpdated(Session session) {
+    }
+    
+    default void ticketsSold(Session session, List<Ticket> tickets) {
+    }
+    
+    default void ticketRemoved(Session session, Ticket ticket) {
+    }
+    
+    default void ticketMoved(Session fromSession, Ticket oldTicket, Session toSession, Ticket newTicket) {
+    }
+}
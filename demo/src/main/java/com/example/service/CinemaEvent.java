@@ -0,0 +1,69 @@
+package com.example.service;
+
+import java.util.Collections;
+import java.util.List;
+
+public class CinemaEvent {
+    public enum Type {
+        CINEMA_REPLACED,
+        SESSION_ADDED,
+        SESSION_UPDATED,
+        SESSION_REMOVED,
+        TICKETS_SOLD,
+        TICKETS_REFUNDED,
+        TICKET_MOVED
+    }
+    
+    private final long sequence;
+    private final Type type;
+    private final String sessionId;
+    private final String targetSessionId;
+    private final List<String> ticketIds;
+    private final long timestamp;
+    
+    public CinemaEvent(long sequence, Type type, String sessionId, String targetSessionId,
+                       List<String> ticketIds, long timestamp) {
+        this.sequence = sequence;
+        this.type = type;
+        this.sessionId = sessionId;
+        this.targetSessionId = targetSessionId;
+        this.ticketIds = ticketIds != null ? Collections.unmodifiableList(ticketIds) : Collections.emptyList();
+        this.timestamp = timestamp;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public String getSessionId() {
+        return sessionId;
+    }
+    
+    public String getTargetSessionId() {
+        return targetSessionId;
+    }
+    
+    public List<String> getTicketIds() {
+        return ticketIds;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    @Override
+    public String toString() {
+        return "CinemaEvent{" +
+               "sequence=" + sequence +
+               ", type=" + type +
+               ", sessionId='" + sessionId + '\'' +
+               ", targetSessionId='" + targetSessionId + '\'' +
+               ", ticketIds=" + ticketIds +
+               ", timestamp=" + timestamp +
+               '}';
+    }
+}
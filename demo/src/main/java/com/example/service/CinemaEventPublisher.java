@@ -0,0 +1,179 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CinemaEventPublisher implements CinemaChangeListener, Flow.Publisher<List<CinemaEvent>>, AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 65536;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final int DEFAULT_SUBSCRIBER_BUFFER = 256;
+    
+    private final BlockingQueue<CinemaEvent> queue;
+    private final int batchSize;
+    private final SubmissionPublisher<List<CinemaEvent>> publisher;
+    private final ExecutorService deliveryExecutor;
+    private final Thread dispatcher;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder publishedEvents = new LongAdder();
+    private final LongAdder publishedBatches = new LongAdder();
+    private final LongAdder droppedAtQueue = new LongAdder();
+    private final LongAdder droppedForSubscribers = new LongAdder();
+    private volatile boolean running = true;
+    
+    public CinemaEventPublisher() {
+        this(DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_SUBSCRIBER_BUFFER);
+    }
+    
+    public CinemaEventPublisher(int queueCapacity, int batchSize, int subscriberBuffer) {
+        if (queueCapacity <= 0 || batchSize <= 0 || subscriberBuffer <= 0) {
+            throw new IllegalArgumentException("Queue capacity, batch size and subscriber buffer must be positive");
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.deliveryExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "cinema-event-delivery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.publisher = new SubmissionPublisher<>(deliveryExecutor, subscriberBuffer);
+        this.dispatcher = new Thread(this::dispatch, "cinema-event-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+    
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<CinemaEvent>> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+    
+    public int getSubscriberCount() {
+        return publisher.getNumberOfSubscribers();
+    }
+    
+    public long getPublishedEvents() {
+        return publishedEvents.sum();
+    }
+    
+    public long getPublishedBatches() {
+        return publishedBatches.sum();
+    }
+    
+    public long getDroppedAtQueue() {
+        return droppedAtQueue.sum();
+    }
+    
+    public long getDroppedForSubscribers() {
+        return droppedForSubscribers.sum();
+    }
+    
+    public int getQueuedEvents() {
+        return queue.size();
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        publisher.close();
+        deliveryExecutor.shutdown();
+    }
+    
+    @Override
+    public void cinemaChanged(Cinema cinema) {
+        enqueue(CinemaEvent.Type.CINEMA_REPLACED, null, null, null);
+    }
+    
+    @Override
+    public void sessionAdded(Session session) {
+        enqueue(CinemaEvent.Type.SESSION_ADDED, session.getId(), null, null);
+    }
+    
+    @Override
+    public void sessionUpdated(Session session) {
+        enqueue(CinemaEvent.Type.SESSION_UPDATED, session.getId(), null, null);
+    }
+    
+    @Override
+    public void sessionRemoved(Session session) {
+        enqueue(CinemaEvent.Type.SESSION_REMOVED, session.getId(), null, null);
+    }
+    
+    @Override
+    public void ticketsSold(Session session, List<Ticket> tickets) {
+        List<String> ticketIds = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            ticketIds.add(ticket.getId());
+        }
+        enqueue(CinemaEvent.Type.TICKETS_SOLD, session.getId(), null, ticketIds);
+    }
+    
+    @Override
+    public void ticketRemoved(Session session, Ticket ticket) {
+        enqueue(CinemaEvent.Type.TICKETS_REFUNDED, session.getId(), null, Collections.singletonList(ticket.getId()));
+    }
+    
+    @Override
+    public void ticketMoved(Session fromSession, Ticket oldTicket, Session toSession, Ticket newTicket) {
+        enqueue(CinemaEvent.Type.TICKET_MOVED, fromSession.getId(), toSession.getId(),
+                Collections.singletonList(newTicket.getId()));
+    }
+    
+    // Called on the purchase path, so it never blocks: a full queue drops the event.
+    private void enqueue(CinemaEvent.Type type, String sessionId, String targetSessionId, List<String> ticketIds) {
+        CinemaEvent event = new CinemaEvent(sequence.incrementAndGet(), type, sessionId, targetSessionId,
+                                            ticketIds, System.currentTimeMillis());
+        if (!running || !queue.offer(event)) {
+            droppedAtQueue.increment();
+        }
+    }
+    
+    private void dispatch() {
+        List<CinemaEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                CinemaEvent first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    break;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    continue;
+                }
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            
+            List<CinemaEvent> delivery = Collections.unmodifiableList(new ArrayList<>(batch));
+            batch.clear();
+            publishedEvents.add(delivery.size());
+            publishedBatches.increment();
+            
+            // A subscriber whose buffer is full loses this batch instead of holding up the rest.
+            publisher.offer(delivery, (subscriber, dropped) -> {
+                droppedForSubscribers.add(dropped.size());
+                return false;
+            });
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CinemaJsonModule extends SimpleModule {
+    
+    public CinemaJsonModule() {
+        super("CinemaJsonModule");
+        TimestampCodec timestamps = new TimestampCodec();
+        
+        addSerializer(Cinema.class, new CinemaSerializer());
+        addSerializer(Session.class, new SessionSerializer(timestamps));
+        addSerializer(Ticket.class, new TicketSerializer(timestamps));
+        addDeserializer(Cinema.class, new CinemaDeserializer());
+        addDeserializer(Session.class, new SessionDeserializer(timestamps));
+        addDeserializer(Ticket.class, new TicketDeserializer(timestamps));
+    }
+    
+    // Field order mirrors the HashMap-based export layout so existing files stay byte-identical.
+    static class CinemaSerializer extends StdSerializer<Cinema> {
+        CinemaSerializer() {
+            super(Cinema.class);
+        }
+        
+        @Override
+        public void serialize(Cinema cinema, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName("sessions");
+            gen.writeStartArray();
+            for (Session session : cinema.getSessions()) {
+                provider.defaultSerializeValue(session, gen);
+            }
+            gen.writeEndArray();
+            gen.writeStringField("address", cinema.getAddress());
+            gen.writeStringField("name", cinema.getName());
+            gen.writeNumberField("hallCount", cinema.getHallCount());
+            gen.writeEndObject();
+        }
+    }
+    
+    static class SessionSerializer extends StdSerializer<Session> {
+        private final TimestampCodec timestamps;
+        
+        SessionSerializer(TimestampCodec timestamps) {
+            super(Session.class);
+            this.timestamps = timestamps;
+        }
+        
+        @Override
+        public void serialize(Session session, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("id", session.getId());
+            gen.writeStringField("movieTitle", session.getMovieTitle());
+            gen.writeFieldName("dateTime");
+            timestamps.write(session.getDateTime(), gen);
+            gen.writeNumberField("totalSeats", session.getTotalSeats());
+            gen.writeNumberField("availableSeats", session.getAvailableSeats());
+            gen.writeNumberField("ticketPrice", session.getTicketPrice());
+            gen.writeFieldName("tickets");
+            gen.writeStartArray();
+            for (Ticket ticket : session.getTickets()) {
+                provider.defaultSerializeValue(ticket, gen);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+    
+    static class TicketSerializer extends StdSerializer<Ticket> {
+        private final TimestampCodec timestamps;
+        
+        TicketSerializer(TimestampCodec timestamps) {
+            super(Ticket.class);
+            this.timestamps = timestamps;
+        }
+        
+        @Override
+        public void serialize(Ticket ticket, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("id", ticket.getId());
+            gen.writeFieldName("purchaseTime");
+            timestamps.write(ticket.getPurchaseTime(), gen);
+            gen.writeNumberField("price", ticket.getPrice());
+            gen.writeStringField("sessionId", ticket.getSessionId());
+            gen.writeEndObject();
+        }
+    }
+    
+    static class CinemaDeserializer extends StdDeserializer<Cinema> {
+        CinemaDeserializer() {
+            super(Cinema.class);
+        }
+        
+        @Override
+        public Cinema deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            expectObject(p, ctxt, Cinema.class);
+            Cinema cinema = new Cinema();
+            List<Session> sessions = new ArrayList<>();
+            
+            for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                switch (field) {
+                    case "name":
+                        cinema.setName(p.getValueAsString());
+                        break;
+                    case "address":
+                        cinema.setAddress(p.getValueAsString());
+                        break;
+                    case "hallCount":
+                        cinema.setHallCount(p.getValueAsInt());
+                        break;
+                    case "sessions":
+                        if (token == JsonToken.START_ARRAY) {
+                            while (p.nextToken() != JsonToken.END_ARRAY) {
+                                sessions.add(ctxt.readValue(p, Session.class));
+                            }
+                        }
+                        break;
+                    default:
+                        p.skipChildren();
+                        break;
+                }
+            }
+            
+            cinema.setSessions(sessions);
+            return cinema;
+        }
+    }
+    
+    // Setters run in document order, exactly like bean deserialization, because
+    // setTotalSeats adjusts availableSeats relative to its previous value.
+    static class SessionDeserializer extends StdDeserializer<Session> {
+        private final TimestampCodec timestamps;
+        
+        SessionDeserializer(TimestampCodec timestamps) {
+            super(Session.class);
+            this.timestamps = timestamps;
+        }
+        
+        @Override
+        public Session deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            expectObject(p, ctxt, Session.class);
+            Session session = new Session();
+            List<Ticket> tickets = null;
+            
+            for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                switch (field) {
+                    case "id":
+                        session.setId(p.getValueAsString());
+                        break;
+                    case "movieTitle":
+                        session.setMovieTitle(p.getValueAsString());
+                        break;
+                    case "dateTime":
+                        session.setDateTime(timestamps.read(p, ctxt));
+                        break;
+                    case "totalSeats":
+                        session.setTotalSeats(p.getValueAsInt());
+                        break;
+                    case "availableSeats":
+                        session.setAvailableSeats(p.getValueAsInt());
+                        break;
+                    case "ticketPrice":
+                        session.setTicketPrice(p.getValueAsDouble());
+                        break;
+                    case "tickets":
+                        if (token == JsonToken.START_ARRAY) {
+                            tickets = new ArrayList<>();
+                            while (p.nextToken() != JsonToken.END_ARRAY) {
+                                Ticket ticket = ctxt.readValue(p, Ticket.class);
+                                ticket.setSession(session);
+                                tickets.add(ticket);
+                            }
+                        }
+                        break;
+                    default:
+                        p.skipChildren();
+                        break;
+                }
+            }
+            
+            if (tickets != null) {
+                session.setTickets(tickets);
+            }
+            return session;
+        }
+    }
+    
+    static class TicketDeserializer extends StdDeserializer<Ticket> {
+        private final TimestampCodec timestamps;
+        
+        TicketDeserializer(TimestampCodec timestamps) {
+            super(Ticket.class);
+            this.timestamps = timestamps;
+        }
+        
+        @Override
+        public Ticket deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            expectObject(p, ctxt, Ticket.class);
+            Ticket ticket = new Ticket();
+            
+            for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "id":
+                        ticket.setId(p.getValueAsString());
+                        break;
+                    case "sessionId":
+                        ticket.setSessionId(p.getValueAsString());
+                        break;
+                    case "purchaseTime":
+                        ticket.setPurchaseTime(timestamps.read(p, ctxt));
+                        break;
+                    case "price":
+                        ticket.setPrice(p.getValueAsDouble());
+                        break;
+                    default:
+                        ctxt.handleUnknownProperty(p, this, Ticket.class, field);
+                        break;
+                }
+            }
+            
+            return ticket;
+        }
+    }
+    
+    private static void expectObject(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+        if (p.currentToken() == JsonToken.START_OBJECT) {
+            return;
+        }
+        ctxt.reportWrongTokenException(type, JsonToken.START_OBJECT, "Expected JSON object for " + type.getSimpleName());
+    }
+    
+    // Timestamps of one export mostly share their date and second, so the formatted
+    // and parsed second-level prefix is cached and only the fraction is handled per value.
+    static class TimestampCodec {
+        private static final int PREFIX_LENGTH = "yyyy-MM-ddTHH:mm:ss".length();
+        
+        private volatile CachedSecond formatCache = new CachedSecond(Long.MIN_VALUE, "", null);
+        private volatile CachedSecond parseCache = new CachedSecond(Long.MIN_VALUE, "", null);
+        
+        void write(LocalDateTime value, JsonGenerator gen) throws IOException {
+            if (value == null) {
+                gen.writeNull();
+                return;
+            }
+            gen.writeString(format(value));
+        }
+        
+        String format(LocalDateTime value) {
+            long epochSecond = value.toEpochSecond(ZoneOffset.UTC);
+            CachedSecond cached = formatCache;
+            if (cached.epochSecond != epochSecond) {
+                cached = new CachedSecond(epochSecond,
+                                          DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value.withNano(0)), null);
+                formatCache = cached;
+            }
+            
+            int nanos = value.getNano();
+            if (nanos == 0) {
+                return cached.text;
+            }
+            
+            StringBuilder builder = new StringBuilder(cached.text.length() + 10).append(cached.text).append('.');
+            int digits = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                digits--;
+            }
+            String fraction = Integer.toString(nanos);
+            for (int i = fraction.length(); i < digits; i++) {
+                builder.append('0');
+            }
+            return builder.append(fraction).toString();
+        }
+        
+        LocalDateTime read(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (token != JsonToken.VALUE_STRING) {
+                return ctxt.readValue(p, LocalDateTime.class);
+            }
+            
+            String text = p.getText().trim();
+            try {
+                return parse(text);
+            } catch (DateTimeParseException e) {
+                return ctxt.readValue(p, LocalDateTime.class);
+            }
+        }
+        
+        LocalDateTime parse(String text) {
+            CachedSecond cached = parseCache;
+            if (text.length() >= PREFIX_LENGTH && cached.text.length() == PREFIX_LENGTH
+                    && text.regionMatches(0, cached.text, 0, PREFIX_LENGTH)) {
+                if (text.length() == PREFIX_LENGTH) {
+                    return cached.value;
+                }
+                int nanos = parseFraction(text);
+                if (nanos >= 0) {
+                    return cached.value.withNano(nanos);
+                }
+            }
+            
+            LocalDateTime value = LocalDateTime.parse(text, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            if (text.length() >= PREFIX_LENGTH && text.charAt(10) == 'T' && text.charAt(16) == ':') {
+                LocalDateTime second = value.withNano(0);
+                parseCache = new CachedSecond(second.toEpochSecond(ZoneOffset.UTC),
+                                              text.substring(0, PREFIX_LENGTH), second);
+            }
+            return value;
+        }
+        
+        private static int parseFraction(String text) {
+            int length = text.length() - PREFIX_LENGTH - 1;
+            if (text.charAt(PREFIX_LENGTH) != '.' || length < 1 || length > 9) {
+                return -1;
+            }
+            int nanos = 0;
+            for (int i = PREFIX_LENGTH + 1; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                nanos = nanos * 10 + (c - '0');
+            }
+            for (int i = length; i < 9; i++) {
+                nanos *= 10;
+            }
+            return nanos;
+        }
+    }
+    
+    private static class CachedSecond {
+        private final long epochSecond;
+        private final String text;
+        private final LocalDateTime value;
+        
+        private CachedSecond(long epochSecond, String text, LocalDateTime value) {
+            this.epochSecond = epochSecond;
+            this.text = text;
+            this.value = value;
+        }
+    }
+}
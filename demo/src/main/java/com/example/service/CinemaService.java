@@ -1,16 +1,27 @@
 package com.example.service;
 
 import com.example.model.Cinema;
+import com.example.model.Page;
+import com.example.model.QueryPlan;
 import com.example.model.Session;
+import com.example.model.SessionOrder;
+import com.example.model.SessionQuery;
 import com.example.model.Ticket;
+import com.example.model.TicketSink;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
 public class CinemaService {
     private Cinema cinema;
+    private final List<CinemaChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private MappedTicketLedger ticketLedger;
+    private CinemaStore store;
     
     public CinemaService() {
     }
@@ -19,45 +30,230 @@ public class CinemaService {
         this.cinema = cinema;
     }
     
-    public Cinema getCinema() {
+    public synchronized Cinema getCinema() {
         return cinema;
     }
     
-    public void setCinema(Cinema cinema) {
+    public synchronized void setCinema(Cinema cinema) {
         this.cinema = cinema;
+        for (CinemaChangeListener listener : listeners) {
+            listener.cinemaChanged(cinema);
+        }
     }
     
-    public List<Session> getAllSessions() {
+    public synchronized <T> T withConsistentView(Function<Cinema, T> reader) {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        return reader.apply(cinema);
+    }
+    
+    public void addChangeListener(CinemaChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+    
+    public void removeChangeListener(CinemaChangeListener listener) {
+        listeners.remove(listener);
+    }
+    
+    public MappedTicketLedger getTicketLedger() {
+        return ticketLedger;
+    }
+    
+    public synchronized void setTicketLedger(MappedTicketLedger ticketLedger) {
+        if (this.ticketLedger != null) {
+            listeners.remove(this.ticketLedger);
+        }
+        this.ticketLedger = ticketLedger;
+        if (ticketLedger != null) {
+            listeners.add(ticketLedger);
+            if (cinema != null) {
+                ticketLedger.attach(cinema);
+            }
+        }
+    }
+    
+    public CinemaStore getStore() {
+        return store;
+    }
+    
+    // The current cinema is written to the new store in full before it starts
+    // receiving individual changes.
+    public synchronized void setStore(CinemaStore store) {
+        if (this.store != null) {
+            listeners.remove(this.store);
+        }
+        this.store = store;
+        if (store != null) {
+            if (cinema != null) {
+                store.cinemaChanged(cinema);
+            }
+            listeners.add(store);
+        }
+    }
+    
+    public synchronized List<Session> getAllSessions() {
         if (cinema == null) {
             throw new IllegalStateException("Cinema is not initialized");
         }
         return cinema.getSessions();
     }
     
-    public List<Session> getValidSessions() {
+    public synchronized Page<Session> getSessionsPage(SessionOrder order, String cursor, int pageSize) {
         if (cinema == null) {
             throw new IllegalStateException("Cinema is not initialized");
         }
-        return cinema.getSessions().stream()
-                .filter(Session::isValid)
-                .collect(Collectors.toList());
+        return cinema.getSessionsPage(order, cursor, pageSize);
+    }
+    
+    public synchronized Page<Ticket> getTicketsPage(String cursor, int pageSize) {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        return cinema.getTicketsPage(cursor, pageSize);
+    }
+    
+    public synchronized List<Session> getValidSessions() {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        return cinema.getValidSessions();
+    }
+    
+    public synchronized List<Session> getSessionsBetween(LocalDateTime from, LocalDateTime to) {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        return cinema.getSessionsBetween(from, to);
+    }
+    
+    public synchronized List<Session> findSessionsByTitle(String title) {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        return cinema.findSessionsByTitle(title);
+    }
+    
+    public synchronized List<Session> findSessionsByTitlePrefix(String prefix) {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        return cinema.findSessionsByTitlePrefix(prefix);
+    }
+    
+    public synchronized List<Session> searchSessionsByTitle(String fragment) {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        return cinema.searchSessionsByTitle(fragment);
+    }
+    
+    public synchronized List<Session> findSessions(SessionQuery query) {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        return cinema.findSessions(query);
+    }
+    
+    public synchronized QueryPlan explainQuery(SessionQuery query) {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        return cinema.explain(query);
+    }
+    
+    public synchronized boolean addSession(Session session) {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        boolean added = cinema.addSession(session);
+        if (added) {
+            for (CinemaChangeListener listener : listeners) {
+                listener.sessionAdded(session);
+            }
+        }
+        return added;
     }
     
-    public boolean addSession(Session session) {
+    public synchronized boolean removeSession(Session session) {
         if (cinema == null) {
             throw new IllegalStateException("Cinema is not initialized");
         }
-        return cinema.addSession(session);
+        boolean removed = cinema.removeSession(session);
+        if (removed) {
+            for (CinemaChangeListener listener : listeners) {
+                listener.sessionRemoved(session);
+            }
+        }
+        return removed;
+    }
+    
+    public synchronized Session cancelSession(String sessionId) {
+        Session session = findSessionById(sessionId)
+                .orElseThrow(() -> new IllegalArgumentException("Session not found: " + sessionId));
+        
+        // Loaded before removal so lazily imported tickets are still reachable for refunds.
+        session.loadTickets();
+        removeSession(session);
+        return session;
     }
     
-    public boolean removeSession(Session session) {
+    public synchronized RebookingResult rebookTickets(Session fromSession, List<Ticket> tickets, Session toSession) {
         if (cinema == null) {
             throw new IllegalStateException("Cinema is not initialized");
         }
-        return cinema.removeSession(session);
+        if (toSession.isExpired()) {
+            throw new IllegalStateException("Cannot rebook tickets into an expired session");
+        }
+        
+        List<Ticket> rebooked = new ArrayList<>(Math.min(tickets.size(), toSession.getAvailableSeats()));
+        List<Ticket> unmoved = new ArrayList<>();
+        int missing = 0;
+        for (Ticket ticket : tickets) {
+            if (toSession.getAvailableSeats() <= 0) {
+                unmoved.add(ticket);
+                continue;
+            }
+            if (!fromSession.removeTicket(ticket)) {
+                missing++;
+                continue;
+            }
+            fromSession.increaseAvailableSeats(1);
+            
+            Ticket newTicket = new Ticket(toSession, ticket.getPrice(), ticket.getPurchaseTime());
+            newTicket.setId(ticket.getId());
+            toSession.addTicket(newTicket);
+            rebooked.add(newTicket);
+            
+            for (CinemaChangeListener listener : listeners) {
+                listener.ticketMoved(fromSession, ticket, toSession, newTicket);
+            }
+        }
+        return new RebookingResult(rebooked, unmoved, missing);
+    }
+    
+    public synchronized List<Ticket> refundTickets(Session session, List<Ticket> tickets) {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        
+        List<Ticket> refunded = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            if (session.removeTicket(ticket)) {
+                session.increaseAvailableSeats(1);
+                refunded.add(ticket);
+                for (CinemaChangeListener listener : listeners) {
+                    listener.ticketRemoved(session, ticket);
+                }
+            }
+        }
+        return refunded;
     }
     
-    public List<Ticket> buyTickets(Session session, int numberOfTickets) {
+    public synchronized List<Ticket> buyTickets(Session session, int numberOfTickets) {
         if (cinema == null) {
             throw new IllegalStateException("Cinema is not initialized");
         }
@@ -66,7 +262,7 @@ public class CinemaService {
             throw new IllegalArgumentException("Session cannot be null");
         }
         
-        if (!cinema.getSessions().contains(session)) {
+        if (!cinema.containsSession(session)) {
             throw new IllegalArgumentException("Session not found in this cinema");
         }
         
@@ -74,17 +270,52 @@ public class CinemaService {
             throw new IllegalStateException("Cannot buy tickets for expired session");
         }
         
-        return session.buyTickets(numberOfTickets);
+        List<Ticket> tickets = session.buyTickets(numberOfTickets);
+        for (CinemaChangeListener listener : listeners) {
+            listener.ticketsSold(session, tickets);
+        }
+        return tickets;
     }
     
-    public double calculateTotalRevenue() {
+    // Listeners are handed Ticket objects, so the issued tickets are only
+    // materialized straight away when somebody is listening.
+    public synchronized void buyTickets(Session session, int numberOfTickets, TicketSink sink) {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        
+        if (session == null) {
+            throw new IllegalArgumentException("Session cannot be null");
+        }
+        
+        if (!cinema.containsSession(session)) {
+            throw new IllegalArgumentException("Session not found in this cinema");
+        }
+        
+        session.buyTickets(numberOfTickets, sink);
+        if (!listeners.isEmpty()) {
+            List<Ticket> tickets = session.flushIssuedTickets();
+            for (CinemaChangeListener listener : listeners) {
+                listener.ticketsSold(session, tickets);
+            }
+        }
+    }
+    
+    public synchronized double calculateTotalRevenue() {
         if (cinema == null) {
             throw new IllegalStateException("Cinema is not initialized");
         }
         return cinema.calculateTotalRevenue();
     }
     
-    public Optional<Session> findSessionById(String sessionId) {
+    public synchronized double calculateOccupancy() {
+        if (cinema == null) {
+            throw new IllegalStateException("Cinema is not initialized");
+        }
+        return cinema.calculateOccupancy();
+    }
+    
+    public synchronized Optional<Session> findSessionById(String sessionId) {
         if (cinema == null) {
             throw new IllegalStateException("Cinema is not initialized");
         }
@@ -94,7 +325,7 @@ public class CinemaService {
             .findFirst();
     }
     
-    public boolean updateSession(String sessionId, String newTitle, LocalDateTime newDateTime,
+    public synchronized boolean updateSession(String sessionId, String newTitle, LocalDateTime newDateTime,
                                int newTotalSeats, double newTicketPrice) {
         if (cinema == null) {
             throw new IllegalStateException("Cinema is not initialized");
@@ -133,15 +364,19 @@ public class CinemaService {
             session.setTicketPrice(newTicketPrice);
         }
         
+        for (CinemaChangeListener listener : listeners) {
+            listener.sessionUpdated(session);
+        }
+        
         return true;
     }
     
-    public boolean deleteTicket(String ticketId) {
+    public synchronized boolean deleteTicket(String ticketId) {
         if (cinema == null) {
             throw new IllegalStateException("Cinema is not initialized");
         }
         
-        for (Session session : cinema.getSessions()) {
+        for (Session session : sessionsHoldingTicket(ticketId)) {
             List<Ticket> tickets = session.getTickets();
             Optional<Ticket> ticketToDelete = tickets.stream()
                 .filter(ticket -> ticket.getId().equals(ticketId))
@@ -151,6 +386,9 @@ public class CinemaService {
                 boolean removed = session.removeTicket(ticketToDelete.get());
                 if (removed) {
                     session.increaseAvailableSeats(1);
+                    for (CinemaChangeListener listener : listeners) {
+                        listener.ticketRemoved(session, ticketToDelete.get());
+                    }
                 }
                 return removed;
             }
@@ -159,7 +397,7 @@ public class CinemaService {
         return false;
     }
     
-    public boolean updateTicketSession(String ticketId, String newSessionId) {
+    public synchronized boolean updateTicketSession(String ticketId, String newSessionId) {
         if (cinema == null) {
             throw new IllegalStateException("Cinema is not initialized");
         }
@@ -179,7 +417,7 @@ public class CinemaService {
             throw new IllegalStateException("New session has no available seats");
         }
         
-        for (Session currentSession : cinema.getSessions()) {
+        for (Session currentSession : sessionsHoldingTicket(ticketId)) {
             List<Ticket> tickets = currentSession.getTickets();
             Optional<Ticket> ticketToUpdate = tickets.stream()
                 .filter(ticket -> ticket.getId().equals(ticketId))
@@ -191,9 +429,14 @@ public class CinemaService {
                 if (currentSession.removeTicket(ticket)) {
                     currentSession.increaseAvailableSeats(1);
                     
-                    Ticket newTicket = newSession.buyTicket();
-                    
+                    // Like a rebooking, a move keeps what the customer paid and when.
+                    Ticket newTicket = new Ticket(newSession, ticket.getPrice(), ticket.getPurchaseTime());
                     newTicket.setId(ticketId);
+                    newSession.addTicket(newTicket);
+                    
+                    for (CinemaChangeListener listener : listeners) {
+                        listener.ticketMoved(currentSession, ticket, newSession, newTicket);
+                    }
                     
                     return true;
                 }
@@ -202,4 +445,18 @@ public class CinemaService {
         
         return false;
     }
+    
+    // With a ledger attached the owning session is a single index lookup instead of
+    // a scan that would load the tickets of every session; tickets sold before the
+    // ledger was attached still fall back to the scan.
+    private List<Session> sessionsHoldingTicket(String ticketId) {
+        if (ticketLedger == null) {
+            return cinema.getSessions();
+        }
+        
+        return ticketLedger.findSessionId(ticketId)
+                .flatMap(this::findSessionById)
+                .map(Collections::singletonList)
+                .orElseGet(cinema::getSessions);
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+
+import java.util.Optional;
+
+// A store receives every change through the listener callbacks, so attaching it to
+// a CinemaService with setStore makes it a write-through copy of the cinema.
+public interface CinemaStore extends CinemaChangeListener, AutoCloseable {
+    
+    // Returns null when nothing has been stored yet.
+    Cinema load();
+    
+    Optional<Session> findSession(String sessionId);
+    
+    Optional<String> findSessionIdForTicket(String ticketId);
+    
+    default void flush() {
+    }
+    
+    @Override
+    void close();
+}
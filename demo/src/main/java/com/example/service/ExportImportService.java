@@ -2,14 +2,31 @@ package com.example.service;
 
 import com.example.model.Cinema;
 import com.example.model.Session;
-import com.example.model.Ticket;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class ExportImportService {
     public static final int NO_SORT = 1;
@@ -17,6 +34,13 @@ public class ExportImportService {
     public static final int SORT_BY_DATE = 3;
     public static final int SORT_BY_SEATS = 4;
     
+    public static final String MANIFEST_FILE = "manifest.json";
+    private static final String SHARD_PREFIX = "sessions-";
+    private static final String SHARD_SUFFIX = ".json";
+    private static final Pattern SHARD_NAME = Pattern.compile(Pattern.quote(SHARD_PREFIX) + "(\\d+)-\\d+"
+                                                              + Pattern.quote(SHARD_SUFFIX));
+    private static final TypeReference<List<Session>> SESSION_LIST = new TypeReference<List<Session>>() {};
+    
     private final ObjectMapper objectMapper;
     
     public ExportImportService() {
@@ -24,9 +48,23 @@ public class ExportImportService {
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
         objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        objectMapper.registerModule(new CinemaJsonModule());
     }
     
     public void exportData(Cinema cinema, String filename, int sortOption) throws IOException {
+        objectMapper.writeValue(new File(filename), exportView(cinema, sortOption));
+    }
+    
+    public void exportDataAtomically(Cinema cinema, String filename, int sortOption) throws IOException {
+        Cinema exportView = exportView(cinema, sortOption);
+        
+        Path target = Paths.get(filename);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        objectMapper.writeValue(temp.toFile(), exportView);
+        moveAtomically(temp, target);
+    }
+    
+    public Map<String, Object> toExportMap(Cinema cinema, int sortOption) {
         if (cinema == null) {
             throw new IllegalArgumentException("Cinema cannot be null");
         }
@@ -36,7 +74,22 @@ public class ExportImportService {
         exportData.put("name", cinema.getName());
         exportData.put("address", cinema.getAddress());
         exportData.put("hallCount", cinema.getHallCount());
+        exportData.put("sessions", sortedSessions(cinema, sortOption));
+        
+        return exportData;
+    }
+    
+    private Cinema exportView(Cinema cinema, int sortOption) {
+        if (cinema == null) {
+            throw new IllegalArgumentException("Cinema cannot be null");
+        }
         
+        Cinema exportView = new Cinema(cinema.getName(), cinema.getAddress(), cinema.getHallCount());
+        exportView.setSessions(sortedSessions(cinema, sortOption));
+        return exportView;
+    }
+    
+    private List<Session> sortedSessions(Cinema cinema, int sortOption) {
         List<Session> sessions = new ArrayList<>(cinema.getSessions());
         
         switch (sortOption) {
@@ -54,16 +107,19 @@ public class ExportImportService {
                 break;
         }
         
-        exportData.put("sessions", sessions);
+        // Lazily imported sessions may read their tickets from the very file being overwritten.
+        for (Session session : sessions) {
+            session.loadTickets();
+        }
         
-        objectMapper.writeValue(new File(filename), exportData);
+        return sessions;
     }
     
     public Cinema importData(String filename) throws IOException {
-        Map<String, Object> importedData = objectMapper.readValue(new File(filename), 
-                                                               objectMapper.getTypeFactory().constructMapType(
-                                                                   HashMap.class, String.class, Object.class));
-        
+        return objectMapper.readValue(new File(filename), Cinema.class);
+    }
+    
+    public Cinema toCinema(Map<String, Object> importedData) {
         String name = (String) importedData.get("name");
         String address = (String) importedData.get("address");
         int hallCount = (Integer) importedData.get("hallCount");
@@ -72,34 +128,247 @@ public class ExportImportService {
         
         List<LinkedHashMap<String, Object>> sessionMaps = (List<LinkedHashMap<String, Object>>) importedData.get("sessions");
         
-        Map<String, Session> sessionsById = new HashMap<>();
-        
         if (sessionMaps != null) {
             for (LinkedHashMap<String, Object> sessionMap : sessionMaps) {
-                String id = (String) sessionMap.get("id");
-                String movieTitle = (String) sessionMap.get("movieTitle");
-                String dateTimeStr = (String) sessionMap.get("dateTime");
-                int totalSeats = (Integer) sessionMap.get("totalSeats");
-                int availableSeats = (Integer) sessionMap.get("availableSeats");
-                double ticketPrice = ((Number) sessionMap.get("ticketPrice")).doubleValue();
-                
-                Session session = objectMapper.readValue(objectMapper.writeValueAsString(sessionMap), Session.class);
-                
+                Session session = objectMapper.convertValue(sessionMap, Session.class);
                 cinema.addSession(session);
-                sessionsById.put(id, session);
+            }
+        }
+        
+        return cinema;
+    }
+    
+    public Cinema importData(String filename, boolean lazyTickets) throws IOException {
+        if (!lazyTickets) {
+            return importData(filename);
+        }
+        
+        String name = null;
+        String address = null;
+        int hallCount = 0;
+        List<Session> sessions = new ArrayList<>();
+        
+        try (JsonParser parser = objectMapper.getFactory().createParser(new File(filename))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected cinema object");
+            }
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
                 
-                List<LinkedHashMap<String, Object>> ticketMaps = 
-                    (List<LinkedHashMap<String, Object>>) sessionMap.get("tickets");
+                switch (field) {
+                    case "name":
+                        name = parser.getValueAsString();
+                        break;
+                    case "address":
+                        address = parser.getValueAsString();
+                        break;
+                    case "hallCount":
+                        hallCount = parser.getIntValue();
+                        break;
+                    case "sessions":
+                        readLazySessions(parser, filename, sessions);
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+        }
+        
+        Cinema cinema = new Cinema(name, address, hallCount);
+        for (Session session : sessions) {
+            cinema.addSession(session);
+        }
+        
+        return cinema;
+    }
+    
+    private void readLazySessions(JsonParser parser, String filename, List<Session> sessions) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            ObjectNode sessionNode = objectMapper.createObjectNode();
+            long ticketsStart = -1;
+            long ticketsEnd = -1;
+            double ticketRevenue = 0;
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
                 
-                if (ticketMaps != null) {
-                    for (LinkedHashMap<String, Object> ticketMap : ticketMaps) {
-                        Ticket ticket = objectMapper.readValue(objectMapper.writeValueAsString(ticketMap), Ticket.class);
-                        ticket.setSession(session);
-                    }
+                if ("tickets".equals(field) && value == JsonToken.START_ARRAY) {
+                    ticketsStart = parser.getTokenLocation().getByteOffset();
+                    ticketRevenue = skipTicketsSummingPrices(parser);
+                    ticketsEnd = parser.getCurrentLocation().getByteOffset();
+                } else {
+                    sessionNode.set(field, objectMapper.readTree(parser));
+                }
+            }
+            
+            Session session = objectMapper.treeToValue(sessionNode, Session.class);
+            if (ticketsStart >= 0) {
+                session.setTicketLoader(new TicketRangeLoader(objectMapper, filename, session,
+                                                              ticketsStart, ticketsEnd - ticketsStart),
+                                        ticketRevenue);
+            }
+            sessions.add(session);
+        }
+    }
+    
+    // Skipping an array walks its tokens anyway, so picking up each ticket's price on the
+    // way gives the session its revenue without building a single Ticket.
+    private static double skipTicketsSummingPrices(JsonParser parser) throws IOException {
+        double revenue = 0;
+        int depth = 1;
+        while (depth > 0) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of tickets array");
+            }
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            } else if (token.isNumeric() && depth == 2 && "price".equals(parser.getCurrentName())) {
+                revenue += parser.getDoubleValue();
+            }
+        }
+        return revenue;
+    }
+    
+    public void exportSharded(Cinema cinema, String directory, int sessionsPerShard) throws IOException {
+        exportSharded(cinema, directory, sessionsPerShard, ForkJoinPool.commonPool());
+    }
+    
+    // Every export writes its shards under a new generation number and only then swaps the
+    // manifest, so the current manifest never points at shards being written or left over
+    // from a failed export; older generations are deleted once nothing refers to them.
+    public void exportSharded(Cinema cinema, String directory, int sessionsPerShard, ForkJoinPool pool) throws IOException {
+        if (cinema == null) {
+            throw new IllegalArgumentException("Cinema cannot be null");
+        }
+        if (sessionsPerShard <= 0) {
+            throw new IllegalArgumentException("Sessions per shard must be positive");
+        }
+        
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        
+        List<Session> sessions = cinema.getSessions();
+        int shardCount = (sessions.size() + sessionsPerShard - 1) / sessionsPerShard;
+        long generation = latestShardGeneration(dir) + 1;
+        List<String> shardNames = IntStream.range(0, shardCount)
+                .mapToObj(i -> String.format("%s%06d-%05d%s", SHARD_PREFIX, generation, i, SHARD_SUFFIX))
+                .collect(Collectors.toList());
+        
+        runInPool(pool, () -> IntStream.range(0, shardCount).parallel().forEach(i -> {
+            List<Session> shard = sessions.subList(i * sessionsPerShard,
+                                                   Math.min(sessions.size(), (i + 1) * sessionsPerShard));
+            for (Session session : shard) {
+                session.loadTickets();
+            }
+            try {
+                objectMapper.writeValue(dir.resolve(shardNames.get(i)).toFile(), shard);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("name", cinema.getName());
+        manifest.put("address", cinema.getAddress());
+        manifest.put("hallCount", cinema.getHallCount());
+        manifest.put("sessionCount", sessions.size());
+        manifest.put("shards", shardNames);
+        
+        Path manifestPath = dir.resolve(MANIFEST_FILE);
+        Path temp = dir.resolve(MANIFEST_FILE + ".tmp");
+        objectMapper.writeValue(temp.toFile(), manifest);
+        moveAtomically(temp, manifestPath);
+        
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(dir, SHARD_PREFIX + "*" + SHARD_SUFFIX)) {
+            for (Path shard : stale) {
+                if (!shardNames.contains(shard.getFileName().toString())) {
+                    Files.deleteIfExists(shard);
                 }
             }
         }
+    }
+    
+    public Cinema importSharded(String directory) throws IOException {
+        return importSharded(directory, ForkJoinPool.commonPool());
+    }
+    
+    @SuppressWarnings("unchecked")
+    public Cinema importSharded(String directory, ForkJoinPool pool) throws IOException {
+        Path dir = Paths.get(directory);
+        Map<String, Object> manifest = objectMapper.readValue(dir.resolve(MANIFEST_FILE).toFile(),
+                                                              objectMapper.getTypeFactory().constructMapType(
+                                                                  HashMap.class, String.class, Object.class));
+        
+        List<String> shardNames = (List<String>) manifest.get("shards");
+        List<List<Session>> shards = new ArrayList<>(Collections.nCopies(shardNames.size(), null));
+        
+        runInPool(pool, () -> IntStream.range(0, shardNames.size()).parallel().forEach(i -> {
+            try {
+                shards.set(i, objectMapper.readValue(dir.resolve(shardNames.get(i)).toFile(), SESSION_LIST));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        
+        Cinema cinema = new Cinema((String) manifest.get("name"), (String) manifest.get("address"),
+                                   (Integer) manifest.get("hallCount"));
+        for (List<Session> shard : shards) {
+            for (Session session : shard) {
+                cinema.addSession(session);
+            }
+        }
         
         return cinema;
     }
+    
+    private static long latestShardGeneration(Path dir) throws IOException {
+        long latest = 0;
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(dir, SHARD_PREFIX + "*" + SHARD_SUFFIX)) {
+            for (Path shard : shards) {
+                Matcher matcher = SHARD_NAME.matcher(shard.getFileName().toString());
+                if (matcher.matches()) {
+                    latest = Math.max(latest, Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+        return latest;
+    }
+    
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    private static void runInPool(ForkJoinPool pool, Runnable task) throws IOException {
+        try {
+            pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing shards", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to process shards", cause);
+        }
+    }
 }
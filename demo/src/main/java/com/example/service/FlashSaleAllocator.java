@@ -0,0 +1,187 @@
+package com.example.service;
+
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class FlashSaleAllocator implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 16384;
+    public static final int DEFAULT_BATCH_SIZE = 512;
+    
+    private final CinemaService cinemaService;
+    private final Session session;
+    private final BlockingQueue<PurchaseRequest> queue;
+    private final int batchSize;
+    private final Thread allocator;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder allocatedTickets = new LongAdder();
+    private volatile boolean running = true;
+    
+    public FlashSaleAllocator(CinemaService cinemaService, Session session) {
+        this(cinemaService, session, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+    
+    public FlashSaleAllocator(CinemaService cinemaService, Session session, int queueCapacity, int batchSize) {
+        if (session == null) {
+            throw new IllegalArgumentException("Session cannot be null");
+        }
+        if (queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Queue capacity and batch size must be positive");
+        }
+        this.cinemaService = cinemaService;
+        this.session = session;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.allocator = new Thread(this::allocate, "flash-sale-" + session.getId());
+        this.allocator.setDaemon(true);
+        this.allocator.start();
+    }
+    
+    public CompletableFuture<List<Ticket>> submit(int numberOfTickets) {
+        CompletableFuture<List<Ticket>> result = new CompletableFuture<>();
+        if (numberOfTickets <= 0) {
+            result.completeExceptionally(new IllegalArgumentException("Number of tickets must be positive"));
+        } else if (!running) {
+            rejected.increment();
+            result.completeExceptionally(new IllegalStateException("Flash sale was closed"));
+        } else {
+            PurchaseRequest request = new PurchaseRequest(numberOfTickets, result);
+            if (!queue.offer(request)) {
+                rejected.increment();
+                result.completeExceptionally(new IllegalStateException("Flash sale queue is full"));
+            } else if (!running && queue.remove(request)) {
+                // close() raced this offer and the allocator's final drain may already have
+                // run; a request the allocator did not take is failed here instead.
+                rejected.increment();
+                result.completeExceptionally(new IllegalStateException("Flash sale was closed"));
+            }
+        }
+        return result;
+    }
+    
+    public Session getSession() {
+        return session;
+    }
+    
+    public int getQueuedRequests() {
+        return queue.size();
+    }
+    
+    public long getRejectedRequests() {
+        return rejected.sum();
+    }
+    
+    public long getBatches() {
+        return batches.sum();
+    }
+    
+    public long getAllocatedTickets() {
+        return allocatedTickets.sum();
+    }
+    
+    private void allocate() {
+        List<PurchaseRequest> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PurchaseRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                allocate(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                // The allocator must outlive any one batch, or queued buyers would wait forever.
+                for (PurchaseRequest request : batch) {
+                    request.result.completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+        
+        PurchaseRequest request;
+        while ((request = queue.poll()) != null) {
+            request.result.completeExceptionally(new IllegalStateException("Flash sale was closed"));
+        }
+    }
+    
+    // The whole batch is one buyTickets call, so the service lock is taken and listeners
+    // are notified once per batch instead of once per buyer. Requests are served in
+    // arrival order; one that no longer fits fails without blocking smaller ones behind it.
+    // A failing purchase, including a listener that cannot persist it, fails the batch.
+    private void allocate(List<PurchaseRequest> batch) {
+        List<PurchaseRequest> accepted = new ArrayList<>(batch.size());
+        List<Ticket> tickets = null;
+        RuntimeException failure = null;
+        
+        synchronized (cinemaService) {
+            int remaining = session.getAvailableSeats();
+            int total = 0;
+            for (PurchaseRequest request : batch) {
+                if (request.tickets <= remaining) {
+                    remaining -= request.tickets;
+                    total += request.tickets;
+                    accepted.add(request);
+                }
+            }
+            
+            if (total > 0) {
+                try {
+                    tickets = cinemaService.buyTickets(session, total);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+        }
+        batches.increment();
+        
+        int offset = 0;
+        int next = 0;
+        for (PurchaseRequest request : batch) {
+            if (failure != null) {
+                request.result.completeExceptionally(failure);
+            } else if (next < accepted.size() && accepted.get(next) == request) {
+                next++;
+                List<Ticket> allocation = new ArrayList<>(tickets.subList(offset, offset + request.tickets));
+                offset += request.tickets;
+                allocatedTickets.add(request.tickets);
+                request.result.complete(allocation);
+            } else {
+                request.result.completeExceptionally(new IllegalArgumentException(
+                        "Not enough available seats for " + request.tickets + " tickets"));
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        try {
+            allocator.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static class PurchaseRequest {
+        private final int tickets;
+        private final CompletableFuture<List<Ticket>> result;
+        
+        private PurchaseRequest(int tickets, CompletableFuture<List<Ticket>> result) {
+            this.tickets = tickets;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Keeps private copies, so later changes to the live sessions only reach the store
+// through the listener callbacks, the same way they reach a durable backend.
+public class InMemoryCinemaStore implements CinemaStore {
+    private final Map<String, Session> sessions = new LinkedHashMap<>();
+    private final Map<String, String> ticketSessions = new HashMap<>();
+    private String name;
+    private String address;
+    private int hallCount;
+    private boolean stored;
+    
+    @Override
+    public synchronized Cinema load() {
+        if (!stored) {
+            return null;
+        }
+        Cinema cinema = new Cinema(name, address, hallCount);
+        for (Session session : sessions.values()) {
+            cinema.addSession(session.copy());
+        }
+        return cinema;
+    }
+    
+    @Override
+    public synchronized Optional<Session> findSession(String sessionId) {
+        return Optional.ofNullable(sessions.get(sessionId)).map(Session::copy);
+    }
+    
+    @Override
+    public synchronized Optional<String> findSessionIdForTicket(String ticketId) {
+        return Optional.ofNullable(ticketSessions.get(ticketId));
+    }
+    
+    public synchronized int getSessionCount() {
+        return sessions.size();
+    }
+    
+    public synchronized int getTicketCount() {
+        return ticketSessions.size();
+    }
+    
+    @Override
+    public synchronized void cinemaChanged(Cinema cinema) {
+        sessions.clear();
+        ticketSessions.clear();
+        stored = cinema != null;
+        if (cinema == null) {
+            return;
+        }
+        name = cinema.getName();
+        address = cinema.getAddress();
+        hallCount = cinema.getHallCount();
+        for (Session session : cinema.getSessions()) {
+            store(session);
+        }
+    }
+    
+    @Override
+    public synchronized void sessionAdded(Session session) {
+        store(session);
+    }
+    
+    @Override
+    public synchronized void sessionRemoved(Session session) {
+        Session removed = sessions.remove(session.getId());
+        if (removed != null) {
+            for (Ticket ticket : removed.getTickets()) {
+                ticketSessions.remove(ticket.getId());
+            }
+        }
+    }
+    
+    @Override
+    public synchronized void sessionUpdated(Session session) {
+        Session previous = sessions.get(session.getId());
+        if (previous != null) {
+            for (Ticket ticket : previous.getTickets()) {
+                ticketSessions.remove(ticket.getId());
+            }
+        }
+        store(session);
+    }
+    
+    @Override
+    public synchronized void ticketsSold(Session session, List<Ticket> tickets) {
+        Session stored = sessions.get(session.getId());
+        if (stored == null) {
+            return;
+        }
+        for (Ticket ticket : tickets) {
+            stored.addTicket(copyOf(ticket));
+            ticketSessions.put(ticket.getId(), session.getId());
+        }
+    }
+    
+    @Override
+    public synchronized void ticketRemoved(Session session, Ticket ticket) {
+        Session stored = sessions.get(session.getId());
+        if (stored != null && stored.removeTicket(ticket)) {
+            stored.increaseAvailableSeats(1);
+        }
+        ticketSessions.remove(ticket.getId());
+    }
+    
+    @Override
+    public synchronized void ticketMoved(Session fromSession, Ticket oldTicket, Session toSession, Ticket newTicket) {
+        ticketRemoved(fromSession, oldTicket);
+        ticketsSold(toSession, List.of(newTicket));
+    }
+    
+    @Override
+    public void close() {
+    }
+    
+    private void store(Session session) {
+        Session copy = session.copy();
+        sessions.put(copy.getId(), copy);
+        for (Ticket ticket : copy.getTickets()) {
+            ticketSessions.put(ticket.getId(), copy.getId());
+        }
+    }
+    
+    private static Ticket copyOf(Ticket ticket) {
+        Ticket copy = new Ticket(null, ticket.getPrice(), ticket.getPurchaseTime());
+        copy.setId(ticket.getId());
+        return copy;
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Runs against an embedded database (H2 by default, e.g. "jdbc:h2:./data/cinema"), so
+// no server is needed. Statements are prepared once and every listener callback is a
+// single transaction; tickets go in as JDBC batches.
+public class JdbcCinemaStore implements CinemaStore {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS cinema (id INT PRIMARY KEY, name VARCHAR(255), address VARCHAR(255), hall_count INT)",
+        "CREATE TABLE IF NOT EXISTS sessions (id VARCHAR(64) PRIMARY KEY, position BIGINT NOT NULL, "
+                + "movie_title VARCHAR(255), date_time TIMESTAMP(9), total_seats INT, available_seats INT, ticket_price DOUBLE)",
+        "CREATE INDEX IF NOT EXISTS sessions_position ON sessions(position)",
+        "CREATE INDEX IF NOT EXISTS sessions_title ON sessions(movie_title)",
+        "CREATE TABLE IF NOT EXISTS tickets (id VARCHAR(64) PRIMARY KEY, seq BIGINT NOT NULL, "
+                + "session_id VARCHAR(64) NOT NULL, purchase_time TIMESTAMP(9), price DOUBLE)",
+        "CREATE INDEX IF NOT EXISTS tickets_session ON tickets(session_id, seq)"
+    };
+    
+    private final Connection connection;
+    private final int batchSize;
+    private final PreparedStatement mergeCinema;
+    private final PreparedStatement mergeSession;
+    private final PreparedStatement updateSeats;
+    private final PreparedStatement deleteSession;
+    private final PreparedStatement deleteSessionTickets;
+    private final PreparedStatement insertTicket;
+    private final PreparedStatement deleteTicket;
+    private final PreparedStatement selectSession;
+    private final PreparedStatement selectSessionTickets;
+    private final PreparedStatement selectTicketSession;
+    private long nextSessionPosition;
+    private long nextTicketSeq;
+    
+    public JdbcCinemaStore(String jdbcUrl) {
+        this(jdbcUrl, DEFAULT_BATCH_SIZE);
+    }
+    
+    public JdbcCinemaStore(String jdbcUrl, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        try {
+            connection = DriverManager.getConnection(jdbcUrl);
+            try (Statement statement = connection.createStatement()) {
+                for (String ddl : SCHEMA) {
+                    statement.execute(ddl);
+                }
+                nextSessionPosition = maxPlusOne(statement, "SELECT MAX(position) FROM sessions");
+                nextTicketSeq = maxPlusOne(statement, "SELECT MAX(seq) FROM tickets");
+            }
+            connection.setAutoCommit(false);
+            
+            mergeCinema = connection.prepareStatement(
+                    "MERGE INTO cinema (id, name, address, hall_count) KEY (id) VALUES (1, ?, ?, ?)");
+            mergeSession = connection.prepareStatement(
+                    "MERGE INTO sessions (id, position, movie_title, date_time, total_seats, available_seats, ticket_price) "
+                    + "KEY (id) VALUES (?, COALESCE((SELECT position FROM sessions WHERE id = ?), ?), ?, ?, ?, ?, ?)");
+            updateSeats = connection.prepareStatement("UPDATE sessions SET available_seats = ? WHERE id = ?");
+            deleteSession = connection.prepareStatement("DELETE FROM sessions WHERE id = ?");
+            deleteSessionTickets = connection.prepareStatement("DELETE FROM tickets WHERE session_id = ?");
+            insertTicket = connection.prepareStatement(
+                    "MERGE INTO tickets (id, seq, session_id, purchase_time, price) KEY (id) VALUES (?, ?, ?, ?, ?)");
+            deleteTicket = connection.prepareStatement("DELETE FROM tickets WHERE id = ?");
+            selectSession = connection.prepareStatement(
+                    "SELECT id, movie_title, date_time, total_seats, available_seats, ticket_price FROM sessions WHERE id = ?");
+            selectSessionTickets = connection.prepareStatement(
+                    "SELECT id, purchase_time, price FROM tickets WHERE session_id = ? ORDER BY seq");
+            selectTicketSession = connection.prepareStatement("SELECT session_id FROM tickets WHERE id = ?");
+        } catch (SQLException e) {
+            throw new StorageException("Failed to open store at " + jdbcUrl, e);
+        }
+    }
+    
+    @Override
+    public synchronized Cinema load() {
+        try (Statement statement = connection.createStatement()) {
+            Cinema cinema;
+            try (ResultSet rows = statement.executeQuery("SELECT name, address, hall_count FROM cinema WHERE id = 1")) {
+                if (!rows.next()) {
+                    return null;
+                }
+                cinema = new Cinema(rows.getString(1), rows.getString(2), rows.getInt(3));
+            }
+            
+            // Two ordered scans instead of one ticket query per session.
+            Map<String, List<Ticket>> ticketsBySession = new HashMap<>();
+            try (ResultSet rows = statement.executeQuery("SELECT session_id, id, purchase_time, price FROM tickets ORDER BY seq")) {
+                while (rows.next()) {
+                    ticketsBySession.computeIfAbsent(rows.getString(1), id -> new ArrayList<>())
+                            .add(ticketFrom(rows.getString(2), rows.getTimestamp(3), rows.getDouble(4)));
+                }
+            }
+            try (ResultSet rows = statement.executeQuery(
+                    "SELECT id, movie_title, date_time, total_seats, available_seats, ticket_price FROM sessions ORDER BY position")) {
+                while (rows.next()) {
+                    Session session = sessionFrom(rows);
+                    attachTickets(session, ticketsBySession.getOrDefault(session.getId(), List.of()));
+                    cinema.addSession(session);
+                }
+            }
+            return cinema;
+        } catch (SQLException e) {
+            throw failure("Failed to load cinema", e);
+        }
+    }
+    
+    @Override
+    public synchronized Optional<Session> findSession(String sessionId) {
+        try {
+            selectSession.setString(1, sessionId);
+            Session session;
+            try (ResultSet rows = selectSession.executeQuery()) {
+                if (!rows.next()) {
+                    return Optional.empty();
+                }
+                session = sessionFrom(rows);
+            }
+            
+            List<Ticket> tickets = new ArrayList<>();
+            selectSessionTickets.setString(1, sessionId);
+            try (ResultSet rows = selectSessionTickets.executeQuery()) {
+                while (rows.next()) {
+                    tickets.add(ticketFrom(rows.getString(1), rows.getTimestamp(2), rows.getDouble(3)));
+                }
+            }
+            attachTickets(session, tickets);
+            return Optional.of(session);
+        } catch (SQLException e) {
+            throw failure("Failed to find session " + sessionId, e);
+        }
+    }
+    
+    @Override
+    public synchronized Optional<String> findSessionIdForTicket(String ticketId) {
+        try {
+            selectTicketSession.setString(1, ticketId);
+            try (ResultSet rows = selectTicketSession.executeQuery()) {
+                return rows.next() ? Optional.of(rows.getString(1)) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw failure("Failed to find ticket " + ticketId, e);
+        }
+    }
+    
+    @Override
+    public synchronized void cinemaChanged(Cinema cinema) {
+        if (cinema == null) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM tickets");
+            statement.executeUpdate("DELETE FROM sessions");
+            mergeCinema.setString(1, cinema.getName());
+            mergeCinema.setString(2, cinema.getAddress());
+            mergeCinema.setInt(3, cinema.getHallCount());
+            mergeCinema.executeUpdate();
+            
+            int pending = 0;
+            for (Session session : cinema.getSessions()) {
+                bindSession(session);
+                mergeSession.addBatch();
+                if (++pending == batchSize) {
+                    mergeSession.executeBatch();
+                    pending = 0;
+                }
+            }
+            mergeSession.executeBatch();
+            for (Session session : cinema.getSessions()) {
+                insertTickets(session, session.getTickets());
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw failure("Failed to store cinema", e);
+        }
+    }
+    
+    @Override
+    public synchronized void sessionAdded(Session session) {
+        try {
+            bindSession(session);
+            mergeSession.executeUpdate();
+            insertTickets(session, session.getTickets());
+            connection.commit();
+        } catch (SQLException e) {
+            throw failure("Failed to store session " + session.getId(), e);
+        }
+    }
+    
+    @Override
+    public synchronized void sessionRemoved(Session session) {
+        try {
+            deleteSessionTickets.setString(1, session.getId());
+            deleteSessionTickets.executeUpdate();
+            deleteSession.setString(1, session.getId());
+            deleteSession.executeUpdate();
+            connection.commit();
+        } catch (SQLException e) {
+            throw failure("Failed to remove session " + session.getId(), e);
+        }
+    }
+    
+    @Override
+    public synchronized void sessionUpdated(Session session) {
+        try {
+            bindSession(session);
+            mergeSession.executeUpdate();
+            connection.commit();
+        } catch (SQLException e) {
+            throw failure("Failed to update session " + session.getId(), e);
+        }
+    }
+    
+    @Override
+    public synchronized void ticketsSold(Session session, List<Ticket> tickets) {
+        try {
+            insertTickets(session, tickets);
+            updateSeats(session);
+            connection.commit();
+        } catch (SQLException e) {
+            throw failure("Failed to store tickets for session " + session.getId(), e);
+        }
+    }
+    
+    @Override
+    public synchronized void ticketRemoved(Session session, Ticket ticket) {
+        try {
+            deleteTicket.setString(1, ticket.getId());
+            deleteTicket.executeUpdate();
+            updateSeats(session);
+            connection.commit();
+        } catch (SQLException e) {
+            throw failure("Failed to remove ticket " + ticket.getId(), e);
+        }
+    }
+    
+    // Written as a merge rather than an update: a cancelled session's ticket rows are
+    // deleted with the session before its tickets are rebooked elsewhere.
+    @Override
+    public synchronized void ticketMoved(Session fromSession, Ticket oldTicket, Session toSession, Ticket newTicket) {
+        try {
+            if (!oldTicket.getId().equals(newTicket.getId())) {
+                deleteTicket.setString(1, oldTicket.getId());
+                deleteTicket.executeUpdate();
+            }
+            insertTickets(toSession, Collections.singletonList(newTicket));
+            updateSeats(fromSession);
+            updateSeats(toSession);
+            connection.commit();
+        } catch (SQLException e) {
+            throw failure("Failed to move ticket " + oldTicket.getId(), e);
+        }
+    }
+    
+    @Override
+    public synchronized void close() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new StorageException("Failed to close store", e);
+        }
+    }
+    
+    private void bindSession(Session session) throws SQLException {
+        mergeSession.setString(1, session.getId());
+        mergeSession.setString(2, session.getId());
+        mergeSession.setLong(3, nextSessionPosition++);
+        mergeSession.setString(4, session.getMovieTitle());
+        mergeSession.setTimestamp(5, toTimestamp(session.getDateTime()));
+        mergeSession.setInt(6, session.getTotalSeats());
+        mergeSession.setInt(7, session.getAvailableSeats());
+        mergeSession.setDouble(8, session.getTicketPrice());
+    }
+    
+    private void insertTickets(Session session, List<Ticket> tickets) throws SQLException {
+        int pending = 0;
+        for (Ticket ticket : tickets) {
+            insertTicket.setString(1, ticket.getId());
+            insertTicket.setLong(2, nextTicketSeq++);
+            insertTicket.setString(3, session.getId());
+            insertTicket.setTimestamp(4, toTimestamp(ticket.getPurchaseTime()));
+            insertTicket.setDouble(5, ticket.getPrice());
+            insertTicket.addBatch();
+            if (++pending == batchSize) {
+                insertTicket.executeBatch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            insertTicket.executeBatch();
+        }
+    }
+    
+    private void updateSeats(Session session) throws SQLException {
+        updateSeats.setInt(1, session.getAvailableSeats());
+        updateSeats.setString(2, session.getId());
+        updateSeats.executeUpdate();
+    }
+    
+    private StorageException failure(String message, SQLException cause) {
+        try {
+            connection.rollback();
+        } catch (SQLException rollbackFailure) {
+            cause.addSuppressed(rollbackFailure);
+        }
+        return new StorageException(message, cause);
+    }
+    
+    private static long maxPlusOne(Statement statement, String query) throws SQLException {
+        try (ResultSet rows = statement.executeQuery(query)) {
+            return rows.next() ? rows.getLong(1) + 1 : 0;
+        }
+    }
+    
+    private static Session sessionFrom(ResultSet rows) throws SQLException {
+        Session session = new Session();
+        session.setId(rows.getString(1));
+        session.setMovieTitle(rows.getString(2));
+        Timestamp dateTime = rows.getTimestamp(3);
+        session.setDateTime(dateTime == null ? null : dateTime.toLocalDateTime());
+        session.setTotalSeats(rows.getInt(4));
+        session.setAvailableSeats(rows.getInt(5));
+        session.setTicketPrice(rows.getDouble(6));
+        return session;
+    }
+    
+    private static void attachTickets(Session session, List<Ticket> tickets) {
+        for (Ticket ticket : tickets) {
+            ticket.setSession(session);
+        }
+        session.setTickets(tickets);
+    }
+    
+    private static Ticket ticketFrom(String id, Timestamp purchaseTime, double price) {
+        Ticket ticket = new Ticket(null, price, purchaseTime == null ? null : purchaseTime.toLocalDateTime());
+        ticket.setId(id);
+        return ticket;
+    }
+    
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+}
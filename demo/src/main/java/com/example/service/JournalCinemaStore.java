@@ -0,0 +1,97 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+// Appends every change to an OperationJournal and answers lookups from an in-memory
+// copy that is rebuilt by replaying the journal when the store is opened.
+public class JournalCinemaStore implements CinemaStore {
+    private final OperationJournal journal;
+    private final InMemoryCinemaStore index = new InMemoryCinemaStore();
+    
+    public JournalCinemaStore(Path directory, ExportImportService exportImportService) throws IOException {
+        this.journal = new OperationJournal(directory, exportImportService);
+        JournalReplay replay = new JournalReplay(null, exportImportService);
+        journal.replay(0, replay::apply);
+        if (replay.getCinema() != null) {
+            index.cinemaChanged(replay.getCinema());
+        }
+    }
+    
+    @Override
+    public Cinema load() {
+        return index.load();
+    }
+    
+    @Override
+    public Optional<Session> findSession(String sessionId) {
+        return index.findSession(sessionId);
+    }
+    
+    @Override
+    public Optional<String> findSessionIdForTicket(String ticketId) {
+        return index.findSessionIdForTicket(ticketId);
+    }
+    
+    public long getLastSequence() {
+        return journal.getLastSequence();
+    }
+    
+    @Override
+    public void cinemaChanged(Cinema cinema) {
+        journal.cinemaChanged(cinema);
+        index.cinemaChanged(cinema);
+    }
+    
+    @Override
+    public void sessionAdded(Session session) {
+        journal.sessionAdded(session);
+        index.sessionAdded(session);
+    }
+    
+    @Override
+    public void sessionRemoved(Session session) {
+        journal.sessionRemoved(session);
+        index.sessionRemoved(session);
+    }
+    
+    @Override
+    public void sessionUpdated(Session session) {
+        journal.sessionUpdated(session);
+        index.sessionUpdated(session);
+    }
+    
+    @Override
+    public void ticketsSold(Session session, List<Ticket> tickets) {
+        journal.ticketsSold(session, tickets);
+        index.ticketsSold(session, tickets);
+    }
+    
+    @Override
+    public void ticketRemoved(Session session, Ticket ticket) {
+        journal.ticketRemoved(session, ticket);
+        index.ticketRemoved(session, ticket);
+    }
+    
+    @Override
+    public void ticketMoved(Session fromSession, Ticket oldTicket, Session toSession, Ticket newTicket) {
+        journal.ticketMoved(fromSession, oldTicket, toSession, newTicket);
+        index.ticketMoved(fromSession, oldTicket, toSession, newTicket);
+    }
+    
+    @Override
+    public void close() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close operation journal", e);
+        }
+    }
+}
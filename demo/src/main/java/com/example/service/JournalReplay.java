@@ -0,0 +1,125 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+class JournalReplay {
+    private final ExportImportService exportImportService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Session> sessionsById = new HashMap<>();
+    private Cinema cinema;
+    
+    JournalReplay(Cinema cinema, ExportImportService exportImportService) {
+        this.exportImportService = exportImportService;
+        reset(cinema);
+    }
+    
+    Cinema getCinema() {
+        return cinema;
+    }
+    
+    private void reset(Cinema newCinema) {
+        cinema = newCinema;
+        sessionsById.clear();
+        if (newCinema != null) {
+            for (Session session : newCinema.getSessions()) {
+                sessionsById.put(session.getId(), session);
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    void apply(JsonNode entry) {
+        String operation = entry.get("op").asText();
+        if (OperationJournal.CINEMA_REPLACED.equals(operation)) {
+            reset(exportImportService.toCinema(objectMapper.convertValue(entry.get("cinema"), Map.class)));
+            return;
+        }
+        if (cinema == null) {
+            return;
+        }
+        
+        switch (operation) {
+            case OperationJournal.SESSION_ADDED: {
+                Session session = new Session();
+                applySessionFields(session, entry.get("session"));
+                cinema.addSession(session);
+                sessionsById.put(session.getId(), session);
+                break;
+            }
+            case OperationJournal.SESSION_REMOVED: {
+                Session session = sessionsById.remove(entry.get("sessionId").asText());
+                if (session != null) {
+                    cinema.removeSession(session);
+                }
+                break;
+            }
+            case OperationJournal.SESSION_UPDATED: {
+                Session session = sessionsById.get(entry.get("session").get("id").asText());
+                if (session != null) {
+                    applySessionFields(session, entry.get("session"));
+                }
+                break;
+            }
+            case OperationJournal.TICKETS_SOLD: {
+                Session session = sessionsById.get(entry.get("sessionId").asText());
+                if (session != null) {
+                    for (JsonNode ticketNode : entry.get("tickets")) {
+                        session.addTicket(ticketFromNode(ticketNode));
+                    }
+                }
+                break;
+            }
+            case OperationJournal.TICKET_REMOVED:
+                removeTicket(entry.get("sessionId").asText(), entry.get("ticketId").asText());
+                break;
+            case OperationJournal.TICKET_MOVED: {
+                removeTicket(entry.get("fromSessionId").asText(), entry.get("ticketId").asText());
+                Session session = sessionsById.get(entry.get("toSessionId").asText());
+                if (session != null) {
+                    session.addTicket(ticketFromNode(entry.get("ticket")));
+                }
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown journal operation: " + operation);
+        }
+    }
+    
+    private void removeTicket(String sessionId, String ticketId) {
+        Session session = sessionsById.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        Ticket ticket = new Ticket();
+        ticket.setId(ticketId);
+        if (session.removeTicket(ticket)) {
+            session.increaseAvailableSeats(1);
+        }
+    }
+    
+    
+    private static void applySessionFields(Session session, JsonNode node) {
+        session.setId(node.get("id").asText());
+        session.setMovieTitle(node.get("movieTitle").isNull() ? null : node.get("movieTitle").asText());
+        session.setDateTime(node.get("dateTime").isNull() ? null : LocalDateTime.parse(node.get("dateTime").asText()));
+        session.setTotalSeats(node.get("totalSeats").asInt());
+        session.setAvailableSeats(node.get("availableSeats").asInt());
+        session.setTicketPrice(node.get("ticketPrice").asDouble());
+    }
+    
+    private static Ticket ticketFromNode(JsonNode node) {
+        JsonNode purchaseTime = node.get("purchaseTime");
+        Ticket ticket = new Ticket(null, node.get("price").asDouble(),
+                                   purchaseTime.isNull() ? null : LocalDateTime.parse(purchaseTime.asText()));
+        ticket.setId(node.get("id").asText());
+        return ticket;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+final class MappedRecordFile implements Closeable {
+    private static final int HEADER_SIZE = 16;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int RECORD_SIZE_OFFSET = 4;
+    private static final int COUNT_OFFSET = 8;
+    
+    private final FileChannel channel;
+    private final int recordSize;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int count;
+    
+    MappedRecordFile(Path path, int magic, int recordSize, int initialCapacity) throws IOException {
+        this.recordSize = recordSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+        
+        long existingSize = channel.size();
+        boolean fresh = existingSize < HEADER_SIZE;
+        int existingCapacity = fresh ? 0 : (int) ((existingSize - HEADER_SIZE) / recordSize);
+        
+        try {
+            map(Math.max(initialCapacity, existingCapacity));
+            if (fresh) {
+                buffer.putInt(MAGIC_OFFSET, magic);
+                buffer.putInt(RECORD_SIZE_OFFSET, recordSize);
+                buffer.putInt(COUNT_OFFSET, 0);
+            } else if (buffer.getInt(MAGIC_OFFSET) != magic || buffer.getInt(RECORD_SIZE_OFFSET) != recordSize) {
+                throw new IOException("Unrecognized record file format: " + path);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        
+        this.count = buffer.getInt(COUNT_OFFSET);
+    }
+    
+    private void map(int newCapacity) throws IOException {
+        long size = HEADER_SIZE + (long) newCapacity * recordSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Record file cannot grow beyond " + Integer.MAX_VALUE + " bytes");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        capacity = newCapacity;
+    }
+    
+    MappedByteBuffer buffer() {
+        return buffer;
+    }
+    
+    int size() {
+        return count;
+    }
+    
+    int offsetOf(int index) {
+        return HEADER_SIZE + index * recordSize;
+    }
+    
+    // Returns the index the next record will occupy; the record only becomes
+    // visible after commit(), so a crash mid-write never exposes a torn record.
+    int nextIndex() {
+        if (count == capacity) {
+            long grown = Math.min((long) Math.max(capacity, 16) * 2,
+                                  (Integer.MAX_VALUE - HEADER_SIZE) / recordSize);
+            if (grown <= capacity) {
+                throw new IllegalStateException("Record file is full");
+            }
+            try {
+                map((int) grown);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to grow record file", e);
+            }
+        }
+        return count;
+    }
+    
+    void commit() {
+        count++;
+        buffer.putInt(COUNT_OFFSET, count);
+    }
+    
+    void force() {
+        buffer.force();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
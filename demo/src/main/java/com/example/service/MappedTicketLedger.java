@@ -0,0 +1,368 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public class MappedTicketLedger implements CinemaChangeListener, Closeable {
+    public static final String SESSIONS_FILE = "sessions.ledger";
+    public static final String TICKETS_FILE = "tickets.ledger";
+    
+    private static final int SESSION_MAGIC = 0x534c4447;
+    private static final int TICKET_MAGIC = 0x544c4447;
+    
+    // Session record: last ticket record, live ticket count, id length, UTF-8 id bytes.
+    static final int SESSION_RECORD_SIZE = 64;
+    private static final int SESSION_LAST_TICKET = 0;
+    private static final int SESSION_LIVE_COUNT = 4;
+    private static final int SESSION_ID_LENGTH = 8;
+    private static final int SESSION_ID = 10;
+    private static final int MAX_SESSION_ID_BYTES = SESSION_RECORD_SIZE - SESSION_ID;
+    
+    // Ticket record: UUID halves, session index, flags, purchase time, price and
+    // the previous record of the same session, which chains a session's tickets together.
+    static final int TICKET_RECORD_SIZE = 48;
+    private static final int TICKET_ID_MSB = 0;
+    private static final int TICKET_ID_LSB = 8;
+    private static final int TICKET_SESSION = 16;
+    private static final int TICKET_FLAGS = 20;
+    private static final int TICKET_PURCHASE_TIME = 24;
+    private static final int TICKET_PRICE = 32;
+    private static final int TICKET_PREVIOUS = 40;
+    
+    private static final int LIVE = 1;
+    private static final int NO_RECORD = -1;
+    private static final long NO_PURCHASE_TIME = Long.MIN_VALUE;
+    
+    private final MappedRecordFile sessions;
+    private final MappedRecordFile tickets;
+    private final Map<String, Integer> sessionIndexes;
+    private TicketIdIndex ticketIndex;
+    private int liveTickets;
+    
+    private MappedTicketLedger(MappedRecordFile sessions, MappedRecordFile tickets) {
+        this.sessions = sessions;
+        this.tickets = tickets;
+        this.sessionIndexes = new HashMap<>();
+        
+        // Ticket records are committed before their session record is updated, so a crash
+        // in between leaves a session's chain head and live count stale; both are rebuilt
+        // from the committed ticket records, whose previous links are always correct.
+        int[] lastTicket = new int[sessions.size()];
+        int[] liveCounts = new int[sessions.size()];
+        Arrays.fill(lastTicket, NO_RECORD);
+        ByteBuffer ticketBuffer = tickets.buffer();
+        for (int record = 0; record < tickets.size(); record++) {
+            int offset = tickets.offsetOf(record);
+            int sessionIndex = ticketBuffer.getInt(offset + TICKET_SESSION);
+            lastTicket[sessionIndex] = record;
+            if (ticketBuffer.getInt(offset + TICKET_FLAGS) == LIVE) {
+                liveCounts[sessionIndex]++;
+            }
+        }
+        
+        ByteBuffer buffer = sessions.buffer();
+        for (int i = 0; i < sessions.size(); i++) {
+            int offset = sessions.offsetOf(i);
+            buffer.putInt(offset + SESSION_LAST_TICKET, lastTicket[i]);
+            buffer.putInt(offset + SESSION_LIVE_COUNT, liveCounts[i]);
+            sessionIndexes.put(readSessionId(buffer, offset), i);
+            liveTickets += liveCounts[i];
+        }
+    }
+    
+    public static MappedTicketLedger open(Path directory) throws IOException {
+        return open(directory, 1024);
+    }
+    
+    public static MappedTicketLedger open(Path directory, int initialTicketCapacity) throws IOException {
+        Files.createDirectories(directory);
+        MappedRecordFile sessions = new MappedRecordFile(directory.resolve(SESSIONS_FILE),
+                                                         SESSION_MAGIC, SESSION_RECORD_SIZE, 64);
+        try {
+            MappedRecordFile tickets = new MappedRecordFile(directory.resolve(TICKETS_FILE),
+                                                            TICKET_MAGIC, TICKET_RECORD_SIZE, initialTicketCapacity);
+            return new MappedTicketLedger(sessions, tickets);
+        } catch (IOException | RuntimeException e) {
+            sessions.close();
+            throw e;
+        }
+    }
+    
+    public synchronized int getTicketCount() {
+        return liveTickets;
+    }
+    
+    public synchronized int getTicketCount(String sessionId) {
+        Integer index = sessionIndexes.get(sessionId);
+        if (index == null) {
+            return 0;
+        }
+        return sessions.buffer().getInt(sessions.offsetOf(index) + SESSION_LIVE_COUNT);
+    }
+    
+    public synchronized int getRecordCount() {
+        return tickets.size();
+    }
+    
+    public synchronized int append(Session session, Ticket ticket) {
+        UUID id = parseTicketId(ticket.getId());
+        if (id == null) {
+            throw new IllegalArgumentException("Ledger ticket ids must be UUIDs: " + ticket.getId());
+        }
+        
+        int sessionIndex = sessionIndex(session.getId());
+        int sessionOffset = sessions.offsetOf(sessionIndex);
+        ByteBuffer sessionBuffer = sessions.buffer();
+        
+        int record = tickets.nextIndex();
+        ByteBuffer buffer = tickets.buffer();
+        int offset = tickets.offsetOf(record);
+        buffer.putLong(offset + TICKET_ID_MSB, id.getMostSignificantBits());
+        buffer.putLong(offset + TICKET_ID_LSB, id.getLeastSignificantBits());
+        buffer.putInt(offset + TICKET_SESSION, sessionIndex);
+        buffer.putInt(offset + TICKET_FLAGS, LIVE);
+        buffer.putLong(offset + TICKET_PURCHASE_TIME, toEpochMillis(ticket.getPurchaseTime()));
+        buffer.putDouble(offset + TICKET_PRICE, ticket.getPrice());
+        buffer.putInt(offset + TICKET_PREVIOUS, sessionBuffer.getInt(sessionOffset + SESSION_LAST_TICKET));
+        tickets.commit();
+        
+        sessionBuffer.putInt(sessionOffset + SESSION_LAST_TICKET, record);
+        sessionBuffer.putInt(sessionOffset + SESSION_LIVE_COUNT,
+                             sessionBuffer.getInt(sessionOffset + SESSION_LIVE_COUNT) + 1);
+        liveTickets++;
+        
+        if (ticketIndex != null) {
+            ticketIndex.put(id.getMostSignificantBits(), id.getLeastSignificantBits(), record);
+        }
+        return record;
+    }
+    
+    public synchronized boolean remove(String ticketId) {
+        int record = findRecord(ticketId);
+        if (record == NO_RECORD) {
+            return false;
+        }
+        
+        ByteBuffer buffer = tickets.buffer();
+        int offset = tickets.offsetOf(record);
+        buffer.putInt(offset + TICKET_FLAGS, 0);
+        
+        int sessionOffset = sessions.offsetOf(buffer.getInt(offset + TICKET_SESSION));
+        ByteBuffer sessionBuffer = sessions.buffer();
+        sessionBuffer.putInt(sessionOffset + SESSION_LIVE_COUNT,
+                             sessionBuffer.getInt(sessionOffset + SESSION_LIVE_COUNT) - 1);
+        liveTickets--;
+        
+        ticketIndex.remove(buffer.getLong(offset + TICKET_ID_MSB), buffer.getLong(offset + TICKET_ID_LSB));
+        return true;
+    }
+    
+    public synchronized Optional<String> findSessionId(String ticketId) {
+        int record = findRecord(ticketId);
+        if (record == NO_RECORD) {
+            return Optional.empty();
+        }
+        int sessionIndex = tickets.buffer().getInt(tickets.offsetOf(record) + TICKET_SESSION);
+        return Optional.of(readSessionId(sessions.buffer(), sessions.offsetOf(sessionIndex)));
+    }
+    
+    public synchronized List<Ticket> loadTickets(Session session) {
+        return loadTickets(session, tickets.size());
+    }
+    
+    private synchronized List<Ticket> loadTickets(Session session, int recordLimit) {
+        Integer sessionIndex = sessionIndexes.get(session.getId());
+        if (sessionIndex == null) {
+            return new ArrayList<>();
+        }
+        
+        ByteBuffer buffer = tickets.buffer();
+        List<Ticket> loaded = new ArrayList<>();
+        int record = sessions.buffer().getInt(sessions.offsetOf(sessionIndex) + SESSION_LAST_TICKET);
+        while (record != NO_RECORD) {
+            int offset = tickets.offsetOf(record);
+            if (record < recordLimit && buffer.getInt(offset + TICKET_FLAGS) == LIVE) {
+                Ticket ticket = new Ticket(session, buffer.getDouble(offset + TICKET_PRICE),
+                                           fromEpochMillis(buffer.getLong(offset + TICKET_PURCHASE_TIME)));
+                ticket.setId(new UUID(buffer.getLong(offset + TICKET_ID_MSB),
+                                      buffer.getLong(offset + TICKET_ID_LSB)).toString());
+                loaded.add(ticket);
+            }
+            record = buffer.getInt(offset + TICKET_PREVIOUS);
+        }
+        
+        Collections.reverse(loaded);
+        return loaded;
+    }
+    
+    private double revenue(int sessionIndex, int recordLimit) {
+        ByteBuffer buffer = tickets.buffer();
+        double revenue = 0;
+        int record = sessions.buffer().getInt(sessions.offsetOf(sessionIndex) + SESSION_LAST_TICKET);
+        while (record != NO_RECORD) {
+            int offset = tickets.offsetOf(record);
+            if (record < recordLimit && buffer.getInt(offset + TICKET_FLAGS) == LIVE) {
+                revenue += buffer.getDouble(offset + TICKET_PRICE);
+            }
+            record = buffer.getInt(offset + TICKET_PREVIOUS);
+        }
+        return revenue;
+    }
+    
+    // Sessions keep only the tickets recorded up to now on disk; anything bought
+    // afterwards is appended to the session in memory as well as to the ledger.
+    // Sessions that already hold tickets (an eager import, or a lazy one with its own
+    // loader) keep them, since a ledger loader would be prepended to that list.
+    public synchronized void attach(Cinema cinema) {
+        int recordLimit = tickets.size();
+        for (Session session : cinema.getSessions()) {
+            if (sessionIndexes.containsKey(session.getId()) && session.isTicketless()) {
+                session.setTicketLoader(() -> loadTickets(session, recordLimit),
+                                        revenue(sessionIndexes.get(session.getId()), recordLimit));
+            }
+        }
+    }
+    
+    public synchronized void force() {
+        sessions.force();
+        tickets.force();
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            tickets.close();
+        } finally {
+            sessions.close();
+        }
+    }
+    
+    @Override
+    public void cinemaChanged(Cinema cinema) {
+        if (cinema != null) {
+            attach(cinema);
+        }
+    }
+    
+    @Override
+    public void ticketsSold(Session session, List<Ticket> soldTickets) {
+        for (Ticket ticket : soldTickets) {
+            append(session, ticket);
+        }
+    }
+    
+    @Override
+    public void ticketRemoved(Session session, Ticket ticket) {
+        remove(ticket.getId());
+    }
+    
+    @Override
+    public void ticketMoved(Session fromSession, Ticket oldTicket, Session toSession, Ticket newTicket) {
+        remove(oldTicket.getId());
+        append(toSession, newTicket);
+    }
+    
+    private int sessionIndex(String sessionId) {
+        Integer existing = sessionIndexes.get(sessionId);
+        if (existing != null) {
+            return existing;
+        }
+        
+        byte[] idBytes = sessionId.getBytes(StandardCharsets.UTF_8);
+        if (idBytes.length > MAX_SESSION_ID_BYTES) {
+            throw new IllegalArgumentException("Session id is too long for the ledger: " + sessionId);
+        }
+        
+        int index = sessions.nextIndex();
+        ByteBuffer buffer = sessions.buffer();
+        int offset = sessions.offsetOf(index);
+        buffer.putInt(offset + SESSION_LAST_TICKET, NO_RECORD);
+        buffer.putInt(offset + SESSION_LIVE_COUNT, 0);
+        buffer.putShort(offset + SESSION_ID_LENGTH, (short) idBytes.length);
+        for (int i = 0; i < idBytes.length; i++) {
+            buffer.put(offset + SESSION_ID + i, idBytes[i]);
+        }
+        sessions.commit();
+        
+        sessionIndexes.put(sessionId, index);
+        return index;
+    }
+    
+    private int findRecord(String ticketId) {
+        UUID id = parseTicketId(ticketId);
+        if (id == null) {
+            return NO_RECORD;
+        }
+        if (ticketIndex == null) {
+            buildTicketIndex();
+        }
+        int record = ticketIndex.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        return record == TicketIdIndex.NOT_FOUND ? NO_RECORD : record;
+    }
+    
+    // The id index lives in primitive arrays and is only built on the first lookup,
+    // so reopening the ledger stays a matter of mapping the files.
+    private void buildTicketIndex() {
+        ByteBuffer buffer = tickets.buffer();
+        TicketIdIndex index = new TicketIdIndex(liveTickets);
+        for (int record = 0; record < tickets.size(); record++) {
+            int offset = tickets.offsetOf(record);
+            if (buffer.getInt(offset + TICKET_FLAGS) == LIVE) {
+                index.put(buffer.getLong(offset + TICKET_ID_MSB), buffer.getLong(offset + TICKET_ID_LSB), record);
+            }
+        }
+        ticketIndex = index;
+    }
+    
+    private static String readSessionId(ByteBuffer buffer, int offset) {
+        byte[] idBytes = new byte[buffer.getShort(offset + SESSION_ID_LENGTH)];
+        for (int i = 0; i < idBytes.length; i++) {
+            idBytes[i] = buffer.get(offset + SESSION_ID + i);
+        }
+        return new String(idBytes, StandardCharsets.UTF_8);
+    }
+    
+    private static UUID parseTicketId(String ticketId) {
+        if (ticketId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(ticketId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static long toEpochMillis(LocalDateTime time) {
+        if (time == null) {
+            return NO_PURCHASE_TIME;
+        }
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+    
+    private static LocalDateTime fromEpochMillis(long epochMillis) {
+        if (epochMillis == NO_PURCHASE_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000L),
+                                           (int) Math.floorMod(epochMillis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.service;
+
+public class MovieStatistics {
+    private final String movieTitle;
+    private final int sessionCount;
+    private final int soldTickets;
+    private final int totalSeats;
+    private final double revenue;
+    
+    public MovieStatistics(String movieTitle, int sessionCount, int soldTickets, int totalSeats, double revenue) {
+        this.movieTitle = movieTitle;
+        this.sessionCount = sessionCount;
+        this.soldTickets = soldTickets;
+        this.totalSeats = totalSeats;
+        this.revenue = revenue;
+    }
+    
+    public String getMovieTitle() {
+        return movieTitle;
+    }
+    
+    public int getSessionCount() {
+        return sessionCount;
+    }
+    
+    public int getSoldTickets() {
+        return soldTickets;
+    }
+    
+    public int getTotalSeats() {
+        return totalSeats;
+    }
+    
+    public double getRevenue() {
+        return revenue;
+    }
+    
+    public double getOccupancy() {
+        return totalSeats == 0 ? 0 : (double) soldTickets / totalSeats;
+    }
+    
+    @Override
+    public String toString() {
+        return "MovieStatistics{" +
+               "movieTitle='" + movieTitle + '\'' +
+               ", sessionCount=" + sessionCount +
+               ", soldTickets=" + soldTickets +
+               ", totalSeats=" + totalSeats +
+               ", revenue=" + revenue +
+               '}';
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class OperationJournal implements CinemaChangeListener, Closeable {
+    public static final String CINEMA_REPLACED = "CINEMA_REPLACED";
+    public static final String SESSION_ADDED = "SESSION_ADDED";
+    public static final String SESSION_REMOVED = "SESSION_REMOVED";
+    public static final String SESSION_UPDATED = "SESSION_UPDATED";
+    public static final String TICKETS_SOLD = "TICKETS_SOLD";
+    public static final String TICKET_REMOVED = "TICKET_REMOVED";
+    public static final String TICKET_MOVED = "TICKET_MOVED";
+    
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    private final Path directory;
+    private final ExportImportService exportImportService;
+    private final ObjectMapper objectMapper;
+    private BufferedWriter writer;
+    private long lastSequence;
+    
+    public OperationJournal(Path directory, ExportImportService exportImportService) throws IOException {
+        this.directory = directory;
+        this.exportImportService = exportImportService;
+        this.objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        if (!segments.isEmpty()) {
+            Path latest = segments.get(segments.size() - 1);
+            lastSequence = segmentStart(latest) - 1;
+            readSegment(latest, entry -> lastSequence = entry.get("seq").asLong());
+        }
+        
+        // Writing resumes in the segment named after the next sequence. If the newest segment
+        // held nothing but a torn line it has that same name, and openSegment truncates it.
+        openSegment();
+    }
+    
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+    
+    public synchronized long rotate() throws IOException {
+        writer.close();
+        openSegment();
+        return lastSequence;
+    }
+    
+    public synchronized void truncateUpTo(long sequence) throws IOException {
+        List<Path> segments = listSegments();
+        for (int i = 0; i < segments.size() - 1; i++) {
+            long lastInSegment = segmentStart(segments.get(i + 1)) - 1;
+            if (lastInSegment <= sequence) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+    
+    public synchronized long replay(long afterSequence, Consumer<JsonNode> consumer) throws IOException {
+        long[] replayed = {0};
+        for (Path segment : listSegments()) {
+            readSegment(segment, entry -> {
+                if (entry.get("seq").asLong() > afterSequence) {
+                    consumer.accept(entry);
+                    replayed[0]++;
+                }
+            });
+        }
+        return replayed[0];
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+    
+    @Override
+    public void cinemaChanged(Cinema cinema) {
+        if (cinema == null) {
+            return;
+        }
+        ObjectNode entry = newEntry(CINEMA_REPLACED);
+        entry.set("cinema", objectMapper.valueToTree(
+                exportImportService.toExportMap(cinema, ExportImportService.NO_SORT)));
+        append(entry);
+    }
+    
+    @Override
+    public void sessionAdded(Session session) {
+        ObjectNode entry = newEntry(SESSION_ADDED);
+        entry.set("session", sessionNode(session));
+        append(entry);
+    }
+    
+    @Override
+    public void sessionRemoved(Session session) {
+        ObjectNode entry = newEntry(SESSION_REMOVED);
+        entry.put("sessionId", session.getId());
+        append(entry);
+    }
+    
+    @Override
+    public void sessionUpdated(Session session) {
+        ObjectNode entry = newEntry(SESSION_UPDATED);
+        entry.set("session", sessionNode(session));
+        append(entry);
+    }
+    
+    @Override
+    public void ticketsSold(Session session, List<Ticket> tickets) {
+        ObjectNode entry = newEntry(TICKETS_SOLD);
+        entry.put("sessionId", session.getId());
+        ArrayNode ticketNodes = entry.putArray("tickets");
+        for (Ticket ticket : tickets) {
+            ticketNodes.add(ticketNode(ticket));
+        }
+        append(entry);
+    }
+    
+    @Override
+    public void ticketRemoved(Session session, Ticket ticket) {
+        ObjectNode entry = newEntry(TICKET_REMOVED);
+        entry.put("sessionId", session.getId());
+        entry.put("ticketId", ticket.getId());
+        append(entry);
+    }
+    
+    @Override
+    public void ticketMoved(Session fromSession, Ticket oldTicket, Session toSession, Ticket newTicket) {
+        ObjectNode entry = newEntry(TICKET_MOVED);
+        entry.put("fromSessionId", fromSession.getId());
+        entry.put("ticketId", oldTicket.getId());
+        entry.put("toSessionId", toSession.getId());
+        entry.set("ticket", ticketNode(newTicket));
+        append(entry);
+    }
+    
+    private ObjectNode newEntry(String operation) {
+        ObjectNode entry = objectMapper.createObjectNode();
+        entry.put("seq", 0L);
+        entry.put("op", operation);
+        return entry;
+    }
+    
+    private ObjectNode sessionNode(Session session) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", session.getId());
+        node.put("movieTitle", session.getMovieTitle());
+        node.put("dateTime", session.getDateTime() != null ? session.getDateTime().toString() : null);
+        node.put("totalSeats", session.getTotalSeats());
+        node.put("availableSeats", session.getAvailableSeats());
+        node.put("ticketPrice", session.getTicketPrice());
+        return node;
+    }
+    
+    private ObjectNode ticketNode(Ticket ticket) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", ticket.getId());
+        node.put("purchaseTime", ticket.getPurchaseTime() != null ? ticket.getPurchaseTime().toString() : null);
+        node.put("price", ticket.getPrice());
+        return node;
+    }
+    
+    private synchronized void append(ObjectNode entry) {
+        entry.put("seq", ++lastSequence);
+        try {
+            writer.write(objectMapper.writeValueAsString(entry));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to operation journal", e);
+        }
+    }
+    
+    // A segment named lastSequence + 1 that already exists cannot hold a valid entry (its first
+    // one would have advanced lastSequence), only torn bytes or nothing, so it is truncated
+    // rather than appended to: readSegment stops at the first bad line and would hide the rest.
+    private void openSegment() throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, lastSequence + 1, SEGMENT_SUFFIX));
+        writer = Files.newBufferedWriter(segment, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+    
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : stream) {
+                segments.add(segment);
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+    
+    private static long segmentStart(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+    
+    // A crash can leave a half-written last line; everything before it is still valid.
+    private void readSegment(Path segment, Consumer<JsonNode> consumer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                JsonNode entry;
+                try {
+                    entry = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    break;
+                }
+                consumer.accept(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.PriceCurve;
+import com.example.model.Session;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class PricingEngine implements CinemaChangeListener {
+    private volatile PricingRules rules;
+    
+    public PricingEngine(PricingRules rules) {
+        if (rules == null) {
+            throw new IllegalArgumentException("Pricing rules cannot be null");
+        }
+        this.rules = rules;
+    }
+    
+    public PricingRules getRules() {
+        return rules;
+    }
+    
+    public void setRules(PricingRules rules) {
+        if (rules == null) {
+            throw new IllegalArgumentException("Pricing rules cannot be null");
+        }
+        this.rules = rules;
+    }
+    
+    // Every rule is evaluated here once per cell, so a purchase only does a table lookup.
+    public PriceCurve buildCurve(Session session) {
+        PricingRules current = rules;
+        double[][] prices = new double[current.getLeadTimeBuckets()][current.getOccupancyBands()];
+        for (int bucket = 0; bucket < prices.length; bucket++) {
+            for (int band = 0; band < prices[bucket].length; band++) {
+                prices[bucket][band] = current.price(session.getTicketPrice(), session.getDateTime(), bucket, band);
+            }
+        }
+        return new PriceCurve(session.getTicketPrice(), session.getDateTime(), current.getLeadTimeMinutes(), prices);
+    }
+    
+    public void apply(Session session) {
+        session.setPriceCurve(buildCurve(session));
+    }
+    
+    public int repriceUpcoming(CinemaService cinemaService) {
+        return repriceUpcoming(cinemaService, ForkJoinPool.commonPool());
+    }
+    
+    // Curves are built in parallel outside the service lock; only the reference swap
+    // happens under it, so purchases are never blocked by rule evaluation.
+    public int repriceUpcoming(CinemaService cinemaService, ForkJoinPool pool) {
+        List<Session> sessions = cinemaService.getValidSessions();
+        
+        Map<Session, PriceCurve> curves;
+        try {
+            curves = pool.submit(() -> sessions.parallelStream()
+                    .distinct()
+                    .collect(Collectors.toMap(Function.identity(), this::buildCurve))).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while repricing sessions", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to reprice sessions", e.getCause());
+        }
+        
+        return cinemaService.withConsistentView(cinema -> {
+            for (Map.Entry<Session, PriceCurve> entry : curves.entrySet()) {
+                Session session = entry.getKey();
+                PriceCurve curve = entry.getValue();
+                // A session edited while its curve was being built gets a fresh one.
+                session.setPriceCurve(curve.appliesTo(session.getTicketPrice(), session.getDateTime())
+                                      ? curve : buildCurve(session));
+            }
+            return curves.size();
+        });
+    }
+    
+    @Override
+    public void cinemaChanged(Cinema cinema) {
+        if (cinema == null) {
+            return;
+        }
+        for (Session session : cinema.getSessions()) {
+            apply(session);
+        }
+    }
+    
+    @Override
+    public void sessionAdded(Session session) {
+        apply(session);
+    }
+    
+    @Override
+    public void sessionUpdated(Session session) {
+        apply(session);
+    }
+}
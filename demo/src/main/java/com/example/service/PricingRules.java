@@ -0,0 +1,80 @@
+package com.example.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+public class PricingRules {
+    private final long[] leadTimeMinutes;
+    private final double[] leadTimeMultipliers;
+    private final double[] occupancyMultipliers;
+    private final double[] hourMultipliers;
+    private final double weekendMultiplier;
+    private final double minimumPrice;
+    
+    public PricingRules(long[] leadTimeMinutes, double[] leadTimeMultipliers, double[] occupancyMultipliers,
+                        double[] hourMultipliers, double weekendMultiplier, double minimumPrice) {
+        if (leadTimeMultipliers.length != leadTimeMinutes.length + 1) {
+            throw new IllegalArgumentException("Expected one more lead time multiplier than lead time thresholds");
+        }
+        for (int i = 1; i < leadTimeMinutes.length; i++) {
+            if (leadTimeMinutes[i] <= leadTimeMinutes[i - 1]) {
+                throw new IllegalArgumentException("Lead time thresholds must be increasing");
+            }
+        }
+        if (occupancyMultipliers.length == 0) {
+            throw new IllegalArgumentException("At least one occupancy band is required");
+        }
+        if (hourMultipliers.length != 24) {
+            throw new IllegalArgumentException("Expected a multiplier for every hour of the day");
+        }
+        if (weekendMultiplier <= 0 || minimumPrice < 0) {
+            throw new IllegalArgumentException("Weekend multiplier must be positive and minimum price non-negative");
+        }
+        
+        this.leadTimeMinutes = leadTimeMinutes.clone();
+        this.leadTimeMultipliers = leadTimeMultipliers.clone();
+        this.occupancyMultipliers = occupancyMultipliers.clone();
+        this.hourMultipliers = hourMultipliers.clone();
+        this.weekendMultiplier = weekendMultiplier;
+        this.minimumPrice = minimumPrice;
+    }
+    
+    public static PricingRules defaults() {
+        double[] hours = new double[24];
+        Arrays.fill(hours, 0, 17, 0.85);
+        Arrays.fill(hours, 17, 22, 1.1);
+        Arrays.fill(hours, 22, 24, 0.9);
+        
+        return new PricingRules(
+                new long[] {6 * 60, 24 * 60, 7 * 24 * 60},
+                new double[] {1.15, 1.05, 1.0, 0.9},
+                new double[] {0.9, 0.95, 1.0, 1.0, 1.05, 1.1, 1.15, 1.2, 1.3, 1.4},
+                hours,
+                1.1,
+                0.01);
+    }
+    
+    public long[] getLeadTimeMinutes() {
+        return leadTimeMinutes.clone();
+    }
+    
+    public int getLeadTimeBuckets() {
+        return leadTimeMultipliers.length;
+    }
+    
+    public int getOccupancyBands() {
+        return occupancyMultipliers.length;
+    }
+    
+    public double price(double basePrice, LocalDateTime showTime, int leadTimeBucket, int occupancyBand) {
+        double dayPart = hourMultipliers[showTime.getHour()];
+        DayOfWeek day = showTime.getDayOfWeek();
+        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+            dayPart *= weekendMultiplier;
+        }
+        
+        double price = basePrice * dayPart * leadTimeMultipliers[leadTimeBucket] * occupancyMultipliers[occupancyBand];
+        return Math.max(minimumPrice, Math.round(price * 100) / 100.0);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.service;
+
+public class RateLimitExceededException extends RuntimeException {
+    static final RateLimitExceededException CLIENT_LIMIT = new RateLimitExceededException("Client rate limit exceeded");
+    static final RateLimitExceededException SESSION_LIMIT = new RateLimitExceededException("Session rate limit exceeded");
+    
+    // Shared instances without a stack trace, so rejecting a request allocates nothing.
+    private RateLimitExceededException(String message) {
+        super(message, null, false, false);
+    }
+}
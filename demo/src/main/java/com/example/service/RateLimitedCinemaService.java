@@ -0,0 +1,54 @@
+package com.example.service;
+
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.util.List;
+import java.util.Optional;
+
+public class RateLimitedCinemaService {
+    private final CinemaService delegate;
+    private final RateLimiter clientLimiter;
+    private final RateLimiter sessionLimiter;
+    
+    public RateLimitedCinemaService(CinemaService delegate, RateLimiter clientLimiter, RateLimiter sessionLimiter) {
+        if (delegate == null || clientLimiter == null || sessionLimiter == null) {
+            throw new IllegalArgumentException("Service and limiters cannot be null");
+        }
+        this.delegate = delegate;
+        this.clientLimiter = clientLimiter;
+        this.sessionLimiter = sessionLimiter;
+    }
+    
+    public CinemaService getDelegate() {
+        return delegate;
+    }
+    
+    public RateLimiter getClientLimiter() {
+        return clientLimiter;
+    }
+    
+    public RateLimiter getSessionLimiter() {
+        return sessionLimiter;
+    }
+    
+    // A request turned away by the session limit gets its client permit back, so a busy
+    // session does not also use up the budget of the clients trying to buy into it.
+    public List<Ticket> buyTickets(String clientId, Session session, int numberOfTickets) {
+        if (!clientLimiter.tryAcquire(clientId)) {
+            throw RateLimitExceededException.CLIENT_LIMIT;
+        }
+        if (session != null && !sessionLimiter.tryAcquire(session.getId())) {
+            clientLimiter.release(clientId, 1);
+            throw RateLimitExceededException.SESSION_LIMIT;
+        }
+        return delegate.buyTickets(session, numberOfTickets);
+    }
+    
+    public Optional<Session> findSessionById(String clientId, String sessionId) {
+        if (!clientLimiter.tryAcquire(clientId)) {
+            throw RateLimitExceededException.CLIENT_LIMIT;
+        }
+        return delegate.findSessionById(sessionId);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public class RateLimiter {
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final long idleNanos;
+    private final LongSupplier clock;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong lastSweep = new AtomicLong();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rejectedForCapacity = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys, long idleTimeout, TimeUnit unit) {
+        this(permitsPerSecond, burst, maxKeys, idleTimeout, unit, System::nanoTime);
+    }
+    
+    RateLimiter(double permitsPerSecond, int burst, int maxKeys, long idleTimeout, TimeUnit unit, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst <= 0 || maxKeys <= 0 || idleTimeout <= 0) {
+            throw new IllegalArgumentException("Rate, burst, key limit and idle timeout must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.maxKeys = maxKeys;
+        this.idleNanos = unit.toNanos(idleTimeout);
+        this.clock = clock;
+        this.lastSweep.set(clock.getAsLong());
+    }
+    
+    public boolean tryAcquire(String key) {
+        return tryAcquire(key, 1);
+    }
+    
+    public boolean tryAcquire(String key, int permits) {
+        if (key == null || permits <= 0) {
+            throw new IllegalArgumentException("Key cannot be null and permits must be positive");
+        }
+        long now = clock.getAsLong();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = register(key, now);
+            if (bucket == null) {
+                rejectedForCapacity.increment();
+                rejected.increment();
+                return false;
+            }
+        }
+        
+        if (bucket.tryAcquire(now, emissionIntervalNanos * permits, burstNanos)) {
+            allowed.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+    
+    // Returns permits from a successful tryAcquire that the caller could not use, e.g.
+    // because another limiter turned the same request away.
+    void release(String key, int permits) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.release(emissionIntervalNanos * permits);
+            allowed.decrement();
+        }
+    }
+    
+    public long getAllowed() {
+        return allowed.sum();
+    }
+    
+    public long getRejected() {
+        return rejected.sum();
+    }
+    
+    public long getRejectedForCapacity() {
+        return rejectedForCapacity.sum();
+    }
+    
+    public long getEvicted() {
+        return evicted.sum();
+    }
+    
+    public int getTrackedKeys() {
+        return size.get();
+    }
+    
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+    
+    // A new key only gets a bucket while there is room; when the table is full the idle
+    // buckets are swept (at most once per half idle timeout) and a still-full table rejects
+    // the newcomer rather than evicting an active client and resetting its limit.
+    private Bucket register(String key, long now) {
+        if (size.get() >= maxKeys) {
+            long previous = lastSweep.get();
+            if (now - previous >= idleNanos / 2 && lastSweep.compareAndSet(previous, now)) {
+                evictIdle(now);
+            }
+            if (size.get() >= maxKeys) {
+                return null;
+            }
+        }
+        
+        Bucket created = new Bucket(now);
+        Bucket existing = buckets.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        size.incrementAndGet();
+        return created;
+    }
+    
+    private void evictIdle(long now) {
+        for (Iterator<Map.Entry<String, Bucket>> entries = buckets.entrySet().iterator(); entries.hasNext(); ) {
+            Map.Entry<String, Bucket> entry = entries.next();
+            if (now - entry.getValue().theoreticalArrival.get() > idleNanos
+                    && buckets.remove(entry.getKey(), entry.getValue())) {
+                size.decrementAndGet();
+                evicted.increment();
+            }
+        }
+    }
+    
+    // Token bucket kept as a single "theoretical arrival time" (GCRA): the bucket is full
+    // once the clock passes it, and each permit pushes it one emission interval further.
+    // One long means refills are a plain CAS with no lock and no allocation.
+    private static final class Bucket {
+        private final AtomicLong theoreticalArrival;
+        
+        private Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+        
+        private boolean tryAcquire(long now, long cost, long burst) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long next = Math.max(current, now) + cost;
+                if (next - now > burst) {
+                    return false;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+        
+        // Winding back past the clock is harmless: tryAcquire starts from the later of the two.
+        private void release(long cost) {
+            theoreticalArrival.addAndGet(-cost);
+        }
+    }
+}
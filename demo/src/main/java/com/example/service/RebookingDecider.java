@@ -0,0 +1,27 @@
+package com.example.service;
+
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface RebookingDecider {
+    // Returns the alternative the ticket holder accepts, or null to be refunded.
+    Session choose(Ticket ticket, List<Session> alternatives);
+    
+    static RebookingDecider refundAll() {
+        return (ticket, alternatives) -> null;
+    }
+    
+    static RebookingDecider nearestShowtime() {
+        return (ticket, alternatives) -> {
+            for (Session alternative : alternatives) {
+                if (alternative.getAvailableSeats() > 0) {
+                    return alternative;
+                }
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.service;
+
+import com.example.model.Ticket;
+
+import java.util.Collections;
+import java.util.List;
+
+public class RebookingResult {
+    private final List<Ticket> rebooked;
+    private final List<Ticket> unmoved;
+    private final int missing;
+    
+    public RebookingResult(List<Ticket> rebooked, List<Ticket> unmoved, int missing) {
+        this.rebooked = Collections.unmodifiableList(rebooked);
+        this.unmoved = Collections.unmodifiableList(unmoved);
+        this.missing = missing;
+    }
+    
+    // The new tickets, now held by the target session.
+    public List<Ticket> getRebooked() {
+        return rebooked;
+    }
+    
+    // Tickets left with the source session because the target ran out of seats.
+    public List<Ticket> getUnmoved() {
+        return unmoved;
+    }
+    
+    // Tickets the source session no longer held, e.g. refunded meanwhile.
+    public int getMissing() {
+        return missing;
+    }
+    
+    @Override
+    public String toString() {
+        return "RebookingResult{" +
+               "rebooked=" + rebooked.size() +
+               ", unmoved=" + unmoved.size() +
+               ", missing=" + missing +
+               '}';
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RecoveryManager implements CinemaChangeListener, Closeable {
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".json";
+    
+    private final CinemaService cinemaService;
+    private final ExportImportService exportImportService;
+    private final Path directory;
+    private final AtomicLong operationsSinceSnapshot;
+    private final AtomicBoolean snapshotScheduled;
+    private final AtomicLong failedSnapshots = new AtomicLong();
+    private OperationJournal journal;
+    private volatile ScheduledExecutorService scheduler;
+    private volatile long snapshotThreshold;
+    private volatile long lastSnapshotSequence;
+    private volatile Exception lastSnapshotFailure;
+    
+    public RecoveryManager(CinemaService cinemaService, ExportImportService exportImportService, Path directory) {
+        this.cinemaService = cinemaService;
+        this.exportImportService = exportImportService;
+        this.directory = directory;
+        this.operationsSinceSnapshot = new AtomicLong();
+        this.snapshotScheduled = new AtomicBoolean();
+    }
+    
+    public synchronized RecoveryResult recover() throws IOException {
+        if (journal != null) {
+            throw new IllegalStateException("Recovery has already been performed");
+        }
+        
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        
+        Path snapshot = findLatestSnapshot();
+        long snapshotSequence = snapshot != null ? snapshotSequence(snapshot) : 0;
+        Cinema cinema = snapshot != null ? exportImportService.importData(snapshot.toString()) : null;
+        
+        journal = new OperationJournal(directory, exportImportService);
+        JournalReplay replay = new JournalReplay(cinema, exportImportService);
+        long replayed = journal.replay(snapshotSequence, replay::apply);
+        
+        // Listeners are attached only after the recovered state is installed,
+        // otherwise the recovery itself would be journaled again.
+        if (replay.getCinema() != null) {
+            cinemaService.setCinema(replay.getCinema());
+        }
+        cinemaService.addChangeListener(journal);
+        cinemaService.addChangeListener(this);
+        
+        lastSnapshotSequence = snapshotSequence;
+        operationsSinceSnapshot.set(replayed);
+        
+        return new RecoveryResult(snapshotSequence, replayed, System.nanoTime() - start, replay.getCinema() != null);
+    }
+    
+    public synchronized void startPeriodicSnapshots(long interval, TimeUnit unit, long operationThreshold) {
+        if (journal == null) {
+            throw new IllegalStateException("Recovery must run before snapshots are scheduled");
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException("Periodic snapshots are already running");
+        }
+        
+        snapshotThreshold = operationThreshold;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cinema-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, unit);
+    }
+    
+    // The snapshot is taken under the service lock together with the journal rotation,
+    // so the snapshot covers exactly the journal entries before the new segment;
+    // serialization then runs while sales continue.
+    public synchronized long snapshot() throws IOException {
+        if (journal == null) {
+            throw new IllegalStateException("Recovery must run before taking snapshots");
+        }
+        if (cinemaService.getCinema() == null) {
+            return lastSnapshotSequence;
+        }
+        
+        Capture capture = cinemaService.withConsistentView(cinema -> {
+            try {
+                return new Capture(cinema.snapshot(), journal.rotate());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        operationsSinceSnapshot.set(0);
+        
+        Path target = directory.resolve(snapshotName(capture.sequence));
+        exportImportService.exportDataAtomically(capture.cinema, target.toString(), ExportImportService.NO_SORT);
+        
+        journal.truncateUpTo(capture.sequence);
+        for (Path old : listSnapshots()) {
+            if (snapshotSequence(old) < capture.sequence) {
+                Files.deleteIfExists(old);
+            }
+        }
+        
+        lastSnapshotSequence = capture.sequence;
+        return capture.sequence;
+    }
+    
+    public long getLastSnapshotSequence() {
+        return lastSnapshotSequence;
+    }
+    
+    public long getFailedSnapshots() {
+        return failedSnapshots.get();
+    }
+    
+    // The most recent failed periodic snapshot, or null; a direct snapshot() call throws instead.
+    public Exception getLastSnapshotFailure() {
+        return lastSnapshotFailure;
+    }
+    
+    public long getOperationsSinceSnapshot() {
+        return operationsSinceSnapshot.get();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService runningScheduler;
+        synchronized (this) {
+            runningScheduler = scheduler;
+            scheduler = null;
+        }
+        if (runningScheduler != null) {
+            runningScheduler.shutdown();
+            try {
+                runningScheduler.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        synchronized (this) {
+            if (journal != null) {
+                cinemaService.removeChangeListener(this);
+                cinemaService.removeChangeListener(journal);
+                journal.close();
+            }
+        }
+    }
+    
+    @Override
+    public void cinemaChanged(Cinema cinema) {
+        operationRecorded();
+    }
+    
+    @Override
+    public void sessionAdded(Session session) {
+        operationRecorded();
+    }
+    
+    @Override
+    public void sessionRemoved(Session session) {
+        operationRecorded();
+    }
+    
+    @Override
+    public void sessionUpdated(Session session) {
+        operationRecorded();
+    }
+    
+    @Override
+    public void ticketsSold(Session session, List<Ticket> tickets) {
+        operationRecorded();
+    }
+    
+    @Override
+    public void ticketRemoved(Session session, Ticket ticket) {
+        operationRecorded();
+    }
+    
+    @Override
+    public void ticketMoved(Session fromSession, Ticket oldTicket, Session toSession, Ticket newTicket) {
+        operationRecorded();
+    }
+    
+    private void operationRecorded() {
+        long operations = operationsSinceSnapshot.incrementAndGet();
+        ScheduledExecutorService runningScheduler = scheduler;
+        if (runningScheduler != null && snapshotThreshold > 0 && operations >= snapshotThreshold
+                && snapshotScheduled.compareAndSet(false, true)) {
+            runningScheduler.execute(this::snapshotQuietly);
+        }
+    }
+    
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            failedSnapshots.incrementAndGet();
+            lastSnapshotFailure = e;
+        } finally {
+            snapshotScheduled.set(false);
+        }
+    }
+    
+    private Path findLatestSnapshot() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+    
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            for (Path snapshot : stream) {
+                snapshots.add(snapshot);
+            }
+        }
+        Collections.sort(snapshots);
+        return snapshots;
+    }
+    
+    private static String snapshotName(long sequence) {
+        return String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX);
+    }
+    
+    private static long snapshotSequence(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+    
+    private static class Capture {
+        private final Cinema cinema;
+        private final long sequence;
+        
+        private Capture(Cinema cinema, long sequence) {
+            this.cinema = cinema;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.service;
+
+public class RecoveryResult {
+    private final long snapshotSequence;
+    private final long replayedOperations;
+    private final long durationNanos;
+    private final boolean recovered;
+    
+    public RecoveryResult(long snapshotSequence, long replayedOperations, long durationNanos, boolean recovered) {
+        this.snapshotSequence = snapshotSequence;
+        this.replayedOperations = replayedOperations;
+        this.durationNanos = durationNanos;
+        this.recovered = recovered;
+    }
+    
+    public long getSnapshotSequence() {
+        return snapshotSequence;
+    }
+    
+    public long getReplayedOperations() {
+        return replayedOperations;
+    }
+    
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+    
+    public double getDurationMillis() {
+        return durationNanos / 1_000_000.0;
+    }
+    
+    public boolean isRecovered() {
+        return recovered;
+    }
+    
+    @Override
+    public String toString() {
+        return "RecoveryResult{" +
+               "snapshotSequence=" + snapshotSequence +
+               ", replayedOperations=" + replayedOperations +
+               ", durationMillis=" + getDurationMillis() +
+               ", recovered=" + recovered +
+               '}';
+    }
+}
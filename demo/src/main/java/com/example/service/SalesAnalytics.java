@@ -0,0 +1,130 @@
+package com.example.service;
+
+import com.example.model.Session;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+public class SalesAnalytics {
+    private final CinemaService cinemaService;
+    private final ForkJoinPool pool;
+    
+    public SalesAnalytics(CinemaService cinemaService) {
+        this(cinemaService, ForkJoinPool.commonPool());
+    }
+    
+    public SalesAnalytics(CinemaService cinemaService, ForkJoinPool pool) {
+        if (cinemaService == null || pool == null) {
+            throw new IllegalArgumentException("Cinema service and pool cannot be null");
+        }
+        this.cinemaService = cinemaService;
+        this.pool = pool;
+    }
+    
+    // Only per-session figures are copied under the service lock: revenue is the running
+    // price sum each session keeps, so no ticket list is loaded or walked. Grouping runs
+    // afterwards on the pool while sales carry on.
+    public SalesReport analyze() {
+        List<SessionSnapshot> snapshots = cinemaService.withConsistentView(cinema -> {
+            List<Session> sessions = cinema.getSessions();
+            List<SessionSnapshot> copies = new ArrayList<>(sessions.size());
+            for (Session session : sessions) {
+                copies.add(new SessionSnapshot(session));
+            }
+            return copies;
+        });
+        
+        return inPool(() -> {
+            List<SessionStatistics> sessions = snapshots.parallelStream()
+                    .map(SessionSnapshot::toStatistics)
+                    .collect(Collectors.toList());
+            return new SalesReport(Collections.unmodifiableList(sessions),
+                                   groupBy(sessions, SessionStatistics::getMovieTitle),
+                                   groupBy(sessions, statistics -> statistics.getDateTime().toLocalDate()),
+                                   groupBy(sessions, statistics -> statistics.getDateTime().getHour()));
+        });
+    }
+    
+    private static <K extends Comparable<? super K>> List<SalesFigures<K>> groupBy(List<SessionStatistics> sessions,
+                                                                                   Function<SessionStatistics, K> classifier) {
+        Collector<SessionStatistics, Totals, Totals> totals = Collector.of(Totals::new, Totals::add, Totals::merge);
+        Map<K, Totals> groups = sessions.parallelStream()
+                .collect(Collectors.groupingBy(classifier, TreeMap::new, totals));
+        
+        List<SalesFigures<K>> figures = new ArrayList<>(groups.size());
+        for (Map.Entry<K, Totals> group : groups.entrySet()) {
+            Totals total = group.getValue();
+            figures.add(new SalesFigures<>(group.getKey(), total.sessionCount, total.soldTickets,
+                                           total.totalSeats, total.revenue));
+        }
+        return Collections.unmodifiableList(figures);
+    }
+    
+    private <T> T inPool(Callable<T> task) {
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while aggregating sales", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to aggregate sales", e.getCause());
+        }
+    }
+    
+    private static class SessionSnapshot {
+        private final String id;
+        private final String movieTitle;
+        private final LocalDateTime dateTime;
+        private final int soldTickets;
+        private final int totalSeats;
+        private final double revenue;
+        
+        SessionSnapshot(Session session) {
+            this.id = session.getId();
+            this.movieTitle = session.getMovieTitle();
+            this.dateTime = session.getDateTime();
+            this.soldTickets = session.getTotalSeats() - session.getAvailableSeats();
+            this.totalSeats = session.getTotalSeats();
+            this.revenue = session.getRevenue();
+        }
+        
+        SessionStatistics toStatistics() {
+            return new SessionStatistics(id, movieTitle, dateTime, soldTickets, totalSeats, revenue);
+        }
+    }
+    
+    private static class Totals {
+        private int sessionCount;
+        private int soldTickets;
+        private int totalSeats;
+        private double revenue;
+        
+        void add(SessionStatistics statistics) {
+            sessionCount++;
+            soldTickets += statistics.getSoldTickets();
+            totalSeats += statistics.getTotalSeats();
+            revenue += statistics.getRevenue();
+        }
+        
+        Totals merge(Totals other) {
+            sessionCount += other.sessionCount;
+            soldTickets += other.soldTickets;
+            totalSeats += other.totalSeats;
+            revenue += other.revenue;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.service;
+
+public class SalesFigures<K> {
+    private final K key;
+    private final int sessionCount;
+    private final int soldTickets;
+    private final int totalSeats;
+    private final double revenue;
+    
+    public SalesFigures(K key, int sessionCount, int soldTickets, int totalSeats, double revenue) {
+        this.key = key;
+        this.sessionCount = sessionCount;
+        this.soldTickets = soldTickets;
+        this.totalSeats = totalSeats;
+        this.revenue = revenue;
+    }
+    
+    public K getKey() {
+        return key;
+    }
+    
+    public int getSessionCount() {
+        return sessionCount;
+    }
+    
+    public int getSoldTickets() {
+        return soldTickets;
+    }
+    
+    public int getTotalSeats() {
+        return totalSeats;
+    }
+    
+    public double getRevenue() {
+        return revenue;
+    }
+    
+    public double getOccupancy() {
+        return totalSeats == 0 ? 0 : (double) soldTickets / totalSeats;
+    }
+    
+    @Override
+    public String toString() {
+        return "SalesFigures{" +
+               "key=" + key +
+               ", sessionCount=" + sessionCount +
+               ", soldTickets=" + soldTickets +
+               ", totalSeats=" + totalSeats +
+               ", revenue=" + revenue +
+               '}';
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.service;
+
+import java.util.Comparator;
+import java.util.function.ToDoubleFunction;
+
+public enum SalesMetric {
+    REVENUE(SessionStatistics::getRevenue, SalesFigures::getRevenue),
+    TICKETS_SOLD(SessionStatistics::getSoldTickets, SalesFigures::getSoldTickets),
+    OCCUPANCY(SessionStatistics::getOccupancy, SalesFigures::getOccupancy);
+    
+    private final ToDoubleFunction<SessionStatistics> sessionValue;
+    private final ToDoubleFunction<SalesFigures<?>> groupValue;
+    
+    SalesMetric(ToDoubleFunction<SessionStatistics> sessionValue, ToDoubleFunction<SalesFigures<?>> groupValue) {
+        this.sessionValue = sessionValue;
+        this.groupValue = groupValue;
+    }
+    
+    public Comparator<SessionStatistics> sessionComparator() {
+        return Comparator.comparingDouble(sessionValue);
+    }
+    
+    public <K> Comparator<SalesFigures<K>> groupComparator() {
+        return Comparator.comparingDouble(groupValue::applyAsDouble);
+    }
+}
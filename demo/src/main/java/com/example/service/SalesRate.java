@@ -0,0 +1,45 @@
+package com.example.service;
+
+public class SalesRate {
+    private final SalesWindow window;
+    private final long ticketsSold;
+    private final long ticketsRefunded;
+    private final double revenue;
+    
+    public SalesRate(SalesWindow window, long ticketsSold, long ticketsRefunded, double revenue) {
+        this.window = window;
+        this.ticketsSold = ticketsSold;
+        this.ticketsRefunded = ticketsRefunded;
+        this.revenue = revenue;
+    }
+    
+    public SalesWindow getWindow() {
+        return window;
+    }
+    
+    public long getTicketsSold() {
+        return ticketsSold;
+    }
+    
+    public long getTicketsRefunded() {
+        return ticketsRefunded;
+    }
+    
+    public double getRevenue() {
+        return revenue;
+    }
+    
+    public double getTicketsPerMinute() {
+        return ticketsSold * 60_000.0 / window.getDuration().toMillis();
+    }
+    
+    @Override
+    public String toString() {
+        return "SalesRate{" +
+               "window=" + window +
+               ", ticketsSold=" + ticketsSold +
+               ", ticketsRefunded=" + ticketsRefunded +
+               ", revenue=" + revenue +
+               '}';
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+public class SalesRateTracker implements CinemaChangeListener {
+    private final LongSupplier clock;
+    private final Map<SalesWindow, SlidingWindowCounter> cinemaCounters = newCounters();
+    private final Map<String, Map<SalesWindow, SlidingWindowCounter>> sessionCounters = new ConcurrentHashMap<>();
+    
+    public SalesRateTracker() {
+        this(System::currentTimeMillis);
+    }
+    
+    SalesRateTracker(LongSupplier clock) {
+        this.clock = clock;
+    }
+    
+    public SalesRate getCinemaRate(SalesWindow window) {
+        return read(cinemaCounters, window);
+    }
+    
+    public SalesRate getSessionRate(String sessionId, SalesWindow window) {
+        Map<SalesWindow, SlidingWindowCounter> counters = sessionCounters.get(sessionId);
+        return counters == null ? new SalesRate(window, 0, 0, 0) : read(counters, window);
+    }
+    
+    @Override
+    public void ticketsSold(Session session, List<Ticket> tickets) {
+        long cents = 0;
+        for (Ticket ticket : tickets) {
+            cents += toCents(ticket.getPrice());
+        }
+        long now = clock.getAsLong();
+        record(cinemaCounters, now, tickets.size(), 0, cents);
+        record(countersFor(session), now, tickets.size(), 0, cents);
+    }
+    
+    @Override
+    public void ticketRemoved(Session session, Ticket ticket) {
+        long now = clock.getAsLong();
+        long cents = toCents(ticket.getPrice());
+        record(cinemaCounters, now, 0, 1, -cents);
+        record(countersFor(session), now, 0, 1, -cents);
+    }
+    
+    // A move changes where the money sits but not how much the cinema took in.
+    @Override
+    public void ticketMoved(Session fromSession, Ticket oldTicket, Session toSession, Ticket newTicket) {
+        long now = clock.getAsLong();
+        record(countersFor(fromSession), now, 0, 1, -toCents(oldTicket.getPrice()));
+        record(countersFor(toSession), now, 1, 0, toCents(newTicket.getPrice()));
+    }
+    
+    @Override
+    public void sessionRemoved(Session session) {
+        sessionCounters.remove(session.getId());
+    }
+    
+    @Override
+    public void cinemaChanged(Cinema cinema) {
+        sessionCounters.clear();
+    }
+    
+    private Map<SalesWindow, SlidingWindowCounter> countersFor(Session session) {
+        return sessionCounters.computeIfAbsent(session.getId(), id -> newCounters());
+    }
+    
+    private static Map<SalesWindow, SlidingWindowCounter> newCounters() {
+        Map<SalesWindow, SlidingWindowCounter> counters = new EnumMap<>(SalesWindow.class);
+        for (SalesWindow window : SalesWindow.values()) {
+            counters.put(window, new SlidingWindowCounter(window));
+        }
+        return counters;
+    }
+    
+    private static void record(Map<SalesWindow, SlidingWindowCounter> counters, long now,
+                               int sold, int refunded, long cents) {
+        for (SlidingWindowCounter counter : counters.values()) {
+            counter.record(now, sold, refunded, cents);
+        }
+    }
+    
+    private SalesRate read(Map<SalesWindow, SlidingWindowCounter> counters, SalesWindow window) {
+        if (window == null) {
+            throw new IllegalArgumentException("Sales window cannot be null");
+        }
+        return counters.get(window).read(clock.getAsLong());
+    }
+    
+    private static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+}
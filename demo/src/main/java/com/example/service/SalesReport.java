@@ -0,0 +1,90 @@
+package com.example.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class SalesReport {
+    private final List<SessionStatistics> sessions;
+    private final List<SalesFigures<String>> byMovie;
+    private final List<SalesFigures<LocalDate>> byDay;
+    private final List<SalesFigures<Integer>> byHourOfDay;
+    private final int soldTickets;
+    private final int totalSeats;
+    private final double revenue;
+    
+    SalesReport(List<SessionStatistics> sessions, List<SalesFigures<String>> byMovie,
+                List<SalesFigures<LocalDate>> byDay, List<SalesFigures<Integer>> byHourOfDay) {
+        this.sessions = sessions;
+        this.byMovie = byMovie;
+        this.byDay = byDay;
+        this.byHourOfDay = byHourOfDay;
+        this.soldTickets = byMovie.stream().mapToInt(SalesFigures::getSoldTickets).sum();
+        this.totalSeats = byMovie.stream().mapToInt(SalesFigures::getTotalSeats).sum();
+        this.revenue = byMovie.stream().mapToDouble(SalesFigures::getRevenue).sum();
+    }
+    
+    public List<SessionStatistics> getSessions() {
+        return sessions;
+    }
+    
+    public List<SalesFigures<String>> getByMovie() {
+        return byMovie;
+    }
+    
+    public List<SalesFigures<LocalDate>> getByDay() {
+        return byDay;
+    }
+    
+    public List<SalesFigures<Integer>> getByHourOfDay() {
+        return byHourOfDay;
+    }
+    
+    public int getSoldTickets() {
+        return soldTickets;
+    }
+    
+    public int getTotalSeats() {
+        return totalSeats;
+    }
+    
+    public double getRevenue() {
+        return revenue;
+    }
+    
+    public double getOccupancy() {
+        return totalSeats == 0 ? 0 : (double) soldTickets / totalSeats;
+    }
+    
+    public List<SessionStatistics> topSessions(int n, SalesMetric metric) {
+        return sessions.parallelStream().collect(TopN.collector(n, metric.sessionComparator()));
+    }
+    
+    public List<SalesFigures<String>> topMovies(int n, SalesMetric metric) {
+        return top(byMovie, n, metric);
+    }
+    
+    public List<SalesFigures<LocalDate>> topDays(int n, SalesMetric metric) {
+        return top(byDay, n, metric);
+    }
+    
+    public List<SalesFigures<Integer>> topHoursOfDay(int n, SalesMetric metric) {
+        return top(byHourOfDay, n, metric);
+    }
+    
+    private static <K> List<SalesFigures<K>> top(List<SalesFigures<K>> groups, int n, SalesMetric metric) {
+        return groups.stream().collect(TopN.collector(n, metric.<K>groupComparator()));
+    }
+    
+    @Override
+    public String toString() {
+        return "SalesReport{" +
+               "sessions=" + sessions.size() +
+               ", movies=" + byMovie.size() +
+               ", days=" + byDay.size() +
+               ", soldTickets=" + soldTickets +
+               ", totalSeats=" + totalSeats +
+               ", revenue=" + revenue +
+               '}';
+    }
+}
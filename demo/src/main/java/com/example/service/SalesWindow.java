@@ -0,0 +1,30 @@
+package com.example.service;
+
+import java.time.Duration;
+
+public enum SalesWindow {
+    LAST_MINUTE(Duration.ofMinutes(1), 60),
+    LAST_15_MINUTES(Duration.ofMinutes(15), 60),
+    LAST_HOUR(Duration.ofHours(1), 60),
+    LAST_24_HOURS(Duration.ofHours(24), 96);
+    
+    private final Duration duration;
+    private final int bucketCount;
+    
+    SalesWindow(Duration duration, int bucketCount) {
+        this.duration = duration;
+        this.bucketCount = bucketCount;
+    }
+    
+    public Duration getDuration() {
+        return duration;
+    }
+    
+    int getBucketCount() {
+        return bucketCount;
+    }
+    
+    long getBucketMillis() {
+        return duration.toMillis() / bucketCount;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.service;
+
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class SessionCancellationService implements AutoCloseable {
+    public static final int DEFAULT_BATCH_SIZE = 200;
+    
+    private final CinemaService cinemaService;
+    private final ExecutorService workers;
+    private final int batchSize;
+    
+    public SessionCancellationService(CinemaService cinemaService, int workerThreads) {
+        this(cinemaService, workerThreads, DEFAULT_BATCH_SIZE);
+    }
+    
+    public SessionCancellationService(CinemaService cinemaService, int workerThreads, int batchSize) {
+        if (workerThreads <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Worker threads and batch size must be positive");
+        }
+        this.cinemaService = cinemaService;
+        this.batchSize = batchSize;
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "session-cancellation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public CancellationJob cancel(String sessionId, RebookingDecider decider) {
+        return cancel(sessionId, decider, job -> { });
+    }
+    
+    // The session leaves the cinema straight away so nothing more is sold for it; its
+    // tickets are then worked off in batches, each holding the service lock only for
+    // its own rebookings and refunds.
+    public CancellationJob cancel(String sessionId, RebookingDecider decider, Consumer<CancellationJob> progress) {
+        if (decider == null || progress == null) {
+            throw new IllegalArgumentException("Decider and progress listener cannot be null");
+        }
+        
+        Session cancelled = cinemaService.cancelSession(sessionId);
+        List<Ticket> tickets = cancelled.getTickets();
+        List<Session> alternatives = alternativesFor(cancelled);
+        CancellationJob job = new CancellationJob(cancelled.getId(), cancelled.getMovieTitle(), tickets.size());
+        
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int start = 0; start < tickets.size(); start += batchSize) {
+            List<Ticket> batch = tickets.subList(start, Math.min(tickets.size(), start + batchSize));
+            batches.add(CompletableFuture.runAsync(() -> {
+                processBatch(cancelled, batch, alternatives, decider, job);
+                progress.accept(job);
+            }, workers));
+        }
+        
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, error) -> job.finish());
+        return job;
+    }
+    
+    private List<Session> alternativesFor(Session cancelled) {
+        return cinemaService.findSessionsByTitle(cancelled.getMovieTitle()).stream()
+                .filter(session -> !session.getId().equals(cancelled.getId()) && session.isValid())
+                .distinct()
+                .sorted(Comparator.comparing(session -> Duration.between(cancelled.getDateTime(), session.getDateTime()).abs()))
+                .collect(Collectors.toList());
+    }
+    
+    // Tickets that no longer fit into the session they chose (another batch may have
+    // filled it meanwhile) are offered the alternatives again without the full ones;
+    // a ticket whose choice is already known to be full is refunded.
+    private void processBatch(Session cancelled, List<Ticket> batch, List<Session> alternatives,
+                              RebookingDecider decider, CancellationJob job) {
+        List<Ticket> refunds = new ArrayList<>();
+        List<Session> open = new ArrayList<>(alternatives);
+        Set<Session> full = new HashSet<>();
+        List<Ticket> pending = batch;
+        
+        while (!pending.isEmpty()) {
+            Map<Session, List<Ticket>> rebookings = new LinkedHashMap<>();
+            for (Ticket ticket : pending) {
+                Session choice;
+                try {
+                    choice = decider.choose(ticket, open);
+                } catch (RuntimeException e) {
+                    choice = null;
+                }
+                if (choice == null || full.contains(choice)) {
+                    refunds.add(ticket);
+                } else {
+                    rebookings.computeIfAbsent(choice, session -> new ArrayList<>()).add(ticket);
+                }
+            }
+            
+            List<Ticket> overflow = new ArrayList<>();
+            for (Map.Entry<Session, List<Ticket>> entry : rebookings.entrySet()) {
+                List<Ticket> wanted = entry.getValue();
+                RebookingResult result;
+                try {
+                    result = cinemaService.rebookTickets(cancelled, wanted, entry.getKey());
+                } catch (IllegalStateException e) {
+                    result = new RebookingResult(Collections.emptyList(), wanted, 0);
+                }
+                job.recordRebooked(result.getRebooked().size());
+                job.recordFailed(result.getMissing());
+                if (!result.getUnmoved().isEmpty()) {
+                    full.add(entry.getKey());
+                    open.remove(entry.getKey());
+                    overflow.addAll(result.getUnmoved());
+                }
+            }
+            pending = overflow;
+        }
+        
+        if (!refunds.isEmpty()) {
+            List<Ticket> refunded = cinemaService.refundTickets(cancelled, refunds);
+            job.recordRefunded(refunded.size(), refunded.stream().mapToDouble(Ticket::getPrice).sum());
+            job.recordFailed(refunds.size() - refunded.size());
+        }
+    }
+    
+    @Override
+    public void close() {
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
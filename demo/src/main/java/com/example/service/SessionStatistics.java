@@ -0,0 +1,62 @@
+package com.example.service;
+
+import java.time.LocalDateTime;
+
+public class SessionStatistics {
+    private final String sessionId;
+    private final String movieTitle;
+    private final LocalDateTime dateTime;
+    private final int soldTickets;
+    private final int totalSeats;
+    private final double revenue;
+    
+    public SessionStatistics(String sessionId, String movieTitle, LocalDateTime dateTime,
+                             int soldTickets, int totalSeats, double revenue) {
+        this.sessionId = sessionId;
+        this.movieTitle = movieTitle;
+        this.dateTime = dateTime;
+        this.soldTickets = soldTickets;
+        this.totalSeats = totalSeats;
+        this.revenue = revenue;
+    }
+    
+    public String getSessionId() {
+        return sessionId;
+    }
+    
+    public String getMovieTitle() {
+        return movieTitle;
+    }
+    
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+    
+    public int getSoldTickets() {
+        return soldTickets;
+    }
+    
+    public int getTotalSeats() {
+        return totalSeats;
+    }
+    
+    public double getRevenue() {
+        return revenue;
+    }
+    
+    public double getOccupancy() {
+        return totalSeats == 0 ? 0 : (double) soldTickets / totalSeats;
+    }
+    
+    @Override
+    public String toString() {
+        return "SessionStatistics{" +
+               "sessionId='" + sessionId + '\'' +
+               ", movieTitle='" + movieTitle + '\'' +
+               ", dateTime=" + dateTime +
+               ", soldTickets=" + soldTickets +
+               ", totalSeats=" + totalSeats +
+               ", revenue=" + revenue +
+               '}';
+    }
+}
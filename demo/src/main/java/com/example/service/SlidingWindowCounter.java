@@ -0,0 +1,72 @@
+package com.example.service;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// A ring of time buckets. A slot is reused by swapping in a fresh bucket once its
+// epoch is a full window old, so writers never reset counters another thread may
+// still be adding to, and readers only sum the buckets that are still in the window.
+class SlidingWindowCounter {
+    private final SalesWindow window;
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+    
+    SlidingWindowCounter(SalesWindow window) {
+        this.window = window;
+        this.bucketMillis = window.getBucketMillis();
+        this.buckets = new AtomicReferenceArray<>(window.getBucketCount());
+    }
+    
+    void record(long nowMillis, int sold, int refunded, long revenueCents) {
+        Bucket bucket = bucketFor(nowMillis / bucketMillis);
+        if (sold != 0) {
+            bucket.sold.add(sold);
+        }
+        if (refunded != 0) {
+            bucket.refunded.add(refunded);
+        }
+        bucket.revenueCents.add(revenueCents);
+    }
+    
+    SalesRate read(long nowMillis) {
+        long currentEpoch = nowMillis / bucketMillis;
+        long oldestEpoch = currentEpoch - buckets.length() + 1;
+        long sold = 0;
+        long refunded = 0;
+        long revenueCents = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch >= oldestEpoch && bucket.epoch <= currentEpoch) {
+                sold += bucket.sold.sum();
+                refunded += bucket.refunded.sum();
+                revenueCents += bucket.revenueCents.sum();
+            }
+        }
+        return new SalesRate(window, sold, refunded, revenueCents / 100.0);
+    }
+    
+    private Bucket bucketFor(long epoch) {
+        int slot = (int) Math.floorMod(epoch, (long) buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.epoch >= epoch) {
+                return bucket;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+    
+    private static class Bucket {
+        private final long epoch;
+        private final LongAdder sold = new LongAdder();
+        private final LongAdder refunded = new LongAdder();
+        private final LongAdder revenueCents = new LongAdder();
+        
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
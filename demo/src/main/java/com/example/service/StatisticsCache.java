@@ -0,0 +1,218 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public class StatisticsCache implements CinemaChangeListener {
+    private final CinemaService cinemaService;
+    private final Map<String, Session> sessions = new LinkedHashMap<>();
+    private final Map<String, SessionStatistics> sessionStatistics = new LinkedHashMap<>();
+    private final Map<String, MovieTotals> movieTotals = new LinkedHashMap<>();
+    private final Set<String> dirtySessions = new LinkedHashSet<>();
+    private List<SessionStatistics> sessionView = Collections.emptyList();
+    private List<MovieStatistics> movieView = Collections.emptyList();
+    private boolean sessionViewStale;
+    private boolean movieViewStale;
+    private int soldTickets;
+    private double totalRevenue;
+    private long recomputations;
+    
+    public StatisticsCache(CinemaService cinemaService) {
+        this.cinemaService = cinemaService;
+        synchronized (cinemaService) {
+            cinemaService.addChangeListener(this);
+            cinemaChanged(cinemaService.getCinema());
+        }
+    }
+    
+    // The list views are only rebuilt when one is read, so the totals below stay
+    // O(changed sessions) however many writes happen between reports.
+    public List<SessionStatistics> getSessionStatistics() {
+        refresh();
+        synchronized (this) {
+            if (sessionViewStale) {
+                rebuildSessionView();
+            }
+            return sessionView;
+        }
+    }
+    
+    public List<MovieStatistics> getMovieStatistics() {
+        refresh();
+        synchronized (this) {
+            if (movieViewStale) {
+                rebuildMovieView();
+            }
+            return movieView;
+        }
+    }
+    
+    public double getTotalRevenue() {
+        refresh();
+        synchronized (this) {
+            return totalRevenue;
+        }
+    }
+    
+    public int getSoldTickets() {
+        refresh();
+        synchronized (this) {
+            return soldTickets;
+        }
+    }
+    
+    public synchronized long getRecomputations() {
+        return recomputations;
+    }
+    
+    // Dirty sessions are recomputed under the service lock so a half-applied update
+    // is never observed; clean reads do not touch the service at all.
+    private void refresh() {
+        synchronized (this) {
+            if (dirtySessions.isEmpty()) {
+                return;
+            }
+        }
+        
+        synchronized (cinemaService) {
+            synchronized (this) {
+                for (String sessionId : dirtySessions) {
+                    recompute(sessionId);
+                }
+                dirtySessions.clear();
+            }
+        }
+    }
+    
+    private void recompute(String sessionId) {
+        SessionStatistics previous = sessionStatistics.remove(sessionId);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        
+        int sold = session.getTotalSeats() - session.getAvailableSeats();
+        SessionStatistics current = new SessionStatistics(session.getId(), session.getMovieTitle(), session.getDateTime(),
+                                                          sold, session.getTotalSeats(), session.getRevenue());
+        sessionStatistics.put(sessionId, current);
+        apply(current, 1);
+        recomputations++;
+    }
+    
+    private void apply(SessionStatistics statistics, int sign) {
+        soldTickets += sign * statistics.getSoldTickets();
+        totalRevenue += sign * statistics.getRevenue();
+        
+        String title = Objects.toString(statistics.getMovieTitle(), "");
+        MovieTotals totals = movieTotals.computeIfAbsent(title, MovieTotals::new);
+        totals.sessionCount += sign;
+        totals.soldTickets += sign * statistics.getSoldTickets();
+        totals.totalSeats += sign * statistics.getTotalSeats();
+        totals.revenue += sign * statistics.getRevenue();
+        if (totals.sessionCount == 0) {
+            movieTotals.remove(title);
+        }
+        sessionViewStale = true;
+        movieViewStale = true;
+    }
+    
+    private void rebuildSessionView() {
+        List<SessionStatistics> sessionList = new ArrayList<>(sessions.size());
+        for (String sessionId : sessions.keySet()) {
+            SessionStatistics statistics = sessionStatistics.get(sessionId);
+            if (statistics != null) {
+                sessionList.add(statistics);
+            }
+        }
+        sessionView = Collections.unmodifiableList(sessionList);
+        sessionViewStale = false;
+    }
+    
+    private void rebuildMovieView() {
+        List<MovieStatistics> movieList = new ArrayList<>(movieTotals.size());
+        for (MovieTotals totals : movieTotals.values()) {
+            movieList.add(new MovieStatistics(totals.title, totals.sessionCount, totals.soldTickets,
+                                              totals.totalSeats, totals.revenue));
+        }
+        movieView = Collections.unmodifiableList(movieList);
+        movieViewStale = false;
+    }
+    
+    @Override
+    public synchronized void cinemaChanged(Cinema cinema) {
+        sessions.clear();
+        sessionStatistics.clear();
+        movieTotals.clear();
+        dirtySessions.clear();
+        soldTickets = 0;
+        totalRevenue = 0;
+        if (cinema != null) {
+            for (Session session : cinema.getSessions()) {
+                sessions.put(session.getId(), session);
+                dirtySessions.add(session.getId());
+            }
+        }
+        sessionViewStale = true;
+        movieViewStale = true;
+    }
+    
+    @Override
+    public synchronized void sessionAdded(Session session) {
+        sessions.put(session.getId(), session);
+        dirtySessions.add(session.getId());
+    }
+    
+    @Override
+    public synchronized void sessionRemoved(Session session) {
+        sessions.remove(session.getId());
+        dirtySessions.add(session.getId());
+    }
+    
+    @Override
+    public synchronized void sessionUpdated(Session session) {
+        dirtySessions.add(session.getId());
+    }
+    
+    @Override
+    public synchronized void ticketsSold(Session session, List<Ticket> tickets) {
+        dirtySessions.add(session.getId());
+    }
+    
+    @Override
+    public synchronized void ticketRemoved(Session session, Ticket ticket) {
+        dirtySessions.add(session.getId());
+    }
+    
+    @Override
+    public synchronized void ticketMoved(Session fromSession, Ticket oldTicket, Session toSession, Ticket newTicket) {
+        dirtySessions.add(fromSession.getId());
+        dirtySessions.add(toSession.getId());
+    }
+    
+    private static class MovieTotals {
+        private final String title;
+        private int sessionCount;
+        private int soldTickets;
+        private int totalSeats;
+        private double revenue;
+        
+        private MovieTotals(String title) {
+            this.title = title;
+        }
+    }
+}
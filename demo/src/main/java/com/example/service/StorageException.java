@@ -0,0 +1,8 @@
+package com.example.service;
+
+public class StorageException extends RuntimeException {
+    
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.service;
+
+final class TicketIdIndex {
+    static final int NOT_FOUND = -1;
+    
+    private static final int EMPTY = 0;
+    private static final int REMOVED = -1;
+    
+    private long[] mostSignificant;
+    private long[] leastSignificant;
+    private int[] slots;
+    private int used;
+    
+    TicketIdIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+    
+    private void allocate(int capacity) {
+        mostSignificant = new long[capacity];
+        leastSignificant = new long[capacity];
+        slots = new int[capacity];
+        used = 0;
+    }
+    
+    // Values are stored shifted by one so that zero can mark an empty slot;
+    // removed keys stay behind as tombstones so the probe chain stays intact.
+    void put(long msb, long lsb, int value) {
+        if ((used + 1) * 2 > slots.length) {
+            resize();
+        }
+        int slot = findSlot(msb, lsb);
+        if (slots[slot] == EMPTY) {
+            mostSignificant[slot] = msb;
+            leastSignificant[slot] = lsb;
+            used++;
+        }
+        slots[slot] = value + 1;
+    }
+    
+    int get(long msb, long lsb) {
+        int value = slots[findSlot(msb, lsb)];
+        return value == EMPTY || value == REMOVED ? NOT_FOUND : value - 1;
+    }
+    
+    void remove(long msb, long lsb) {
+        int slot = findSlot(msb, lsb);
+        if (slots[slot] != EMPTY) {
+            slots[slot] = REMOVED;
+        }
+    }
+    
+    private int findSlot(long msb, long lsb) {
+        int mask = slots.length - 1;
+        long hash = msb ^ lsb;
+        int slot = (int) (hash ^ (hash >>> 32)) * 0x9E3779B9 & mask;
+        while (slots[slot] != EMPTY
+                && (mostSignificant[slot] != msb || leastSignificant[slot] != lsb)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    private void resize() {
+        long[] oldMsb = mostSignificant;
+        long[] oldLsb = leastSignificant;
+        int[] oldSlots = slots;
+        allocate(oldSlots.length * 2);
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != EMPTY && oldSlots[i] != REMOVED) {
+                put(oldMsb[i], oldLsb[i], oldSlots[i] - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.service;
+
+import com.example.model.Session;
+import com.example.model.Ticket;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+class TicketRangeLoader implements Supplier<List<Ticket>> {
+    private static final TypeReference<List<Ticket>> TICKET_LIST = new TypeReference<List<Ticket>>() {};
+    
+    private final ObjectMapper objectMapper;
+    private final String filename;
+    private final Session session;
+    private final long offset;
+    private final int length;
+    
+    TicketRangeLoader(ObjectMapper objectMapper, String filename, Session session, long offset, long length) {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Ticket range is too large: " + length + " bytes");
+        }
+        this.objectMapper = objectMapper;
+        this.filename = filename;
+        this.session = session;
+        this.offset = offset;
+        this.length = (int) length;
+    }
+    
+    long getOffset() {
+        return offset;
+    }
+    
+    int getLength() {
+        return length;
+    }
+    
+    @Override
+    public List<Ticket> get() {
+        byte[] range = new byte[length];
+        try (RandomAccessFile file = new RandomAccessFile(filename, "r")) {
+            file.seek(offset);
+            file.readFully(range);
+            
+            List<Ticket> tickets = objectMapper.readValue(range, TICKET_LIST);
+            for (Ticket ticket : tickets) {
+                ticket.setSession(session);
+            }
+            return tickets;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load tickets of session " + session.getId() + " from " + filename, e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+// Keeps the n largest elements in a min-heap, so ranking m items costs O(m log n)
+// and parallel partial results merge by offering one heap into the other.
+final class TopN<T> {
+    private final int limit;
+    private final Comparator<? super T> comparator;
+    private final PriorityQueue<T> heap;
+    
+    private TopN(int limit, Comparator<? super T> comparator) {
+        this.limit = limit;
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, comparator);
+    }
+    
+    static <T> Collector<T, ?, List<T>> collector(int limit, Comparator<? super T> comparator) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Top-N limit must be positive");
+        }
+        return Collector.of(() -> new TopN<T>(limit, comparator), TopN::offer, TopN::merge, TopN::toList);
+    }
+    
+    private void offer(T item) {
+        if (heap.size() < limit) {
+            heap.add(item);
+        } else if (comparator.compare(item, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+    
+    private TopN<T> merge(TopN<T> other) {
+        for (T item : other.heap) {
+            offer(item);
+        }
+        return this;
+    }
+    
+    private List<T> toList() {
+        List<T> items = new ArrayList<>(heap);
+        items.sort(Collections.reverseOrder(comparator));
+        return Collections.unmodifiableList(items);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.service;
+
+import com.example.model.Ticket;
+
+import java.util.List;
+
+public interface WaitlistCallback {
+    void fulfilled(WaitlistRequest request, List<Ticket> tickets);
+    
+    default void cancelled(WaitlistRequest request, String reason) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WaitlistRequest {
+    static final int WAITING = 0;
+    static final int FULFILLED = 1;
+    static final int CANCELLED = 2;
+    
+    private final long id;
+    private final String sessionId;
+    private final int tickets;
+    private final WaitlistCallback callback;
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+    private final WaitlistService owner;
+    
+    WaitlistRequest(long id, String sessionId, int tickets, WaitlistCallback callback, WaitlistService owner) {
+        this.id = id;
+        this.sessionId = sessionId;
+        this.tickets = tickets;
+        this.callback = callback;
+        this.owner = owner;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public String getSessionId() {
+        return sessionId;
+    }
+    
+    public int getTickets() {
+        return tickets;
+    }
+    
+    public boolean isWaiting() {
+        return state.get() == WAITING;
+    }
+    
+    public boolean isFulfilled() {
+        return state.get() == FULFILLED;
+    }
+    
+    public boolean isCancelled() {
+        return state.get() == CANCELLED;
+    }
+    
+    // Cancelled requests stay in the queue and are skipped when they reach its head.
+    public boolean cancel() {
+        if (!state.compareAndSet(WAITING, CANCELLED)) {
+            return false;
+        }
+        owner.requestCancelled(this);
+        return true;
+    }
+    
+    WaitlistCallback getCallback() {
+        return callback;
+    }
+    
+    boolean transition(int target) {
+        return state.compareAndSet(WAITING, target);
+    }
+    
+    @Override
+    public String toString() {
+        return "WaitlistRequest{" +
+               "id=" + id +
+               ", sessionId='" + sessionId + '\'' +
+               ", tickets=" + tickets +
+               ", state=" + state.get() +
+               '}';
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class WaitlistService implements CinemaChangeListener, AutoCloseable {
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    
+    private final CinemaService cinemaService;
+    private final int batchSize;
+    private final Map<String, Waitlist> waitlists = new ConcurrentHashMap<>();
+    private final BlockingQueue<String> signals = new LinkedBlockingQueue<>();
+    private final Set<String> signalled = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requestIds = new AtomicLong();
+    private final LongAdder fulfilledRequests = new LongAdder();
+    private final LongAdder cancelledRequests = new LongAdder();
+    private final LongAdder failedCallbacks = new LongAdder();
+    private final Thread worker;
+    private volatile boolean running = true;
+    
+    public WaitlistService(CinemaService cinemaService) {
+        this(cinemaService, DEFAULT_BATCH_SIZE);
+    }
+    
+    public WaitlistService(CinemaService cinemaService, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.cinemaService = cinemaService;
+        this.batchSize = batchSize;
+        cinemaService.addChangeListener(this);
+        this.worker = new Thread(this::fulfil, "waitlist-worker");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+    
+    public WaitlistRequest join(Session session, int tickets, WaitlistCallback callback) {
+        if (session == null || callback == null) {
+            throw new IllegalArgumentException("Session and callback cannot be null");
+        }
+        if (tickets <= 0 || tickets > session.getTotalSeats()) {
+            throw new IllegalArgumentException("Requested tickets must be between 1 and the session capacity");
+        }
+        if (!running) {
+            throw new IllegalStateException("Waitlist service is closed");
+        }
+        
+        WaitlistRequest request = new WaitlistRequest(requestIds.incrementAndGet(), session.getId(), tickets, callback, this);
+        Waitlist waitlist = waitlists.computeIfAbsent(session.getId(), id -> new Waitlist());
+        waitlist.queue.offer(request);
+        waitlist.waiting.incrementAndGet();
+        
+        if (waitlists.get(session.getId()) != waitlist) {
+            // The worker retired this waitlist while the request was being added.
+            if (request.transition(WaitlistRequest.CANCELLED)) {
+                cancelledRequests.increment();
+                callback.cancelled(request, "Session no longer exists");
+            }
+            return request;
+        }
+        // Seats freed between a failed purchase and joining must not be missed.
+        signal(session.getId());
+        return request;
+    }
+    
+    public Optional<List<Ticket>> buyOrWait(Session session, int tickets, WaitlistCallback callback) {
+        synchronized (cinemaService) {
+            boolean queueAhead = getWaitingCount(session.getId()) > 0;
+            if (session.isExpired() || !queueAhead && tickets <= session.getAvailableSeats()) {
+                return Optional.of(cinemaService.buyTickets(session, tickets));
+            }
+            join(session, tickets, callback);
+            return Optional.empty();
+        }
+    }
+    
+    public int getWaitingCount(String sessionId) {
+        Waitlist waitlist = waitlists.get(sessionId);
+        return waitlist == null ? 0 : waitlist.waiting.get();
+    }
+    
+    public long getFulfilledRequests() {
+        return fulfilledRequests.sum();
+    }
+    
+    public long getCancelledRequests() {
+        return cancelledRequests.sum();
+    }
+    
+    public long getFailedCallbacks() {
+        return failedCallbacks.sum();
+    }
+    
+    @Override
+    public void ticketRemoved(Session session, Ticket ticket) {
+        signal(session.getId());
+    }
+    
+    @Override
+    public void ticketMoved(Session fromSession, Ticket oldTicket, Session toSession, Ticket newTicket) {
+        signal(fromSession.getId());
+    }
+    
+    @Override
+    public void sessionUpdated(Session session) {
+        signal(session.getId());
+    }
+    
+    @Override
+    public void sessionRemoved(Session session) {
+        Waitlist waitlist = waitlists.get(session.getId());
+        if (waitlist != null) {
+            waitlist.closedReason = "Session was removed";
+            signal(session.getId());
+        }
+    }
+    
+    @Override
+    public void cinemaChanged(Cinema cinema) {
+        for (Map.Entry<String, Waitlist> entry : waitlists.entrySet()) {
+            entry.getValue().closedReason = "Cinema was replaced";
+            signal(entry.getKey());
+        }
+    }
+    
+    void requestCancelled(WaitlistRequest request) {
+        Waitlist waitlist = waitlists.get(request.getSessionId());
+        if (waitlist != null) {
+            waitlist.waiting.decrementAndGet();
+        }
+        cancelledRequests.increment();
+    }
+    
+    private void signal(String sessionId) {
+        if (waitlists.containsKey(sessionId) && signalled.add(sessionId)) {
+            signals.offer(sessionId);
+        }
+    }
+    
+    private void fulfil() {
+        while (running || !signals.isEmpty()) {
+            try {
+                String sessionId = signals.poll(100, TimeUnit.MILLISECONDS);
+                if (sessionId == null) {
+                    continue;
+                }
+                signalled.remove(sessionId);
+                fulfil(sessionId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // A failing callback must not stop fulfilment for everyone else.
+            }
+        }
+    }
+    
+    // Seats are assigned strictly in FIFO order under the service lock; callbacks run
+    // afterwards so slow subscribers never hold up purchases.
+    private void fulfil(String sessionId) {
+        Waitlist waitlist = waitlists.get(sessionId);
+        if (waitlist == null) {
+            return;
+        }
+        
+        List<WaitlistRequest> fulfilled = new ArrayList<>();
+        List<List<Ticket>> allocations = new ArrayList<>();
+        List<WaitlistRequest> cancelled = new ArrayList<>();
+        String reason = null;
+        List<WaitlistRequest> failed = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        boolean moreReady = false;
+        
+        synchronized (cinemaService) {
+            Session session = waitlist.closedReason == null ? findSession(sessionId) : null;
+            if (session == null || session.isExpired()) {
+                reason = waitlist.closedReason != null ? waitlist.closedReason
+                                                       : session == null ? "Session no longer exists" : "Session has started";
+                waitlists.remove(sessionId, waitlist);
+                drain(waitlist.queue, cancelled);
+            } else {
+                WaitlistRequest head;
+                while ((head = waitlist.queue.peek()) != null) {
+                    if (!head.isWaiting()) {
+                        waitlist.queue.poll();
+                        continue;
+                    }
+                    if (head.getTickets() > session.getAvailableSeats()) {
+                        break;
+                    }
+                    if (fulfilled.size() == batchSize) {
+                        moreReady = true;
+                        break;
+                    }
+                    
+                    waitlist.queue.poll();
+                    // The purchase comes first, so a listener that fails to record it leaves
+                    // the request cancelled rather than fulfilled without tickets.
+                    try {
+                        List<Ticket> tickets = cinemaService.buyTickets(session, head.getTickets());
+                        if (head.transition(WaitlistRequest.FULFILLED)) {
+                            waitlist.waiting.decrementAndGet();
+                            allocations.add(tickets);
+                            fulfilled.add(head);
+                        } else {
+                            // Cancelled by its owner while the purchase ran.
+                            cinemaService.refundTickets(session, tickets);
+                        }
+                    } catch (RuntimeException e) {
+                        if (head.transition(WaitlistRequest.CANCELLED)) {
+                            waitlist.waiting.decrementAndGet();
+                            cancelledRequests.increment();
+                            failed.add(head);
+                            failures.add("Purchase failed: " + e.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+        
+        // These requests already hold their outcome, so one throwing subscriber must not
+        // keep the rest of the batch from hearing about theirs.
+        for (int i = 0; i < fulfilled.size(); i++) {
+            fulfilledRequests.increment();
+            try {
+                fulfilled.get(i).getCallback().fulfilled(fulfilled.get(i), allocations.get(i));
+            } catch (RuntimeException e) {
+                failedCallbacks.increment();
+            }
+        }
+        for (WaitlistRequest request : cancelled) {
+            try {
+                request.getCallback().cancelled(request, reason);
+            } catch (RuntimeException e) {
+                failedCallbacks.increment();
+            }
+        }
+        for (int i = 0; i < failed.size(); i++) {
+            try {
+                failed.get(i).getCallback().cancelled(failed.get(i), failures.get(i));
+            } catch (RuntimeException e) {
+                failedCallbacks.increment();
+            }
+        }
+        // A failed purchase may have left seats that the next request in line can take.
+        if (moreReady || !failed.isEmpty()) {
+            signal(sessionId);
+        }
+    }
+    
+    private Session findSession(String sessionId) {
+        if (cinemaService.getCinema() == null) {
+            return null;
+        }
+        return cinemaService.findSessionById(sessionId).orElse(null);
+    }
+    
+    private void drain(Queue<WaitlistRequest> queue, List<WaitlistRequest> cancelled) {
+        WaitlistRequest request;
+        while ((request = queue.poll()) != null) {
+            if (request.transition(WaitlistRequest.CANCELLED)) {
+                cancelledRequests.increment();
+                cancelled.add(request);
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        cinemaService.removeChangeListener(this);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static class Waitlist {
+        private final Queue<WaitlistRequest> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private volatile String closedReason;
+    }
+}
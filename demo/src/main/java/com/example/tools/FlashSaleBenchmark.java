@@ -0,0 +1,151 @@
+package com.example.tools;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import com.example.service.CinemaService;
+import com.example.service.FlashSaleAllocator;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class FlashSaleBenchmark {
+    private final int threads;
+    private final int requestsPerThread;
+    
+    public FlashSaleBenchmark(int threads, int requestsPerThread) {
+        if (threads <= 0 || requestsPerThread <= 0) {
+            throw new IllegalArgumentException("Threads and requests must be positive");
+        }
+        this.threads = threads;
+        this.requestsPerThread = requestsPerThread;
+    }
+    
+    public Result runDirect() throws InterruptedException {
+        CinemaService cinemaService = newService();
+        Session session = cinemaService.getAllSessions().get(0);
+        AtomicLong sold = new AtomicLong();
+        
+        long elapsed = runThreads(() -> {
+            for (int i = 0; i < requestsPerThread; i++) {
+                try {
+                    sold.addAndGet(cinemaService.buyTickets(session, 1).size());
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    // Sold out; the buyer leaves empty-handed.
+                }
+            }
+        });
+        return new Result("direct", threads * (long) requestsPerThread, sold.get(), elapsed);
+    }
+    
+    public Result runFlashSale(int batchSize) throws InterruptedException {
+        CinemaService cinemaService = newService();
+        Session session = cinemaService.getAllSessions().get(0);
+        AtomicLong sold = new AtomicLong();
+        
+        try (FlashSaleAllocator allocator = new FlashSaleAllocator(cinemaService, session,
+                                                                   threads * requestsPerThread, batchSize)) {
+            long elapsed = runThreads(() -> {
+                List<CompletableFuture<List<Ticket>>> results = new ArrayList<>(requestsPerThread);
+                for (int i = 0; i < requestsPerThread; i++) {
+                    results.add(allocator.submit(1));
+                }
+                for (CompletableFuture<List<Ticket>> result : results) {
+                    List<Ticket> tickets = result.exceptionally(e -> List.of()).join();
+                    sold.addAndGet(tickets.size());
+                }
+            });
+            return new Result("flash-sale", threads * (long) requestsPerThread, sold.get(), elapsed);
+        }
+    }
+    
+    private CinemaService newService() {
+        Cinema cinema = new Cinema("Benchmark Cinema", "1 Bench St", 1);
+        // Capacity covers three quarters of the demand so both runs also exercise sell-outs.
+        cinema.addSession(new Session("Premiere", LocalDateTime.now().plusDays(1),
+                                      Math.max(1, threads * requestsPerThread * 3 / 4), 100.0));
+        return new CinemaService(cinema);
+    }
+    
+    private long runThreads(Runnable buyer) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    buyer.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "flash-sale-buyer-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+    
+    public static class Result {
+        private final String mode;
+        private final long requests;
+        private final long soldTickets;
+        private final long elapsedNanos;
+        
+        Result(String mode, long requests, long soldTickets, long elapsedNanos) {
+            this.mode = mode;
+            this.requests = requests;
+            this.soldTickets = soldTickets;
+            this.elapsedNanos = elapsedNanos;
+        }
+        
+        public String getMode() {
+            return mode;
+        }
+        
+        public long getRequests() {
+            return requests;
+        }
+        
+        public long getSoldTickets() {
+            return soldTickets;
+        }
+        
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+        
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : requests * 1_000_000_000.0 / elapsedNanos;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%-10s requests=%d, sold=%d, elapsed=%.1f ms, throughput=%.0f req/s",
+                                 mode, requests, soldTickets, elapsedNanos / 1_000_000.0, getThroughput());
+        }
+    }
+    
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 4;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : FlashSaleAllocator.DEFAULT_BATCH_SIZE;
+        
+        FlashSaleBenchmark benchmark = new FlashSaleBenchmark(threads, requests);
+        // One untimed round of each warms up the JIT before the measured runs.
+        benchmark.runDirect();
+        benchmark.runFlashSale(batchSize);
+        
+        System.out.println(benchmark.runDirect());
+        System.out.println(benchmark.runFlashSale(batchSize));
+    }
+}
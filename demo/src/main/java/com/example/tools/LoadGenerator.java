@@ -0,0 +1,280 @@
+package com.example.tools;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import com.example.service.CinemaService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LoadGenerator {
+    static final String[] OPERATIONS = {"buyTickets", "deleteTicket", "updateTicketSession", "getValidSessions", "findSessionById"};
+    private static final int BUY = 0;
+    private static final int DELETE = 1;
+    private static final int MOVE = 2;
+    private static final int VALID_SESSIONS = 3;
+    private static final int FIND_SESSION = 4;
+    
+    private final int sessionCount;
+    private final int seatsPerSession;
+    private final int threads;
+    private final int operationsPerThread;
+    private final double skew;
+    private final int[] mix;
+    private final long seed;
+    
+    public LoadGenerator(int sessionCount, int seatsPerSession, int threads, int operationsPerThread,
+                         double skew, int[] mix, long seed) {
+        if (sessionCount <= 0 || seatsPerSession <= 0 || threads <= 0 || operationsPerThread <= 0) {
+            throw new IllegalArgumentException("Sessions, seats, threads and operations must be positive");
+        }
+        if (skew < 0) {
+            throw new IllegalArgumentException("Skew cannot be negative");
+        }
+        if (mix.length != OPERATIONS.length || Arrays.stream(mix).anyMatch(weight -> weight < 0)
+                || Arrays.stream(mix).sum() == 0) {
+            throw new IllegalArgumentException("Mix needs " + OPERATIONS.length + " non-negative weights");
+        }
+        
+        this.sessionCount = sessionCount;
+        this.seatsPerSession = seatsPerSession;
+        this.threads = threads;
+        this.operationsPerThread = operationsPerThread;
+        this.skew = skew;
+        this.mix = mix.clone();
+        this.seed = seed;
+    }
+    
+    public LoadReport run() throws InterruptedException {
+        CinemaService cinemaService = new CinemaService(new Cinema("Load Cinema", "1 Load St", 10));
+        List<Session> sessions = populate(cinemaService);
+        double[] popularity = zipfDistribution(sessions.size(), skew);
+        int[] cumulativeMix = cumulative(mix);
+        
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocationBean = threadBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()
+                ? (com.sun.management.ThreadMXBean) threadBean : null;
+        if (allocationBean != null) {
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        
+        Worker[] workers = new Worker[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicLong allocatedBytes = new AtomicLong(allocationBean == null ? -1 : 0);
+        
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(cinemaService, sessions, popularity, cumulativeMix, new Random(seed + i));
+            Worker worker = workers[i];
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    long before = allocationBean == null ? 0 : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+                    worker.run();
+                    if (allocationBean != null) {
+                        allocatedBytes.addAndGet(allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-generator-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        long startNanos = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        
+        Map<String, LoadReport.OperationStats> operations = new LinkedHashMap<>();
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            int count = 0;
+            long failures = 0;
+            for (Worker worker : workers) {
+                count += worker.counts[op];
+                failures += worker.failures[op];
+            }
+            
+            long[] latencies = new long[count];
+            int offset = 0;
+            for (Worker worker : workers) {
+                for (int i = 0; i < worker.recorded; i++) {
+                    if (worker.operations[i] == op) {
+                        latencies[offset++] = worker.latencies[i];
+                    }
+                }
+            }
+            operations.put(OPERATIONS[op], new LoadReport.OperationStats(OPERATIONS[op], latencies, failures));
+        }
+        
+        return new LoadReport(threads, elapsedNanos, allocatedBytes.get(), operations);
+    }
+    
+    private List<Session> populate(CinemaService cinemaService) {
+        LocalDateTime firstShow = LocalDateTime.now().plusDays(1).withSecond(0).withNano(0);
+        List<Session> sessions = new ArrayList<>(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            Session session = new Session("Movie " + (i % 200), firstShow.plusMinutes(15L * i), seatsPerSession, 100 + i % 5 * 20);
+            cinemaService.addSession(session);
+            sessions.add(session);
+        }
+        return sessions;
+    }
+    
+    // Rank 0 is the hottest premiere; with skew 0 every session is equally likely.
+    static double[] zipfDistribution(int size, double skew) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1.0 / Math.pow(rank + 1, skew);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= total;
+        }
+        return cumulative;
+    }
+    
+    static int sample(double[] cumulative, double uniform) {
+        int index = Arrays.binarySearch(cumulative, uniform);
+        index = index >= 0 ? index : -index - 1;
+        return Math.min(index, cumulative.length - 1);
+    }
+    
+    private static int[] cumulative(int[] weights) {
+        int[] cumulative = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+    
+    private class Worker {
+        private final CinemaService cinemaService;
+        private final List<Session> sessions;
+        private final double[] popularity;
+        private final int[] cumulativeMix;
+        private final Random random;
+        private final Deque<String> ownedTickets = new ArrayDeque<>();
+        private final byte[] operations = new byte[operationsPerThread];
+        private final long[] latencies = new long[operationsPerThread];
+        private final int[] counts = new int[OPERATIONS.length];
+        private final long[] failures = new long[OPERATIONS.length];
+        private int recorded;
+        
+        private Worker(CinemaService cinemaService, List<Session> sessions, double[] popularity,
+                       int[] cumulativeMix, Random random) {
+            this.cinemaService = cinemaService;
+            this.sessions = sessions;
+            this.popularity = popularity;
+            this.cumulativeMix = cumulativeMix;
+            this.random = random;
+        }
+        
+        private void run() {
+            for (int i = 0; i < operationsPerThread; i++) {
+                int op = chooseOperation();
+                long start = System.nanoTime();
+                boolean succeeded;
+                try {
+                    succeeded = execute(op);
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    succeeded = false;
+                }
+                latencies[recorded] = System.nanoTime() - start;
+                operations[recorded++] = (byte) op;
+                counts[op]++;
+                if (!succeeded) {
+                    failures[op]++;
+                }
+            }
+        }
+        
+        private int chooseOperation() {
+            int roll = random.nextInt(cumulativeMix[cumulativeMix.length - 1]);
+            int op = 0;
+            while (roll >= cumulativeMix[op]) {
+                op++;
+            }
+            // Refunds and moves need a ticket this worker bought; buy one instead.
+            if ((op == DELETE || op == MOVE) && ownedTickets.isEmpty()) {
+                return BUY;
+            }
+            return op;
+        }
+        
+        private Session hotSession() {
+            return sessions.get(sample(popularity, random.nextDouble()));
+        }
+        
+        private boolean execute(int op) {
+            switch (op) {
+                case BUY:
+                    List<Ticket> tickets = cinemaService.buyTickets(hotSession(), 1 + random.nextInt(4));
+                    for (Ticket ticket : tickets) {
+                        ownedTickets.push(ticket.getId());
+                    }
+                    return true;
+                case DELETE:
+                    return cinemaService.deleteTicket(ownedTickets.pop());
+                case MOVE:
+                    String ticketId = ownedTickets.peek();
+                    boolean moved = cinemaService.updateTicketSession(ticketId, hotSession().getId());
+                    if (!moved) {
+                        ownedTickets.pop();
+                    }
+                    return moved;
+                case VALID_SESSIONS:
+                    return !cinemaService.getValidSessions().isEmpty();
+                case FIND_SESSION:
+                    return cinemaService.findSessionById(hotSession().getId()).isPresent();
+                default:
+                    throw new IllegalStateException("Unknown operation " + op);
+            }
+        }
+    }
+    
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                System.out.println("Usage: LoadGenerator [sessions=N] [seats=N] [threads=N] [ops=N] [skew=X] [mix=b,d,m,v,f] [seed=N]");
+                return;
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        
+        int[] mix = Arrays.stream(options.getOrDefault("mix", "40,10,10,20,20").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        LoadGenerator generator = new LoadGenerator(
+                Integer.parseInt(options.getOrDefault("sessions", "1000")),
+                Integer.parseInt(options.getOrDefault("seats", "500")),
+                Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                Integer.parseInt(options.getOrDefault("ops", "100000")),
+                Double.parseDouble(options.getOrDefault("skew", "1.1")),
+                mix,
+                Long.parseLong(options.getOrDefault("seed", "42")));
+        
+        generator.run().print(System.out);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.tools;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+public class LoadReport {
+    private final int threads;
+    private final long elapsedNanos;
+    private final long allocatedBytes;
+    private final Map<String, OperationStats> operations;
+    
+    LoadReport(int threads, long elapsedNanos, long allocatedBytes, Map<String, OperationStats> operations) {
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.operations = Collections.unmodifiableMap(operations);
+    }
+    
+    public int getThreads() {
+        return threads;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    public long getTotalOperations() {
+        return operations.values().stream().mapToLong(OperationStats::getCount).sum();
+    }
+    
+    public long getFailedOperations() {
+        return operations.values().stream().mapToLong(OperationStats::getFailures).sum();
+    }
+    
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getTotalOperations() * 1_000_000_000.0 / elapsedNanos;
+    }
+    
+    // -1 when the JVM cannot report per-thread allocation.
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+    
+    public double getAllocationRate() {
+        return allocatedBytes < 0 || elapsedNanos == 0 ? -1 : allocatedBytes * 1_000_000_000.0 / elapsedNanos;
+    }
+    
+    public Map<String, OperationStats> getOperations() {
+        return operations;
+    }
+    
+    public void print(PrintStream out) {
+        out.printf("Threads: %d, operations: %d (%d failed), elapsed: %.1f ms%n",
+                   threads, getTotalOperations(), getFailedOperations(), elapsedNanos / 1_000_000.0);
+        out.printf("Throughput: %.0f ops/s%n", getThroughput());
+        if (allocatedBytes >= 0) {
+            out.printf("Allocation: %.1f MB/s, %.0f bytes/op%n", getAllocationRate() / (1024 * 1024),
+                       (double) allocatedBytes / Math.max(1, getTotalOperations()));
+        } else {
+            out.println("Allocation: not supported by this JVM");
+        }
+        out.printf("%-20s %10s %8s %10s %10s %10s %10s %10s%n",
+                   "operation", "count", "failed", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us");
+        for (OperationStats stats : operations.values()) {
+            out.printf("%-20s %10d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                       stats.getName(), stats.getCount(), stats.getFailures(),
+                       stats.getPercentileNanos(50) / 1_000.0, stats.getPercentileNanos(90) / 1_000.0,
+                       stats.getPercentileNanos(99) / 1_000.0, stats.getPercentileNanos(99.9) / 1_000.0,
+                       stats.getMaxNanos() / 1_000.0);
+        }
+    }
+    
+    public static class OperationStats {
+        private final String name;
+        private final long[] sortedLatencies;
+        private final long failures;
+        
+        OperationStats(String name, long[] latencies, long failures) {
+            this.name = name;
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(sortedLatencies);
+            this.failures = failures;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public long getCount() {
+            return sortedLatencies.length;
+        }
+        
+        public long getFailures() {
+            return failures;
+        }
+        
+        public long getPercentileNanos(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+        }
+        
+        public long getMaxNanos() {
+            return sortedLatencies.length == 0 ? 0 : sortedLatencies[sortedLatencies.length - 1];
+        }
+    }
+}
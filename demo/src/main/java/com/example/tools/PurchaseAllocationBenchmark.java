@@ -0,0 +1,128 @@
+package com.example.tools;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.TicketBuffer;
+import com.example.service.CinemaService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+
+public class PurchaseAllocationBenchmark {
+    private final int purchases;
+    private final int ticketsPerPurchase;
+    private final com.sun.management.ThreadMXBean allocationBean;
+    
+    public PurchaseAllocationBenchmark(int purchases, int ticketsPerPurchase) {
+        if (purchases <= 0 || ticketsPerPurchase <= 0) {
+            throw new IllegalArgumentException("Purchases and tickets per purchase must be positive");
+        }
+        this.purchases = purchases;
+        this.ticketsPerPurchase = ticketsPerPurchase;
+        
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        this.allocationBean = threadBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()
+                ? (com.sun.management.ThreadMXBean) threadBean : null;
+    }
+    
+    public Result runTicketList() {
+        CinemaService cinemaService = newService();
+        Session session = cinemaService.getAllSessions().get(0);
+        cinemaService.buyTickets(session, ticketsPerPurchase);
+        return measure("ticket-list", () -> {
+            for (int i = 0; i < purchases; i++) {
+                cinemaService.buyTickets(session, ticketsPerPurchase);
+            }
+        });
+    }
+    
+    public Result runTicketSink() {
+        CinemaService cinemaService = newService();
+        Session session = cinemaService.getAllSessions().get(0);
+        TicketBuffer buffer = new TicketBuffer(ticketsPerPurchase);
+        // The first purchase sizes the session's ticket arrays; only the steady state is measured.
+        cinemaService.buyTickets(session, ticketsPerPurchase, buffer);
+        return measure("ticket-sink", () -> {
+            for (int i = 0; i < purchases; i++) {
+                buffer.clear();
+                cinemaService.buyTickets(session, ticketsPerPurchase, buffer);
+            }
+        });
+    }
+    
+    private CinemaService newService() {
+        Cinema cinema = new Cinema("Benchmark Cinema", "1 Bench St", 1);
+        cinema.addSession(new Session("Premiere", LocalDateTime.now().plusDays(1),
+                                      (purchases + 1) * ticketsPerPurchase, 100.0));
+        return new CinemaService(cinema);
+    }
+    
+    private Result measure(String mode, Runnable purchaseLoop) {
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = allocationBean == null ? 0 : allocationBean.getThreadAllocatedBytes(threadId);
+        long begin = System.nanoTime();
+        purchaseLoop.run();
+        long elapsed = System.nanoTime() - begin;
+        long allocated = allocationBean == null ? -1 : allocationBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(mode, purchases, elapsed, allocated);
+    }
+    
+    public static class Result {
+        private final String mode;
+        private final long purchases;
+        private final long elapsedNanos;
+        private final long allocatedBytes;
+        
+        Result(String mode, long purchases, long elapsedNanos, long allocatedBytes) {
+            this.mode = mode;
+            this.purchases = purchases;
+            this.elapsedNanos = elapsedNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+        
+        public String getMode() {
+            return mode;
+        }
+        
+        public long getPurchases() {
+            return purchases;
+        }
+        
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+        
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+        
+        public double getBytesPerPurchase() {
+            return allocatedBytes < 0 ? -1 : (double) allocatedBytes / purchases;
+        }
+        
+        public double getNanosPerPurchase() {
+            return (double) elapsedNanos / purchases;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%-12s purchases=%d, %.1f ns/op, %.1f B/op",
+                                 mode, purchases, getNanosPerPurchase(), getBytesPerPurchase());
+        }
+    }
+    
+    public static void main(String[] args) {
+        int purchases = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int ticketsPerPurchase = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        
+        PurchaseAllocationBenchmark benchmark = new PurchaseAllocationBenchmark(purchases, ticketsPerPurchase);
+        // One untimed round of each warms up the JIT before the measured runs.
+        benchmark.runTicketList();
+        benchmark.runTicketSink();
+        
+        System.out.println(benchmark.runTicketList());
+        System.out.println(benchmark.runTicketSink());
+    }
+}
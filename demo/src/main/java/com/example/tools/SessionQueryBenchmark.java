@@ -0,0 +1,154 @@
+package com.example.tools;
+
+import com.example.model.Cinema;
+import com.example.model.QueryPlan;
+import com.example.model.Session;
+import com.example.model.SessionOrder;
+import com.example.model.SessionQuery;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+// Runs typical operator queries through the planner and through a plain stream filter
+// over getSessions(), checks both return the same sessions and reports the time per query.
+public class SessionQueryBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 9, 0);
+    
+    private final Cinema cinema;
+    private final int iterations;
+    
+    public SessionQueryBenchmark(int sessions, int titles, int iterations) {
+        if (sessions <= 0 || titles <= 0 || iterations <= 0) {
+            throw new IllegalArgumentException("Sessions, titles and iterations must be positive");
+        }
+        this.iterations = iterations;
+        this.cinema = new Cinema("Benchmark Cinema", "1 Bench St", 12);
+        Random random = new Random(42);
+        for (int i = 0; i < sessions; i++) {
+            Session session = new Session("Movie " + random.nextInt(titles), START.plusMinutes(15L * i),
+                                          100, 80 + random.nextInt(120));
+            cinema.addSession(session);
+            session.buyTickets(1 + random.nextInt(100));
+        }
+    }
+    
+    public Map<String, SessionQuery> typicalQueries() {
+        Map<String, SessionQuery> queries = new LinkedHashMap<>();
+        queries.put("title + seats", SessionQuery.all().withTitle("Movie 7").withMinAvailableSeats(4));
+        queries.put("evening window", SessionQuery.all()
+                .withStartBetween(START.plusDays(3).withHour(18), START.plusDays(3).withHour(23))
+                .withPriceBetween(100, 150));
+        queries.put("next 10 with seats", SessionQuery.all()
+                .withStartBetween(START.plusDays(10), null)
+                .withMinAvailableSeats(20)
+                .withOrder(SessionOrder.BY_TIME)
+                .withLimit(10));
+        queries.put("cheap and empty", SessionQuery.all().withPriceBetween(80, 90).withMinAvailableSeats(90));
+        queries.put("title page 3", SessionQuery.all().withTitle("Movie 3").withOrder(SessionOrder.BY_TIME)
+                .withOffset(20).withLimit(10));
+        return queries;
+    }
+    
+    public Result run(String name, SessionQuery query) {
+        List<Session> expected = naive(query);
+        List<Session> actual = cinema.findSessions(query);
+        boolean sameResult = query.getOrder() == null ? new HashSet<>(expected).equals(new HashSet<>(actual))
+                                                      : expected.equals(actual);
+        if (!sameResult) {
+            throw new IllegalStateException("Planner and stream disagree on " + name);
+        }
+        
+        long begin = System.nanoTime();
+        int planned = 0;
+        for (int i = 0; i < iterations; i++) {
+            planned += cinema.findSessions(query).size();
+        }
+        long plannedNanos = System.nanoTime() - begin;
+        
+        begin = System.nanoTime();
+        int streamed = 0;
+        for (int i = 0; i < iterations; i++) {
+            streamed += naive(query).size();
+        }
+        long streamNanos = System.nanoTime() - begin;
+        
+        if (planned != streamed) {
+            throw new IllegalStateException("Planner and stream disagree on " + name);
+        }
+        return new Result(name, cinema.explain(query), actual.size(), plannedNanos / iterations, streamNanos / iterations);
+    }
+    
+    private List<Session> naive(SessionQuery query) {
+        Comparator<Session> order = query.getOrder() == SessionOrder.BY_TITLE
+                ? Comparator.comparing(Session::getMovieTitle).thenComparing(Session::getId)
+                : Comparator.comparing(Session::getDateTime).thenComparing(Session::getId);
+        return cinema.getSessions().stream()
+                .filter(session -> query.getTitle() == null || query.getTitle().equals(session.getMovieTitle()))
+                .filter(session -> query.getFrom() == null || !session.getDateTime().isBefore(query.getFrom()))
+                .filter(session -> query.getTo() == null || session.getDateTime().isBefore(query.getTo()))
+                .filter(session -> session.getTicketPrice() >= query.getMinPrice()
+                                   && session.getTicketPrice() <= query.getMaxPrice())
+                .filter(session -> session.getAvailableSeats() >= query.getMinAvailableSeats())
+                .sorted(query.getOrder() == null ? (a, b) -> 0 : order)
+                .skip(query.getOffset())
+                .limit(query.getLimit())
+                .collect(Collectors.toList());
+    }
+    
+    public static class Result {
+        private final String name;
+        private final QueryPlan plan;
+        private final int matches;
+        private final long plannedNanos;
+        private final long streamNanos;
+        
+        Result(String name, QueryPlan plan, int matches, long plannedNanos, long streamNanos) {
+            this.name = name;
+            this.plan = plan;
+            this.matches = matches;
+            this.plannedNanos = plannedNanos;
+            this.streamNanos = streamNanos;
+        }
+        
+        public QueryPlan getPlan() {
+            return plan;
+        }
+        
+        public long getPlannedNanos() {
+            return plannedNanos;
+        }
+        
+        public long getStreamNanos() {
+            return streamNanos;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%-20s %-12s %4d rows  planned: %9.1f us  stream: %9.1f us  (%.0fx)",
+                                 name, plan.getAccessPath(), matches, plannedNanos / 1_000.0, streamNanos / 1_000.0,
+                                 (double) streamNanos / Math.max(1, plannedNanos));
+        }
+    }
+    
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int titles = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        
+        SessionQueryBenchmark benchmark = new SessionQueryBenchmark(sessions, titles, iterations);
+        Map<String, SessionQuery> queries = benchmark.typicalQueries();
+        // One untimed pass lets the JIT compile both code paths before measuring.
+        for (Map.Entry<String, SessionQuery> query : queries.entrySet()) {
+            benchmark.run(query.getKey(), query.getValue());
+        }
+        for (Map.Entry<String, SessionQuery> query : queries.entrySet()) {
+            System.out.println(benchmark.run(query.getKey(), query.getValue()));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Starts the CLI in fresh JVMs and measures how long it takes until the first
+// menu prompt is printed; the JVM's own boot time is included, as users see it.
+public class StartupBenchmark {
+    public static final String PROMPT = "Enter your choice: ";
+    
+    private final List<String> command;
+    
+    public StartupBenchmark(String classpath, List<String> jvmOptions) {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(classpath);
+        command.add("com.example.Main");
+    }
+    
+    public long measureOnce() throws IOException, InterruptedException {
+        long begin = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try {
+            waitForPrompt(process.getInputStream());
+            long elapsed = System.nanoTime() - begin;
+            try (OutputStream input = process.getOutputStream()) {
+                input.write("0\n".getBytes(StandardCharsets.UTF_8));
+            }
+            process.getInputStream().transferTo(OutputStream.nullOutputStream());
+            process.waitFor();
+            return elapsed;
+        } finally {
+            process.destroy();
+        }
+    }
+    
+    public Result measure(int runs) throws IOException, InterruptedException {
+        if (runs <= 0) {
+            throw new IllegalArgumentException("Runs must be positive");
+        }
+        long[] samples = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            samples[i] = measureOnce();
+        }
+        return new Result(samples);
+    }
+    
+    private static void waitForPrompt(InputStream output) throws IOException {
+        byte[] prompt = PROMPT.getBytes(StandardCharsets.UTF_8);
+        int matched = 0;
+        int next;
+        while ((next = output.read()) >= 0) {
+            matched = next == prompt[matched] ? matched + 1 : (next == prompt[0] ? 1 : 0);
+            if (matched == prompt.length) {
+                return;
+            }
+        }
+        throw new IOException("The application exited before showing the menu");
+    }
+    
+    public static class Result {
+        private final long[] samples;
+        
+        Result(long[] samples) {
+            this.samples = samples.clone();
+            Arrays.sort(this.samples);
+        }
+        
+        public long getMinNanos() {
+            return samples[0];
+        }
+        
+        public long getMedianNanos() {
+            return samples[samples.length / 2];
+        }
+        
+        public long getMaxNanos() {
+            return samples[samples.length - 1];
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("time to first prompt over %d runs: min %.1f ms, median %.1f ms, max %.1f ms",
+                                 samples.length, getMinNanos() / 1_000_000.0, getMedianNanos() / 1_000_000.0,
+                                 getMaxNanos() / 1_000_000.0);
+        }
+    }
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        List<String> jvmOptions = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : Collections.emptyList();
+        
+        StartupBenchmark benchmark = new StartupBenchmark(System.getProperty("java.class.path"), jvmOptions);
+        // The first start warms the OS file cache and is not counted.
+        benchmark.measureOnce();
+        System.out.println(benchmark.measure(runs));
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.tools;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import com.example.service.CinemaService;
+import com.example.service.CinemaStore;
+import com.example.service.ExportImportService;
+import com.example.service.InMemoryCinemaStore;
+import com.example.service.JdbcCinemaStore;
+import com.example.service.JournalCinemaStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class StorageBenchmark {
+    private final int sessions;
+    private final int purchases;
+    private final int ticketsPerPurchase;
+    private final int lookups;
+    
+    public StorageBenchmark(int sessions, int purchases, int ticketsPerPurchase, int lookups) {
+        if (sessions <= 0 || purchases <= 0 || ticketsPerPurchase <= 0 || lookups <= 0) {
+            throw new IllegalArgumentException("All benchmark sizes must be positive");
+        }
+        this.sessions = sessions;
+        this.purchases = purchases;
+        this.ticketsPerPurchase = ticketsPerPurchase;
+        this.lookups = lookups;
+    }
+    
+    public Result run(String backend, CinemaStore store) {
+        Cinema cinema = new Cinema("Benchmark Cinema", "1 Bench St", 8);
+        int seatsPerSession = (purchases / sessions + 1) * ticketsPerPurchase;
+        for (int i = 0; i < sessions; i++) {
+            cinema.addSession(new Session("Movie " + (i % 20), LocalDateTime.now().plusDays(1).plusHours(i),
+                                          seatsPerSession, 100.0));
+        }
+        CinemaService cinemaService = new CinemaService(cinema);
+        List<Session> all = cinemaService.getAllSessions();
+        Random random = new Random(42);
+        
+        long begin = System.nanoTime();
+        cinemaService.setStore(store);
+        List<String> ticketIds = new ArrayList<>(purchases * ticketsPerPurchase);
+        for (int i = 0; i < purchases; i++) {
+            for (Ticket ticket : cinemaService.buyTickets(all.get(i % sessions), ticketsPerPurchase)) {
+                ticketIds.add(ticket.getId());
+            }
+        }
+        store.flush();
+        long writeNanos = System.nanoTime() - begin;
+        
+        begin = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < lookups; i++) {
+            if (store.findSessionIdForTicket(ticketIds.get(random.nextInt(ticketIds.size()))).isPresent()) {
+                found++;
+            }
+        }
+        long lookupNanos = System.nanoTime() - begin;
+        
+        begin = System.nanoTime();
+        Cinema loaded = store.load();
+        long loadNanos = System.nanoTime() - begin;
+        
+        cinemaService.setStore(null);
+        store.close();
+        if (found != lookups || loaded.getSessions().size() != sessions) {
+            throw new IllegalStateException(backend + " lost data during the benchmark");
+        }
+        return new Result(backend, purchases, lookups, writeNanos, lookupNanos, loadNanos);
+    }
+    
+    public static class Result {
+        private final String backend;
+        private final int purchases;
+        private final int lookups;
+        private final long writeNanos;
+        private final long lookupNanos;
+        private final long loadNanos;
+        
+        Result(String backend, int purchases, int lookups, long writeNanos, long lookupNanos, long loadNanos) {
+            this.backend = backend;
+            this.purchases = purchases;
+            this.lookups = lookups;
+            this.writeNanos = writeNanos;
+            this.lookupNanos = lookupNanos;
+            this.loadNanos = loadNanos;
+        }
+        
+        public String getBackend() {
+            return backend;
+        }
+        
+        public long getWriteNanos() {
+            return writeNanos;
+        }
+        
+        public long getLookupNanos() {
+            return lookupNanos;
+        }
+        
+        public long getLoadNanos() {
+            return loadNanos;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%-8s writes: %8.1f us/purchase  lookups: %7.1f us/op  load: %8.1f ms",
+                                 backend, writeNanos / 1_000.0 / purchases, lookupNanos / 1_000.0 / lookups,
+                                 loadNanos / 1_000_000.0);
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int purchases = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int ticketsPerPurchase = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int lookups = args.length > 3 ? Integer.parseInt(args[3]) : 20_000;
+        
+        StorageBenchmark benchmark = new StorageBenchmark(sessions, purchases, ticketsPerPurchase, lookups);
+        Path directory = Files.createTempDirectory("storage-benchmark");
+        ExportImportService exportImportService = new ExportImportService();
+        
+        System.out.println(benchmark.run("memory", new InMemoryCinemaStore()));
+        System.out.println(benchmark.run("journal", new JournalCinemaStore(directory.resolve("journal"), exportImportService)));
+        System.out.println(benchmark.run("jdbc", new JdbcCinemaStore("jdbc:h2:" + directory.resolve("cinema").toAbsolutePath())));
+    }
+}
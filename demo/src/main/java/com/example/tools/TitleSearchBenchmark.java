@@ -0,0 +1,110 @@
+package com.example.tools;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// Runs title fragment searches through the trigram index and through a plain substring
+// filter over getSessions(), checks both find the same sessions and reports the time per
+// search.
+public class TitleSearchBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 9, 0);
+    
+    private final Cinema cinema;
+    private final int iterations;
+    
+    public TitleSearchBenchmark(int sessions, int titles, int iterations) {
+        if (sessions <= 0 || titles <= 0 || iterations <= 0) {
+            throw new IllegalArgumentException("Sessions, titles and iterations must be positive");
+        }
+        this.iterations = iterations;
+        this.cinema = new Cinema("Benchmark Cinema", "1 Bench St", 12);
+        for (int i = 0; i < sessions; i++) {
+            cinema.addSession(new Session("Movie " + (i % titles), START.plusMinutes(15L * i), 100, 100.0));
+        }
+    }
+    
+    public Result run(String fragment) {
+        List<Session> expected = naive(fragment);
+        List<Session> actual = cinema.searchSessionsByTitle(fragment);
+        if (expected.size() != actual.size() || !new HashSet<>(expected).equals(new HashSet<>(actual))) {
+            throw new IllegalStateException("Index and scan disagree on '" + fragment + "'");
+        }
+        
+        long begin = System.nanoTime();
+        int indexed = 0;
+        for (int i = 0; i < iterations; i++) {
+            indexed += cinema.searchSessionsByTitle(fragment).size();
+        }
+        long indexNanos = System.nanoTime() - begin;
+        
+        begin = System.nanoTime();
+        int scanned = 0;
+        for (int i = 0; i < iterations; i++) {
+            scanned += naive(fragment).size();
+        }
+        long scanNanos = System.nanoTime() - begin;
+        
+        if (indexed != scanned) {
+            throw new IllegalStateException("Index and scan disagree on '" + fragment + "'");
+        }
+        return new Result(fragment, actual.size(), indexNanos / iterations, scanNanos / iterations);
+    }
+    
+    private List<Session> naive(String fragment) {
+        String normalized = fragment.toLowerCase(Locale.ROOT);
+        return cinema.getSessions().stream()
+                .filter(session -> session.getMovieTitle().toLowerCase(Locale.ROOT).contains(normalized))
+                .collect(Collectors.toList());
+    }
+    
+    public static class Result {
+        private final String fragment;
+        private final int matches;
+        private final long indexNanos;
+        private final long scanNanos;
+        
+        Result(String fragment, int matches, long indexNanos, long scanNanos) {
+            this.fragment = fragment;
+            this.matches = matches;
+            this.indexNanos = indexNanos;
+            this.scanNanos = scanNanos;
+        }
+        
+        public long getIndexNanos() {
+            return indexNanos;
+        }
+        
+        public long getScanNanos() {
+            return scanNanos;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%-12s %6d rows  index: %9.1f us  scan: %9.1f us  (%.0fx)",
+                                 "'" + fragment + "'", matches, indexNanos / 1_000.0, scanNanos / 1_000.0,
+                                 (double) scanNanos / Math.max(1, indexNanos));
+        }
+    }
+    
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int titles = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        
+        TitleSearchBenchmark benchmark = new TitleSearchBenchmark(sessions, titles, iterations);
+        String[] fragments = {"vie 99", "VIE 5", "ovie 123", "e 4", "ov", "no match"};
+        // One untimed pass lets the JIT compile both code paths before measuring.
+        for (String fragment : fragments) {
+            benchmark.run(fragment);
+        }
+        for (String fragment : fragments) {
+            System.out.println(benchmark.run(fragment));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.service.CinemaService;
+import com.example.service.ExportImportService;
+import com.example.service.StatisticsCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRunnerTest {
+    private final ExportImportService exportImportService = new ExportImportService();
+    private final StringWriter output = new StringWriter();
+    private CinemaService cinemaService;
+    private BatchRunner runner;
+    
+    @TempDir
+    Path tempDir;
+    
+    @BeforeEach
+    void setUp() {
+        cinemaService = new CinemaService(new Cinema("Batch Cinema", "1 Batch St", 2));
+        runner = new BatchRunner(cinemaService, exportImportService, new StatisticsCache(cinemaService),
+                                 new PrintWriter(output));
+    }
+    
+    private void run(String script) throws Exception {
+        runner.run(new BufferedReader(new StringReader(script)));
+    }
+    
+    @Test
+    void testScriptDrivesCinemaService() throws Exception {
+        String future = LocalDateTime.now().plusDays(1).withNano(0).toString();
+        run("# warm-up scenario\n" +
+            "session a \"The Matrix\" " + future + " 100 120\n" +
+            "session b Inception " + future + " 50 150\n" +
+            "buy a 5\n" +
+            "buy b 2\n" +
+            "refund a 2\n" +
+            "move a b\n" +
+            "stats\n");
+        
+        List<Session> sessions = cinemaService.getAllSessions();
+        assertEquals(2, sessions.size());
+        assertEquals("The Matrix", sessions.get(0).getMovieTitle());
+        assertEquals(98, sessions.get(0).getAvailableSeats());
+        assertEquals(47, sessions.get(1).getAvailableSeats());
+        
+        assertEquals(7, runner.getExecuted());
+        assertEquals(0, runner.getFailed());
+        assertEquals(2, runner.getTimings().get("buy").getCount());
+        assertTrue(output.toString().contains("stats: sessions=2, sold=5, revenue=660.00 UAH"));
+        assertTrue(output.toString().contains("Executed 7 commands (0 failed)"));
+    }
+    
+    @Test
+    void testFailuresAreReportedAndSkipped() throws Exception {
+        run("session a Movie not-a-date 10 100\n" +
+            "buy missing 1\n" +
+            "fly away\n" +
+            "session b \"Unclosed 2030-01-01T10:00 10 100\n");
+        
+        assertEquals(4, runner.getFailed());
+        assertTrue(output.toString().contains("line 1: session failed: Expected date"));
+        assertTrue(output.toString().contains("line 2: buy failed: Unknown session: missing"));
+        assertTrue(output.toString().contains("line 3: fly failed: Unknown command"));
+        assertTrue(output.toString().contains("line 4: Unterminated quote"));
+    }
+    
+    @Test
+    void testExportImportKeepsAliases() throws Exception {
+        String future = LocalDateTime.now().plusDays(1).withNano(0).toString();
+        Path file = tempDir.resolve("batch.json");
+        run("session a Movie " + future + " 10 100\n" +
+            "buy a 3\n" +
+            "export " + file + " title\n" +
+            "import " + file + "\n" +
+            "refund a\n");
+        
+        assertTrue(Files.exists(file));
+        assertEquals(0, runner.getFailed());
+        assertEquals(8, cinemaService.getAllSessions().get(0).getAvailableSeats());
+    }
+    
+    @Test
+    void testTokenizeHandlesQuotesAndComments() {
+        assertEquals(List.of("session", "a", "Two Words", "x"), BatchRunner.tokenize("session a \"Two Words\" x # note"));
+        assertTrue(BatchRunner.tokenize("   # only a comment").isEmpty());
+    }
+    
+    @Test
+    void testFindFiltersSessions() throws Exception {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withNano(0);
+        run("session a \"The Matrix\" " + tomorrow + " 100 120\n" +
+            "session b \"The Matrix\" " + tomorrow.plusDays(1) + " 100 90\n" +
+            "session c Inception " + tomorrow + " 10 150\n" +
+            "buy c 8\n" +
+            "find title=\"The Matrix\" maxprice=100\n" +
+            "find seats=5 order=time limit=1\n" +
+            "find nonsense\n");
+        
+        assertEquals(1, runner.getFailed());
+        assertTrue(output.toString().contains("find: 1 sessions via COLUMN_SCAN (3 candidates)"));
+        assertTrue(output.toString().contains("  The Matrix " + tomorrow.plusDays(1) + " seats=100 price=90.00"));
+        assertTrue(output.toString().contains("  The Matrix " + tomorrow + " seats=100 price=120.00"));
+        assertFalse(output.toString().contains("  Inception"));
+        assertTrue(output.toString().contains("line 7: find failed: Expected key=value: nonsense"));
+    }
+}
@@ -5,7 +5,10 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -115,4 +118,288 @@ public class CinemaTest {
         
         assertEquals(1, cinema.getSessions().size());
     }
+    
+    @Test
+    void testTitleSearch() {
+        Session session3 = new Session("Another Movie", LocalDateTime.now().plusDays(3), 50, 90.0);
+        cinema.addSession(session1);
+        cinema.addSession(session2);
+        cinema.addSession(session3);
+        
+        assertEquals(List.of(session1), cinema.findSessionsByTitle("Test Movie 1"));
+        assertTrue(cinema.findSessionsByTitle("test movie 1").isEmpty());
+        assertEquals(List.of(session1, session2), cinema.findSessionsByTitlePrefix("test m"));
+        assertEquals(List.of(session3, session1, session2), cinema.searchSessionsByTitle("MOVIE"));
+        assertEquals(List.of(session3), cinema.searchSessionsByTitle("no"));
+        assertTrue(cinema.searchSessionsByTitle("missing").isEmpty());
+    }
+    
+    @Test
+    void testTitleIndexFollowsUpdatesAndRemovals() {
+        cinema.addSession(session1);
+        cinema.addSession(session2);
+        
+        session1.setMovieTitle("Renamed Film");
+        assertTrue(cinema.findSessionsByTitle("Test Movie 1").isEmpty());
+        assertEquals(List.of(session1), cinema.searchSessionsByTitle("named f"));
+        
+        cinema.removeSession(session2);
+        assertTrue(cinema.findSessionsByTitlePrefix("Test").isEmpty());
+        
+        session2.setMovieTitle("Renamed Again");
+        assertEquals(List.of(session1), cinema.findSessionsByTitlePrefix("renamed"));
+    }
+    
+    @Test
+    void testTitleIndexKeepsDuplicateSessions() {
+        cinema.addSession(session1);
+        cinema.addSession(session1);
+        assertEquals(2, cinema.findSessionsByTitle("Test Movie 1").size());
+        
+        cinema.removeSession(session1);
+        assertEquals(1, cinema.findSessionsByTitle("Test Movie 1").size());
+        
+        session1.setMovieTitle("Still Indexed");
+        assertEquals(1, cinema.findSessionsByTitle("Still Indexed").size());
+    }
+    
+    @Test
+    void testTitleSearchOnLargeCatalog() {
+        for (int i = 0; i < 100_000; i++) {
+            cinema.addSession(new Session("Movie " + (i % 1_000), LocalDateTime.now().plusDays(1), 10, 100.0));
+        }
+        
+        List<Session> sessions = cinema.searchSessionsByTitle("vie 99");
+        assertEquals(1_100, sessions.size());
+        assertEquals(cinema.getSessions().stream()
+                             .filter(session -> session.getMovieTitle().contains("vie 99"))
+                             .collect(Collectors.toSet()),
+                     new HashSet<>(sessions));
+        
+        // Matches come grouped by title in title order, however the fragment is cased.
+        assertEquals("Movie 99", sessions.get(0).getMovieTitle());
+        assertEquals("Movie 999", sessions.get(sessions.size() - 1).getMovieTitle());
+        assertEquals(sessions, cinema.searchSessionsByTitle("VIE 99"));
+        assertEquals(100_000, cinema.searchSessionsByTitle("ov").size());
+        assertTrue(cinema.searchSessionsByTitle("Movie 1000").isEmpty());
+    }
+    
+    @Test
+    void testSessionsPageByTimeAndTitle() {
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            cinema.addSession(new Session("Movie " + (char) ('E' - i), base.plusHours(i), 10, 100.0));
+        }
+        
+        Page<Session> first = cinema.getSessionsPage(SessionOrder.BY_TIME, null, 2);
+        assertEquals(2, first.getItems().size());
+        assertEquals(base, first.getItems().get(0).getDateTime());
+        assertTrue(first.hasNext());
+        
+        Page<Session> second = cinema.getSessionsPage(SessionOrder.BY_TIME, first.getNextCursor(), 2);
+        Page<Session> third = cinema.getSessionsPage(SessionOrder.BY_TIME, second.getNextCursor(), 2);
+        assertEquals(base.plusHours(2), second.getItems().get(0).getDateTime());
+        assertEquals(1, third.getItems().size());
+        assertFalse(third.hasNext());
+        
+        Page<Session> byTitle = cinema.getSessionsPage(SessionOrder.BY_TITLE, null, 5);
+        assertEquals("Movie A", byTitle.getItems().get(0).getMovieTitle());
+        assertEquals("Movie E", byTitle.getItems().get(4).getMovieTitle());
+        assertNull(byTitle.getNextCursor());
+    }
+    
+    @Test
+    void testSessionCursorSurvivesChanges() {
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        Session early = new Session("Early", base, 10, 100.0);
+        Session middle = new Session("Middle", base.plusHours(1), 10, 100.0);
+        Session late = new Session("Late", base.plusHours(2), 10, 100.0);
+        cinema.addSession(late);
+        cinema.addSession(middle);
+        cinema.addSession(early);
+        
+        Page<Session> first = cinema.getSessionsPage(SessionOrder.BY_TIME, null, 1);
+        assertEquals(List.of(early), first.getItems());
+        
+        cinema.removeSession(early);
+        middle.setDateTime(base.plusHours(3));
+        
+        Page<Session> second = cinema.getSessionsPage(SessionOrder.BY_TIME, first.getNextCursor(), 5);
+        assertEquals(List.of(late, middle), second.getItems());
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> cinema.getSessionsPage(SessionOrder.BY_TITLE, first.getNextCursor(), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> cinema.getSessionsPage(SessionOrder.BY_TIME, "not-a-cursor", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> cinema.getSessionsPage(SessionOrder.BY_TIME, null, 0));
+    }
+    
+    @Test
+    void testTicketsPageByPurchaseTime() {
+        cinema.addSession(session1);
+        cinema.addSession(session2);
+        Ticket oldest = new Ticket(session2, 150.0, LocalDateTime.now().minusDays(2));
+        session2.addTicket(oldest);
+        session1.buyTickets(3);
+        
+        Page<Ticket> first = cinema.getTicketsPage(null, 2);
+        assertEquals(oldest, first.getItems().get(0));
+        assertTrue(first.hasNext());
+        
+        Ticket cursorTicket = first.getItems().get(1);
+        session1.removeTicket(cursorTicket);
+        Page<Ticket> second = cinema.getTicketsPage(first.getNextCursor(), 2);
+        assertEquals(2, second.getItems().size());
+        assertFalse(second.getItems().contains(cursorTicket));
+        assertFalse(second.hasNext());
+        
+        cinema.removeSession(session1);
+        assertEquals(List.of(oldest), cinema.getTicketsPage(null, 10).getItems());
+    }
+    
+    @Test
+    void testTicketsPageLoadsLazyTickets() {
+        Ticket stored = new Ticket(session1, 120.0, LocalDateTime.now().minusHours(1));
+        session1.setTicketLoader(() -> List.of(stored), 120.0);
+        cinema.addSession(session1);
+        
+        assertEquals(List.of(stored), cinema.getTicketsPage(null, 10).getItems());
+    }
+    
+    @Test
+    void testTicketsLoadedOutsideListingAreIndexedOnNextPage() {
+        Ticket stored = new Ticket(session1, 120.0, LocalDateTime.now().minusHours(1));
+        session1.setTicketLoader(() -> List.of(stored), 120.0);
+        cinema.addSession(session1);
+        cinema.addSession(session2);
+        session2.buyTickets(2);
+        
+        session1.loadTickets();
+        Cinema copy = cinema.copy();
+        
+        List<Ticket> tickets = cinema.getTicketsPage(null, 10).getItems();
+        assertEquals(3, tickets.size());
+        assertEquals(stored, tickets.get(0));
+        assertEquals(3, copy.getTicketsPage(null, 10).getItems().size());
+    }
+    
+    @Test
+    void testSnapshotIsUnaffectedByLaterChanges() {
+        cinema.addSession(session1);
+        cinema.addSession(session2);
+        List<Ticket> sold = session1.buyTickets(3);
+        session2.buyTickets(2, (number, time, price) -> { });
+        
+        Cinema snapshot = cinema.snapshot();
+        session1.buyTickets(2);
+        session1.removeTicket(sold.get(0));
+        session2.buyTicket();
+        
+        Session first = snapshot.getSessions().get(0);
+        Session second = snapshot.getSessions().get(1);
+        assertEquals(sold, first.getTickets());
+        assertEquals(2, second.getTickets().size());
+        assertEquals(97, first.getAvailableSeats());
+        assertEquals(3 * 120.0 + 2 * 150.0, snapshot.calculateTotalRevenue(), 0.001);
+        assertEquals(4, session1.getTickets().size());
+        assertEquals(3, session2.getTickets().size());
+        
+        first.removeTicket(sold.get(1));
+        assertEquals(4, session1.getTickets().size());
+    }
+    
+    @Test
+    void testColumnarFiguresFollowSessionChanges() {
+        Session session3 = new Session("Test Movie 3", LocalDateTime.now().plusDays(3), 50, 90.0);
+        cinema.addSession(session1);
+        cinema.addSession(session2);
+        cinema.addSession(session3);
+        
+        session1.buyTickets(10);
+        session3.buyTickets(5, (number, time, price) -> { });
+        session3.addTicket(new Ticket(session3, 90.0, LocalDateTime.now()));
+        assertEquals(10 * 120.0 + 6 * 90.0, cinema.calculateTotalRevenue(), 0.001);
+        assertEquals(16, cinema.countSoldTickets());
+        
+        cinema.removeSession(session1);
+        session3.setTicketPrice(100.0);
+        session3.removeTicket(session3.getTickets().get(0));
+        session3.increaseAvailableSeats(1);
+        session2.setTotalSeats(200);
+        session2.setAvailableSeats(190);
+        assertEquals(5 * 90.0, cinema.calculateTotalRevenue(), 0.001);
+        assertEquals(15.0 / 250, cinema.calculateOccupancy(), 0.0001);
+        
+        session1.buyTickets(10);
+        assertEquals(15, cinema.countSoldTickets());
+    }
+    
+    @Test
+    void testColumnarFiguresOfSharedAndDuplicateSessions() {
+        cinema.addSession(session1);
+        Cinema view = new Cinema("View", "Elsewhere", 1);
+        view.setSessions(List.of(session1, session2));
+        cinema.addSession(session1);
+        
+        session1.buyTickets(4);
+        session2.buyTickets(2);
+        assertEquals(2 * 4 * 120.0, cinema.calculateTotalRevenue(), 0.001);
+        assertEquals(4 * 120.0 + 2 * 150.0, view.calculateTotalRevenue(), 0.001);
+        
+        cinema.removeSession(session1);
+        session1.buyTickets(1);
+        assertEquals(5 * 120.0, cinema.calculateTotalRevenue(), 0.001);
+    }
+    
+    @Test
+    void testValidSessionsAndDateRange() {
+        LocalDateTime now = LocalDateTime.now();
+        Session expired = new Session("Old Movie", now.minusHours(1), 10, 50.0);
+        cinema.addSession(session1);
+        cinema.addSession(expired);
+        cinema.addSession(session2);
+        
+        assertEquals(List.of(session1, session2), cinema.getValidSessions());
+        assertEquals(List.of(session1), cinema.getSessionsBetween(now, now.plusDays(1).plusHours(1)));
+        
+        expired.setDateTime(now.plusHours(2));
+        assertEquals(List.of(session1, expired, session2), cinema.getValidSessions());
+        assertEquals(List.of(session1, expired), cinema.getSessionsBetween(now, now.plusDays(1).plusHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> cinema.getSessionsBetween(null, now));
+    }
+    
+    @Test
+    void testColumnarRevenueMatchesSessionsAfterRandomChanges() {
+        Random random = new Random(49);
+        List<Session> added = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int step = random.nextInt(5);
+            if (step == 0 || added.isEmpty()) {
+                Session session = new Session("Movie " + random.nextInt(20), LocalDateTime.now().plusDays(1), 100, 10 + random.nextInt(100));
+                cinema.addSession(session);
+                added.add(session);
+            } else {
+                Session session = added.get(random.nextInt(added.size()));
+                if (step == 1) {
+                    cinema.removeSession(session);
+                    added.remove(session);
+                } else if (step == 2 && session.getAvailableSeats() > 0) {
+                    session.buyTickets(1 + random.nextInt(session.getAvailableSeats()));
+                } else if (step == 3) {
+                    session.setTicketPrice(10 + random.nextInt(100));
+                } else {
+                    session.increaseAvailableSeats(random.nextInt(10));
+                }
+            }
+            
+            double expected = 0;
+            for (Session session : cinema.getSessions()) {
+                for (Ticket ticket : session.getTickets()) {
+                    expected += ticket.getPrice();
+                }
+            }
+            assertEquals(expected, cinema.calculateTotalRevenue(), 0.001);
+        }
+    }
 }
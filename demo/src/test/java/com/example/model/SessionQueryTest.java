@@ -0,0 +1,147 @@
+package com.example.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionQueryTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 0);
+    
+    private Cinema cinema;
+    
+    @BeforeEach
+    void setUp() {
+        cinema = new Cinema("Query Cinema", "1 Query St", 4);
+        Random random = new Random(50);
+        for (int i = 0; i < 2_000; i++) {
+            Session session = new Session("Movie " + (i % 100), START.plusHours(i), 50, 50 + random.nextInt(100));
+            cinema.addSession(session);
+            session.buyTickets(1 + random.nextInt(49));
+        }
+    }
+    
+    @Test
+    void testPlannerPicksMostSelectiveIndex() {
+        SessionQuery byTitle = SessionQuery.all().withTitle("Movie 7").withMinAvailableSeats(10);
+        assertEquals(QueryPlan.AccessPath.TITLE_INDEX, cinema.explain(byTitle).getAccessPath());
+        assertEquals(20, cinema.explain(byTitle).getCandidates());
+        
+        SessionQuery byTime = SessionQuery.all().withStartBetween(START, START.plusHours(5)).withTitle("Movie 3");
+        assertEquals(QueryPlan.AccessPath.TIME_INDEX, cinema.explain(byTime).getAccessPath());
+        assertEquals(5, cinema.explain(byTime).getCandidates());
+        
+        SessionQuery bySeats = SessionQuery.all().withMinAvailableSeats(40);
+        assertEquals(QueryPlan.AccessPath.COLUMN_SCAN, cinema.explain(bySeats).getAccessPath());
+        
+        SessionQuery wideRange = SessionQuery.all().withStartBetween(START, START.plusDays(60)).withTitle("Movie 3");
+        assertEquals(QueryPlan.AccessPath.TITLE_INDEX, cinema.explain(wideRange).getAccessPath());
+    }
+    
+    @Test
+    void testResultsMatchNaiveFiltering() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            SessionQuery query = SessionQuery.all();
+            if (random.nextBoolean()) {
+                query = query.withTitle("Movie " + random.nextInt(120));
+            }
+            if (random.nextBoolean()) {
+                LocalDateTime from = START.plusHours(random.nextInt(2_100));
+                query = query.withStartBetween(from, random.nextBoolean() ? null : from.plusHours(random.nextInt(300)));
+            }
+            if (random.nextBoolean()) {
+                double min = random.nextInt(150);
+                query = query.withPriceBetween(min, min + random.nextInt(60));
+            }
+            if (random.nextBoolean()) {
+                query = query.withMinAvailableSeats(random.nextInt(50));
+            }
+            
+            List<Session> expected = naive(query);
+            assertEquals(new HashSet<>(expected), new HashSet<>(cinema.findSessions(query)), query.toString());
+            
+            SessionOrder order = random.nextBoolean() ? SessionOrder.BY_TIME : SessionOrder.BY_TITLE;
+            SessionQuery page = query.withOrder(order).withOffset(random.nextInt(20)).withLimit(1 + random.nextInt(30));
+            assertEquals(naive(page), cinema.findSessions(page), page.toString());
+        }
+    }
+    
+    @Test
+    void testLimitIsPushedDownWhenIndexYieldsOrder() {
+        SessionQuery query = SessionQuery.all()
+                .withStartBetween(START.plusHours(100), START.plusHours(200))
+                .withOrder(SessionOrder.BY_TIME)
+                .withOffset(2)
+                .withLimit(3);
+        
+        QueryPlan plan = cinema.explain(query);
+        assertEquals(QueryPlan.AccessPath.TIME_INDEX, plan.getAccessPath());
+        assertTrue(plan.isLimitPushedDown());
+        List<Session> sessions = cinema.findSessions(query);
+        assertEquals(List.of(START.plusHours(102), START.plusHours(103), START.plusHours(104)),
+                     sessions.stream().map(Session::getDateTime).collect(Collectors.toList()));
+        
+        assertFalse(cinema.explain(query.withOrder(SessionOrder.BY_TITLE)).isLimitPushedDown());
+    }
+    
+    @Test
+    void testQueriesFollowSessionChanges() {
+        Session session = cinema.findSessionsByTitle("Movie 42").get(0);
+        SessionQuery query = SessionQuery.all().withTitle("Movie 42").withPriceBetween(500, 600);
+        assertTrue(cinema.findSessions(query).isEmpty());
+        
+        session.setTicketPrice(550);
+        assertEquals(List.of(session), cinema.findSessions(query));
+        
+        session.setMovieTitle("Renamed");
+        assertTrue(cinema.findSessions(query).isEmpty());
+        assertEquals(List.of(session), cinema.findSessions(query.withTitle("Renamed")));
+        
+        cinema.removeSession(session);
+        assertTrue(cinema.findSessions(query.withTitle("Renamed")).isEmpty());
+    }
+    
+    @Test
+    void testSessionsWithoutShowtimeOnlyMatchOpenRanges() {
+        Session unscheduled = new Session();
+        unscheduled.setMovieTitle("Unscheduled");
+        unscheduled.setTotalSeats(10);
+        unscheduled.setTicketPrice(100.0);
+        cinema.addSession(unscheduled);
+        
+        assertEquals(List.of(unscheduled), cinema.findSessions(SessionQuery.all().withTitle("Unscheduled")));
+        assertTrue(cinema.findSessions(SessionQuery.all().withTitle("Unscheduled").withStartBetween(START, null)).isEmpty());
+    }
+    
+    @Test
+    void testInvalidQueries() {
+        assertThrows(IllegalArgumentException.class, () -> SessionQuery.all().withStartBetween(START, START.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> SessionQuery.all().withPriceBetween(10, 5));
+        assertThrows(IllegalArgumentException.class, () -> SessionQuery.all().withMinAvailableSeats(-1));
+        assertThrows(IllegalArgumentException.class, () -> SessionQuery.all().withLimit(0));
+        assertThrows(IllegalArgumentException.class, () -> SessionQuery.all().withOffset(-1));
+        assertThrows(IllegalArgumentException.class, () -> cinema.findSessions(null));
+    }
+    
+    private List<Session> naive(SessionQuery query) {
+        Comparator<Session> order = query.getOrder() == null ? null : Comparator.comparing(SortKey::of, query.getOrder().comparator());
+        return cinema.getSessions().stream()
+                .filter(session -> query.getTitle() == null || query.getTitle().equals(session.getMovieTitle()))
+                .filter(session -> query.getFrom() == null || !session.getDateTime().isBefore(query.getFrom()))
+                .filter(session -> query.getTo() == null || session.getDateTime().isBefore(query.getTo()))
+                .filter(session -> session.getTicketPrice() >= query.getMinPrice() && session.getTicketPrice() <= query.getMaxPrice())
+                .filter(session -> session.getAvailableSeats() >= query.getMinAvailableSeats())
+                .sorted(order == null ? (a, b) -> 0 : order)
+                .skip(query.getOffset())
+                .limit(query.getLimit())
+                .collect(Collectors.toList());
+    }
+}
@@ -141,39 +141,161 @@ public class SessionTest {
         assertThrows(IllegalArgumentException.class, () -> session.buyTickets(1));
         assertThrows(IllegalStateException.class, session::buyTicket);
     }
-
+    
     @Test
     void testCreateSessionWithZeroSeats() {
         assertThrows(IllegalArgumentException.class, () -> {
             new Session("Test Movie", LocalDateTime.now().plusDays(1), 0, 100.0);
         });
     }
-
+    
     @Test
     void testCreateSessionWithNegativeSeats() {
         assertThrows(IllegalArgumentException.class, () -> {
             new Session("Test Movie", LocalDateTime.now().plusDays(1), -10, 100.0);
         });
     }
-
+    
     @Test
     void testCreateSessionWithZeroPrice() {
         assertThrows(IllegalArgumentException.class, () -> {
             new Session("Test Movie", LocalDateTime.now().plusDays(1), 100, 0.0);
         });
     }
-
+    
     @Test
     void testCreateSessionWithNegativePrice() {
         assertThrows(IllegalArgumentException.class, () -> {
             new Session("Test Movie", LocalDateTime.now().plusDays(1), 100, -50.0);
         });
     }
-
+    
     @Test
     void testCreateSessionWithNullDate() {
         assertThrows(IllegalArgumentException.class, () -> {
             new Session("Test Movie", null, 100, 100.0);
         });
     }
+    
+    @Test
+    void testSessionIdsAreSharedNotPooled() {
+        String id = new String("session-" + System.nanoTime());
+        session.setId(id);
+        assertSame(id, session.getId());
+        
+        Ticket ticket = new Ticket();
+        ticket.setSessionId(new String(id));
+        session.addTicket(ticket);
+        assertSame(id, ticket.getSessionId());
+    }
+    
+    @Test
+    void testTicketLoaderRunsOnce() {
+        Ticket historical = new Ticket(session, 120.0);
+        int[] loads = {0};
+        session.setTicketLoader(() -> {
+            loads[0]++;
+            return List.of(historical);
+        }, 120.0);
+        
+        assertFalse(session.isTicketsLoaded());
+        assertEquals(1, session.getTickets().size());
+        assertEquals(1, session.getTickets().size());
+        assertTrue(session.isTicketsLoaded());
+        assertEquals(1, loads[0]);
+    }
+    
+    @Test
+    void testRemoveTicketLoadsTickets() {
+        Ticket historical = new Ticket(session, 120.0);
+        session.setTicketLoader(() -> List.of(historical), 120.0);
+        assertEquals(120.0, session.getRevenue());
+        
+        assertTrue(session.removeTicket(historical));
+        assertTrue(session.getTickets().isEmpty());
+        assertEquals(0.0, session.getRevenue());
+    }
+    
+    @Test
+    void testPriceCurveDrivesTicketPrices() {
+        PriceCurve curve = new PriceCurve(120.0, session.getDateTime(), new long[] {60},
+                                          new double[][] {{200.0, 250.0}, {100.0, 150.0}});
+        session.setPriceCurve(curve);
+        
+        List<Ticket> tickets = session.buyTickets(51);
+        assertEquals(100.0, tickets.get(0).getPrice());
+        assertEquals(100.0, tickets.get(49).getPrice());
+        assertEquals(150.0, tickets.get(50).getPrice());
+        assertEquals(150.0, session.getCurrentPrice());
+        assertEquals(250.0, curve.priceAt(51, 100, session.getDateTime().minusMinutes(30)));
+    }
+    
+    @Test
+    void testStalePriceCurveFallsBackToBasePrice() {
+        session.setPriceCurve(new PriceCurve(120.0, session.getDateTime(), new long[0], new double[][] {{99.0}}));
+        assertEquals(99.0, session.buyTicket().getPrice());
+        
+        session.setTicketPrice(130.0);
+        assertEquals(130.0, session.buyTicket().getPrice());
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> new PriceCurve(1.0, session.getDateTime(), new long[] {10}, new double[][] {{1.0}}));
+    }
+    
+    @Test
+    void testBuyTicketsIntoSinkDefersTicketObjects() {
+        TicketBuffer buffer = new TicketBuffer(5);
+        Ticket before = session.buyTicket();
+        
+        session.buyTickets(3, buffer);
+        
+        assertEquals(3, buffer.size());
+        assertEquals(96, session.getAvailableSeats());
+        assertEquals(360.0, buffer.getTotalPrice(), 0.001);
+        assertFalse(session.isTicketsLoaded());
+        
+        Ticket after = session.buyTicket();
+        List<Ticket> tickets = session.getTickets();
+        assertTrue(session.isTicketsLoaded());
+        assertEquals(5, tickets.size());
+        assertEquals(before, tickets.get(0));
+        assertEquals(session.ticketId(buffer.getTicketNumber(0)), tickets.get(1).getId());
+        assertEquals(session.ticketId(buffer.getTicketNumber(2)), tickets.get(3).getId());
+        assertEquals(after, tickets.get(4));
+        assertEquals(120.0, tickets.get(2).getPrice());
+        assertEquals(session, tickets.get(2).getSession());
+        
+        assertTrue(session.removeTicket(tickets.get(1)));
+        assertEquals(4, session.getTickets().size());
+    }
+    
+    @Test
+    void testBuyTicketsIntoSinkValidatesLikeListPurchase() {
+        TicketBuffer buffer = new TicketBuffer(1);
+        
+        assertThrows(IllegalArgumentException.class, () -> session.buyTickets(0, buffer));
+        assertThrows(IllegalArgumentException.class, () -> session.buyTickets(101, buffer));
+        assertThrows(IllegalArgumentException.class, () -> session.buyTickets(1, null));
+        assertThrows(IllegalStateException.class, () -> session.buyTickets(2, buffer));
+        
+        Session expired = new Session("Old Movie", LocalDateTime.now().minusMinutes(1), 10, 50.0);
+        assertTrue(expired.isExpired());
+        assertThrows(IllegalStateException.class, () -> expired.buyTickets(1, buffer));
+        
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getPrice(0));
+    }
+    
+    @Test
+    void testSinkPurchaseUsesPriceCurve() {
+        session.setPriceCurve(new PriceCurve(120.0, session.getDateTime(), new long[] {60},
+                                             new double[][] {{200.0, 250.0}, {100.0, 150.0}}));
+        TicketBuffer buffer = new TicketBuffer(51);
+        
+        session.buyTickets(51, buffer);
+        
+        assertEquals(100.0, buffer.getPrice(0));
+        assertEquals(150.0, buffer.getPrice(50));
+    }
 }
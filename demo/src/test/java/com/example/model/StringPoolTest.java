@@ -0,0 +1,53 @@
+package com.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringPoolTest {
+    
+    @Test
+    void testInternReturnsCanonicalInstance() {
+        StringPool pool = new StringPool(10);
+        String first = new String("Inception");
+        String second = new String("Inception");
+        
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertEquals(1, pool.size());
+    }
+    
+    @Test
+    void testInternNull() {
+        StringPool pool = new StringPool(10);
+        
+        assertNull(pool.intern(null));
+        assertEquals(0, pool.size());
+    }
+    
+    @Test
+    void testPoolIsBounded() {
+        StringPool pool = new StringPool(2);
+        pool.intern("A");
+        pool.intern("B");
+        
+        String overflow = new String("C");
+        assertSame(overflow, pool.intern(overflow));
+        assertEquals(2, pool.size());
+    }
+    
+    @Test
+    void testInvalidMaxSize() {
+        assertThrows(IllegalArgumentException.class, () -> new StringPool(0));
+    }
+    
+    @Test
+    void testSessionsShareMovieTitle() {
+        Session session1 = new Session(new String("Shared Title"), LocalDateTime.now().plusDays(1), 100, 120.0);
+        Session session2 = new Session(new String("Shared Title"), LocalDateTime.now().plusDays(2), 100, 120.0);
+        
+        assertSame(session1.getMovieTitle(), session2.getMovieTitle());
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutosaveServiceTest {
+    private final ExportImportService exportImportService = new ExportImportService();
+    private CinemaService cinemaService;
+    private Session session;
+    private AutosaveService autosaveService;
+    private Path target;
+    
+    @TempDir
+    Path tempDir;
+    
+    @BeforeEach
+    void setUp() {
+        Cinema cinema = new Cinema("Autosave Cinema", "123 Autosave St", 2);
+        session = new Session("Movie", LocalDateTime.now().plusDays(1), 100, 120.0);
+        cinema.addSession(session);
+        cinemaService = new CinemaService(cinema);
+        target = tempDir.resolve("autosave.json");
+        autosaveService = new AutosaveService(cinemaService, exportImportService, target.toString());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        autosaveService.close();
+    }
+    
+    @Test
+    void testRequestSaveWritesConsistentCopy() throws Exception {
+        autosaveService.start(1, TimeUnit.HOURS, 0);
+        cinemaService.buyTickets(session, 4);
+        
+        autosaveService.requestSave().get(5, TimeUnit.SECONDS);
+        
+        Cinema saved = exportImportService.importData(target.toString());
+        assertEquals(96, saved.getSessions().get(0).getAvailableSeats());
+        assertEquals(4, saved.getSessions().get(0).getTickets().size());
+        assertFalse(Files.exists(tempDir.resolve("autosave.json.tmp")));
+        
+        AutosaveMetrics metrics = autosaveService.getMetrics();
+        assertEquals(1, metrics.getSaveCount());
+        assertEquals(0, metrics.getPendingChanges());
+        assertEquals(0, metrics.getLagMillis());
+        assertTrue(metrics.getLastSaveNanos() >= metrics.getLastCaptureNanos());
+    }
+    
+    @Test
+    void testFailedSaveIsReportedInMetrics() throws Exception {
+        Path blocked = tempDir.resolve("blocked");
+        Files.createFile(blocked);
+        AutosaveService failing = new AutosaveService(cinemaService, exportImportService,
+                                                      blocked.resolve("autosave.json").toString());
+        try {
+            failing.start(1, TimeUnit.HOURS, 0);
+            cinemaService.buyTickets(session, 1);
+            failing.requestSave().get(5, TimeUnit.SECONDS);
+            
+            AutosaveMetrics metrics = failing.getMetrics();
+            assertEquals(1, metrics.getFailureCount());
+            assertEquals(0, metrics.getSaveCount());
+            assertNotNull(metrics.getLastFailure());
+            assertEquals(1, metrics.getPendingChanges());
+        } finally {
+            failing.close();
+        }
+    }
+    
+    @Test
+    void testDirtyThresholdTriggersSave() throws Exception {
+        autosaveService.start(1, TimeUnit.HOURS, 3);
+        
+        cinemaService.buyTickets(session, 1);
+        cinemaService.buyTickets(session, 1);
+        assertEquals(2, autosaveService.getMetrics().getPendingChanges());
+        cinemaService.buyTickets(session, 1);
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (autosaveService.getMetrics().getSaveCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        
+        assertEquals(1, autosaveService.getMetrics().getSaveCount());
+        assertTrue(Files.exists(target));
+    }
+    
+    @Test
+    void testIntervalSavesOnlyWhenDirty() throws Exception {
+        autosaveService.start(20, TimeUnit.MILLISECONDS, 0);
+        Thread.sleep(100);
+        assertEquals(0, autosaveService.getMetrics().getSaveCount());
+        
+        cinemaService.buyTickets(session, 2);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (autosaveService.getMetrics().getSaveCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        
+        assertTrue(autosaveService.getMetrics().getSaveCount() >= 1);
+        assertEquals(98, exportImportService.importData(target.toString()).getSessions().get(0).getAvailableSeats());
+    }
+    
+    @Test
+    void testPendingChangesReportLag() throws Exception {
+        autosaveService.start(1, TimeUnit.HOURS, 0);
+        cinemaService.buyTickets(session, 1);
+        Thread.sleep(20);
+        
+        AutosaveMetrics metrics = autosaveService.getMetrics();
+        assertEquals(1, metrics.getPendingChanges());
+        assertTrue(metrics.getLagMillis() >= 10);
+    }
+    
+    @Test
+    void testCloseFlushesPendingChanges() throws Exception {
+        autosaveService.start(1, TimeUnit.HOURS, 0);
+        cinemaService.buyTickets(session, 5);
+        
+        autosaveService.close();
+        
+        assertEquals(95, exportImportService.importData(target.toString()).getSessions().get(0).getAvailableSeats());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CinemaEventPublisherTest {
+    private CinemaService cinemaService;
+    private Session session;
+    private CinemaEventPublisher publisher;
+    
+    @BeforeEach
+    void setUp() {
+        Cinema cinema = new Cinema("Event Cinema", "123 Event St", 2);
+        session = new Session("Movie", LocalDateTime.now().plusDays(1), 1000, 120.0);
+        cinema.addSession(session);
+        cinemaService = new CinemaService(cinema);
+        publisher = new CinemaEventPublisher(1024, 16, 4);
+        cinemaService.addChangeListener(publisher);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        publisher.close();
+    }
+    
+    @Test
+    void testSubscriberReceivesEventsInOrder() throws InterruptedException {
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+        assertTrue(subscriber.subscribed.await(5, TimeUnit.SECONDS));
+        
+        List<Ticket> tickets = cinemaService.buyTickets(session, 2);
+        cinemaService.deleteTicket(tickets.get(0).getId());
+        Session other = new Session("Other", LocalDateTime.now().plusDays(2), 10, 100.0);
+        cinemaService.addSession(other);
+        cinemaService.updateTicketSession(tickets.get(1).getId(), other.getId());
+        
+        publisher.close();
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+        
+        List<CinemaEvent> events = subscriber.events;
+        assertEquals(4, events.size());
+        assertEquals(CinemaEvent.Type.TICKETS_SOLD, events.get(0).getType());
+        assertEquals(2, events.get(0).getTicketIds().size());
+        assertEquals(CinemaEvent.Type.TICKETS_REFUNDED, events.get(1).getType());
+        assertEquals(CinemaEvent.Type.SESSION_ADDED, events.get(2).getType());
+        assertEquals(CinemaEvent.Type.TICKET_MOVED, events.get(3).getType());
+        assertEquals(other.getId(), events.get(3).getTargetSessionId());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i).getSequence() > events.get(i - 1).getSequence());
+        }
+        assertTrue(publisher.getPublishedBatches() <= publisher.getPublishedEvents());
+    }
+    
+    @Test
+    void testSlowSubscriberDoesNotStallPurchases() throws InterruptedException {
+        CollectingSubscriber slow = new CollectingSubscriber(1);
+        publisher.subscribe(slow);
+        assertTrue(slow.subscribed.await(5, TimeUnit.SECONDS));
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < 500; i++) {
+            cinemaService.buyTickets(session, 1);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (publisher.getPublishedEvents() < 500 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        
+        assertEquals(500, publisher.getPublishedEvents());
+        assertTrue(publisher.getDroppedForSubscribers() > 0);
+        assertEquals(0, publisher.getDroppedAtQueue());
+        assertTrue(elapsedMillis < 5000);
+    }
+    
+    @Test
+    void testFullQueueDropsInsteadOfBlocking() {
+        CinemaEventPublisher tiny = new CinemaEventPublisher(1, 1, 1);
+        tiny.close();
+        
+        tiny.sessionAdded(session);
+        
+        assertEquals(1, tiny.getDroppedAtQueue());
+    }
+    
+    private static class CollectingSubscriber implements Flow.Subscriber<List<CinemaEvent>> {
+        private final long demand;
+        private final List<CinemaEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch subscribed = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        
+        private CollectingSubscriber(long demand) {
+            this.demand = demand;
+        }
+        
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(demand);
+            subscribed.countDown();
+        }
+        
+        @Override
+        public void onNext(List<CinemaEvent> batch) {
+            events.addAll(batch);
+        }
+        
+        @Override
+        public void onError(Throwable throwable) {
+            completed.countDown();
+        }
+        
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
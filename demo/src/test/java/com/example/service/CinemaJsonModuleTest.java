@@ -0,0 +1,130 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CinemaJsonModuleTest {
+    private ObjectMapper beanMapper;
+    private ObjectMapper codecMapper;
+    
+    @BeforeEach
+    void setUp() {
+        beanMapper = new ObjectMapper();
+        beanMapper.registerModule(new JavaTimeModule());
+        beanMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        beanMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        
+        codecMapper = beanMapper.copy();
+        codecMapper.registerModule(new CinemaJsonModule());
+    }
+    
+    private Cinema sampleCinema() {
+        Cinema cinema = new Cinema("Codec \"Cinema\"", "123 Codec St", 2);
+        Session session1 = new Session("Movie é", LocalDateTime.of(2031, 5, 6, 18, 30), 100, 120.5);
+        Session session2 = new Session("Another", LocalDateTime.of(2031, 5, 6, 18, 30, 15, 120_000_000), 50, 99.0);
+        session1.buyTickets(3);
+        Ticket ticket = session2.buyTicket();
+        ticket.setPurchaseTime(LocalDateTime.of(2031, 1, 1, 0, 0, 0, 1));
+        cinema.addSession(session1);
+        cinema.addSession(session2);
+        return cinema;
+    }
+    
+    @Test
+    void testOutputMatchesBeanSerialization() throws IOException {
+        Cinema cinema = sampleCinema();
+        
+        Map<String, Object> legacy = new HashMap<>();
+        legacy.put("name", cinema.getName());
+        legacy.put("address", cinema.getAddress());
+        legacy.put("hallCount", cinema.getHallCount());
+        legacy.put("sessions", cinema.getSessions());
+        
+        assertEquals(beanMapper.writeValueAsString(legacy), codecMapper.writeValueAsString(cinema));
+    }
+    
+    @Test
+    void testRoundTrip() throws IOException {
+        Cinema cinema = sampleCinema();
+        
+        Cinema restored = codecMapper.readValue(codecMapper.writeValueAsString(cinema), Cinema.class);
+        
+        assertEquals(cinema, restored);
+        List<Session> sessions = restored.getSessions();
+        assertEquals(2, sessions.size());
+        assertEquals(cinema.getSessions().get(0).getId(), sessions.get(0).getId());
+        assertEquals(97, sessions.get(0).getAvailableSeats());
+        assertEquals(3, sessions.get(0).getTickets().size());
+        assertSame(sessions.get(0), sessions.get(0).getTickets().get(0).getSession());
+        assertEquals(LocalDateTime.of(2031, 5, 6, 18, 30, 15, 120_000_000), sessions.get(1).getDateTime());
+        assertEquals(LocalDateTime.of(2031, 1, 1, 0, 0, 0, 1), sessions.get(1).getTickets().get(0).getPurchaseTime());
+    }
+    
+    @Test
+    void testReadsBeanSerializedSession() throws IOException {
+        Session session = sampleCinema().getSessions().get(0);
+        
+        Session restored = codecMapper.readValue(beanMapper.writeValueAsString(session), Session.class);
+        
+        assertEquals(session.getId(), restored.getId());
+        assertEquals(session.getMovieTitle(), restored.getMovieTitle());
+        assertEquals(session.getDateTime(), restored.getDateTime());
+        assertEquals(session.getTotalSeats(), restored.getTotalSeats());
+        assertEquals(session.getAvailableSeats(), restored.getAvailableSeats());
+        assertEquals(session.getTicketPrice(), restored.getTicketPrice(), 0.001);
+    }
+    
+    @Test
+    void testNullFieldsAndUnknownSessionProperties() throws IOException {
+        String json = "{\"id\":\"s1\",\"movieTitle\":null,\"dateTime\":null,\"extra\":{\"a\":[1,2]}," +
+                      "\"totalSeats\":10,\"availableSeats\":7,\"ticketPrice\":5.0}";
+        
+        Session session = codecMapper.readValue(json, Session.class);
+        
+        assertEquals("s1", session.getId());
+        assertNull(session.getMovieTitle());
+        assertNull(session.getDateTime());
+        assertEquals(7, session.getAvailableSeats());
+    }
+    
+    @Test
+    void testUnknownTicketPropertyFails() {
+        assertThrows(IOException.class,
+                     () -> codecMapper.readValue("{\"id\":\"t1\",\"bogus\":1}", Ticket.class));
+    }
+    
+    @Test
+    void testTimestampFormatting() {
+        CinemaJsonModule.TimestampCodec codec = new CinemaJsonModule.TimestampCodec();
+        
+        assertEquals("2030-01-02T03:04:00", codec.format(LocalDateTime.of(2030, 1, 2, 3, 4)));
+        assertEquals("2030-01-02T03:04:00.12", codec.format(LocalDateTime.of(2030, 1, 2, 3, 4, 0, 120_000_000)));
+        assertEquals("2030-01-02T03:04:00.000000009", codec.format(LocalDateTime.of(2030, 1, 2, 3, 4, 0, 9)));
+        assertEquals("+10000-01-02T03:04:05", codec.format(LocalDateTime.of(10000, 1, 2, 3, 4, 5)));
+    }
+    
+    @Test
+    void testTimestampParsingUsesCachedSecond() {
+        CinemaJsonModule.TimestampCodec codec = new CinemaJsonModule.TimestampCodec();
+        
+        assertEquals(LocalDateTime.of(2030, 1, 2, 3, 4, 5), codec.parse("2030-01-02T03:04:05"));
+        assertEquals(LocalDateTime.of(2030, 1, 2, 3, 4, 5, 500_000_000), codec.parse("2030-01-02T03:04:05.5"));
+        assertEquals(LocalDateTime.of(2030, 1, 2, 3, 4, 5, 123_456_789), codec.parse("2030-01-02T03:04:05.123456789"));
+        assertEquals(LocalDateTime.of(2030, 1, 2, 3, 4), codec.parse("2030-01-02T03:04"));
+        assertEquals(LocalDateTime.of(10000, 1, 2, 3, 4, 5), codec.parse("+10000-01-02T03:04:05"));
+    }
+}
@@ -2,15 +2,20 @@ package com.example.service;
 
 import com.example.model.Cinema;
 import com.example.model.Session;
+import com.example.model.Page;
 import com.example.model.Ticket;
+import com.example.model.TicketBuffer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class CinemaServiceTest {
     private CinemaService cinemaService;
@@ -367,4 +372,86 @@ public class CinemaServiceTest {
         
         assertEquals(90, sessionToUpdate.getAvailableSeats()); 
     }
+    
+    @Test
+    void testChangeListenerNotifications() {
+        List<String> events = new java.util.ArrayList<>();
+        cinemaService.addChangeListener(new CinemaChangeListener() {
+            @Override
+            public void sessionAdded(Session added) {
+                events.add("added");
+            }
+            
+            @Override
+            public void ticketsSold(Session soldSession, List<Ticket> tickets) {
+                events.add("sold:" + tickets.size());
+            }
+            
+            @Override
+            public void ticketRemoved(Session fromSession, Ticket ticket) {
+                events.add("removed");
+            }
+        });
+        
+        cinemaService.addSession(new Session("Listener Movie", LocalDateTime.now().plusDays(1), 10, 100.0));
+        List<Ticket> tickets = cinemaService.buyTickets(session, 2);
+        cinemaService.deleteTicket(tickets.get(0).getId());
+        
+        assertEquals(List.of("added", "sold:2", "removed"), events);
+    }
+    
+    @Test
+    void testBuyTicketsIntoSinkShowsUpInTicketPagesAndListeners() {
+        TicketBuffer buffer = new TicketBuffer(3);
+        cinemaService.buyTickets(session, 2, buffer);
+        
+        Page<Ticket> page = cinemaService.getTicketsPage(null, 10);
+        assertEquals(2, page.getItems().size());
+        assertEquals(session.ticketId(buffer.getTicketNumber(0)), page.getItems().get(0).getId());
+        
+        List<Ticket> notified = new ArrayList<>();
+        cinemaService.addChangeListener(new CinemaChangeListener() {
+            @Override
+            public void ticketsSold(Session soldSession, List<Ticket> tickets) {
+                notified.addAll(tickets);
+            }
+        });
+        buffer.clear();
+        cinemaService.buyTickets(session, 1, buffer);
+        
+        assertEquals(1, notified.size());
+        assertEquals(session.ticketId(buffer.getTicketNumber(0)), notified.get(0).getId());
+        assertTrue(cinemaService.deleteTicket(notified.get(0).getId()));
+        assertEquals(98, session.getAvailableSeats());
+        
+        Session stranger = new Session("Stranger", LocalDateTime.now().plusDays(1), 10, 10.0);
+        assertThrows(IllegalArgumentException.class, () -> cinemaService.buyTickets(stranger, 1, buffer));
+    }
+    
+    @Test
+    void testSteadyStateSinkPurchasesDoNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+        
+        Session hall = new Session("Marathon", LocalDateTime.now().plusDays(1), 400_000, 100.0);
+        cinemaService.addSession(hall);
+        TicketBuffer buffer = new TicketBuffer(4);
+        for (int i = 0; i < 50_000; i++) {
+            buffer.clear();
+            cinemaService.buyTickets(hall, 2, buffer);
+        }
+        
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            buffer.clear();
+            cinemaService.buyTickets(hall, 2, buffer);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+        
+        assertEquals(100_000, hall.getAvailableSeats());
+        // A handful of bytes per call would already be megabytes over this loop.
+        assertTrue(allocated < 64 * 1024, "Allocated " + allocated + " bytes");
+    }
 }
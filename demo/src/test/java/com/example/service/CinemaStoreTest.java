@@ -0,0 +1,162 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CinemaStoreTest {
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testInMemoryStoreFollowsService() {
+        try (CinemaStore store = new InMemoryCinemaStore()) {
+            assertNull(store.load());
+            assertStoreFollowsService(store);
+        }
+    }
+    
+    @Test
+    void testJournalStoreFollowsServiceAndReopens() throws Exception {
+        Path directory = tempDir.resolve("journal");
+        Cinema expected;
+        try (CinemaStore store = new JournalCinemaStore(directory, new ExportImportService())) {
+            expected = assertStoreFollowsService(store);
+        }
+        
+        try (CinemaStore reopened = new JournalCinemaStore(directory, new ExportImportService())) {
+            assertSameCinema(expected, reopened.load());
+        }
+    }
+    
+    @Test
+    void testJdbcStoreFollowsServiceAndReopens() {
+        String url = "jdbc:h2:" + tempDir.resolve("cinema").toAbsolutePath();
+        Cinema expected;
+        try (CinemaStore store = new JdbcCinemaStore(url, 3)) {
+            assertNull(store.load());
+            expected = assertStoreFollowsService(store);
+        }
+        
+        try (CinemaStore reopened = new JdbcCinemaStore(url)) {
+            Cinema loaded = reopened.load();
+            assertSameCinema(expected, loaded);
+            assertEquals(loaded.getSessions().get(0), loaded.getSessions().get(0).getTickets().get(0).getSession());
+            
+            // Positions and ticket sequence numbers continue after a reopen.
+            CinemaService cinemaService = new CinemaService(loaded);
+            cinemaService.setStore(reopened);
+            Session added = new Session("Encore", LocalDateTime.now().plusDays(5), 10, 40.0);
+            cinemaService.addSession(added);
+            cinemaService.buyTickets(added, 2);
+            assertSameCinema(cinemaService.getCinema(), reopened.load());
+        }
+    }
+    
+    @Test
+    void testStoresKeepTicketsRebookedFromCancelledSession() throws Exception {
+        String url = "jdbc:h2:" + tempDir.resolve("cancel").toAbsolutePath();
+        List<CinemaStore> stores = List.of(new InMemoryCinemaStore(),
+                                           new JournalCinemaStore(tempDir.resolve("cancel-journal"), new ExportImportService()),
+                                           new JdbcCinemaStore(url));
+        for (CinemaStore store : stores) {
+            try (store) {
+                Cinema cinema = new Cinema("Store Cinema", "8 Disk Rd", 2);
+                Session cancelled = new Session("Persisted", LocalDateTime.now().plusDays(1), 20, 100.0);
+                Session alternative = new Session("Persisted", LocalDateTime.now().plusDays(2), 20, 80.0);
+                cinema.addSession(cancelled);
+                cinema.addSession(alternative);
+                CinemaService cinemaService = new CinemaService(cinema);
+                cinemaService.setStore(store);
+                cinemaService.buyTickets(cancelled, 3);
+                
+                try (SessionCancellationService cancellation = new SessionCancellationService(cinemaService, 1)) {
+                    cancellation.cancel(cancelled.getId(), RebookingDecider.nearestShowtime())
+                            .getCompletion().get(10, TimeUnit.SECONDS);
+                }
+                store.flush();
+                
+                assertEquals(3, alternative.getTickets().size());
+                assertEquals(3, store.findSession(alternative.getId()).orElseThrow().getTickets().size());
+                assertSameCinema(cinema, store.load());
+            }
+        }
+    }
+    
+    @Test
+    void testJdbcStoreRejectsBadConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new JdbcCinemaStore("jdbc:h2:mem:bad", 0));
+        assertThrows(StorageException.class, () -> new JdbcCinemaStore("jdbc:unknown:nowhere"));
+    }
+    
+    private Cinema assertStoreFollowsService(CinemaStore store) {
+        Cinema cinema = new Cinema("Store Cinema", "8 Disk Rd", 2);
+        Session first = new Session("Persisted", LocalDateTime.now().plusDays(1), 20, 100.0);
+        Session second = new Session("Persisted", LocalDateTime.now().plusDays(2), 20, 80.0);
+        cinema.addSession(first);
+        cinema.addSession(second);
+        CinemaService cinemaService = new CinemaService(cinema);
+        List<Ticket> early = cinemaService.buyTickets(first, 2);
+        
+        cinemaService.setStore(store);
+        List<Ticket> sold = cinemaService.buyTickets(first, 5);
+        Session third = new Session("Late Show", LocalDateTime.now().plusDays(3), 30, 60.0);
+        cinemaService.addSession(third);
+        cinemaService.buyTickets(third, 4);
+        cinemaService.deleteTicket(sold.get(0).getId());
+        cinemaService.updateTicketSession(early.get(0).getId(), second.getId());
+        cinemaService.updateSession(second.getId(), "Persisted Redux", null, 25, 0);
+        Session removed = new Session("Cancelled", LocalDateTime.now().plusDays(4), 10, 10.0);
+        cinemaService.addSession(removed);
+        cinemaService.buyTickets(removed, 3);
+        cinemaService.removeSession(removed);
+        store.flush();
+        
+        assertSameCinema(cinema, store.load());
+        
+        Optional<Session> found = store.findSession(first.getId());
+        assertTrue(found.isPresent());
+        assertEquals(first.getAvailableSeats(), found.get().getAvailableSeats());
+        assertEquals(first.getTickets().size(), found.get().getTickets().size());
+        assertFalse(store.findSession(removed.getId()).isPresent());
+        
+        assertEquals(Optional.of(first.getId()), store.findSessionIdForTicket(sold.get(1).getId()));
+        assertEquals(Optional.of(second.getId()), store.findSessionIdForTicket(early.get(0).getId()));
+        assertFalse(store.findSessionIdForTicket(sold.get(0).getId()).isPresent());
+        return cinema;
+    }
+    
+    private static void assertSameCinema(Cinema expected, Cinema actual) {
+        assertNotNull(actual);
+        assertEquals(expected, actual);
+        List<Session> expectedSessions = expected.getSessions();
+        List<Session> actualSessions = actual.getSessions();
+        assertEquals(expectedSessions.size(), actualSessions.size());
+        for (int i = 0; i < expectedSessions.size(); i++) {
+            Session want = expectedSessions.get(i);
+            Session got = actualSessions.get(i);
+            assertEquals(want.getId(), got.getId());
+            assertEquals(want.getMovieTitle(), got.getMovieTitle());
+            assertEquals(want.getDateTime(), got.getDateTime());
+            assertEquals(want.getTotalSeats(), got.getTotalSeats());
+            assertEquals(want.getAvailableSeats(), got.getAvailableSeats());
+            assertEquals(want.getTicketPrice(), got.getTicketPrice());
+            assertEquals(ids(want.getTickets()), ids(got.getTickets()));
+        }
+    }
+    
+    private static List<String> ids(List<Ticket> tickets) {
+        return tickets.stream().map(Ticket::getId).sorted().collect(Collectors.toList());
+    }
+}
@@ -2,15 +2,18 @@ package com.example.service;
 
 import com.example.model.Cinema;
 import com.example.model.Session;
+import com.example.model.Ticket;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -234,4 +237,215 @@ public class ExportImportServiceTest {
         assertEquals("Movie with \"quotes\" and symbols !@#$%^&*()", 
                     importedCinema.getSessions().get(0).getMovieTitle());
     }
+    
+    @Test
+    void testImportSharesRepeatedStrings() throws IOException {
+        Cinema cinema = new Cinema("Shared Cinema", "123 Shared St", 2);
+        Session session1 = new Session("Same Movie", LocalDateTime.now().plusDays(1), 100, 120.0);
+        Session session2 = new Session("Same Movie", LocalDateTime.now().plusDays(2), 100, 120.0);
+        session1.buyTickets(3);
+        cinema.addSession(session1);
+        cinema.addSession(session2);
+        
+        Path filePath = tempDir.resolve("shared-strings.json");
+        exportImportService.exportData(cinema, filePath.toString(), ExportImportService.NO_SORT);
+        
+        Cinema importedCinema = exportImportService.importData(filePath.toString());
+        List<Session> importedSessions = importedCinema.getSessions();
+        
+        assertSame(importedSessions.get(0).getMovieTitle(), importedSessions.get(1).getMovieTitle());
+        
+        Session withTickets = importedSessions.stream()
+                .filter(s -> !s.getTickets().isEmpty())
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Imported tickets were lost"));
+        assertEquals(3, withTickets.getTickets().size());
+        for (Ticket ticket : withTickets.getTickets()) {
+            assertSame(withTickets, ticket.getSession());
+            assertSame(withTickets.getId(), ticket.getSessionId());
+        }
+    }
+    
+    @Test
+    void testLazyImportLoadsTicketsOnFirstAccess() throws IOException {
+        Cinema cinema = new Cinema("Lazy Cinema", "123 Lazy St", 2);
+        Session session = new Session("Lazy Movie", LocalDateTime.now().plusDays(1), 100, 120.0);
+        List<Ticket> bought = session.buyTickets(4);
+        session.addTicket(new Ticket(session, 99.5, LocalDateTime.now()));
+        cinema.addSession(session);
+        
+        Path filePath = tempDir.resolve("lazy.json");
+        exportImportService.exportData(cinema, filePath.toString(), ExportImportService.NO_SORT);
+        
+        Cinema importedCinema = exportImportService.importData(filePath.toString(), true);
+        Session importedSession = importedCinema.getSessions().get(0);
+        
+        assertEquals("Lazy Cinema", importedCinema.getName());
+        assertEquals(95, importedSession.getAvailableSeats());
+        assertFalse(importedSession.isTicketsLoaded());
+        assertEquals(4 * 120.0 + 99.5, importedCinema.calculateTotalRevenue(), 0.001);
+        
+        List<Ticket> tickets = importedSession.getTickets();
+        
+        assertTrue(importedSession.isTicketsLoaded());
+        assertEquals(5, tickets.size());
+        assertEquals(4 * 120.0 + 99.5, importedSession.getRevenue(), 0.001);
+        assertEquals(bought.get(0).getId(), tickets.get(0).getId());
+        assertSame(importedSession, tickets.get(0).getSession());
+    }
+    
+    @Test
+    void testLazyImportKeepsTicketsBoughtBeforeLoad() throws IOException {
+        Cinema cinema = new Cinema("Lazy Cinema", "123 Lazy St", 2);
+        Session session = new Session("Lazy Movie", LocalDateTime.now().plusDays(1), 100, 120.0);
+        session.buyTickets(2);
+        cinema.addSession(session);
+        
+        Path filePath = tempDir.resolve("lazy-buy.json");
+        exportImportService.exportData(cinema, filePath.toString(), ExportImportService.NO_SORT);
+        
+        Session importedSession = exportImportService.importData(filePath.toString(), true).getSessions().get(0);
+        Ticket fresh = importedSession.buyTicket();
+        
+        assertFalse(importedSession.isTicketsLoaded());
+        List<Ticket> tickets = importedSession.getTickets();
+        assertEquals(3, tickets.size());
+        assertEquals(fresh, tickets.get(2));
+    }
+    
+    @Test
+    void testReexportLazyImportToSameFile() throws IOException {
+        Cinema cinema = new Cinema("Lazy Cinema", "123 Lazy St", 2);
+        Session session = new Session("Lazy Movie", LocalDateTime.now().plusDays(1), 100, 120.0);
+        session.buyTickets(5);
+        cinema.addSession(session);
+        
+        Path filePath = tempDir.resolve("lazy-same.json");
+        exportImportService.exportData(cinema, filePath.toString(), ExportImportService.NO_SORT);
+        
+        Cinema lazyCinema = exportImportService.importData(filePath.toString(), true);
+        exportImportService.exportData(lazyCinema, filePath.toString(), ExportImportService.NO_SORT);
+        
+        Cinema reimported = exportImportService.importData(filePath.toString());
+        assertEquals(5, reimported.getSessions().get(0).getTickets().size());
+    }
+    
+    @Test
+    void testSnapshotExportOverLazySourceKeepsLiveTicketsReadable() throws IOException {
+        Cinema cinema = new Cinema("Lazy Cinema", "123 Lazy St", 2);
+        Session session = new Session("Lazy Movie", LocalDateTime.now().plusDays(1), 100, 120.0);
+        session.buyTickets(5);
+        cinema.addSession(session);
+        
+        Path filePath = tempDir.resolve("lazy-snapshot.json");
+        exportImportService.exportData(cinema, filePath.toString(), ExportImportService.NO_SORT);
+        
+        Cinema lazyCinema = exportImportService.importData(filePath.toString(), true);
+        Session live = lazyCinema.getSessions().get(0);
+        live.buyTicket();
+        exportImportService.exportData(lazyCinema.snapshot(), filePath.toString(), ExportImportService.NO_SORT);
+        
+        assertEquals(6, live.getTickets().size());
+        assertEquals(6, exportImportService.importData(filePath.toString()).getSessions().get(0).getTickets().size());
+    }
+    
+    @Test
+    void testShardedExportAndImport() throws IOException {
+        Cinema cinema = new Cinema("Sharded Cinema", "123 Shard St", 4);
+        for (int i = 0; i < 10; i++) {
+            Session session = new Session("Movie " + i, LocalDateTime.now().plusDays(i + 1), 100, 100.0 + i);
+            session.buyTickets(i + 1);
+            cinema.addSession(session);
+        }
+        
+        Path shardDir = tempDir.resolve("sharded");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            exportImportService.exportSharded(cinema, shardDir.toString(), 3, pool);
+            
+            assertTrue(Files.exists(shardDir.resolve(ExportImportService.MANIFEST_FILE)));
+            try (java.util.stream.Stream<Path> files = Files.list(shardDir)) {
+                assertEquals(5, files.count());
+            }
+            
+            Cinema imported = exportImportService.importSharded(shardDir.toString(), pool);
+            
+            assertEquals("Sharded Cinema", imported.getName());
+            assertEquals(4, imported.getHallCount());
+            List<Session> sessions = imported.getSessions();
+            assertEquals(10, sessions.size());
+            for (int i = 0; i < sessions.size(); i++) {
+                Session session = sessions.get(i);
+                assertEquals("Movie " + i, session.getMovieTitle());
+                assertEquals(i + 1, session.getTickets().size());
+                assertSame(session, session.getTickets().get(0).getSession());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    void testShardedExportRemovesStaleShards() throws IOException {
+        Cinema cinema = new Cinema("Sharded Cinema", "123 Shard St", 4);
+        for (int i = 0; i < 4; i++) {
+            cinema.addSession(new Session("Movie " + i, LocalDateTime.now().plusDays(1), 100, 100.0));
+        }
+        
+        Path shardDir = tempDir.resolve("stale");
+        exportImportService.exportSharded(cinema, shardDir.toString(), 1);
+        exportImportService.exportSharded(cinema, shardDir.toString(), 4);
+        
+        try (java.util.stream.Stream<Path> files = Files.list(shardDir)) {
+            assertEquals(2, files.count());
+        }
+        assertEquals(4, exportImportService.importSharded(shardDir.toString()).getSessions().size());
+    }
+    
+    @Test
+    void testFailedShardedExportKeepsPreviousExportReadable() throws IOException {
+        Cinema cinema = new Cinema("Sharded Cinema", "123 Shard St", 4);
+        for (int i = 0; i < 3; i++) {
+            cinema.addSession(new Session("Movie " + i, LocalDateTime.now().plusDays(1), 100, 100.0));
+        }
+        Path shardDir = tempDir.resolve("failed");
+        exportImportService.exportSharded(cinema, shardDir.toString(), 1);
+        
+        for (Session session : cinema.getSessions()) {
+            session.setMovieTitle("Renamed");
+        }
+        cinema.getSessions().get(2).setTicketLoader(() -> {
+            throw new IllegalStateException("Disk gone");
+        }, 0);
+        assertThrows(IllegalStateException.class, () -> exportImportService.exportSharded(cinema, shardDir.toString(), 1));
+        
+        List<Session> sessions = exportImportService.importSharded(shardDir.toString()).getSessions();
+        assertEquals(3, sessions.size());
+        for (int i = 0; i < sessions.size(); i++) {
+            assertEquals("Movie " + i, sessions.get(i).getMovieTitle());
+        }
+        
+        cinema.getSessions().get(2).setTicketLoader(ArrayList::new, 0);
+        exportImportService.exportSharded(cinema, shardDir.toString(), 1);
+        try (java.util.stream.Stream<Path> files = Files.list(shardDir)) {
+            assertEquals(4, files.count());
+        }
+        assertEquals("Renamed", exportImportService.importSharded(shardDir.toString()).getSessions().get(0).getMovieTitle());
+    }
+    
+    @Test
+    void testImportShardedMissingManifest() {
+        assertThrows(IOException.class, () -> exportImportService.importSharded(tempDir.resolve("missing").toString()));
+    }
+    
+    @Test
+    void testImportShardedMissingShard() throws IOException {
+        Cinema cinema = new Cinema("Sharded Cinema", "123 Shard St", 4);
+        cinema.addSession(new Session("Movie", LocalDateTime.now().plusDays(1), 100, 100.0));
+        Path shardDir = tempDir.resolve("broken");
+        exportImportService.exportSharded(cinema, shardDir.toString(), 1);
+        Files.delete(shardDir.resolve("sessions-000001-00000.json"));
+        
+        assertThrows(IOException.class, () -> exportImportService.importSharded(shardDir.toString()));
+    }
 }
@@ -0,0 +1,179 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlashSaleAllocatorTest {
+    private CinemaService cinemaService;
+    private Session session;
+    
+    @BeforeEach
+    void setUp() {
+        Cinema cinema = new Cinema("Flash Cinema", "1 Rush St", 1);
+        session = new Session("Premiere", LocalDateTime.now().plusDays(1), 100, 100.0);
+        cinema.addSession(session);
+        cinemaService = new CinemaService(cinema);
+    }
+    
+    @Test
+    void testConcurrentBuyersNeverOversell() throws Exception {
+        AtomicInteger soldEvents = new AtomicInteger();
+        cinemaService.addChangeListener(new CinemaChangeListener() {
+            @Override
+            public void ticketsSold(Session session, List<Ticket> tickets) {
+                soldEvents.incrementAndGet();
+            }
+        });
+        
+        List<CompletableFuture<List<Ticket>>> results = new ArrayList<>();
+        try (FlashSaleAllocator allocator = new FlashSaleAllocator(cinemaService, session, 1_000, 64)) {
+            List<Thread> buyers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                Thread buyer = new Thread(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        CompletableFuture<List<Ticket>> result = allocator.submit(1);
+                        synchronized (results) {
+                            results.add(result);
+                        }
+                    }
+                });
+                buyers.add(buyer);
+                buyer.start();
+            }
+            for (Thread buyer : buyers) {
+                buyer.join();
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                    .exceptionally(e -> null)
+                    .get(5, TimeUnit.SECONDS);
+            
+            assertEquals(100, allocator.getAllocatedTickets());
+            assertTrue(allocator.getBatches() >= soldEvents.get());
+        }
+        
+        Set<String> ticketIds = new HashSet<>();
+        int failed = 0;
+        for (CompletableFuture<List<Ticket>> result : results) {
+            if (result.isCompletedExceptionally()) {
+                failed++;
+            } else {
+                for (Ticket ticket : result.get()) {
+                    assertTrue(ticketIds.add(ticket.getId()));
+                }
+            }
+        }
+        
+        assertEquals(100, ticketIds.size());
+        assertEquals(100, failed);
+        assertEquals(0, session.getAvailableSeats());
+        assertTrue(soldEvents.get() < 100, "inventory should be decremented per batch");
+    }
+    
+    @Test
+    void testRequestThatDoesNotFitFailsWithoutBlockingOthers() throws Exception {
+        cinemaService.buyTickets(session, 97);
+        
+        try (FlashSaleAllocator allocator = new FlashSaleAllocator(cinemaService, session)) {
+            CompletableFuture<List<Ticket>> tooLarge = allocator.submit(5);
+            CompletableFuture<List<Ticket>> fits = allocator.submit(3);
+            
+            assertEquals(3, fits.get(5, TimeUnit.SECONDS).size());
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> tooLarge.get(5, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof IllegalArgumentException);
+        }
+    }
+    
+    @Test
+    void testListenerFailureFailsBatchAndAllocatorKeepsServing() throws Exception {
+        AtomicInteger failures = new AtomicInteger(1);
+        cinemaService.addChangeListener(new CinemaChangeListener() {
+            @Override
+            public void ticketsSold(Session session, List<Ticket> tickets) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new StorageException("Store unavailable", null);
+                }
+            }
+        });
+        
+        try (FlashSaleAllocator allocator = new FlashSaleAllocator(cinemaService, session)) {
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                                                      () -> allocator.submit(2).get(5, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof StorageException);
+            
+            assertEquals(3, allocator.submit(3).get(5, TimeUnit.SECONDS).size());
+        }
+    }
+    
+    @Test
+    void testRequestsSubmittedDuringCloseAllComplete() throws Exception {
+        Session large = new Session("Encore", LocalDateTime.now().plusDays(1), 1_000_000, 100.0);
+        cinemaService.addSession(large);
+        FlashSaleAllocator allocator = new FlashSaleAllocator(cinemaService, large);
+        List<CompletableFuture<List<Ticket>>> futures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> buyers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread buyer = new Thread(() -> {
+                for (int j = 0; j < 20_000; j++) {
+                    futures.add(allocator.submit(1));
+                }
+            });
+            buyer.start();
+            buyers.add(buyer);
+        }
+        
+        Thread.sleep(5);
+        allocator.close();
+        for (Thread buyer : buyers) {
+            buyer.join();
+        }
+        
+        for (CompletableFuture<List<Ticket>> future : futures) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+        assertTrue(allocator.submit(1).isCompletedExceptionally());
+    }
+    
+    @Test
+    void testFullQueueAndInvalidRequestsAreRejected() {
+        try (FlashSaleAllocator allocator = new FlashSaleAllocator(cinemaService, session, 1, 1)) {
+            assertTrue(allocator.submit(0).isCompletedExceptionally());
+            
+            int rejected = 0;
+            // Accepted requests can also fail once the hall sells out, so only queue-full
+            // rejections are counted.
+            for (int i = 0; i < 1_000; i++) {
+                try {
+                    allocator.submit(1).getNow(null);
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof IllegalStateException) {
+                        rejected++;
+                    }
+                }
+            }
+            assertEquals(rejected, allocator.getRejectedRequests());
+        }
+        
+        assertThrows(IllegalArgumentException.class, () -> new FlashSaleAllocator(cinemaService, session, 0, 1));
+    }
+}
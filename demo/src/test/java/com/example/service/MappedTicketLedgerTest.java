@@ -0,0 +1,183 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedTicketLedgerTest {
+    private Cinema cinema;
+    private Session session1;
+    private Session session2;
+    private CinemaService cinemaService;
+    
+    @TempDir
+    Path tempDir;
+    
+    @BeforeEach
+    void setUp() {
+        cinema = new Cinema("Ledger Cinema", "123 Ledger St", 2);
+        session1 = new Session("Movie 1", LocalDateTime.now().plusDays(1), 100, 120.0);
+        session2 = new Session("Movie 2", LocalDateTime.now().plusDays(2), 50, 150.0);
+        cinema.addSession(session1);
+        cinema.addSession(session2);
+        cinemaService = new CinemaService(cinema);
+    }
+    
+    @Test
+    void testPurchasesAreRecorded() throws IOException {
+        try (MappedTicketLedger ledger = MappedTicketLedger.open(tempDir)) {
+            cinemaService.setTicketLedger(ledger);
+            
+            cinemaService.buyTickets(session1, 3);
+            cinemaService.buyTickets(session2, 2);
+            
+            assertEquals(5, ledger.getTicketCount());
+            assertEquals(3, ledger.getTicketCount(session1.getId()));
+            assertEquals(2, ledger.getTicketCount(session2.getId()));
+        }
+    }
+    
+    @Test
+    void testReopenRestoresTickets() throws IOException {
+        List<Ticket> bought;
+        try (MappedTicketLedger ledger = MappedTicketLedger.open(tempDir)) {
+            cinemaService.setTicketLedger(ledger);
+            bought = cinemaService.buyTickets(session1, 4);
+        }
+        
+        Session restored = new Session("Movie 1", session1.getDateTime(), 100, 120.0);
+        restored.setId(session1.getId());
+        Cinema restoredCinema = new Cinema("Ledger Cinema", "123 Ledger St", 2);
+        restoredCinema.addSession(restored);
+        
+        try (MappedTicketLedger ledger = MappedTicketLedger.open(tempDir)) {
+            assertEquals(4, ledger.getTicketCount());
+            
+            new CinemaService(restoredCinema).setTicketLedger(ledger);
+            assertFalse(restored.isTicketsLoaded());
+            
+            List<Ticket> tickets = restored.getTickets();
+            assertEquals(4, tickets.size());
+            for (int i = 0; i < tickets.size(); i++) {
+                assertEquals(bought.get(i).getId(), tickets.get(i).getId());
+                assertEquals(120.0, tickets.get(i).getPrice(), 0.001);
+                assertSame(restored, tickets.get(i).getSession());
+            }
+        }
+    }
+    
+    @Test
+    void testLedgerOnlyLoadsSessionsWithoutTickets() throws IOException {
+        try (MappedTicketLedger ledger = MappedTicketLedger.open(tempDir)) {
+            cinemaService.setTicketLedger(ledger);
+            cinemaService.buyTickets(session1, 3);
+            cinemaService.buyTickets(session2, 2);
+            
+            Session eager = session1.copy();
+            Session empty = new Session("Movie 2", session2.getDateTime(), 50, 150.0);
+            empty.setId(session2.getId());
+            Cinema imported = new Cinema("Ledger Cinema", "123 Ledger St", 2);
+            imported.addSession(eager);
+            imported.addSession(empty);
+            cinemaService.setCinema(imported);
+            
+            assertTrue(eager.isTicketsLoaded());
+            assertEquals(3, eager.getTickets().size());
+            assertFalse(empty.isTicketsLoaded());
+            assertEquals(2, empty.getTickets().size());
+            assertEquals(300.0, empty.getRevenue(), 0.001);
+            
+            cinemaService.setTicketLedger(ledger);
+            assertEquals(3, eager.getTickets().size());
+            assertEquals(2, empty.getTickets().size());
+        }
+    }
+    
+    @Test
+    void testReopenRepairsSessionRecordLeftBehindByCrash() throws IOException {
+        try (MappedTicketLedger ledger = MappedTicketLedger.open(tempDir)) {
+            cinemaService.setTicketLedger(ledger);
+            cinemaService.buyTickets(session1, 3);
+        }
+        
+        // As if the process died after committing the third ticket but before its session
+        // record pointed at it: chain head at the second record, live count still two.
+        try (RandomAccessFile file = new RandomAccessFile(tempDir.resolve(MappedTicketLedger.SESSIONS_FILE).toFile(), "rw")) {
+            file.seek(16);
+            file.writeInt(1);
+            file.writeInt(2);
+        }
+        
+        try (MappedTicketLedger ledger = MappedTicketLedger.open(tempDir)) {
+            assertEquals(3, ledger.getTicketCount());
+            assertEquals(3, ledger.getTicketCount(session1.getId()));
+            assertEquals(3, ledger.loadTickets(session1).size());
+        }
+    }
+    
+    @Test
+    void testDeleteTicketUsesLedger() throws IOException {
+        try (MappedTicketLedger ledger = MappedTicketLedger.open(tempDir)) {
+            cinemaService.setTicketLedger(ledger);
+            Ticket ticket = cinemaService.buyTickets(session2, 2).get(0);
+            
+            assertEquals(session2.getId(), ledger.findSessionId(ticket.getId()).orElse(null));
+            assertTrue(cinemaService.deleteTicket(ticket.getId()));
+            
+            assertEquals(1, ledger.getTicketCount());
+            assertFalse(ledger.findSessionId(ticket.getId()).isPresent());
+            assertEquals(49, session2.getAvailableSeats());
+        }
+    }
+    
+    @Test
+    void testMoveTicketUpdatesLedger() throws IOException {
+        try (MappedTicketLedger ledger = MappedTicketLedger.open(tempDir)) {
+            cinemaService.setTicketLedger(ledger);
+            Ticket ticket = cinemaService.buyTickets(session1, 1).get(0);
+            
+            assertTrue(cinemaService.updateTicketSession(ticket.getId(), session2.getId()));
+            
+            assertEquals(1, ledger.getTicketCount());
+            assertEquals(0, ledger.getTicketCount(session1.getId()));
+            assertEquals(session2.getId(), ledger.findSessionId(ticket.getId()).orElse(null));
+        }
+    }
+    
+    @Test
+    void testLedgerGrowsBeyondInitialCapacity() throws IOException {
+        Session large = new Session("Large Movie", LocalDateTime.now().plusDays(1), 5000, 100.0);
+        cinemaService.addSession(large);
+        
+        try (MappedTicketLedger ledger = MappedTicketLedger.open(tempDir, 16)) {
+            cinemaService.setTicketLedger(ledger);
+            cinemaService.buyTickets(large, 1000);
+            
+            assertEquals(1000, ledger.getTicketCount());
+            assertEquals(1000, ledger.loadTickets(large).size());
+        }
+    }
+    
+    @Test
+    void testNonUuidTicketIdsAreUnknown() throws IOException {
+        try (MappedTicketLedger ledger = MappedTicketLedger.open(tempDir)) {
+            assertFalse(ledger.remove("not-a-uuid"));
+            assertFalse(ledger.findSessionId("not-a-uuid").isPresent());
+            
+            Ticket ticket = new Ticket(session1, 120.0);
+            ticket.setId("not-a-uuid");
+            assertThrows(IllegalArgumentException.class, () -> ledger.append(session1, ticket));
+        }
+    }
+}
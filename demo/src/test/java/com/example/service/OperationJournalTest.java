@@ -0,0 +1,66 @@
+package com.example.service;
+
+import com.example.model.Session;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OperationJournalTest {
+    private final ExportImportService exportImportService = new ExportImportService();
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testTornOnlySegmentIsNotAppendedTo() throws IOException {
+        Files.write(tempDir.resolve("journal-00000000000000000001.log"),
+                    "{\"seq\":1,\"op\":\"SESS".getBytes(StandardCharsets.UTF_8));
+        
+        Session first = new Session("First", LocalDateTime.now().plusDays(1), 10, 100.0);
+        Session second = new Session("Second", LocalDateTime.now().plusDays(2), 10, 100.0);
+        try (OperationJournal journal = new OperationJournal(tempDir, exportImportService)) {
+            assertEquals(0, journal.getLastSequence());
+            journal.sessionAdded(first);
+            journal.sessionAdded(second);
+        }
+        
+        List<JsonNode> entries = new ArrayList<>();
+        try (OperationJournal journal = new OperationJournal(tempDir, exportImportService)) {
+            assertEquals(2, journal.getLastSequence());
+            assertEquals(2, journal.replay(0, entries::add));
+        }
+        assertEquals(first.getId(), entries.get(0).get("session").get("id").asText());
+        assertEquals(second.getId(), entries.get(1).get("session").get("id").asText());
+    }
+    
+    @Test
+    void testTornTailOfFullSegmentKeepsEarlierEntries() throws IOException {
+        Session session = new Session("Movie", LocalDateTime.now().plusDays(1), 10, 100.0);
+        try (OperationJournal journal = new OperationJournal(tempDir, exportImportService)) {
+            journal.sessionAdded(session);
+        }
+        Files.write(tempDir.resolve("journal-00000000000000000001.log"),
+                    "{\"seq\":2,\"op\":\"SESS".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        
+        try (OperationJournal journal = new OperationJournal(tempDir, exportImportService)) {
+            assertEquals(1, journal.getLastSequence());
+            journal.sessionRemoved(session);
+        }
+        try (OperationJournal journal = new OperationJournal(tempDir, exportImportService)) {
+            List<JsonNode> entries = new ArrayList<>();
+            assertEquals(2, journal.replay(0, entries::add));
+            assertEquals(OperationJournal.SESSION_REMOVED, entries.get(1).get("op").asText());
+        }
+    }
+}
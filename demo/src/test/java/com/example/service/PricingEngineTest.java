@@ -0,0 +1,112 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.PriceCurve;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PricingEngineTest {
+    private static final LocalDateTime WEEKDAY_EVENING = nextWeekday().withHour(19).withMinute(0).withSecond(0).withNano(0);
+    
+    private PricingRules flatRules;
+    private PricingEngine engine;
+    
+    private static LocalDateTime nextWeekday() {
+        LocalDateTime day = LocalDateTime.now().plusDays(10);
+        while (day.getDayOfWeek().getValue() > 5) {
+            day = day.plusDays(1);
+        }
+        return day;
+    }
+    
+    @BeforeEach
+    void setUp() {
+        double[] hours = new double[24];
+        Arrays.fill(hours, 1.0);
+        hours[19] = 1.5;
+        flatRules = new PricingRules(new long[] {24 * 60}, new double[] {2.0, 1.0},
+                                     new double[] {1.0, 1.2}, hours, 1.1, 0.01);
+        engine = new PricingEngine(flatRules);
+    }
+    
+    @Test
+    void testCurveTabulatesAllRules() {
+        Session session = new Session("Movie", WEEKDAY_EVENING, 10, 100.0);
+        
+        PriceCurve curve = engine.buildCurve(session);
+        
+        assertEquals(2, curve.getBucketCount());
+        assertEquals(2, curve.getBandCount());
+        LocalDateTime early = WEEKDAY_EVENING.minusDays(3);
+        LocalDateTime lastMinute = WEEKDAY_EVENING.minusHours(1);
+        assertEquals(150.0, curve.priceAt(0, 10, early));
+        assertEquals(180.0, curve.priceAt(5, 10, early));
+        assertEquals(300.0, curve.priceAt(0, 10, lastMinute));
+        assertEquals(360.0, curve.priceAt(9, 10, lastMinute));
+    }
+    
+    @Test
+    void testWeekendMultiplierApplies() {
+        LocalDateTime saturday = WEEKDAY_EVENING;
+        while (saturday.getDayOfWeek().getValue() != 6) {
+            saturday = saturday.plusDays(1);
+        }
+        
+        assertEquals(165.0, flatRules.price(100.0, saturday, 1, 0));
+    }
+    
+    @Test
+    void testListenerKeepsCurvesCurrent() {
+        Cinema cinema = new Cinema("Pricing Cinema", "1 Price St", 1);
+        CinemaService cinemaService = new CinemaService(cinema);
+        cinemaService.addChangeListener(engine);
+        
+        Session session = new Session("Movie", WEEKDAY_EVENING, 10, 100.0);
+        cinemaService.addSession(session);
+        List<Ticket> tickets = cinemaService.buyTickets(session, 6);
+        assertEquals(150.0, tickets.get(0).getPrice());
+        assertEquals(180.0, tickets.get(5).getPrice());
+        
+        cinemaService.updateSession(session.getId(), "Movie", WEEKDAY_EVENING.plusHours(1), 10, 200.0);
+        assertTrue(session.getPriceCurve().appliesTo(200.0, WEEKDAY_EVENING.plusHours(1)));
+        assertEquals(240.0, session.getCurrentPrice());
+    }
+    
+    @Test
+    void testRepriceUpcomingSkipsExpiredSessions() {
+        Cinema cinema = new Cinema("Pricing Cinema", "1 Price St", 1);
+        Session upcoming = new Session("Upcoming", WEEKDAY_EVENING, 10, 100.0);
+        Session expired = new Session("Expired", LocalDateTime.now().minusDays(1), 10, 100.0);
+        cinema.addSession(upcoming);
+        cinema.addSession(expired);
+        CinemaService cinemaService = new CinemaService(cinema);
+        
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertEquals(1, engine.repriceUpcoming(cinemaService, pool));
+        } finally {
+            pool.shutdown();
+        }
+        
+        assertNotNull(upcoming.getPriceCurve());
+        assertNull(expired.getPriceCurve());
+    }
+    
+    @Test
+    void testInvalidRulesAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PricingRules(new long[] {60}, new double[] {1.0}, new double[] {1.0}, new double[24], 1.0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PricingRules(new long[0], new double[] {1.0}, new double[] {1.0}, new double[12], 1.0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PricingEngine(null));
+    }
+}
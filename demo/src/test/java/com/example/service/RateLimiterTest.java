@@ -0,0 +1,127 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    
+    private RateLimiter limiter(double rate, int burst, int maxKeys) {
+        return new RateLimiter(rate, burst, maxKeys, 10, TimeUnit.SECONDS, clock::get);
+    }
+    
+    @Test
+    void testBurstThenSteadyRefill() {
+        RateLimiter limiter = limiter(10, 3, 100);
+        
+        assertTrue(limiter.tryAcquire("bot"));
+        assertTrue(limiter.tryAcquire("bot"));
+        assertTrue(limiter.tryAcquire("bot"));
+        assertFalse(limiter.tryAcquire("bot"));
+        assertTrue(limiter.tryAcquire("human"));
+        
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(limiter.tryAcquire("bot"));
+        assertFalse(limiter.tryAcquire("bot"));
+        
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertTrue(limiter.tryAcquire("bot", 3));
+        assertFalse(limiter.tryAcquire("bot"));
+        
+        assertEquals(6, limiter.getAllowed());
+        assertEquals(3, limiter.getRejected());
+    }
+    
+    @Test
+    void testKeyTableIsBoundedAndEvictsIdleClients() {
+        RateLimiter limiter = limiter(1, 1, 2);
+        
+        assertTrue(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("b"));
+        assertFalse(limiter.tryAcquire("c"));
+        assertEquals(1, limiter.getRejectedForCapacity());
+        assertEquals(2, limiter.getTrackedKeys());
+        
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertTrue(limiter.tryAcquire("c"));
+        assertEquals(2, limiter.getEvicted());
+        assertEquals(1, limiter.getTrackedKeys());
+    }
+    
+    @Test
+    void testConcurrentAcquiresNeverExceedBurst() throws Exception {
+        RateLimiter limiter = limiter(1, 500, 10);
+        AtomicLong granted = new AtomicLong();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    if (limiter.tryAcquire("shared")) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(500, granted.get());
+    }
+    
+    @Test
+    void testDecoratorRejectsWithSharedException() {
+        Cinema cinema = new Cinema("Limited Cinema", "1 Gate St", 1);
+        Session session = new Session("Premiere", LocalDateTime.now().plusDays(1), 100, 100.0);
+        cinema.addSession(session);
+        RateLimitedCinemaService service = new RateLimitedCinemaService(
+                new CinemaService(cinema), limiter(1, 2, 10), limiter(1, 3, 10));
+        
+        assertEquals(1, service.buyTickets("alice", session, 1).size());
+        assertTrue(service.findSessionById("alice", session.getId()).isPresent());
+        RateLimitExceededException first = assertThrows(RateLimitExceededException.class,
+                () -> service.buyTickets("alice", session, 1));
+        assertSame(RateLimitExceededException.CLIENT_LIMIT, first);
+        
+        service.buyTickets("bob", session, 1);
+        service.buyTickets("carol", session, 1);
+        assertSame(RateLimitExceededException.SESSION_LIMIT,
+                assertThrows(RateLimitExceededException.class, () -> service.buyTickets("dave", session, 1)));
+        assertEquals(97, session.getAvailableSeats());
+    }
+    
+    @Test
+    void testSessionLimitedPurchaseKeepsClientBudget() {
+        Cinema cinema = new Cinema("Limited Cinema", "1 Gate St", 1);
+        Session session = new Session("Premiere", LocalDateTime.now().plusDays(1), 100, 100.0);
+        cinema.addSession(session);
+        RateLimiter clientLimiter = limiter(1, 2, 10);
+        RateLimitedCinemaService service = new RateLimitedCinemaService(
+                new CinemaService(cinema), clientLimiter, limiter(1, 1, 10));
+        
+        service.buyTickets("bob", session, 1);
+        for (int i = 0; i < 3; i++) {
+            assertSame(RateLimitExceededException.SESSION_LIMIT,
+                    assertThrows(RateLimitExceededException.class, () -> service.buyTickets("alice", session, 1)));
+        }
+        
+        assertEquals(1, clientLimiter.getAllowed());
+        assertTrue(clientLimiter.tryAcquire("alice"));
+        assertTrue(clientLimiter.tryAcquire("alice"));
+        assertFalse(clientLimiter.tryAcquire("alice"));
+    }
+    
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> limiter(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> limiter(1, 1, 1).tryAcquire(null));
+    }
+}
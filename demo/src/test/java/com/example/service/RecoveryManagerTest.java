@@ -0,0 +1,170 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecoveryManagerTest {
+    private final ExportImportService exportImportService = new ExportImportService();
+    
+    @TempDir
+    Path tempDir;
+    
+    private CinemaService startService() throws IOException {
+        CinemaService cinemaService = new CinemaService();
+        RecoveryManager recoveryManager = new RecoveryManager(cinemaService, exportImportService, tempDir);
+        assertFalse(recoveryManager.recover().isRecovered());
+        cinemaService.setCinema(new Cinema("Journal Cinema", "123 Journal St", 2));
+        return cinemaService;
+    }
+    
+    private CinemaService restart(RecoveryManager[] holder) throws IOException {
+        CinemaService cinemaService = new CinemaService();
+        holder[0] = new RecoveryManager(cinemaService, exportImportService, tempDir);
+        assertTrue(holder[0].recover().isRecovered());
+        return cinemaService;
+    }
+    
+    @Test
+    void testRecoverFromJournalOnly() throws IOException {
+        CinemaService cinemaService = startService();
+        Session session1 = new Session("Movie 1", LocalDateTime.now().plusDays(1), 100, 120.0);
+        Session session2 = new Session("Movie 2", LocalDateTime.now().plusDays(2), 50, 150.0);
+        cinemaService.addSession(session1);
+        cinemaService.addSession(session2);
+        List<Ticket> tickets = cinemaService.buyTickets(session1, 5);
+        cinemaService.deleteTicket(tickets.get(0).getId());
+        cinemaService.updateTicketSession(tickets.get(1).getId(), session2.getId());
+        cinemaService.updateSession(session2.getId(), "Movie 2 Remastered", null, 60, 0);
+        
+        RecoveryManager[] holder = new RecoveryManager[1];
+        CinemaService recovered = restart(holder);
+        
+        assertEquals("Journal Cinema", recovered.getCinema().getName());
+        Session recovered1 = recovered.findSessionById(session1.getId()).orElseThrow(AssertionError::new);
+        Session recovered2 = recovered.findSessionById(session2.getId()).orElseThrow(AssertionError::new);
+        assertEquals(97, recovered1.getAvailableSeats());
+        assertEquals(3, recovered1.getTickets().size());
+        assertEquals("Movie 2 Remastered", recovered2.getMovieTitle());
+        assertEquals(60, recovered2.getTotalSeats());
+        assertEquals(59, recovered2.getAvailableSeats());
+        assertEquals(tickets.get(1).getId(), recovered2.getTickets().get(0).getId());
+    }
+    
+    @Test
+    void testSnapshotTruncatesJournal() throws IOException {
+        CinemaService cinemaService = new CinemaService();
+        RecoveryManager recoveryManager = new RecoveryManager(cinemaService, exportImportService, tempDir);
+        recoveryManager.recover();
+        cinemaService.setCinema(new Cinema("Journal Cinema", "123 Journal St", 2));
+        Session session = new Session("Movie", LocalDateTime.now().plusDays(1), 100, 120.0);
+        cinemaService.addSession(session);
+        cinemaService.buyTickets(session, 10);
+        
+        long sequence = recoveryManager.snapshot();
+        cinemaService.buyTickets(session, 2);
+        recoveryManager.close();
+        
+        assertEquals(3, sequence);
+        
+        RecoveryManager[] holder = new RecoveryManager[1];
+        CinemaService recovered = restart(holder);
+        
+        assertEquals(sequence, holder[0].getLastSnapshotSequence());
+        assertEquals(88, recovered.getAllSessions().get(0).getAvailableSeats());
+        assertEquals(1, holder[0].getOperationsSinceSnapshot());
+        assertEquals(1, countFiles("snapshot-"));
+        holder[0].close();
+    }
+    
+    @Test
+    void testRecoveryResultReportsReplayedTail() throws IOException {
+        CinemaService cinemaService = new CinemaService();
+        RecoveryManager recoveryManager = new RecoveryManager(cinemaService, exportImportService, tempDir);
+        recoveryManager.recover();
+        cinemaService.setCinema(new Cinema("Journal Cinema", "123 Journal St", 2));
+        Session session = new Session("Movie", LocalDateTime.now().plusDays(1), 100, 120.0);
+        cinemaService.addSession(session);
+        recoveryManager.snapshot();
+        cinemaService.buyTickets(session, 1);
+        cinemaService.buyTickets(session, 1);
+        recoveryManager.close();
+        
+        CinemaService restarted = new CinemaService();
+        RecoveryManager restartedManager = new RecoveryManager(restarted, exportImportService, tempDir);
+        RecoveryResult result = restartedManager.recover();
+        
+        assertTrue(result.isRecovered());
+        assertEquals(2, result.getSnapshotSequence());
+        assertEquals(2, result.getReplayedOperations());
+        assertTrue(result.getDurationNanos() > 0);
+        assertEquals(98, restarted.getAllSessions().get(0).getAvailableSeats());
+        restartedManager.close();
+    }
+    
+    @Test
+    void testOperationThresholdTriggersSnapshot() throws Exception {
+        CinemaService cinemaService = new CinemaService();
+        RecoveryManager recoveryManager = new RecoveryManager(cinemaService, exportImportService, tempDir);
+        recoveryManager.recover();
+        recoveryManager.startPeriodicSnapshots(1, TimeUnit.HOURS, 5);
+        cinemaService.setCinema(new Cinema("Journal Cinema", "123 Journal St", 2));
+        Session session = new Session("Movie", LocalDateTime.now().plusDays(1), 100, 120.0);
+        cinemaService.addSession(session);
+        for (int i = 0; i < 3; i++) {
+            cinemaService.buyTickets(session, 1);
+        }
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (recoveryManager.getLastSnapshotSequence() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        recoveryManager.close();
+        
+        assertTrue(recoveryManager.getLastSnapshotSequence() >= 5);
+        assertEquals(1, countFiles("snapshot-"));
+    }
+    
+    @Test
+    void testTornJournalLineIsIgnored() throws IOException {
+        CinemaService cinemaService = startService();
+        Session session = new Session("Movie", LocalDateTime.now().plusDays(1), 100, 120.0);
+        cinemaService.addSession(session);
+        
+        Path segment;
+        try (Stream<Path> files = Files.list(tempDir)) {
+            segment = files.filter(p -> p.getFileName().toString().startsWith("journal-"))
+                    .sorted()
+                    .reduce((first, second) -> second)
+                    .orElseThrow(AssertionError::new);
+        }
+        Files.write(segment, "{\"seq\":99,\"op\":\"TICK".getBytes(), java.nio.file.StandardOpenOption.APPEND);
+        
+        RecoveryManager[] holder = new RecoveryManager[1];
+        CinemaService recovered = restart(holder);
+        
+        assertEquals(1, recovered.getAllSessions().size());
+    }
+    
+    private long countFiles(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(prefix))
+                    .filter(p -> p.getFileName().toString().endsWith(".json"))
+                    .collect(Collectors.toList())
+                    .size();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalesAnalyticsTest {
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+    
+    private CinemaService cinemaService;
+    private Session morning;
+    private Session evening;
+    private Session nextDay;
+    
+    @BeforeEach
+    void setUp() {
+        Cinema cinema = new Cinema("Analytics Cinema", "9 Report Rd", 2);
+        morning = new Session("Alpha", DAY.atTime(10, 0), 100, 50.0);
+        evening = new Session("Beta", DAY.atTime(20, 30), 200, 120.0);
+        nextDay = new Session("Alpha", DAY.plusDays(1).atTime(20, 0), 100, 80.0);
+        cinema.addSession(morning);
+        cinema.addSession(evening);
+        cinema.addSession(nextDay);
+        cinemaService = new CinemaService(cinema);
+        
+        cinemaService.buyTickets(morning, 40);
+        cinemaService.buyTickets(evening, 150);
+        cinemaService.buyTickets(nextDay, 90);
+    }
+    
+    @Test
+    void testGroupsByMovieDayAndHour() {
+        SalesReport report = new SalesAnalytics(cinemaService).analyze();
+        
+        assertEquals(280, report.getSoldTickets());
+        assertEquals(400, report.getTotalSeats());
+        assertEquals(40 * 50.0 + 150 * 120.0 + 90 * 80.0, report.getRevenue(), 0.001);
+        
+        List<SalesFigures<String>> movies = report.getByMovie();
+        assertEquals("Alpha", movies.get(0).getKey());
+        assertEquals(2, movies.get(0).getSessionCount());
+        assertEquals(130, movies.get(0).getSoldTickets());
+        assertEquals(0.65, movies.get(0).getOccupancy(), 0.0001);
+        assertEquals(150 * 120.0, movies.get(1).getRevenue(), 0.001);
+        
+        List<SalesFigures<LocalDate>> days = report.getByDay();
+        assertEquals(2, days.size());
+        assertEquals(DAY, days.get(0).getKey());
+        assertEquals(190, days.get(0).getSoldTickets());
+        
+        List<SalesFigures<Integer>> hours = report.getByHourOfDay();
+        assertEquals(List.of(10, 20), List.of(hours.get(0).getKey(), hours.get(1).getKey()));
+        assertEquals(240, hours.get(1).getSoldTickets());
+    }
+    
+    @Test
+    void testTopNRankings() {
+        SalesReport report = new SalesAnalytics(cinemaService).analyze();
+        
+        List<SessionStatistics> byOccupancy = report.topSessions(2, SalesMetric.OCCUPANCY);
+        assertEquals(2, byOccupancy.size());
+        assertEquals(nextDay.getId(), byOccupancy.get(0).getSessionId());
+        assertEquals(evening.getId(), byOccupancy.get(1).getSessionId());
+        
+        assertEquals("Beta", report.topMovies(1, SalesMetric.REVENUE).get(0).getKey());
+        assertEquals(2, report.topMovies(10, SalesMetric.TICKETS_SOLD).size());
+        assertEquals(20, report.topHoursOfDay(1, SalesMetric.TICKETS_SOLD).get(0).getKey());
+        assertThrows(IllegalArgumentException.class, () -> report.topSessions(0, SalesMetric.REVENUE));
+    }
+    
+    @Test
+    void testRevenueUsesPricesTicketsWereSoldAt() {
+        morning.setTicketPrice(500.0);
+        
+        SalesReport report = new SalesAnalytics(cinemaService).analyze();
+        
+        SessionStatistics statistics = report.topSessions(3, SalesMetric.REVENUE).stream()
+                .filter(session -> session.getSessionId().equals(morning.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(40 * 50.0, statistics.getRevenue(), 0.001);
+    }
+    
+    @Test
+    void testReportLeavesLazyTicketsUnloaded() {
+        Session imported = new Session("Gamma", DAY.atTime(15, 0), 100, 90.0);
+        imported.setAvailableSeats(70);
+        imported.setTicketLoader(() -> {
+            throw new AssertionError("Tickets should not be loaded for a report");
+        }, 30 * 75.0);
+        cinemaService.addSession(imported);
+        
+        SalesReport report = new SalesAnalytics(cinemaService).analyze();
+        
+        assertFalse(imported.isTicketsLoaded());
+        assertEquals(40 * 50.0 + 150 * 120.0 + 90 * 80.0 + 30 * 75.0, report.getRevenue(), 0.001);
+        assertEquals(310, report.getSoldTickets());
+    }
+    
+    @Test
+    void testLargeCinemaAggregatesInParallel() {
+        Cinema cinema = new Cinema("Large Cinema", "1 Scale St", 10);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withMinute(0).withSecond(0).withNano(0);
+        for (int i = 0; i < 2_000; i++) {
+            Session session = new Session("Movie " + (i % 50), start.plusHours(i), 200, 100.0 + i % 7);
+            cinema.addSession(session);
+            session.buyTickets(1 + i % 200);
+        }
+        CinemaService service = new CinemaService(cinema);
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SalesReport report = new SalesAnalytics(service, pool).analyze();
+            
+            assertEquals(2_000, report.getSessions().size());
+            assertEquals(50, report.getByMovie().size());
+            assertEquals(24, report.getByHourOfDay().size());
+            assertEquals(service.calculateTotalRevenue(), report.getRevenue(), 0.01);
+            
+            List<SessionStatistics> top = report.topSessions(5, SalesMetric.TICKETS_SOLD);
+            assertEquals(5, top.size());
+            assertEquals(200, top.get(0).getSoldTickets());
+            for (int i = 1; i < top.size(); i++) {
+                assertTrue(top.get(i - 1).getSoldTickets() >= top.get(i).getSoldTickets());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalesRateTrackerTest {
+    private final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toMillis(20_000));
+    private CinemaService cinemaService;
+    private SalesRateTracker tracker;
+    private Session first;
+    private Session second;
+    
+    @BeforeEach
+    void setUp() {
+        Cinema cinema = new Cinema("Live Cinema", "3 Rate St", 2);
+        first = new Session("Rush", LocalDateTime.now().plusDays(1), 500, 100.0);
+        second = new Session("Rush", LocalDateTime.now().plusDays(2), 500, 50.0);
+        cinema.addSession(first);
+        cinema.addSession(second);
+        cinemaService = new CinemaService(cinema);
+        tracker = new SalesRateTracker(clock::get);
+        cinemaService.addChangeListener(tracker);
+    }
+    
+    @Test
+    void testWindowsForgetOldSales() {
+        cinemaService.buyTickets(first, 10);
+        advance(TimeUnit.SECONDS, 30);
+        cinemaService.buyTickets(second, 4);
+        
+        SalesRate lastMinute = tracker.getCinemaRate(SalesWindow.LAST_MINUTE);
+        assertEquals(14, lastMinute.getTicketsSold());
+        assertEquals(1200.0, lastMinute.getRevenue(), 0.001);
+        assertEquals(14.0, lastMinute.getTicketsPerMinute(), 0.001);
+        
+        advance(TimeUnit.SECONDS, 45);
+        assertEquals(4, tracker.getCinemaRate(SalesWindow.LAST_MINUTE).getTicketsSold());
+        assertEquals(14, tracker.getCinemaRate(SalesWindow.LAST_15_MINUTES).getTicketsSold());
+        
+        advance(TimeUnit.MINUTES, 30);
+        assertEquals(0, tracker.getCinemaRate(SalesWindow.LAST_15_MINUTES).getTicketsSold());
+        assertEquals(14, tracker.getCinemaRate(SalesWindow.LAST_HOUR).getTicketsSold());
+        
+        advance(TimeUnit.HOURS, 2);
+        assertEquals(0, tracker.getCinemaRate(SalesWindow.LAST_HOUR).getTicketsSold());
+        assertEquals(1200.0, tracker.getCinemaRate(SalesWindow.LAST_24_HOURS).getRevenue(), 0.001);
+        
+        advance(TimeUnit.HOURS, 23);
+        assertEquals(0, tracker.getCinemaRate(SalesWindow.LAST_24_HOURS).getTicketsSold());
+    }
+    
+    @Test
+    void testSlotsAreReusedAfterAFullWindow() {
+        cinemaService.buyTickets(first, 3);
+        advance(TimeUnit.MINUTES, 1);
+        cinemaService.buyTickets(first, 2);
+        
+        assertEquals(2, tracker.getSessionRate(first.getId(), SalesWindow.LAST_MINUTE).getTicketsSold());
+        assertEquals(5, tracker.getSessionRate(first.getId(), SalesWindow.LAST_HOUR).getTicketsSold());
+    }
+    
+    @Test
+    void testRefundsAndMovesPerSession() {
+        List<Ticket> sold = cinemaService.buyTickets(first, 5);
+        cinemaService.deleteTicket(sold.get(0).getId());
+        cinemaService.updateTicketSession(sold.get(1).getId(), second.getId());
+        
+        SalesRate cinemaRate = tracker.getCinemaRate(SalesWindow.LAST_HOUR);
+        assertEquals(5, cinemaRate.getTicketsSold());
+        assertEquals(1, cinemaRate.getTicketsRefunded());
+        assertEquals(400.0, cinemaRate.getRevenue(), 0.001);
+        
+        SalesRate firstRate = tracker.getSessionRate(first.getId(), SalesWindow.LAST_HOUR);
+        assertEquals(5, firstRate.getTicketsSold());
+        assertEquals(2, firstRate.getTicketsRefunded());
+        assertEquals(300.0, firstRate.getRevenue(), 0.001);
+        
+        SalesRate secondRate = tracker.getSessionRate(second.getId(), SalesWindow.LAST_HOUR);
+        assertEquals(1, secondRate.getTicketsSold());
+        assertEquals(100.0, secondRate.getRevenue(), 0.001);
+        
+        cinemaService.removeSession(second);
+        assertEquals(0, tracker.getSessionRate(second.getId(), SalesWindow.LAST_HOUR).getTicketsSold());
+        assertThrows(IllegalArgumentException.class, () -> tracker.getCinemaRate(null));
+    }
+    
+    @Test
+    void testConcurrentPurchasesAreAllCounted() throws Exception {
+        SalesRateTracker liveTracker = new SalesRateTracker();
+        Session session = new Session("Rush", LocalDateTime.now().plusDays(1), 100, 10.0);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    liveTracker.ticketsSold(session, List.of(new Ticket(session, 10.0)));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(40_000, liveTracker.getCinemaRate(SalesWindow.LAST_HOUR).getTicketsSold());
+        assertEquals(400_000.0, liveTracker.getSessionRate(session.getId(), SalesWindow.LAST_24_HOURS).getRevenue(), 0.001);
+    }
+    
+    private void advance(TimeUnit unit, long amount) {
+        clock.addAndGet(unit.toMillis(amount));
+    }
+}
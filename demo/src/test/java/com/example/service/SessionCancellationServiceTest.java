@@ -0,0 +1,181 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionCancellationServiceTest {
+    private CinemaService cinemaService;
+    private Session cancelled;
+    private Session nearest;
+    private Session later;
+    private Session otherMovie;
+    private SessionCancellationService cancellationService;
+    
+    @BeforeEach
+    void setUp() {
+        LocalDateTime showTime = LocalDateTime.now().plusDays(2);
+        Cinema cinema = new Cinema("Cancellation Cinema", "5 Refund Ave", 3);
+        cancelled = new Session("Premiere", showTime, 500, 100.0);
+        nearest = new Session("Premiere", showTime.plusHours(3), 120, 100.0);
+        later = new Session("Premiere", showTime.plusDays(3), 500, 100.0);
+        otherMovie = new Session("Sequel", showTime.plusHours(1), 500, 100.0);
+        cinema.addSession(cancelled);
+        cinema.addSession(later);
+        cinema.addSession(nearest);
+        cinema.addSession(otherMovie);
+        cinemaService = new CinemaService(cinema);
+        cancellationService = new SessionCancellationService(cinemaService, 4, 50);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        cancellationService.close();
+    }
+    
+    @Test
+    void testTicketsAreRebookedIntoNearestSessionsThenRefunded() throws Exception {
+        List<Ticket> sold = cinemaService.buyTickets(cancelled, 400);
+        cinemaService.buyTickets(later, 200);
+        ConcurrentLinkedQueue<Integer> progress = new ConcurrentLinkedQueue<>();
+        
+        CancellationJob job = cancellationService.cancel(cancelled.getId(), RebookingDecider.nearestShowtime(),
+                                                         update -> progress.add(update.getProcessed()));
+        job.getCompletion().get(10, TimeUnit.SECONDS);
+        
+        assertFalse(cinemaService.findSessionById(cancelled.getId()).isPresent());
+        assertEquals(400, job.getTotalTickets());
+        assertEquals(400, job.getProcessed());
+        assertEquals(400, job.getRebooked());
+        assertEquals(0, job.getRefunded());
+        assertEquals(0, nearest.getAvailableSeats());
+        assertEquals(20, later.getAvailableSeats());
+        assertEquals(0, job.getFailed());
+        assertEquals(500, otherMovie.getAvailableSeats());
+        assertEquals(8, progress.size());
+        assertTrue(progress.contains(400));
+        
+        Ticket first = nearest.getTickets().get(0);
+        assertTrue(sold.stream().anyMatch(ticket -> ticket.getId().equals(first.getId())));
+        assertEquals(nearest, first.getSession());
+    }
+    
+    @Test
+    void testRefundAllReleasesEveryTicket() throws Exception {
+        cinemaService.buyTickets(cancelled, 120);
+        
+        CancellationJob job = cancellationService.cancel(cancelled.getId(), RebookingDecider.refundAll());
+        job.getCompletion().get(10, TimeUnit.SECONDS);
+        
+        assertEquals(120, job.getRefunded());
+        assertEquals(0, job.getRebooked());
+        assertEquals(12000.0, job.getRefundedAmount(), 0.001);
+        assertEquals(500, cancelled.getAvailableSeats());
+        assertTrue(cancelled.getTickets().isEmpty());
+        assertEquals(120, nearest.getAvailableSeats());
+    }
+    
+    @Test
+    void testRefundedAmountCountsOnlyTicketsActuallyRefunded() throws Exception {
+        cinemaService.buyTickets(cancelled, 10);
+        cancelled.setTicketPrice(300.0);
+        cinemaService.buyTickets(cancelled, 10);
+        
+        // The expensive tickets are refunded elsewhere while the job is deciding.
+        RebookingDecider refundedElsewhere = (ticket, alternatives) -> {
+            if (ticket.getPrice() == 300.0) {
+                synchronized (cinemaService) {
+                    ticket.getSession().removeTicket(ticket);
+                }
+            }
+            return null;
+        };
+        CancellationJob job = cancellationService.cancel(cancelled.getId(), refundedElsewhere);
+        job.getCompletion().get(10, TimeUnit.SECONDS);
+        
+        assertEquals(10, job.getRefunded());
+        assertEquals(10, job.getFailed());
+        assertEquals(1000.0, job.getRefundedAmount(), 0.001);
+    }
+    
+    @Test
+    void testListenersSeeMovesAndRefunds() throws Exception {
+        cinemaService.buyTickets(cancelled, 130);
+        ConcurrentLinkedQueue<String> events = new ConcurrentLinkedQueue<>();
+        cinemaService.addChangeListener(new CinemaChangeListener() {
+            @Override
+            public void ticketMoved(Session from, Ticket oldTicket, Session to, Ticket newTicket) {
+                events.add("moved");
+            }
+            
+            @Override
+            public void ticketRemoved(Session session, Ticket ticket) {
+                events.add("refunded");
+            }
+        });
+        
+        RebookingDecider onlyNearest = (ticket, alternatives) -> nearest;
+        CancellationJob job = cancellationService.cancel(cancelled.getId(), onlyNearest);
+        job.getCompletion().get(10, TimeUnit.SECONDS);
+        
+        assertEquals(120, job.getRebooked());
+        assertEquals(10, job.getRefunded());
+        assertEquals(120, events.stream().filter("moved"::equals).count());
+        assertEquals(10, events.stream().filter("refunded"::equals).count());
+    }
+    
+    @Test
+    void testOnlyTicketsThatDidNotFitAreRetried() throws Exception {
+        List<Ticket> sold = cinemaService.buyTickets(cancelled, 130);
+        Set<String> goneIds = sold.subList(0, 5).stream().map(Ticket::getId).collect(Collectors.toSet());
+        
+        // The first five tickets are refunded elsewhere before the single batch rebooks.
+        RebookingDecider nearestAfterRefunds = (ticket, alternatives) -> {
+            if (goneIds.contains(ticket.getId())) {
+                synchronized (cinemaService) {
+                    ticket.getSession().removeTicket(ticket);
+                }
+            }
+            return nearest;
+        };
+        try (SessionCancellationService singleBatch = new SessionCancellationService(cinemaService, 1, 500)) {
+            CancellationJob job = singleBatch.cancel(cancelled.getId(), nearestAfterRefunds);
+            job.getCompletion().get(10, TimeUnit.SECONDS);
+            
+            assertEquals(120, job.getRebooked());
+            assertEquals(0, nearest.getAvailableSeats());
+            assertEquals(5, job.getRefunded());
+            assertEquals(5, job.getFailed());
+            assertEquals(130, job.getProcessed());
+        }
+    }
+    
+    @Test
+    void testSessionWithoutTicketsCompletesImmediately() throws Exception {
+        CancellationJob job = cancellationService.cancel(later.getId(), RebookingDecider.nearestShowtime());
+        
+        assertSame(job, job.getCompletion().get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, job.getProgress(), 0.0);
+        assertFalse(cinemaService.findSessionById(later.getId()).isPresent());
+    }
+    
+    @Test
+    void testCancellingUnknownSessionThrows() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> cancellationService.cancel("missing", RebookingDecider.refundAll()));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new SessionCancellationService(cinemaService, 0));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.PriceCurve;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatisticsCacheTest {
+    private CinemaService cinemaService;
+    private Session first;
+    private Session second;
+    private StatisticsCache statisticsCache;
+    
+    @BeforeEach
+    void setUp() {
+        Cinema cinema = new Cinema("Stats Cinema", "123 Stats St", 2);
+        first = new Session("Movie A", LocalDateTime.now().plusDays(1), 100, 100.0);
+        second = new Session("Movie B", LocalDateTime.now().plusDays(2), 50, 80.0);
+        cinema.addSession(first);
+        cinema.addSession(second);
+        cinemaService = new CinemaService(cinema);
+        statisticsCache = new StatisticsCache(cinemaService);
+    }
+    
+    @Test
+    void testInitialStatisticsMatchCinema() {
+        cinemaService.buyTickets(first, 3);
+        
+        List<SessionStatistics> statistics = statisticsCache.getSessionStatistics();
+        assertEquals(2, statistics.size());
+        assertEquals(first.getId(), statistics.get(0).getSessionId());
+        assertEquals(3, statistics.get(0).getSoldTickets());
+        assertEquals(300.0, statistics.get(0).getRevenue());
+        assertEquals(cinemaService.calculateTotalRevenue(), statisticsCache.getTotalRevenue());
+        assertEquals(3, statisticsCache.getSoldTickets());
+    }
+    
+    @Test
+    void testTotalsReadsLeaveListViewsToTheirGetters() {
+        List<SessionStatistics> before = statisticsCache.getSessionStatistics();
+        List<MovieStatistics> moviesBefore = statisticsCache.getMovieStatistics();
+        cinemaService.buyTickets(second, 2);
+        
+        assertEquals(160.0, statisticsCache.getTotalRevenue());
+        assertEquals(2, statisticsCache.getSoldTickets());
+        
+        List<SessionStatistics> after = statisticsCache.getSessionStatistics();
+        assertNotSame(before, after);
+        assertEquals(2, after.get(1).getSoldTickets());
+        assertNotSame(moviesBefore, statisticsCache.getMovieStatistics());
+        assertEquals(2, statisticsCache.getMovieStatistics().get(1).getSoldTickets());
+    }
+    
+    @Test
+    void testRevenueFollowsTicketPricesNotBasePrice() {
+        first.setPriceCurve(new PriceCurve(100.0, first.getDateTime(), new long[] {},
+                                           new double[][] {{60.0, 140.0}}));
+        List<Ticket> sold = cinemaService.buyTickets(first, 60);
+        cinemaService.updateTicketSession(sold.get(59).getId(), second.getId());
+        cinemaService.updateSession(first.getId(), "Movie A", first.getDateTime(), 100, 110.0);
+        
+        double paid = 0;
+        for (Ticket ticket : sold) {
+            paid += ticket.getPrice();
+        }
+        assertEquals(50 * 60.0 + 10 * 140.0, paid, 0.001);
+        assertEquals(paid, statisticsCache.getTotalRevenue(), 0.001);
+        assertEquals(paid, cinemaService.calculateTotalRevenue(), 0.001);
+        assertEquals(140.0, statisticsCache.getSessionStatistics().get(1).getRevenue(), 0.001);
+    }
+    
+    @Test
+    void testCleanReadsDoNotRecompute() {
+        statisticsCache.getSessionStatistics();
+        long recomputations = statisticsCache.getRecomputations();
+        List<SessionStatistics> statistics = statisticsCache.getSessionStatistics();
+        
+        assertSame(statistics, statisticsCache.getSessionStatistics());
+        assertEquals(recomputations, statisticsCache.getRecomputations());
+        
+        cinemaService.buyTickets(second, 2);
+        statisticsCache.getSessionStatistics();
+        assertEquals(recomputations + 1, statisticsCache.getRecomputations());
+    }
+    
+    @Test
+    void testRefundsMovesAndUpdatesInvalidateEntries() {
+        List<Ticket> tickets = cinemaService.buyTickets(first, 4);
+        cinemaService.deleteTicket(tickets.get(0).getId());
+        cinemaService.updateTicketSession(tickets.get(1).getId(), second.getId());
+        cinemaService.updateSession(second.getId(), "Movie A", second.getDateTime(), 50, 90.0);
+        
+        List<MovieStatistics> movies = statisticsCache.getMovieStatistics();
+        assertEquals(1, movies.size());
+        assertEquals("Movie A", movies.get(0).getMovieTitle());
+        assertEquals(2, movies.get(0).getSessionCount());
+        assertEquals(3, movies.get(0).getSoldTickets());
+        assertEquals(150, movies.get(0).getTotalSeats());
+        assertEquals(cinemaService.calculateTotalRevenue(), statisticsCache.getTotalRevenue(), 1e-9);
+    }
+    
+    @Test
+    void testSessionAddRemoveAndCinemaReplacement() {
+        Session third = new Session("Movie C", LocalDateTime.now().plusDays(3), 20, 50.0);
+        cinemaService.addSession(third);
+        cinemaService.buyTickets(third, 5);
+        assertEquals(3, statisticsCache.getSessionStatistics().size());
+        assertEquals(250.0, statisticsCache.getTotalRevenue());
+        
+        cinemaService.removeSession(third);
+        assertEquals(2, statisticsCache.getSessionStatistics().size());
+        assertEquals(0.0, statisticsCache.getTotalRevenue());
+        
+        Cinema replacement = new Cinema("Other", "456 Other St", 1);
+        cinemaService.setCinema(replacement);
+        assertTrue(statisticsCache.getSessionStatistics().isEmpty());
+        assertTrue(statisticsCache.getMovieStatistics().isEmpty());
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.service;
+
+import com.example.model.Cinema;
+import com.example.model.Session;
+import com.example.model.Ticket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WaitlistServiceTest {
+    private CinemaService cinemaService;
+    private Session session;
+    private WaitlistService waitlistService;
+    
+    @BeforeEach
+    void setUp() {
+        Cinema cinema = new Cinema("Waitlist Cinema", "1 Queue St", 1);
+        session = new Session("Premiere", LocalDateTime.now().plusDays(1), 4, 100.0);
+        cinema.addSession(session);
+        cinemaService = new CinemaService(cinema);
+        waitlistService = new WaitlistService(cinemaService, 2);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        waitlistService.close();
+    }
+    
+    @Test
+    void testRefundedSeatsGoToWaitingRequestsInOrder() throws Exception {
+        List<Ticket> sold = cinemaService.buyTickets(session, 4);
+        BlockingQueue<WaitlistRequest> fulfilled = new LinkedBlockingQueue<>();
+        WaitlistCallback callback = (request, tickets) -> {
+            assertEquals(request.getTickets(), tickets.size());
+            fulfilled.add(request);
+        };
+        
+        assertFalse(waitlistService.buyOrWait(session, 1, callback).isPresent());
+        WaitlistRequest second = waitlistService.join(session, 2, callback);
+        assertEquals(2, waitlistService.getWaitingCount(session.getId()));
+        
+        cinemaService.deleteTicket(sold.get(0).getId());
+        WaitlistRequest first = fulfilled.poll(5, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertEquals(1, first.getTickets());
+        assertEquals(0, session.getAvailableSeats());
+        
+        cinemaService.deleteTicket(sold.get(1).getId());
+        assertNull(fulfilled.poll(200, TimeUnit.MILLISECONDS));
+        cinemaService.deleteTicket(sold.get(2).getId());
+        assertSame(second, fulfilled.poll(5, TimeUnit.SECONDS));
+        assertTrue(second.isFulfilled());
+        assertEquals(0, waitlistService.getWaitingCount(session.getId()));
+        assertEquals(2, waitlistService.getFulfilledRequests());
+    }
+    
+    @Test
+    void testBuyOrWaitBuysWhenSeatsAreFree() {
+        Optional<List<Ticket>> tickets = waitlistService.buyOrWait(session, 3, (request, bought) -> fail("not queued"));
+        
+        assertTrue(tickets.isPresent());
+        assertEquals(3, tickets.get().size());
+        assertEquals(0, waitlistService.getWaitingCount(session.getId()));
+    }
+    
+    @Test
+    void testCancelledRequestsAreSkipped() throws Exception {
+        List<Ticket> sold = cinemaService.buyTickets(session, 4);
+        BlockingQueue<WaitlistRequest> fulfilled = new LinkedBlockingQueue<>();
+        
+        WaitlistRequest cancelled = waitlistService.join(session, 1, (request, tickets) -> fulfilled.add(request));
+        WaitlistRequest waiting = waitlistService.join(session, 1, (request, tickets) -> fulfilled.add(request));
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        
+        cinemaService.deleteTicket(sold.get(0).getId());
+        assertSame(waiting, fulfilled.poll(5, TimeUnit.SECONDS));
+        assertEquals(1, waitlistService.getCancelledRequests());
+    }
+    
+    @Test
+    void testRemovingSessionCancelsWaitlist() throws Exception {
+        cinemaService.buyTickets(session, 4);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        Map<Long, String> reasons = new ConcurrentHashMap<>();
+        WaitlistRequest request = waitlistService.join(session, 1, new WaitlistCallback() {
+            @Override
+            public void fulfilled(WaitlistRequest request, List<Ticket> tickets) {
+                fail("session was removed");
+            }
+            
+            @Override
+            public void cancelled(WaitlistRequest request, String reason) {
+                reasons.put(request.getId(), reason);
+                cancelled.countDown();
+            }
+        });
+        
+        cinemaService.removeSession(session);
+        
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertTrue(request.isCancelled());
+        assertEquals("Session was removed", reasons.get(request.getId()));
+    }
+    
+    @Test
+    void testThrowingCallbackDoesNotSilenceRestOfBatch() throws Exception {
+        List<Ticket> sold = cinemaService.buyTickets(session, 4);
+        BlockingQueue<WaitlistRequest> fulfilled = new LinkedBlockingQueue<>();
+        waitlistService.join(session, 1, (request, tickets) -> {
+            throw new IllegalStateException("Subscriber is down");
+        });
+        WaitlistRequest second = waitlistService.join(session, 1, (request, tickets) -> fulfilled.add(request));
+        
+        cinemaService.refundTickets(session, sold.subList(0, 2));
+        assertSame(second, fulfilled.poll(5, TimeUnit.SECONDS));
+        assertEquals(2, waitlistService.getFulfilledRequests());
+        assertEquals(1, waitlistService.getFailedCallbacks());
+    }
+    
+    @Test
+    void testFailedPurchaseCancelsOnlyItsRequest() throws Exception {
+        List<Ticket> sold = cinemaService.buyTickets(session, 4);
+        AtomicInteger sales = new AtomicInteger();
+        cinemaService.addChangeListener(new CinemaChangeListener() {
+            @Override
+            public void ticketsSold(Session session, List<Ticket> tickets) {
+                if (sales.incrementAndGet() == 2) {
+                    throw new StorageException("Disk is full", null);
+                }
+            }
+        });
+        BlockingQueue<WaitlistRequest> fulfilled = new LinkedBlockingQueue<>();
+        BlockingQueue<String> reasons = new LinkedBlockingQueue<>();
+        WaitlistCallback callback = new WaitlistCallback() {
+            @Override
+            public void fulfilled(WaitlistRequest request, List<Ticket> tickets) {
+                fulfilled.add(request);
+            }
+            
+            @Override
+            public void cancelled(WaitlistRequest request, String reason) {
+                reasons.add(request.getId() + ": " + reason);
+            }
+        };
+        WaitlistRequest first = waitlistService.join(session, 1, callback);
+        WaitlistRequest second = waitlistService.join(session, 1, callback);
+        WaitlistRequest third = waitlistService.join(session, 1, callback);
+        
+        cinemaService.refundTickets(session, sold.subList(0, 3));
+        assertSame(first, fulfilled.poll(5, TimeUnit.SECONDS));
+        assertSame(third, fulfilled.poll(5, TimeUnit.SECONDS));
+        assertEquals(second.getId() + ": Purchase failed: Disk is full", reasons.poll(5, TimeUnit.SECONDS));
+        assertTrue(second.isCancelled());
+        assertEquals(0, waitlistService.getWaitingCount(session.getId()));
+    }
+    
+    @Test
+    void testLargeWaitlistIsFulfilledInBatches() throws Exception {
+        Session premiere = new Session("Big Premiere", LocalDateTime.now().plusDays(1), 1_000, 100.0);
+        cinemaService.addSession(premiere);
+        List<Ticket> sold = cinemaService.buyTickets(premiere, 1_000);
+        CountDownLatch done = new CountDownLatch(500);
+        for (int i = 0; i < 500; i++) {
+            waitlistService.join(premiere, 1, (request, tickets) -> done.countDown());
+        }
+        
+        for (int i = 0; i < 500; i++) {
+            cinemaService.deleteTicket(sold.get(i).getId());
+        }
+        
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, premiere.getAvailableSeats());
+        assertEquals(0, waitlistService.getWaitingCount(premiere.getId()));
+    }
+}
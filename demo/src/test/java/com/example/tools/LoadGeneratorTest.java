@@ -0,0 +1,47 @@
+package com.example.tools;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadGeneratorTest {
+    
+    @Test
+    void testRunReportsEveryOperation() throws Exception {
+        LoadGenerator generator = new LoadGenerator(50, 100, 3, 500, 1.1, new int[] {40, 10, 10, 20, 20}, 7);
+        
+        LoadReport report = generator.run();
+        
+        assertEquals(1_500, report.getTotalOperations());
+        assertEquals(LoadGenerator.OPERATIONS.length, report.getOperations().size());
+        assertTrue(report.getThroughput() > 0);
+        for (LoadReport.OperationStats stats : report.getOperations().values()) {
+            assertTrue(stats.getPercentileNanos(50) <= stats.getPercentileNanos(99));
+            assertTrue(stats.getPercentileNanos(99) <= stats.getMaxNanos());
+        }
+        assertTrue(report.getOperations().get("buyTickets").getCount() > 0);
+    }
+    
+    @Test
+    void testZipfSamplingFavoursHotSessions() {
+        double[] popularity = LoadGenerator.zipfDistribution(100, 1.2);
+        
+        assertEquals(1.0, popularity[99], 1e-9);
+        assertEquals(0, LoadGenerator.sample(popularity, 0.0));
+        assertEquals(99, LoadGenerator.sample(popularity, 1.0));
+        assertTrue(popularity[0] > 0.1);
+        
+        double[] uniform = LoadGenerator.zipfDistribution(4, 0);
+        assertEquals(1, LoadGenerator.sample(uniform, 0.3));
+    }
+    
+    @Test
+    void testInvalidConfigurationIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LoadGenerator(0, 100, 1, 10, 1.0, new int[] {1, 1, 1, 1, 1}, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LoadGenerator(10, 100, 1, 10, 1.0, new int[] {1, 1}, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LoadGenerator(10, 100, 1, 10, 1.0, new int[] {0, 0, 0, 0, 0}, 1));
+    }
+}